@@ -26,10 +26,12 @@ repositories {
 dependencies {
 	runtimeOnly("org.xerial:sqlite-jdbc")
 	implementation("org.hibernate.orm:hibernate-community-dialects")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-webmvc")
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:3.0.1")
+	implementation("com.github.ben-manes.caffeine:caffeine")
 	testImplementation("org.springframework.boot:spring-boot-starter-data-jpa-test")
 	testImplementation("org.springframework.boot:spring-boot-starter-validation-test")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -47,6 +49,23 @@ tasks.jacocoTestReport {
 	}
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Performans olcumleri normal test kosusunu yavaslatmasin diye ayri bir task'ta calisir: ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmark-tagged tests and prints their measurements."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+	outputs.upToDateWhen { false }
 }
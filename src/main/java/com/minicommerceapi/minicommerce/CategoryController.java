@@ -2,10 +2,12 @@ package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.CategoryDtos;
 import com.minicommerceapi.minicommerce.service.CategoryService;
+import com.minicommerceapi.minicommerce.util.EntityTag;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -26,15 +28,21 @@ public class CategoryController {
         return ResponseEntity.created(URI.create("/api/categories/" + created.id())).body(created);
     }
 
-    @Operation(summary = "List categories")
+    @Operation(summary = "List categories (ETag; 304 on a matching If-None-Match)")
     @GetMapping
-    public List<CategoryDtos.CategoryResponse> list() {
+    public List<CategoryDtos.CategoryResponse> list(WebRequest request) {
+        if (EntityTag.notModified(categoryService.listTag(), request)) {
+            return null;
+        }
         return categoryService.list();
     }
 
-    @Operation(summary = "Get category by id")
+    @Operation(summary = "Get category by id (ETag / Last-Modified; 304 on a matching If-None-Match or If-Modified-Since)")
     @GetMapping("/{id}")
-    public CategoryDtos.CategoryResponse get(@PathVariable Long id) {
+    public CategoryDtos.CategoryResponse get(@PathVariable Long id, WebRequest request) {
+        if (EntityTag.notModified(categoryService.tag(id), request)) {
+            return null;
+        }
         return categoryService.get(id);
     }
 
@@ -1,35 +1,144 @@
 package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.service.IdempotencyService;
+import com.minicommerceapi.minicommerce.service.OrderBatchService;
 import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final IdempotencyService idempotencyService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderBatchService orderBatchService,
+                           IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.orderBatchService = orderBatchService;
+        this.idempotencyService = idempotencyService;
     }
 
-    @Operation(summary = "Create an order (decreases product stock)")
+    @Operation(summary = "Create an order (decreases product stock). With an Idempotency-Key header a retry returns the original order")
     @PostMapping
-    public ResponseEntity<OrderDtos.OrderResponse> create(@Valid @RequestBody OrderDtos.CreateOrderRequest req) {
-        OrderDtos.OrderResponse created = orderService.create(req);
-        return ResponseEntity.created(URI.create("/api/orders/" + created.id())).body(created);
+    public ResponseEntity<OrderDtos.OrderResponse> create(
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDtos.CreateOrderRequest req) {
+        if (idempotencyKey == null) {
+            OrderDtos.OrderResponse created = orderService.create(req);
+            return ResponseEntity.created(URI.create("/api/orders/" + created.id())).body(created);
+        }
+        IdempotencyService.Outcome outcome = idempotencyService.createOrder(idempotencyKey, req);
+        ResponseEntity.BodyBuilder response = ResponseEntity.created(URI.create("/api/orders/" + outcome.order().id()));
+        if (outcome.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.order());
+    }
+
+    @Operation(summary = "Create many orders in chunked transactions (per-order results; failed orders do not affect others)")
+    @PostMapping("/batch")
+    public OrderDtos.BatchOrderResponse createBatch(@Valid @RequestBody OrderDtos.BatchCreateOrderRequest req) {
+        return orderBatchService.create(req.orders());
     }
 
-    @Operation(summary = "List orders")
+    @Operation(summary = "List orders (newest first, keyset paginated; next page cursor in the X-Next-Cursor header)")
     @GetMapping
-    public List<OrderDtos.OrderResponse> list() {
-        return orderService.list();
+    public ResponseEntity<List<OrderDtos.OrderResponse>> list(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int limit) {
+        OrderDtos.OrderPage page = orderService.list(
+                new OrderDtos.OrderFilter(userId, status, createdFrom, createdTo, minTotal), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @Operation(summary = "Export orders with items as NDJSON (streamed; gzip with Accept-Encoding: gzip)")
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(@RequestParam(required = false) Instant createdFrom,
+                       @RequestParam(required = false) Instant createdTo,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        // Yanit govdesine dokunulmadan once: aksi halde 200 commit edilir ve 400 istemciye ulasmaz.
+        orderService.checkExportRange(createdFrom, createdTo);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream out = response.getOutputStream();
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            // syncFlush: her parca flush edildiginde istemciye ulassin
+            out = new GZIPOutputStream(out, 8192, true);
+        }
+        orderService.export(createdFrom, createdTo, out);
+        // Sadece basarili yolda kapatilir (gzip trailer'i yazilir); hata yolunda akis konteynere birakilir.
+        out.close();
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: {@code gzip} (or {@code x-gzip}) listed with a non-zero quality,
+     * or not listed and {@code *} accepted. {@code q=0} is an explicit refusal.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            // Locale.ROOT: Turkce yerel ayarda "GZIP".toLowerCase() "gzıp" olur
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality(parts);
+            } else if (name.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0;
+        return q > 0;
+    }
+
+    // Gecersiz q degeri reddetme sayilir: sikistirmasiz yanit her istemcide calisir.
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 
     @Operation(summary = "Get order by id")
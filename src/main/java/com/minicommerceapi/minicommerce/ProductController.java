@@ -1,22 +1,59 @@
 package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.service.ProductBulkUpdateService;
+import com.minicommerceapi.minicommerce.service.ProductCache;
+import com.minicommerceapi.minicommerce.service.ProductFacets;
+import com.minicommerceapi.minicommerce.service.ProductImportService;
+import com.minicommerceapi.minicommerce.service.ProductRatingService;
 import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.service.leaderboard.ProductLeaderboards;
+import com.minicommerceapi.minicommerce.service.search.ProductSearchService;
+import com.minicommerceapi.minicommerce.util.EntityTag;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductCache productCache;
+    private final ProductSearchService productSearchService;
+    private final ProductImportService productImportService;
+    private final ProductFacets productFacets;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final ProductRatingService productRatingService;
+    private final ProductLeaderboards productLeaderboards;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCache productCache, ProductSearchService productSearchService,
+                             ProductImportService productImportService, ProductFacets productFacets,
+                             ProductBulkUpdateService productBulkUpdateService, ProductRatingService productRatingService,
+                             ProductLeaderboards productLeaderboards) {
         this.productService = productService;
+        this.productCache = productCache;
+        this.productSearchService = productSearchService;
+        this.productImportService = productImportService;
+        this.productFacets = productFacets;
+        this.productBulkUpdateService = productBulkUpdateService;
+        this.productRatingService = productRatingService;
+        this.productLeaderboards = productLeaderboards;
     }
 
     @Operation(summary = "Create a product")
@@ -26,16 +63,99 @@ public class ProductController {
         return ResponseEntity.created(URI.create("/api/products/" + created.id())).body(created);
     }
 
-    @Operation(summary = "List products (optional filter by categoryId)")
+    @Operation(summary = "Import products from a CSV (header: name,sku,price,stock,categoryId) or NDJSON body; "
+            + "streams rejected rows and a final summary back as NDJSON")
+    @PostMapping(value = "/import", consumes = {CSV, NDJSON}, produces = NDJSON)
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        productImportService.importProducts(format, request.getInputStream(), response.getOutputStream());
+    }
+
+    @Operation(summary = "List products (optional filters: categoryId, minPrice/maxPrice inclusive; sort by id, price, name or createdAt; "
+            + "keyset paginated, next page cursor in the X-Next-Cursor header; ETag, 304 on a matching If-None-Match)")
     @GetMapping
-    public List<ProductDtos.ProductResponse> list(@RequestParam(required = false) Long categoryId) {
-        return productService.list(categoryId);
+    public ResponseEntity<List<ProductDtos.ProductResponse>> list(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = ProductService.DEFAULT_SORT) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            WebRequest webRequest) {
+        ProductDtos.ProductPageRequest request = new ProductDtos.ProductPageRequest(categoryId, sort, direction, cursor, limit,
+                minPrice, maxPrice);
+        // Dogrulayicilar sayfayla birlikte onbellekte durur; veritabani sadece onbellek kaciginda okunur.
+        EntityTag.Tagged<ProductDtos.ProductPage> tagged = productCache.list(request, () -> productService.listTagged(request));
+        if (EntityTag.notModified(tagged.tag(), webRequest)) {
+            return null;
+        }
+        ProductDtos.ProductPage page = tagged.body();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @Operation(summary = "Search products by name and SKU (ranked; prefix=true for autocomplete, fuzzy=true tolerates typos)")
+    @GetMapping("/search")
+    public List<ProductDtos.ProductResponse> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "" + ProductSearchService.DEFAULT_LIMIT) int limit) {
+        return productSearchService.search(q, prefix, fuzzy, limit);
+    }
+
+    @Operation(summary = "Facet counts: products and in-stock products per category, products per price bucket "
+            + "(optionally within one category)")
+    @GetMapping("/facets")
+    public ProductDtos.FacetsResponse facets(@RequestParam(required = false) Long categoryId) {
+        return productFacets.facets(categoryId);
     }
 
-    @Operation(summary = "Get product by id")
+    @Operation(summary = "Top rated products by Bayesian average rating (optionally within one category)")
+    @GetMapping("/top-rated")
+    public List<ProductDtos.LeaderboardEntry> topRated(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "" + ProductLeaderboards.DEFAULT_LIMIT) int limit) {
+        return productLeaderboards.topRated(categoryId, limit);
+    }
+
+    @Operation(summary = "Best selling products by units ordered over the last 7 days (optionally within one category)")
+    @GetMapping("/best-sellers")
+    public List<ProductDtos.LeaderboardEntry> bestSellers(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "" + ProductLeaderboards.DEFAULT_LIMIT) int limit) {
+        return productLeaderboards.bestSellers(categoryId, limit);
+    }
+
+    @Operation(summary = "Get product by id (ETag / Last-Modified; 304 on a matching If-None-Match or If-Modified-Since)")
     @GetMapping("/{id}")
-    public ProductDtos.ProductResponse get(@PathVariable Long id) {
-        return productService.get(id);
+    public ProductDtos.ProductResponse get(@PathVariable Long id, WebRequest request) {
+        EntityTag.Tagged<ProductDtos.ProductResponse> tagged = productCache.get(id, () -> productService.getTagged(id));
+        if (EntityTag.notModified(tagged.tag(), request)) {
+            return null;
+        }
+        return tagged.body();
+    }
+
+    @Operation(summary = "Rating of a product: review count, average and reviews per star (precomputed)")
+    @GetMapping("/{id}/rating")
+    public ReviewDtos.RatingResponse rating(@PathVariable Long id) {
+        return productRatingService.get(id);
+    }
+
+    @Operation(summary = "Set price and/or stock of up to 500,000 products by id or SKU in chunked set-based UPDATEs "
+            + "(per-item results; unknown or invalid items do not affect others)")
+    @PatchMapping("/bulk")
+    public ProductDtos.BulkUpdateResponse bulkUpdate(@Valid @RequestBody ProductDtos.BulkUpdateRequest req) {
+        return productBulkUpdateService.update(req.items());
     }
 
     @Operation(summary = "Patch product")
@@ -2,6 +2,7 @@ package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
 import com.minicommerceapi.minicommerce.service.ReviewService;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -19,17 +20,41 @@ public class ReviewController {
         this.reviewService = reviewService;
     }
 
-    @Operation(summary = "Create a review")
+    @Operation(summary = "Create a review (201; in write-behind mode 202 with a provisional id, "
+            + "503 with Retry-After while the queue is full)")
     @PostMapping
-    public ResponseEntity<ReviewDtos.ReviewResponse> create(@Valid @RequestBody ReviewDtos.CreateReviewRequest req) {
+    public ResponseEntity<?> create(@Valid @RequestBody ReviewDtos.CreateReviewRequest req) {
+        if (reviewService.writesBehind()) {
+            ReviewDtos.ReviewAccepted accepted = reviewService.submit(req);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reviews/pending/" + accepted.provisionalId()))
+                    .body(accepted);
+        }
         ReviewDtos.ReviewResponse created = reviewService.create(req);
         return ResponseEntity.created(URI.create("/api/reviews/" + created.id())).body(created);
     }
 
-    @Operation(summary = "List reviews (optional filter by productId)")
+    @Operation(summary = "Status of a review accepted in write-behind mode (QUEUED, WRITTEN with its id, or FAILED)")
+    @GetMapping("/pending/{provisionalId}")
+    public ReviewDtos.PendingReview pending(@PathVariable String provisionalId) {
+        return reviewService.pending(provisionalId);
+    }
+
+    @Operation(summary = "List reviews (optional filter by productId; sort by createdAt or rating, newest/highest first "
+            + "by default; keyset paginated, next page cursor in the X-Next-Cursor header)")
     @GetMapping
-    public List<ReviewDtos.ReviewResponse> list(@RequestParam(required = false) Long productId) {
-        return reviewService.list(productId);
+    public ResponseEntity<List<ReviewDtos.ReviewResponse>> list(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = ReviewService.DEFAULT_SORT) String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ReviewService.DEFAULT_PAGE_SIZE) int limit) {
+        ReviewDtos.ReviewPage page = reviewService.list(new ReviewDtos.ReviewPageRequest(productId, sort, direction, cursor, limit));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @Operation(summary = "Get review by id")
@@ -2,10 +2,12 @@ package com.minicommerceapi.minicommerce;
 
 import com.minicommerceapi.minicommerce.dto.UserDtos;
 import com.minicommerceapi.minicommerce.service.UserService;
+import com.minicommerceapi.minicommerce.util.EntityTag;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -26,15 +28,21 @@ public class UserController {
         return ResponseEntity.created(URI.create("/api/users/" + created.id())).body(created);
     }
 
-    @Operation(summary = "List users")
+    @Operation(summary = "List users (ETag; 304 on a matching If-None-Match)")
     @GetMapping
-    public List<UserDtos.UserResponse> list() {
+    public List<UserDtos.UserResponse> list(WebRequest request) {
+        if (EntityTag.notModified(userService.listTag(), request)) {
+            return null;
+        }
         return userService.list();
     }
 
-    @Operation(summary = "Get a user by id")
+    @Operation(summary = "Get a user by id (ETag / Last-Modified; 304 on a matching If-None-Match or If-Modified-Since)")
     @GetMapping("/{id}")
-    public UserDtos.UserResponse get(@PathVariable Long id) {
+    public UserDtos.UserResponse get(@PathVariable Long id, WebRequest request) {
+        if (EntityTag.notModified(userService.tag(id), request)) {
+            return null;
+        }
         return userService.get(id);
     }
 
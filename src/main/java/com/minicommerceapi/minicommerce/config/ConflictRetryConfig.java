@@ -0,0 +1,52 @@
+package com.minicommerceapi.minicommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.time.Duration;
+
+/**
+ * Bounded, jittered retry for {@link RetryOnConflict} methods.
+ * The advisor is placed in front of the transaction advisor so every attempt gets its own transaction.
+ */
+@Configuration
+public class ConflictRetryConfig {
+
+    @Bean
+    public static ConflictRetryPostProcessor conflictRetryPostProcessor(
+            @Value("${minicommerce.retry.max-retries:4}") long maxRetries,
+            @Value("${minicommerce.retry.delay-ms:20}") long delayMs,
+            @Value("${minicommerce.retry.jitter-ms:15}") long jitterMs,
+            @Value("${minicommerce.retry.max-delay-ms:250}") long maxDelayMs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+
+        RetryPolicy policy = RetryPolicy.builder()
+                .includes(ConcurrencyFailureException.class)
+                .maxRetries(maxRetries)
+                .delay(Duration.ofMillis(delayMs))
+                .jitter(Duration.ofMillis(jitterMs))
+                .multiplier(2.0)
+                .maxDelay(Duration.ofMillis(maxDelayMs))
+                .build();
+
+        return new ConflictRetryPostProcessor(new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, RetryOnConflict.class, true),
+                new ConflictRetryInterceptor(policy, meterRegistry)));
+    }
+
+    static class ConflictRetryPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+        ConflictRetryPostProcessor(Advisor advisor) {
+            this.advisor = advisor;
+            setBeforeExistingAdvisors(true);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.Retryable;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs {@link RetryOnConflict} methods through a {@link RetryTemplate} and records
+ * {@code minicommerce.conflict.retries} / {@code minicommerce.conflict.exhausted} per operation.
+ * When retries run out the caller gets a {@link ConflictException} (409).
+ */
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+    static final String RETRIES_METRIC = "minicommerce.conflict.retries";
+    static final String EXHAUSTED_METRIC = "minicommerce.conflict.exhausted";
+
+    private final RetryPolicy retryPolicy;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConflictRetryInterceptor(RetryPolicy retryPolicy, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.retryPolicy = retryPolicy;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Disarida zaten bir transaction varsa tekrar denemenin anlami yok: ayni (rollback-only) transaction'a katiliriz.
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+        RetryOnConflict annotation = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), RetryOnConflict.class);
+        String operation = annotation != null ? annotation.value() : invocation.getMethod().getName();
+
+        RetryTemplate template = new RetryTemplate(retryPolicy);
+        template.setRetryListener(new MetricsListener(operation));
+        try {
+            return template.execute(new Retryable<>() {
+                @Override
+                public Object execute() throws Throwable {
+                    return proxyInvocation.invocableClone().proceed();
+                }
+
+                @Override
+                public String getName() {
+                    return operation;
+                }
+            });
+        } catch (RetryException ex) {
+            Throwable last = ex.getCause();
+            if (last instanceof ConcurrencyFailureException) {
+                throw new ConflictException("Concurrent update detected, please retry");
+            }
+            throw last;
+        }
+    }
+
+    private class MetricsListener implements RetryListener {
+        private final String operation;
+
+        MetricsListener(String operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void beforeRetry(RetryPolicy policy, Retryable<?> retryable) {
+            increment(RETRIES_METRIC);
+        }
+
+        @Override
+        public void onRetryPolicyExhaustion(RetryPolicy policy, Retryable<?> retryable, RetryException exception) {
+            // Retry edilmeyen hatalar (NotFound vb.) da buraya duser; sadece gercek cakismalari sayiyoruz.
+            if (exception.getCause() instanceof ConcurrencyFailureException) {
+                increment(EXHAUSTED_METRIC);
+            }
+        }
+
+        private void increment(String metric) {
+            meterRegistry.ifAvailable(registry -> registry.counter(metric, "operation", operation).increment());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.minicommerceapi.minicommerce.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries a transactional service method when it loses a concurrent update
+ * (optimistic version conflict or SQLite "database is locked").
+ * Every attempt runs in a fresh transaction, so the method re-reads current state.
+ * See {@link ConflictRetryConfig} for the policy and the exported metrics.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    /**
+     * Operation name used as the {@code operation} tag on retry metrics, e.g. "order.create".
+     */
+    String value();
+}
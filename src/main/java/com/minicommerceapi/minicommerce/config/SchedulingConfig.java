@@ -0,0 +1,13 @@
+package com.minicommerceapi.minicommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. the stock ledger flusher). The jobs share a pool sized by
+ * {@code spring.task.scheduling.pool.size}, so a long facet reconcile does not hold up the ledger flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
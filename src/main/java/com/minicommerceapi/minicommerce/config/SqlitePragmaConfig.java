@@ -0,0 +1,69 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+
+/**
+ * Applies the selected {@link SqliteProfile} to the connection pool, so every pooled SQLite connection opens with
+ * the same PRAGMAs. Single settings can be overridden on top of the profile with
+ * {@code minicommerce.sqlite.pragma.<name>} (journal-mode, synchronous, cache-size, mmap-size, temp-store,
+ * busy-timeout-ms, wal-autocheckpoint). Non-SQLite data sources are left alone.
+ */
+@Configuration
+public class SqlitePragmaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlitePragmaConfig.class);
+
+    static final String PREFIX = "minicommerce.sqlite.pragma.";
+
+    @Bean
+    public static BeanPostProcessor sqlitePragmaPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Hikari havuzu ilk getConnection'da kurulur; ayarlar ondan once verilmis olur.
+                if (bean instanceof HikariDataSource dataSource && isSqlite(dataSource)) {
+                    SqliteProfile profile = SqliteProfile.of(environment.getProperty("minicommerce.sqlite.profile", "balanced"));
+                    SqlitePragmas pragmas = resolve(profile, environment);
+                    apply(dataSource, pragmas);
+                    log.info("SQLite profile {}: {}", profile.name().toLowerCase(Locale.ROOT), pragmas);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static SqlitePragmas resolve(SqliteProfile profile, Environment environment) {
+        SqlitePragmas p = profile.pragmas();
+        return new SqlitePragmas(
+                environment.getProperty(PREFIX + "journal-mode", p.journalMode()),
+                environment.getProperty(PREFIX + "synchronous", p.synchronous()),
+                environment.getProperty(PREFIX + "cache-size", Integer.class, p.cacheSize()),
+                environment.getProperty(PREFIX + "mmap-size", Long.class, p.mmapSize()),
+                environment.getProperty(PREFIX + "temp-store", p.tempStore()),
+                environment.getProperty(PREFIX + "busy-timeout-ms", Integer.class, p.busyTimeoutMs()),
+                environment.getProperty(PREFIX + "wal-autocheckpoint", Integer.class, p.walAutocheckpoint()));
+    }
+
+    /**
+     * Also used by the profile benchmark, which builds one pool per profile.
+     */
+    public static void apply(HikariDataSource dataSource, SqlitePragmas pragmas) {
+        // Kullanicinin acikca verdigi surucu ozellikleri profilden once gelir.
+        pragmas.connectionProperties().forEach((name, value) -> dataSource.getDataSourceProperties().putIfAbsent(name, value));
+        if (dataSource.getConnectionInitSql() == null) {
+            dataSource.setConnectionInitSql(pragmas.initSql());
+        }
+    }
+
+    private static boolean isSqlite(HikariDataSource dataSource) {
+        return dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:sqlite:");
+    }
+}
@@ -0,0 +1,46 @@
+package com.minicommerceapi.minicommerce.config;
+
+import java.util.Properties;
+
+/**
+ * PRAGMA settings applied to every SQLite connection of the pool.
+ *
+ * @param journalMode       DELETE (rollback journal) or WAL; WAL lets readers run while a writer commits
+ * @param synchronous       OFF, NORMAL or FULL: how often SQLite waits for fsync (see {@link SqliteProfile})
+ * @param cacheSize         page cache per connection; negative values are KiB, positive values pages
+ * @param mmapSize          bytes of the database file read through memory mapping (0: off)
+ * @param tempStore         DEFAULT, FILE or MEMORY: where temporary tables and sort spills live
+ * @param busyTimeoutMs     how long a connection waits for a lock before failing with SQLITE_BUSY
+ * @param walAutocheckpoint WAL pages after which a commit copies the WAL back into the database (0: never)
+ */
+public record SqlitePragmas(
+        String journalMode,
+        String synchronous,
+        int cacheSize,
+        long mmapSize,
+        String tempStore,
+        int busyTimeoutMs,
+        int walAutocheckpoint
+) {
+
+    /**
+     * Driver properties; sqlite-jdbc runs the matching PRAGMAs itself whenever it opens a connection.
+     */
+    public Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("journal_mode", journalMode);
+        properties.setProperty("synchronous", synchronous);
+        properties.setProperty("cache_size", String.valueOf(cacheSize));
+        properties.setProperty("mmap_size", String.valueOf(mmapSize));
+        properties.setProperty("temp_store", tempStore);
+        properties.setProperty("busy_timeout", String.valueOf(busyTimeoutMs));
+        return properties;
+    }
+
+    /**
+     * Connection init statement for the one setting sqlite-jdbc has no driver property for.
+     */
+    public String initSql() {
+        return "pragma wal_autocheckpoint = " + walAutocheckpoint;
+    }
+}
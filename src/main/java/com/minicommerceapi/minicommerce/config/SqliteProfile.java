@@ -0,0 +1,47 @@
+package com.minicommerceapi.minicommerce.config;
+
+import java.util.Locale;
+
+/**
+ * Named SQLite PRAGMA profiles, chosen per deployment with {@code minicommerce.sqlite.profile}.
+ * <p>
+ * The profiles differ mainly in durability. All of them are safe against an application crash; they differ in what
+ * survives a power loss or OS crash:
+ * <ul>
+ *   <li>{@link #DURABLE}: WAL with {@code synchronous=FULL}; every commit is fsynced before it returns, nothing
+ *       acknowledged is lost.</li>
+ *   <li>{@link #BALANCED} (default): WAL with {@code synchronous=NORMAL}; the WAL is only fsynced at checkpoints,
+ *       so the last commits before a power loss may roll back, but the database stays consistent.</li>
+ *   <li>{@link #FAST}: WAL with {@code synchronous=OFF} and larger caches and checkpoint interval; a power loss may
+ *       lose recent commits and can corrupt the database. For bulk loads, benchmarks and disposable data.</li>
+ *   <li>{@link #LEGACY}: the driver defaults (rollback journal, {@code synchronous=FULL}); readers and the writer
+ *       block each other. Kept as a baseline.</li>
+ * </ul>
+ */
+public enum SqliteProfile {
+    DURABLE(new SqlitePragmas("WAL", "FULL", -16_000, 0, "FILE", 5_000, 1_000)),
+    BALANCED(new SqlitePragmas("WAL", "NORMAL", -64_000, 256L << 20, "MEMORY", 5_000, 1_000)),
+    FAST(new SqlitePragmas("WAL", "OFF", -256_000, 1L << 30, "MEMORY", 10_000, 10_000)),
+    LEGACY(new SqlitePragmas("DELETE", "FULL", -2_000, 0, "DEFAULT", 3_000, 1_000));
+
+    private final SqlitePragmas pragmas;
+
+    SqliteProfile(SqlitePragmas pragmas) {
+        this.pragmas = pragmas;
+    }
+
+    public SqlitePragmas pragmas() {
+        return pragmas;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code name} is not a profile (case-insensitive)
+     */
+    public static SqliteProfile of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown SQLite profile '" + name + "', expected one of durable, balanced, fast, legacy");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.minicommerceapi.minicommerce.domain.BaseEntity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills {@code updated_at} for rows written before the column existed. {@code ddl-auto=update} adds the column
+ * with its default 0, which would make conditional GETs answer {@code Last-Modified: Thu, 01 Jan 1970}; such rows
+ * get their {@code created_at} instead. Runs once at startup, before requests are served, and is a no-op afterwards.
+ */
+@Component
+public class UpdatedAtBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdatedAtBackfill.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UpdatedAtBackfill(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            if (!BaseEntity.class.isAssignableFrom(type) || table == null) {
+                continue;
+            }
+            int rows = jdbcTemplate.update("update " + table.name() + " set updated_at = created_at where updated_at = 0");
+            if (rows > 0) {
+                log.info("Backfilled updated_at of {} rows in {}", rows, table.name());
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.minicommerceapi.minicommerce.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 
@@ -14,6 +15,26 @@ public abstract class BaseEntity {
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
+    /**
+     * Last change through JPA or the stock update paths; the Last-Modified validator of conditional GETs.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Instant updatedAt = createdAt;
+
+    /**
+     * Optimistic lock version, bumped on every update; part of the ETag of conditional GETs.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -22,6 +43,14 @@ public abstract class BaseEntity {
         return createdAt;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -0,0 +1,62 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Client-supplied {@code Idempotency-Key} of a created order: the key, a hash of the request it was first
+ * used with and the resulting order id. Stored in the same transaction as the order and purged after expiry.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_keys_key", columnNames = "idempotency_key")
+})
+public class IdempotencyKey extends BaseEntity {
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,15 +1,32 @@
 package com.minicommerceapi.minicommerce.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset sayfalama (createdAt desc, id desc) ve filtreler icin
+        @Index(name = "idx_orders_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_orders_total", columnList = "total")
+})
+@NamedEntityGraph(
+        name = Order.WITH_ITEMS_AND_PRODUCTS,
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product"))
+)
 public class Order extends BaseEntity {
 
+    /**
+     * Fetch plan for order responses: items and their products in the same query.
+     */
+    public static final String WITH_ITEMS_AND_PRODUCTS = "Order.withItemsAndProducts";
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_orders_user"))
     private User user;
@@ -21,7 +38,9 @@ public class Order extends BaseEntity {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal total = BigDecimal.ZERO;
 
+    // Entity graph kullanilmayan yollarda (or. patchStatus) kalemler siparis basina ayri sorgu yerine toplu yuklenir.
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> items = new ArrayList<>();
 
     public User getUser() {
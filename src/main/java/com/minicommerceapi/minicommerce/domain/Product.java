@@ -1,13 +1,25 @@
 package com.minicommerceapi.minicommerce.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products", uniqueConstraints = {
         @UniqueConstraint(name = "uk_products_sku", columnNames = "sku")
+}, indexes = {
+        // Keyset sayfalama: her siralama icin (kategori, alan, id) ve kategorisiz (alan, id); id siralamasi PK'dir
+        @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_products_category_price_id", columnList = "category_id, price, id"),
+        @Index(name = "idx_products_category_name_id", columnList = "category_id, name, id"),
+        @Index(name = "idx_products_category_created_id", columnList = "category_id, created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_created_id", columnList = "created_at, id")
 })
+@BatchSize(size = 50)
 public class Product extends BaseEntity {
 
     @Column(nullable = false, length = 120)
@@ -22,6 +34,14 @@ public class Product extends BaseEntity {
     @Column(nullable = false)
     private int stock;
 
+    /**
+     * Number of stock sub-counters; 1 means stock lives in {@link #stock}, more means it is split across
+     * {@link ProductStockShard} rows and {@link #stock} stays 0.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int stockShards = 1;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(name = "fk_products_category"))
     private Category category;
@@ -58,6 +78,18 @@ public class Product extends BaseEntity {
         this.stock = stock;
     }
 
+    public int getStockShards() {
+        return stockShards;
+    }
+
+    public void setStockShards(int stockShards) {
+        this.stockShards = stockShards;
+    }
+
+    public boolean isStockSharded() {
+        return stockShards > 1;
+    }
+
     public Category getCategory() {
         return category;
     }
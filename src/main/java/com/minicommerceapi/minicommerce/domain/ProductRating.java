@@ -0,0 +1,57 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * Precomputed rating of a product: number of reviews, sum of their ratings and how many reviews gave each star.
+ * Kept up to date by the review writes in their own transaction (see {@code ProductRatingService}); the row is
+ * created with the product's first review.
+ */
+@Entity
+@Table(name = "product_ratings")
+public class ProductRating {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * Review counts per rating, index 0 for one star.
+     */
+    public long[] getHistogram() {
+        return new long[]{stars1, stars2, stars3, stars4, stars5};
+    }
+}
@@ -0,0 +1,48 @@
+package com.minicommerceapi.minicommerce.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * One sub-counter of a product whose stock is split across several rows ("sharded stock").
+ * The product's available stock is the sum of its shards.
+ */
+@Entity
+@Table(name = "product_stock_shards", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stock_shards_product_shard", columnNames = {"product_id", "shard_no"})
+})
+public class ProductStockShard extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, foreignKey = @ForeignKey(name = "fk_stock_shards_product"))
+    private Product product;
+
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    @Column(nullable = false)
+    private int stock;
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public int getShardNo() {
+        return shardNo;
+    }
+
+    public void setShardNo(int shardNo) {
+        this.shardNo = shardNo;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+}
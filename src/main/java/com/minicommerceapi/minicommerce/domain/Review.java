@@ -3,7 +3,11 @@ package com.minicommerceapi.minicommerce.domain;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // Urun bazli keyset sayfalama: en yeniler (createdAt, id) ve puana gore (rating, id)
+        @Index(name = "idx_reviews_product_created_id", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_reviews_product_rating_id", columnList = "product_id, rating, id")
+})
 public class Review extends BaseEntity {
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 public class OrderDtos {
@@ -40,4 +41,51 @@ public record PatchOrderRequest(
         @NotNull String status
 ) {}
 
+    /**
+     * Optional filters for order listing; {@code createdTo} is exclusive.
+     */
+    public record OrderFilter(
+            Long userId,
+            String status,
+            Instant createdFrom,
+            Instant createdTo,
+            BigDecimal minTotal
+    ) {}
+
+    public record OrderPage(
+            List<OrderResponse> items,
+            String nextCursor
+    ) {}
+
+    /**
+     * Orders are validated one by one during creation so that an invalid order fails alone.
+     */
+    public record BatchCreateOrderRequest(
+            @NotNull @Size(min = 1, max = 1000) List<CreateOrderRequest> orders
+    ) {}
+
+    /**
+     * Outcome of one order of a batch; {@code index} is its position in the request.
+     */
+    public record BatchOrderResult(
+            int index,
+            boolean created,
+            OrderResponse order,
+            String error
+    ) {
+        public static BatchOrderResult created(int index, OrderResponse order) {
+            return new BatchOrderResult(index, true, order, null);
+        }
+
+        public static BatchOrderResult failed(int index, String error) {
+            return new BatchOrderResult(index, false, null, error);
+        }
+    }
+
+    public record BatchOrderResponse(
+            int created,
+            int failed,
+            List<BatchOrderResult> results
+    ) {}
+
 }
@@ -3,6 +3,7 @@ package com.minicommerceapi.minicommerce.dto;
 import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ProductDtos {
     public record CreateProductRequest(
@@ -18,7 +19,8 @@ public class ProductDtos {
             @Size(max = 40) String sku,
             @DecimalMin(value = "0.00", inclusive = false) BigDecimal price,
             Integer stock,
-            Long categoryId
+            Long categoryId,
+            @Min(1) @Max(64) Integer stockShards
     ) {}
 
     public record ProductResponse(
@@ -28,6 +30,130 @@ public class ProductDtos {
             BigDecimal price,
             int stock,
             Long categoryId,
-            String categoryName
+            String categoryName,
+            int stockShards
+    ) {}
+
+    /**
+     * One page of GET /api/products: optional category filter, sort field ({@code id}, {@code price},
+     * {@code name}, {@code createdAt}), direction ({@code asc}/{@code desc}), keyset cursor, page size and
+     * optional price band (bounds inclusive).
+     */
+    public record ProductPageRequest(
+            Long categoryId,
+            String sort,
+            String direction,
+            String cursor,
+            int limit,
+            BigDecimal minPrice,
+            BigDecimal maxPrice
+    ) {
+        public ProductPageRequest(Long categoryId, String sort, String direction, String cursor, int limit) {
+            this(categoryId, sort, direction, cursor, limit, null, null);
+        }
+    }
+
+    public record ProductPage(
+            List<ProductResponse> items,
+            String nextCursor
+    ) {}
+
+    /**
+     * A row of a product import that was not created; {@code line} is its 1-based line in the uploaded body.
+     */
+    public record ImportError(
+            long line,
+            String sku,
+            String error
+    ) {}
+
+    /**
+     * Last line of a product import response.
+     */
+    public record ImportSummary(
+            long created,
+            long failed
+    ) {}
+
+    /**
+     * PATCH /api/products/bulk, up to 500,000 items. Items are validated one by one so that an invalid item fails alone.
+     */
+    public record BulkUpdateRequest(
+            @NotNull @Size(min = 1, max = 500000) List<BulkUpdateItem> items
+    ) {}
+
+    /**
+     * New price and/or stock of one product, identified by exactly one of {@code id} and {@code sku}.
+     */
+    public record BulkUpdateItem(
+            Long id,
+            @Size(max = 40) String sku,
+            @DecimalMin(value = "0.00", inclusive = false) @Digits(integer = 10, fraction = 2) BigDecimal price,
+            @Min(0) Integer stock
+    ) {}
+
+    /**
+     * Outcome of one item of a bulk update; {@code index} is its position in the request.
+     */
+    public record BulkUpdateResult(
+            int index,
+            Long id,
+            String sku,
+            boolean updated,
+            String error
+    ) {
+        public static BulkUpdateResult updated(int index, Long id, String sku) {
+            return new BulkUpdateResult(index, id, sku, true, null);
+        }
+
+        public static BulkUpdateResult failed(int index, Long id, String sku, String error) {
+            return new BulkUpdateResult(index, id, sku, false, error);
+        }
+    }
+
+    public record BulkUpdateResponse(
+            int updated,
+            int failed,
+            List<BulkUpdateResult> results
+    ) {}
+
+    /**
+     * GET /api/products/top-rated and GET /api/products/best-sellers. {@code score} is the ranking score (Bayesian
+     * average rating, or units ordered over the last seven days); {@code reviews} and {@code unitsSold} are given
+     * for both boards.
+     */
+    public record LeaderboardEntry(
+            int rank,
+            ProductResponse product,
+            BigDecimal score,
+            long reviews,
+            long unitsSold
+    ) {}
+
+    /**
+     * GET /api/products/facets. {@code total}, {@code inStock} and {@code priceBuckets} cover the requested category
+     * (or the whole catalog); {@code categories} always lists every category that has products.
+     */
+    public record FacetsResponse(
+            long total,
+            long inStock,
+            List<CategoryFacet> categories,
+            List<PriceBucketFacet> priceBuckets
+    ) {}
+
+    public record CategoryFacet(
+            Long id,
+            String name,
+            long count,
+            long inStock
+    ) {}
+
+    /**
+     * Products priced from {@code from} (inclusive) to {@code to} (exclusive; null for the last, open bucket).
+     */
+    public record PriceBucketFacet(
+            BigDecimal from,
+            BigDecimal to,
+            long count
     ) {}
 }
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 public class ReviewDtos {
     public record CreateReviewRequest(
             @NotNull Long userId,
@@ -21,9 +24,60 @@ public class ReviewDtos {
             String comment
     ) {}
 
+    /**
+     * 202 answer of POST /api/reviews in write-behind mode: the review is queued, not yet written.
+     * Its id is resolved through GET /api/reviews/pending/{provisionalId}.
+     */
+    public record ReviewAccepted(
+            String provisionalId,
+            Long userId,
+            Long productId,
+            int rating,
+            String comment
+    ) {}
+
+    /**
+     * GET /api/reviews/pending/{provisionalId}: {@code status} is QUEUED, WRITTEN (with {@code id}) or FAILED
+     * (with {@code error}).
+     */
+    public record PendingReview(
+            String provisionalId,
+            String status,
+            Long id,
+            String error
+    ) {}
+
+    /**
+     * One page of GET /api/reviews: optional product filter, sort field ({@code createdAt}, {@code rating}),
+     * direction ({@code desc} by default: newest or highest rated first), keyset cursor and page size.
+     */
+    public record ReviewPageRequest(
+            Long productId,
+            String sort,
+            String direction,
+            String cursor,
+            int limit
+    ) {}
+
+    public record ReviewPage(
+            List<ReviewResponse> items,
+            String nextCursor
+    ) {}
+
 public record PatchReviewRequest(
         @Min(1) @Max(5) Integer rating,
         @Size(max = 600) String comment
 ) {}
 
+    /**
+     * GET /api/products/{id}/rating. {@code average} is rounded to two decimals (null without reviews);
+     * {@code histogram} holds the number of reviews per rating, one star first.
+     */
+    public record RatingResponse(
+            Long productId,
+            long count,
+            BigDecimal average,
+            List<Long> histogram
+    ) {}
+
 }
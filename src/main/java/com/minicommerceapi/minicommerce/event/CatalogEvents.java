@@ -0,0 +1,54 @@
+package com.minicommerceapi.minicommerce.event;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application events published by catalog writes so that read-side structures (caches, indexes)
+ * can follow them. They are published inside the writing transaction.
+ */
+public final class CatalogEvents {
+
+    private CatalogEvents() {
+    }
+
+    /**
+     * A product was created, updated or deleted. {@code categoryIds} holds its category before and after the change;
+     * {@code product} is its new state, or null if it was deleted.
+     */
+    public record ProductChanged(Long productId, Set<Long> categoryIds, ProductDtos.ProductResponse product) {}
+
+    /**
+     * Products were created in bulk (product import); {@code categoryIds} are their categories.
+     */
+    public record ProductsCreated(List<ProductDtos.ProductResponse> products, Set<Long> categoryIds) {}
+
+    /**
+     * Price and/or stock of products were set in bulk (PATCH /api/products/bulk); their name, SKU and category are
+     * unchanged. {@code products} holds their new state, {@code categoryIds} their categories.
+     */
+    public record ProductsUpdated(List<ProductDtos.ProductResponse> products, Set<Long> categoryIds) {}
+
+    /**
+     * A category was renamed.
+     */
+    public record CategoryChanged(Long categoryId) {}
+
+    /**
+     * Orders changed the available stock of these products; {@code categoryIds} are their categories.
+     */
+    public record StockChanged(Set<Long> productIds, Set<Long> categoryIds) {}
+
+    /**
+     * An order was placed; {@code units} maps each ordered product id to its quantity.
+     */
+    public record ProductsOrdered(Long orderId, Map<Long, Integer> units) {}
+
+    /**
+     * A review of the product was created, re-rated or deleted; its rating aggregate has changed.
+     */
+    public record RatingChanged(Long productId) {}
+}
@@ -0,0 +1,17 @@
+package com.minicommerceapi.minicommerce.exception;
+
+/**
+ * The request was valid but cannot be taken right now (e.g. a full queue); answered with 503 and Retry-After.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,10 +2,20 @@ package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findBySlug(String slug);
+    boolean existsBySlug(String slug);
     boolean existsByNameIgnoreCase(String name);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.EntityVersion(c.version, c.updatedAt) from Category c where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.TableVersion(count(c), max(c.id), sum(c.version), max(c.updatedAt)) "
+            + "from Category c")
+    TableVersion tableVersion();
 }
@@ -0,0 +1,11 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.time.Instant;
+
+/**
+ * Version and last change of a single row, for the validators of a conditional GET.
+ */
+public record EntityVersion(
+        long version,
+        Instant updatedAt
+) {}
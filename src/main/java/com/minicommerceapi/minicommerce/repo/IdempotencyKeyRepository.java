@@ -0,0 +1,28 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Removes {@code key} only if it has expired; a live key is left for the unique constraint to defend.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key and k.expiresAt <= :now")
+    int deleteExpiredKey(@Param("key") String key, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
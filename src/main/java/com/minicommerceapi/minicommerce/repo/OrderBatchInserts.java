@@ -0,0 +1,18 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Order;
+
+import java.util.List;
+
+/**
+ * JDBC-batched inserts for new orders. Hibernate cannot batch inserts of IDENTITY-keyed entities,
+ * so bulk order creation writes the rows directly.
+ */
+public interface OrderBatchInserts {
+
+    /**
+     * Inserts the orders and their items with one JDBC batch each and assigns the generated ids to
+     * the given (unmanaged) entities. Must run inside a transaction.
+     */
+    void insertAll(List<Order> orders);
+}
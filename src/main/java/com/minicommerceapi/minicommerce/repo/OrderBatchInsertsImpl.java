@@ -0,0 +1,61 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.BaseEntity;
+import com.minicommerceapi.minicommerce.domain.Order;
+import com.minicommerceapi.minicommerce.domain.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class OrderBatchInsertsImpl implements OrderBatchInserts {
+
+    private static final String INSERT_ORDER =
+            "insert into orders (created_at, updated_at, status, total, user_id, version) values (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ITEM =
+            "insert into order_items (created_at, updated_at, line_total, quantity, unit_price, order_id, product_id, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orders, orders.size(), (ps, o) -> {
+            ps.setTimestamp(1, Timestamp.from(o.getCreatedAt()));
+            ps.setTimestamp(2, Timestamp.from(o.getUpdatedAt()));
+            ps.setString(3, o.getStatus().name());
+            ps.setBigDecimal(4, o.getTotal());
+            ps.setLong(5, o.getUser().getId());
+        });
+        assignIds(orders);
+
+        List<OrderItem> items = orders.stream().flatMap(o -> o.getItems().stream()).toList();
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, items.size(), (ps, item) -> {
+            ps.setTimestamp(1, Timestamp.from(item.getCreatedAt()));
+            ps.setTimestamp(2, Timestamp.from(item.getUpdatedAt()));
+            ps.setBigDecimal(3, item.getLineTotal());
+            ps.setInt(4, item.getQuantity());
+            ps.setBigDecimal(5, item.getUnitPrice());
+            ps.setLong(6, item.getOrder().getId());
+            ps.setLong(7, item.getProduct().getId());
+        });
+        assignIds(items);
+    }
+
+    private void assignIds(List<? extends BaseEntity> rows) {
+        // Not: SQLite'ta INTEGER PRIMARY KEY yeni satira max(id)+1 verir ve transaction yazma kilidini tuttugu icin
+        // arada baska bir yazan olamaz; batch'in id'leri son eklenen rowid'de biten kesintisiz bir araliktir.
+        long last = jdbcTemplate.queryForObject("select last_insert_rowid()", Long.class);
+        long first = last - rows.size() + 1;
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(first + i);
+        }
+    }
+}
@@ -1,7 +1,44 @@
 package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderBatchInserts {
+
+    /**
+     * Orders with items and products fetched in one statement (no N+1 in {@code OrderService.toResponse}).
+     * Second step of a keyset page: the page's orders are selected first (with LIMIT), then their
+     * items are fetched here; a collection fetch join combined with LIMIT would paginate in memory.
+     */
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    @Query("select o from Order o where o.id in :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Order.WITH_ITEMS_AND_PRODUCTS)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    /**
+     * Forward-only cursor over orders in a created-at range, oldest first (served by the (created_at, id) index).
+     * Must be consumed inside a transaction and closed; entities are read-only.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o where o.createdAt >= :from and o.createdAt < :to order by o.createdAt, o.id")
+    Stream<Order> streamByCreatedAtRange(@Param("from") Instant from, @Param("to") Instant to);
 }
@@ -0,0 +1,49 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Order;
+import com.minicommerceapi.minicommerce.domain.OrderStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Filters for order listing. Each one is backed by an index on {@code orders} (see {@link Order}).
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+        // utility class
+    }
+
+    public static Specification<Order> hasUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> createdAtOrAfter(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Order> createdBefore(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<Order> totalAtLeast(BigDecimal minTotal) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("total"), minTotal);
+    }
+
+    /**
+     * Keyset condition for {@code order by createdAt desc, id desc}: rows strictly after the cursor row.
+     * Written as {@code createdAt <= c and (createdAt < c or id < i)} rather than the plain OR form so that
+     * SQLite can start a range scan on the {@code (created_at, id)} indexes at the cursor instead of from the top.
+     */
+    public static Specification<Order> after(Instant createdAt, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(cb.lessThan(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+
+import java.util.List;
+
+/**
+ * JDBC-batched inserts for new products, used by the bulk import. Hibernate cannot batch inserts of
+ * IDENTITY-keyed entities, so the rows are written directly.
+ */
+public interface ProductBatchInserts {
+
+    /**
+     * Inserts the products with one JDBC batch and assigns the generated ids to the given (unmanaged)
+     * entities. Only the category id of each product is read. Must run inside a transaction.
+     */
+    void insertAll(List<Product> products);
+}
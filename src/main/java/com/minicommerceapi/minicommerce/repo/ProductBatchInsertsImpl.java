@@ -0,0 +1,42 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class ProductBatchInsertsImpl implements ProductBatchInserts {
+
+    private static final String INSERT_PRODUCT =
+            "insert into products (created_at, updated_at, name, sku, price, stock, stock_shards, version, category_id) "
+            + "values (?, ?, ?, ?, ?, ?, 1, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProductBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, products.size(), (ps, p) -> {
+            ps.setTimestamp(1, Timestamp.from(p.getCreatedAt()));
+            ps.setTimestamp(2, Timestamp.from(p.getUpdatedAt()));
+            ps.setString(3, p.getName());
+            ps.setString(4, p.getSku());
+            ps.setBigDecimal(5, p.getPrice());
+            ps.setInt(6, p.getStock());
+            ps.setLong(7, p.getCategory().getId());
+        });
+        // Ayni varsayim OrderBatchInsertsImpl'de: yazma kilidi transaction boyunca tutuldugu icin id'ler kesintisiz.
+        long last = jdbcTemplate.queryForObject("select last_insert_rowid()", Long.class);
+        long first = last - products.size() + 1;
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(first + i);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Set-based price and stock updates, used by the bulk update endpoint instead of loading and dirty-checking
+ * every product.
+ */
+public interface ProductBulkUpdates {
+
+    /**
+     * Writes the updates with one UPDATE statement per group of rows ({@code set price = case id when ... end}),
+     * bumping {@code version} and setting {@code updated_at} of every listed product, so that concurrent
+     * {@code ProductService.patch} calls fail their optimistic check and conditional GETs see the change.
+     * Must run inside a transaction.
+     *
+     * @return the number of products updated; less than the number of updates if some no longer exist
+     */
+    int updatePriceAndStock(List<ProductUpdate> updates, Instant now);
+}
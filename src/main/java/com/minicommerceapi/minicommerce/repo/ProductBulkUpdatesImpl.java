@@ -0,0 +1,67 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+class ProductBulkUpdatesImpl implements ProductBulkUpdates {
+
+    // Satir basina en fazla 5 parametre (iki CASE + IN listesi); SQLite'in parametre sinirinin epey altinda.
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProductBulkUpdatesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int updatePriceAndStock(List<ProductUpdate> updates, Instant now) {
+        int updated = 0;
+        for (int from = 0; from < updates.size(); from += ROWS_PER_STATEMENT) {
+            updated += update(updates.subList(from, Math.min(from + ROWS_PER_STATEMENT, updates.size())), now);
+        }
+        return updated;
+    }
+
+    private int update(List<ProductUpdate> rows, Instant now) {
+        StringBuilder sql = new StringBuilder("update products set ");
+        List<Object> args = new ArrayList<>(rows.size() * 5 + 1);
+        appendCase(sql, args, "price", rows, ProductUpdate::price);
+        appendCase(sql, args, "stock", rows, ProductUpdate::stock);
+        sql.append("version = version + 1, updated_at = ? where id in (");
+        args.add(Timestamp.from(now));
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(rows.get(i).id());
+        }
+        sql.append(')');
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    // Degeri null olan satirlar CASE'e girmez ve kolonu oldugu gibi kalir (else kolon).
+    private static void appendCase(StringBuilder sql, List<Object> args, String column, List<ProductUpdate> rows,
+                                   Function<ProductUpdate, Object> value) {
+        boolean any = false;
+        for (ProductUpdate row : rows) {
+            Object v = value.apply(row);
+            if (v == null) {
+                continue;
+            }
+            if (!any) {
+                sql.append(column).append(" = case id");
+                any = true;
+            }
+            sql.append(" when ? then ?");
+            args.add(row.id());
+            args.add(v);
+        }
+        if (any) {
+            sql.append(" else ").append(column).append(" end, ");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.minicommerceapi.minicommerce.repo;
+
+/**
+ * What a bulk update needs to know about a product before writing it: how it is addressed, its category
+ * (for cache invalidation) and where its stock lives.
+ */
+public record ProductKey(
+        Long id,
+        String sku,
+        Long categoryId,
+        int stockShards
+) {}
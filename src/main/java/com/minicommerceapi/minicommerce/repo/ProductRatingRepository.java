@@ -0,0 +1,35 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.ProductRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductRatingRepository extends JpaRepository<ProductRating, Long> {
+
+    /**
+     * Adds {@code delta} reviews with the given rating to the product's aggregate (a negative delta removes them)
+     * in one upsert: the row is created with the first review and updated in place afterwards, so concurrent
+     * reviews of the same product never overwrite each other's counts.
+     */
+    @Modifying
+    @Query(value = "insert into product_ratings (product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) "
+            + "values (:productId, :delta, :rating * :delta, "
+            + "case when :rating = 1 then :delta else 0 end, case when :rating = 2 then :delta else 0 end, "
+            + "case when :rating = 3 then :delta else 0 end, case when :rating = 4 then :delta else 0 end, "
+            + "case when :rating = 5 then :delta else 0 end) "
+            + "on conflict (product_id) do update set "
+            + "review_count = review_count + excluded.review_count, rating_sum = rating_sum + excluded.rating_sum, "
+            + "stars_1 = stars_1 + excluded.stars_1, stars_2 = stars_2 + excluded.stars_2, stars_3 = stars_3 + excluded.stars_3, "
+            + "stars_4 = stars_4 + excluded.stars_4, stars_5 = stars_5 + excluded.stars_5",
+            nativeQuery = true)
+    int add(@Param("productId") Long productId, @Param("rating") int rating, @Param("delta") int delta);
+
+    /**
+     * Drops the aggregate of a deleted product; no-op when it had no reviews.
+     */
+    @Modifying
+    @Query("delete from ProductRating r where r.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -2,11 +2,91 @@ package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductBatchInserts,
+        ProductBulkUpdates, ProductRowQueries {
     boolean existsByCategoryId(Long categoryId);
     List<Product> findByCategoryId(Long categoryId);
     boolean existsBySku(String sku);
+
+    /**
+     * Those of the given SKUs that are already in use, in one statement.
+     */
+    @Query("select p.sku from Product p where p.sku in :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Loads all given products in one plain SELECT, ordered by id. Nothing is locked: orders read the products
+     * after their stock was already taken by {@link #decrementStock}, only for prices, names and categories.
+     */
+    @Query("select p from Product p where p.id in :ids order by p.id")
+    List<Product> findAllByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Decrements stock only if enough is left. Returns the number of updated rows:
+     * 1 on success, 0 if the product is missing or does not have {@code quantity} in stock.
+     * The version is bumped so that a concurrent {@code ProductService.patch} fails its optimistic check, and
+     * {@code updatedAt} with it so that conditional GETs see the change.
+     * The persistence context is cleared afterwards so later reads see the new stock.
+     */
+    default int decrementStock(Long id, int quantity) {
+        return decrementStock(id, quantity, Instant.now());
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = :now "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+
+    /**
+     * Shard count of a product without loading the entity; empty if the product does not exist.
+     */
+    @Query("select p.stockShards from Product p where p.id = :id")
+    Optional<Integer> findStockShardsById(@Param("id") Long id);
+
+    /**
+     * Products with their category in one statement; order is unspecified.
+     */
+    @Query("select p from Product p join fetch p.category where p.id in :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * A product with its category name as a {@link ProductRow}, in one joined statement.
+     */
+    @Query("select new com.minicommerceapi.minicommerce.repo.ProductRow(p.id, p.name, p.sku, p.price, p.stock, c.id, c.name, "
+            + "p.stockShards, p.createdAt, p.version, p.updatedAt, c.version, c.updatedAt) "
+            + "from Product p join p.category c where p.id = :id")
+    Optional<ProductRow> findRowById(@Param("id") Long id);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.ProductRow(p.id, p.name, p.sku, p.price, p.stock, c.id, c.name, "
+            + "p.stockShards, p.createdAt, p.version, p.updatedAt, c.version, c.updatedAt) "
+            + "from Product p join p.category c where p.id in :ids")
+    List<ProductRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Those of the given ids that still exist, in one query.
+     */
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.ProductKey(p.id, p.sku, p.category.id, p.stockShards) "
+            + "from Product p where p.id in :ids")
+    List<ProductKey> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.ProductKey(p.id, p.sku, p.category.id, p.stockShards) "
+            + "from Product p where p.sku in :skus")
+    List<ProductKey> findKeysBySkuIn(@Param("skus") Collection<String> skus);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.ProductKey(p.id, p.sku, p.category.id, p.stockShards) "
+            + "from Product p where p.id = :id")
+    Optional<ProductKey> findKeyById(@Param("id") Long id);
 }
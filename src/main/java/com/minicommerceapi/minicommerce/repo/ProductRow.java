@@ -0,0 +1,26 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read-only projection of a product with its category name: the columns of a product response, plus
+ * {@code createdAt} for the keyset cursor and the product's and category's version and last change for the
+ * conditional GET validators. Selected with a constructor expression, so no entity is created or tracked by the
+ * persistence context.
+ */
+public record ProductRow(
+        Long id,
+        String name,
+        String sku,
+        BigDecimal price,
+        int stock,
+        Long categoryId,
+        String categoryName,
+        int stockShards,
+        Instant createdAt,
+        long version,
+        Instant updatedAt,
+        long categoryVersion,
+        Instant categoryUpdatedAt
+) {}
@@ -0,0 +1,20 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Product listing as {@link ProductRow} projections. Spring Data's fluent query cannot combine a
+ * {@link Specification} with a constructor projection and a join, so the query is built with the Criteria API.
+ */
+public interface ProductRowQueries {
+
+    /**
+     * At most {@code limit} rows matching {@code spec} in {@code sort} order, products joined with their category in
+     * one statement.
+     */
+    List<ProductRow> findRows(Specification<Product> spec, Sort sort, int limit);
+}
@@ -0,0 +1,52 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ProductRowQueriesImpl implements ProductRowQueries {
+
+    private final EntityManager entityManager;
+
+    ProductRowQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductRow> findRows(Specification<Product> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductRow> query = cb.createQuery(ProductRow.class);
+        Root<Product> p = query.from(Product.class);
+        Join<Product, Category> c = p.join("category");
+        query.select(cb.construct(ProductRow.class,
+                p.get("id"), p.get("name"), p.get("sku"), p.get("price"), p.get("stock"),
+                c.get("id"), c.get("name"), p.get("stockShards"), p.get("createdAt"),
+                p.get("version"), p.get("updatedAt"), c.get("version"), c.get("updatedAt")));
+        return execute(query, p, spec, sort, limit);
+    }
+
+    private <T> List<T> execute(CriteriaQuery<T> query, Root<Product> p, Specification<Product> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate where = spec.toPredicate(p, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order o : sort) {
+            orders.add(o.isAscending() ? cb.asc(p.get(o.getProperty())) : cb.desc(p.get(o.getProperty())));
+        }
+        query.orderBy(orders);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
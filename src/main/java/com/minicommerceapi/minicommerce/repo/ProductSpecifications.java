@@ -0,0 +1,72 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters for product listing. Each sortable field has a {@code (category_id, field, id)} and a
+ * {@code (field, id)} index on {@code products} (see {@link Product}).
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+        // utility class
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    /**
+     * Price band, bounds inclusive; a null bound is open.
+     */
+    public static Specification<Product> priceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            Path<BigDecimal> price = root.get("price");
+            if (min == null) return cb.lessThanOrEqualTo(price, max);
+            if (max == null) return cb.greaterThanOrEqualTo(price, min);
+            return cb.between(price, min, max);
+        };
+    }
+
+    /**
+     * Products with one of the given ids (selected elsewhere, e.g. by the price index); none if {@code ids} is empty.
+     */
+    public static Specification<Product> idIn(long[] ids) {
+        return (root, query, cb) -> {
+            if (ids.length == 0) {
+                return cb.disjunction();
+            }
+            List<Long> values = new ArrayList<>(ids.length);
+            for (long id : ids) values.add(id);
+            return root.get("id").in(values);
+        };
+    }
+
+    /**
+     * Keyset condition for {@code order by id}: rows strictly after the cursor row.
+     */
+    public static Specification<Product> afterId(Long id, boolean ascending) {
+        return (root, query, cb) -> ascending ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset condition for {@code order by field, id} (both in the same direction). Written as
+     * {@code field >= v and (field > v or id > i)} (mirrored for descending) so that SQLite starts a range
+     * scan on the field's index at the cursor, as in {@link OrderSpecifications#after}.
+     */
+    public static <T extends Comparable<? super T>> Specification<Product> after(String field, T value, Long id, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(field);
+            Path<Long> idPath = root.get("id");
+            return ascending
+                    ? cb.and(cb.greaterThanOrEqualTo(path, value), cb.or(cb.greaterThan(path, value), cb.greaterThan(idPath, id)))
+                    : cb.and(cb.lessThanOrEqualTo(path, value), cb.or(cb.lessThan(path, value), cb.lessThan(idPath, id)));
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    @Query("select s from ProductStockShard s where s.product.id = :productId order by s.shardNo")
+    List<ProductStockShard> findByProductIdOrderByShardNo(@Param("productId") Long productId);
+
+    /**
+     * Shard count of every sharded product, as {@code [productId, shards]} pairs.
+     */
+    @Query("select s.product.id, count(s) from ProductStockShard s group by s.product.id")
+    List<Object[]> countShardsPerProduct();
+
+    @Query("select coalesce(sum(s.stock), 0) from ProductStockShard s where s.product.id = :productId")
+    long sumStock(@Param("productId") Long productId);
+
+    /**
+     * Same contract as {@link ProductRepository#decrementStock}, for a single shard.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ProductStockShard s set s.stock = s.stock - :quantity " +
+            "where s.product.id = :productId and s.shardNo = :shardNo and s.stock >= :quantity")
+    int decrement(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    /**
+     * Does not clear the persistence context: callers keep working with the managed product afterwards.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ProductStockShard s where s.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
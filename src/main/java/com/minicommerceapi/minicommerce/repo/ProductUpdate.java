@@ -0,0 +1,12 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.math.BigDecimal;
+
+/**
+ * New price and/or stock of one product for {@link ProductBulkUpdates}; null leaves the column unchanged.
+ */
+public record ProductUpdate(
+        long id,
+        BigDecimal price,
+        Integer stock
+) {}
@@ -0,0 +1,18 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+
+import java.util.List;
+
+/**
+ * Multi-row inserts for reviews, used by the write-behind review writer. Hibernate cannot batch inserts of
+ * IDENTITY-keyed entities, so the rows are written directly.
+ */
+public interface ReviewBatchInserts {
+
+    /**
+     * Inserts the reviews with multi-row INSERT statements and assigns the generated ids to the given (unmanaged)
+     * entities. Only the user and product ids of each review are read. Must run inside a transaction.
+     */
+    void insertAll(List<Review> reviews);
+}
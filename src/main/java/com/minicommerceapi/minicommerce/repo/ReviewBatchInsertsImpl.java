@@ -0,0 +1,53 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+class ReviewBatchInsertsImpl implements ReviewBatchInserts {
+
+    private static final String INSERT =
+            "insert into reviews (created_at, updated_at, comment, rating, product_id, user_id, version) values ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, 0)";
+    // Satir basina 6 parametre; eski SQLite surumlerinin 999 parametre sinirinin altinda.
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReviewBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Review> reviews) {
+        for (int from = 0; from < reviews.size(); from += ROWS_PER_STATEMENT) {
+            insert(reviews.subList(from, Math.min(from + ROWS_PER_STATEMENT, reviews.size())));
+        }
+    }
+
+    private void insert(List<Review> rows) {
+        StringBuilder sql = new StringBuilder(INSERT);
+        List<Object> args = new ArrayList<>(rows.size() * 6);
+        for (int i = 0; i < rows.size(); i++) {
+            Review r = rows.get(i);
+            sql.append(i == 0 ? ROW : ", " + ROW);
+            args.add(Timestamp.from(r.getCreatedAt()));
+            args.add(Timestamp.from(r.getUpdatedAt()));
+            args.add(r.getComment());
+            args.add(r.getRating());
+            args.add(r.getProduct().getId());
+            args.add(r.getUser().getId());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+
+        // Tek INSERT'in satirlari kesintisiz id araligi alir (bkz. OrderBatchInsertsImpl).
+        long last = jdbcTemplate.queryForObject("select last_insert_rowid()", Long.class);
+        long first = last - rows.size() + 1;
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(first + i);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.minicommerceapi.minicommerce.repo;
+
+/**
+ * The product and rating of a review, read without loading the review.
+ */
+public record ReviewRating(
+        Long productId,
+        int rating
+) {}
@@ -2,9 +2,13 @@ package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
+import java.util.Optional;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByProductId(Long productId);
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRowQueries, ReviewBatchInserts {
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.ReviewRating(r.product.id, r.rating) from Review r where r.id = :id")
+    Optional<ReviewRating> findRatingById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of a review: the columns of a review response, plus {@code createdAt} for the keyset cursor.
+ * The user and product ids are the foreign key columns; neither entity is joined or loaded.
+ */
+public record ReviewRow(
+        Long id,
+        Long userId,
+        Long productId,
+        int rating,
+        String comment,
+        Instant createdAt
+) {}
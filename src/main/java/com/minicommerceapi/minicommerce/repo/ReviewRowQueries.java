@@ -0,0 +1,18 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Review listing as {@link ReviewRow} projections, built with the Criteria API like {@link ProductRowQueries}.
+ */
+public interface ReviewRowQueries {
+
+    /**
+     * At most {@code limit} rows matching {@code spec} in {@code sort} order, read from the reviews table alone.
+     */
+    List<ReviewRow> findRows(Specification<Review> spec, Sort sort, int limit);
+}
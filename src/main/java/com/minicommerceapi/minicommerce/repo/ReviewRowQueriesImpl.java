@@ -0,0 +1,44 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ReviewRowQueriesImpl implements ReviewRowQueries {
+
+    private final EntityManager entityManager;
+
+    ReviewRowQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ReviewRow> findRows(Specification<Review> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReviewRow> query = cb.createQuery(ReviewRow.class);
+        Root<Review> r = query.from(Review.class);
+        // user.id / product.id yabanci anahtar kolonlaridir: join yok, proxy yok.
+        query.select(cb.construct(ReviewRow.class,
+                r.get("id"), r.get("user").get("id"), r.get("product").get("id"), r.get("rating"), r.get("comment"),
+                r.get("createdAt")));
+        Predicate where = spec.toPredicate(r, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order o : sort) {
+            orders.add(o.isAscending() ? cb.asc(r.get(o.getProperty())) : cb.desc(r.get(o.getProperty())));
+        }
+        query.orderBy(orders);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
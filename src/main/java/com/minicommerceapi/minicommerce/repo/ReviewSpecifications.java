@@ -0,0 +1,35 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for review listing. Both sortable fields have a {@code (product_id, field, id)} index on {@code reviews}
+ * (see {@link Review}).
+ */
+public final class ReviewSpecifications {
+
+    private ReviewSpecifications() {
+        // utility class
+    }
+
+    public static Specification<Review> ofProduct(Long productId) {
+        return (root, query, cb) -> cb.equal(root.get("product").get("id"), productId);
+    }
+
+    /**
+     * Keyset condition for {@code order by field, id} (both in the same direction), written like
+     * {@link ProductSpecifications#after} so that SQLite starts a range scan on the (product_id, field, id) index at
+     * the cursor.
+     */
+    public static <T extends Comparable<? super T>> Specification<Review> after(String field, T value, Long id, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(field);
+            Path<Long> idPath = root.get("id");
+            return ascending
+                    ? cb.and(cb.greaterThanOrEqualTo(path, value), cb.or(cb.greaterThan(path, value), cb.greaterThan(idPath, id)))
+                    : cb.and(cb.lessThanOrEqualTo(path, value), cb.or(cb.lessThan(path, value), cb.lessThan(idPath, id)));
+        };
+    }
+}
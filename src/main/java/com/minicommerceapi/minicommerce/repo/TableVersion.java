@@ -0,0 +1,15 @@
+package com.minicommerceapi.minicommerce.repo;
+
+import java.time.Instant;
+
+/**
+ * Fingerprint of a whole table for conditional GETs of unpaginated lists: row count, highest id, sum of the row
+ * versions and latest change. An insert raises the highest id, a delete lowers the count and every update raises
+ * the version sum, so any change alters at least one of them. Aggregates over an empty table are null.
+ */
+public record TableVersion(
+        long count,
+        Long maxId,
+        Long versionSum,
+        Instant lastModified
+) {}
@@ -2,10 +2,27 @@ package com.minicommerceapi.minicommerce.repo;
 
 import com.minicommerceapi.minicommerce.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.EntityVersion(u.version, u.updatedAt) from User u where u.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.minicommerceapi.minicommerce.repo.TableVersion(count(u), max(u.id), sum(u.version), max(u.updatedAt)) "
+            + "from User u")
+    TableVersion tableVersion();
+
+    /**
+     * Those of the given ids that still exist, in one query.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,11 +2,15 @@ package com.minicommerceapi.minicommerce.service;
 
 import com.minicommerceapi.minicommerce.domain.Category;
 import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.TableVersion;
+import com.minicommerceapi.minicommerce.util.EntityTag;
 import com.minicommerceapi.minicommerce.util.SlugUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,18 +20,28 @@ import java.util.List;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher events;
+    private final UniquenessGuard uniqueness;
 
-    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+                           ApplicationEventPublisher events, UniquenessGuard uniqueness) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.events = events;
+        this.uniqueness = uniqueness;
     }
 
     @Transactional
     public CategoryDtos.CategoryResponse create(CategoryDtos.CreateCategoryRequest req) {
+        String slug = SlugUtil.slugify(req.name());
+        if (slugExists(slug)) {
+            throw new ConflictException("Category already exists");
+        }
         Category c = new Category();
         c.setName(req.name().trim());
-        c.setSlug(SlugUtil.slugify(req.name()));
+        c.setSlug(slug);
         c = categoryRepository.save(c);
+        uniqueness.add(UniquenessGuard.Key.CATEGORY_SLUG, slug);
         return toResponse(c);
     }
 
@@ -36,6 +50,26 @@ public class CategoryService {
         return categoryRepository.findAll().stream().map(this::toResponse).toList();
     }
 
+    /**
+     * ETag of the category list from a table fingerprint; no Last-Modified, a deleted row leaves no newer timestamp.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag listTag() {
+        TableVersion t = categoryRepository.tableVersion();
+        return EntityTag.of("categories").add(t.count()).add(t.maxId()).add(t.versionSum()).add(t.lastModified())
+                .withoutLastModified();
+    }
+
+    /**
+     * Validators of one category read without loading it; null if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag tag(Long id) {
+        return categoryRepository.findVersionById(id)
+                .map(v -> EntityTag.of("category").add(id).add(v.version()).modifiedAt(v.updatedAt()))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public CategoryDtos.CategoryResponse get(Long id) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
@@ -45,8 +79,16 @@ public class CategoryService {
     @Transactional
     public CategoryDtos.CategoryResponse update(Long id, CategoryDtos.UpdateCategoryRequest req) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
+        String slug = SlugUtil.slugify(req.name());
+        if (!c.getSlug().equals(slug)) {
+            if (slugExists(slug)) {
+                throw new ConflictException("Category already exists");
+            }
+            uniqueness.add(UniquenessGuard.Key.CATEGORY_SLUG, slug);
+        }
         c.setName(req.name().trim());
-        c.setSlug(SlugUtil.slugify(req.name()));
+        c.setSlug(slug);
+        events.publishEvent(new CatalogEvents.CategoryChanged(id));
         return toResponse(c);
     }
 
@@ -68,6 +110,11 @@ public class CategoryService {
         categoryRepository.deleteById(id);
     }
 
+    // Isim ve slug ayri ayri benzersiz; slug isimden turetildigi icin (buyuk/kucuk harf, aksan farki dahil) slug'a bakmak yeter.
+    private boolean slugExists(String slug) {
+        return uniqueness.exists(UniquenessGuard.Key.CATEGORY_SLUG, slug, () -> categoryRepository.existsBySlug(slug));
+    }
+
     private CategoryDtos.CategoryResponse toResponse(Category c) {
         return new CategoryDtos.CategoryResponse(c.getId(), c.getName(), c.getSlug());
     }
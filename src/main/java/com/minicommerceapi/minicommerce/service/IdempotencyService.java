@@ -0,0 +1,172 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.IdempotencyKey;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code Idempotency-Key} handling for order creation.
+ * <p>
+ * A key maps to the order it created (persisted with the order, see {@link IdempotencyKey}); recent responses are
+ * also kept in a small in-memory LRU cache. A replay is answered from the cache, or from the stored order id with a
+ * read-only lookup; neither opens a write transaction. Concurrent requests with the same key wait for the single
+ * in-flight execution and share its result. Reusing a key with a different request body is rejected (409).
+ * Requests that race past both (another instance, or a lookup just before the winner committed) are settled by the
+ * unique key constraint: the loser's order is rolled back and it replays the winner's order.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Map<String, CachedOrder> cache;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(OrderService orderService, IdempotencyKeyRepository repository,
+                              @Value("${minicommerce.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${minicommerce.idempotency.cache-size:10000}") int cacheSize) {
+        this.orderService = orderService;
+        this.repository = repository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedOrder> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public record Outcome(OrderDtos.OrderResponse order, boolean replayed) {}
+
+    public Outcome createOrder(String key, OrderDtos.CreateOrderRequest req) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(req);
+
+        CachedOrder cached = cache.get(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            requireSameRequest(cached.requestHash(), requestHash);
+            return new Outcome(cached.order(), true);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Ayni anahtarla calisan bir istek var: yarismak yerine onun sonucunu bekle.
+            requireSameRequest(running.requestHash(), requestHash);
+            return new Outcome(await(running.result()), true);
+        }
+        try {
+            Outcome outcome = executeOnce(key, requestHash, req);
+            mine.result().complete(outcome.order());
+            return outcome;
+        } catch (RuntimeException e) {
+            // Basarisiz istek kaydedilmez; bekleyenler ayni hatayi alir, sonraki deneme yeniden calisir.
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drops expired keys from the store and the cache.
+     */
+    @Scheduled(fixedDelayString = "${minicommerce.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        repository.deleteExpired(now);
+        synchronized (cache) {
+            cache.values().removeIf(c -> !c.expiresAt().isAfter(now));
+        }
+    }
+
+    private Outcome executeOnce(String key, String requestHash, OrderDtos.CreateOrderRequest req) {
+        // Onbellekte yoksa (yeniden baslatma, LRU) kalici kayda bakilir; yalnizca okuma.
+        Optional<Outcome> replay = replayStored(key, requestHash);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        OrderDtos.OrderResponse order;
+        try {
+            order = orderService.create(req, key, requestHash, expiresAt);
+        } catch (DataIntegrityViolationException e) {
+            // Ayni anahtari baska bir istek once kaydetti; bizim siparisimiz geri alindi, onunkini dondur.
+            return replayStored(key, requestHash)
+                    .orElseThrow(() -> new ConflictException(KEY_HEADER + " is being used by another request"));
+        }
+        cache.put(key, new CachedOrder(requestHash, order, expiresAt));
+        return new Outcome(order, false);
+    }
+
+    private Optional<Outcome> replayStored(String key, String requestHash) {
+        Optional<IdempotencyKey> stored = repository.findByIdempotencyKey(key)
+                .filter(k -> k.getExpiresAt().isAfter(Instant.now()));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        requireSameRequest(stored.get().getRequestHash(), requestHash);
+        OrderDtos.OrderResponse order = orderService.get(stored.get().getOrderId());
+        cache.put(key, new CachedOrder(requestHash, order, stored.get().getExpiresAt()));
+        return Optional.of(new Outcome(order, true));
+    }
+
+    private static void requireSameRequest(String expectedHash, String actualHash) {
+        if (!expectedHash.equals(actualHash)) {
+            throw new ConflictException(KEY_HEADER + " was already used with a different request");
+        }
+    }
+
+    private static OrderDtos.OrderResponse await(CompletableFuture<OrderDtos.OrderResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Record toString'i alanlari sabit sirada yazar; istek govdesinin parmak izi olarak yeterli.
+    private static String fingerprint(OrderDtos.CreateOrderRequest req) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(req.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedOrder(String requestHash, OrderDtos.OrderResponse order, Instant expiresAt) {}
+
+    private record InFlight(String requestHash, CompletableFuture<OrderDtos.OrderResponse> result) {}
+}
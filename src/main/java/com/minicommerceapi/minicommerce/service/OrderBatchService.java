@@ -0,0 +1,51 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk order creation: splits a request into chunks and creates each chunk in its own transaction
+ * through {@link OrderService#createChunk}. A chunk that fails as a whole (e.g. retries exhausted)
+ * reports all of its orders as failed; the other chunks are unaffected.
+ */
+@Service
+public class OrderBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchService.class);
+
+    private final OrderService orderService;
+    private final int chunkSize;
+
+    public OrderBatchService(OrderService orderService,
+                             @Value("${minicommerce.orders.batch.chunk-size:100}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("minicommerce.orders.batch.chunk-size must be >= 1");
+        }
+        this.orderService = orderService;
+        this.chunkSize = chunkSize;
+    }
+
+    public OrderDtos.BatchOrderResponse create(List<OrderDtos.CreateOrderRequest> requests) {
+        List<OrderDtos.BatchOrderResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<OrderDtos.CreateOrderRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            try {
+                results.addAll(orderService.createChunk(chunk, from));
+            } catch (RuntimeException e) {
+                // Ayrinti (SQL, surucu mesaji) yalnizca loga yazilir; istemci sabit bir mesaj alir.
+                log.warn("Order batch chunk at {} failed", from, e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(OrderDtos.BatchOrderResult.failed(from + i, "Chunk failed"));
+                }
+            }
+        }
+        int created = (int) results.stream().filter(OrderDtos.BatchOrderResult::created).count();
+        return new OrderDtos.BatchOrderResponse(created, results.size() - created, results);
+    }
+}
@@ -1,94 +1,297 @@
 package com.minicommerceapi.minicommerce.service;
 
+import com.minicommerceapi.minicommerce.config.RetryOnConflict;
 import com.minicommerceapi.minicommerce.domain.*;
 import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
 import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.IdempotencyKeyRepository;
 import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.OrderSpecifications;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.stock.ShardedStockService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final Sort PAGE_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final Instant EXPORT_MAX_TO = Instant.parse("9999-12-31T23:59:59Z");
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final ShardedStockService shardedStock;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ApplicationEventPublisher events;
 
-    public OrderService(OrderRepository orderRepository, UserRepository userRepository, ProductRepository productRepository) {
+    public OrderService(OrderRepository orderRepository, UserRepository userRepository, ProductRepository productRepository,
+                        StockLedger stockLedger, ShardedStockService shardedStock, EntityManager entityManager,
+                        JsonMapper jsonMapper, JdbcTemplate jdbcTemplate, IdempotencyKeyRepository idempotencyKeyRepository,
+                        ApplicationEventPublisher events) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.shardedStock = shardedStock;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.events = events;
     }
 
+    @RetryOnConflict("order.create")
     @Transactional
     public OrderDtos.OrderResponse create(OrderDtos.CreateOrderRequest req) {
+        return toResponse(placeOrder(req));
+    }
+
+    /**
+     * Same as {@link #create(OrderDtos.CreateOrderRequest)}, and records {@code idempotencyKey} in the same
+     * transaction so that a key is stored if and only if its order is. If another request stored the same key
+     * first, the unique constraint fails the insert and the whole transaction, order included, is rolled back
+     * ({@link org.springframework.dao.DataIntegrityViolationException}).
+     */
+    @RetryOnConflict("order.create")
+    @Transactional
+    public OrderDtos.OrderResponse create(OrderDtos.CreateOrderRequest req, String idempotencyKey, String requestHash,
+                                          Instant expiresAt) {
+        Order saved = placeOrder(req);
+
+        // Yalnizca suresi dolmus (henuz temizlenmemis) eski kayit silinir; canli kayit varsa insert patlar.
+        idempotencyKeyRepository.deleteExpiredKey(idempotencyKey, Instant.now());
+        IdempotencyKey key = new IdempotencyKey();
+        key.setIdempotencyKey(idempotencyKey);
+        key.setRequestHash(requestHash);
+        key.setOrderId(saved.getId());
+        key.setExpiresAt(expiresAt);
+        // flush: unique ihlali commit'te degil burada, bu transaction icinde gorulsun
+        idempotencyKeyRepository.saveAndFlush(key);
+
+        return toResponse(saved);
+    }
 
+    private Order placeOrder(OrderDtos.CreateOrderRequest req) {
         // Transactional onemli: siparis olusurken hata alinirsa stok dusumunun rollback olmasi gerekir.
+        Map<Long, Integer> quantities = mergeQuantities(req.items());
+        reserveStock(quantities);
+
         User user = userRepository.findById(req.userId()).orElseThrow(() -> new NotFoundException("User not found"));
 
-        Order order = new Order();
-        order.setUser(user);
-        order.setStatus(OrderStatus.CREATED);
+        // Urunler dusumden sonra tek sorguda yuklenir; fiyat ve isim icin gerekli.
+        Map<Long, Product> products = loadProducts(quantities.keySet());
+        publishStockChanged(products.values());
 
-        BigDecimal total = BigDecimal.ZERO;
+        Order saved = orderRepository.save(buildOrder(user, quantities, products));
+        events.publishEvent(new CatalogEvents.ProductsOrdered(saved.getId(), quantities));
+        return saved;
+    }
 
-        for (OrderDtos.CreateOrderItem itemReq : req.items()) {
-            Product product = productRepository.findById(itemReq.productId())
-                    .orElseThrow(() -> new NotFoundException("Product not found: " + itemReq.productId()));
+    /**
+     * Creates a chunk of a bulk request in one transaction. Each order validates and reserves its stock under
+     * its own savepoint, so an invalid order is rolled back alone and reported as failed; the accepted orders
+     * and their items are then inserted with one JDBC batch each.
+     *
+     * @param firstIndex position of the chunk's first order in the bulk request, used for result indexes
+     */
+    @RetryOnConflict("order.create-batch")
+    @Transactional
+    public List<OrderDtos.BatchOrderResult> createChunk(List<OrderDtos.CreateOrderRequest> requests, int firstIndex) {
+        OrderDtos.BatchOrderResult[] results = new OrderDtos.BatchOrderResult[requests.size()];
+        Map<Integer, Map<Long, Integer>> accepted = new LinkedHashMap<>();
+        Map<Long, User> users = null;
 
-            if (itemReq.quantity() <= 0) {
-                throw new BadRequestException("Quantity must be >= 1");
+        for (int i = 0; i < requests.size(); i++) {
+            OrderDtos.CreateOrderRequest req = requests.get(i);
+            // Not: JPA savepoint desteklemiyor; transaction'in JDBC baglantisinda dogrudan SAVEPOINT kullanilir.
+            jdbcTemplate.execute("savepoint batch_order");
+            try {
+                Map<Long, Integer> quantities = mergeQuantities(validItems(req));
+                if (stockLedger.isEnabled()) {
+                    // Defterdeki ayirma savepoint ile geri alinmaz: once kullanici dogrulanir, ayirma en son yapilir.
+                    users = users != null ? users : loadUsers(requests);
+                    requireUser(users, req.userId());
+                    reserveStock(quantities);
+                } else {
+                    // Kullanicilar ilk stok UPDATE'inden sonra tek sorguda yuklenir (once yazma, bkz. create).
+                    reserveStock(quantities);
+                    users = users != null ? users : loadUsers(requests);
+                    requireUser(users, req.userId());
+                }
+                jdbcTemplate.execute("release savepoint batch_order");
+                accepted.put(i, quantities);
+            } catch (BadRequestException | NotFoundException e) {
+                jdbcTemplate.execute("rollback to savepoint batch_order");
+                jdbcTemplate.execute("release savepoint batch_order");
+                results[i] = OrderDtos.BatchOrderResult.failed(firstIndex + i, e.getMessage());
             }
-            if (product.getStock() < itemReq.quantity()) {
-                throw new BadRequestException("Insufficient stock for product " + product.getId());
+        }
+
+        if (!accepted.isEmpty()) {
+            Set<Long> productIds = new HashSet<>();
+            accepted.values().forEach(q -> productIds.addAll(q.keySet()));
+            Map<Long, Product> products = loadProducts(productIds);
+            publishStockChanged(products.values());
+
+            List<Order> orders = new ArrayList<>(accepted.size());
+            for (Map.Entry<Integer, Map<Long, Integer>> e : accepted.entrySet()) {
+                orders.add(buildOrder(users.get(requests.get(e.getKey()).userId()), e.getValue(), products));
             }
+            orderRepository.insertAll(orders);
 
-            product.setStock(product.getStock() - itemReq.quantity()); // stok dusumu (basit senaryo)
+            int n = 0;
+            for (Map.Entry<Integer, Map<Long, Integer>> e : accepted.entrySet()) {
+                Order order = orders.get(n++);
+                events.publishEvent(new CatalogEvents.ProductsOrdered(order.getId(), e.getValue()));
+                results[e.getKey()] = OrderDtos.BatchOrderResult.created(firstIndex + e.getKey(), toResponse(order));
+            }
+        }
+        return List.of(results);
+    }
 
-            OrderItem item = new OrderItem();
-            item.setProduct(product);
-            item.setQuantity(itemReq.quantity());
-            item.setUnitPrice(product.getPrice());
-            item.setLineTotal(product.getPrice().multiply(BigDecimal.valueOf(itemReq.quantity())));
+    /**
+     * Keyset pagination over {@code (createdAt desc, id desc)}. Every page costs two SELECTs
+     * (the page rows, then their items) no matter how deep the cursor is.
+     */
+    @Transactional(readOnly = true)
+    public OrderDtos.OrderPage list(OrderDtos.OrderFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
-            total = total.add(item.getLineTotal());
-            order.addItem(item);
+        List<Specification<Order>> specs = new ArrayList<>();
+        if (filter.userId() != null) specs.add(OrderSpecifications.hasUser(filter.userId()));
+        if (filter.status() != null) specs.add(OrderSpecifications.hasStatus(parseStatus(filter.status())));
+        if (filter.createdFrom() != null) specs.add(OrderSpecifications.createdAtOrAfter(filter.createdFrom()));
+        if (filter.createdTo() != null) specs.add(OrderSpecifications.createdBefore(filter.createdTo()));
+        if (filter.minTotal() != null) specs.add(OrderSpecifications.totalAtLeast(filter.minTotal()));
+        if (cursor != null) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            specs.add(OrderSpecifications.after(Instant.ofEpochMilli(KeysetCursor.decodeLong(key[0])), KeysetCursor.decodeLong(key[1])));
         }
 
-        order.setTotal(total);
-        Order saved = orderRepository.save(order);
+        // Bir fazla satir istenir: gelirse bir sonraki sayfa vardir.
+        List<Order> rows = orderRepository.findBy(Specification.allOf(specs),
+                q -> q.sortBy(PAGE_ORDER).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        List<Order> page = hasMore ? rows.subList(0, limit) : rows;
+        if (page.isEmpty()) {
+            return new OrderDtos.OrderPage(List.of(), null);
+        }
 
-        return toResponse(saved);
+        Map<Long, Order> withItems = new HashMap<>();
+        for (Order o : orderRepository.findAllWithItemsByIdIn(page.stream().map(Order::getId).toList())) {
+            withItems.put(o.getId(), o);
+        }
+        List<OrderDtos.OrderResponse> items = page.stream().map(o -> toResponse(withItems.get(o.getId()))).toList();
+
+        // created_at SQLite'ta epoch milisaniye olarak tutulur; cursor da ayni hassasiyette.
+        Order last = page.get(page.size() - 1);
+        String next = hasMore ? KeysetCursor.encode(last.getCreatedAt().toEpochMilli(), last.getId()) : null;
+        return new OrderDtos.OrderPage(items, next);
     }
 
+    /**
+     * Writes every order in {@code [from, to)} with its items to {@code out} as newline-delimited JSON.
+     * Orders are read through a forward-only cursor in chunks; each chunk's items are fetched in one query,
+     * written, flushed and then detached, so memory stays flat regardless of the number of orders.
+     *
+     * @return the number of orders written
+     */
     @Transactional(readOnly = true)
-    public List<OrderDtos.OrderResponse> list() {
-        return orderRepository.findAll().stream().map(this::toResponse).toList();
+    public long export(Instant from, Instant to, OutputStream out) throws IOException {
+        checkExportRange(from, to);
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : EXPORT_MAX_TO;
+
+        long written = 0;
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Order> orders = orderRepository.streamByCreatedAtRange(start, end)) {
+            Iterator<Order> it = orders.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !it.hasNext()) {
+                    written += writeChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Validates an export range up front, so that callers streaming the response can reject it before anything
+     * is written.
+     *
+     * @throws BadRequestException if {@code from} is not before {@code to}
+     */
+    public void checkExportRange(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("createdFrom must be before createdTo");
+        }
+    }
+
+    private int writeChunk(List<Order> chunk, OutputStream out) throws IOException {
+        // Kalemler parca basina tek sorguda; yonetilen Order nesnelerinin koleksiyonlari doldurulur.
+        orderRepository.findAllWithItemsByIdIn(chunk.stream().map(Order::getId).toList());
+        for (Order o : chunk) {
+            out.write(jsonMapper.writeValueAsBytes(toResponse(o)));
+            out.write('\n');
+        }
+        out.flush();
+        // Yazilan siparisler persistence context'ten atilir; bellekte sadece o anki parca kalir.
+        entityManager.clear();
+        return chunk.size();
     }
 
     @Transactional(readOnly = true)
     public OrderDtos.OrderResponse get(Long id) {
-        Order order = orderRepository.findById(id).orElseThrow(() -> new NotFoundException("Order not found"));
+        Order order = orderRepository.findWithItemsById(id).orElseThrow(() -> new NotFoundException("Order not found"));
         return toResponse(order);
     }
 
+    @RetryOnConflict("order.patch-status")
     @Transactional
     public OrderDtos.OrderResponse patchStatus(Long id, OrderDtos.PatchOrderRequest req) {
         // Basit bir durum makinasi: CREATED -> PAID veya CANCELLED. Sonrasi terminal.
         Order order = orderRepository.findById(id).orElseThrow(() -> new NotFoundException("Order not found"));
 
-        OrderStatus newStatus;
-        try {
-            newStatus = OrderStatus.valueOf(req.status().trim().toUpperCase());
-        } catch (Exception e) {
-            throw new BadRequestException("Invalid status. Allowed: CREATED, PAID, CANCELLED");
-        }
+        OrderStatus newStatus = parseStatus(req.status());
 
         if (order.getStatus() != OrderStatus.CREATED) {
             throw new ConflictException("Order status cannot be changed after it is " + order.getStatus());
@@ -109,6 +312,141 @@ public class OrderService {
         orderRepository.deleteById(id);
     }
 
+    // Ayni urun birden fazla satirda gelirse tek satirda birlestirilir; ilk gorulme sirasi korunur.
+    private static Map<Long, Integer> mergeQuantities(List<OrderDtos.CreateOrderItem> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderDtos.CreateOrderItem itemReq : items) {
+            if (itemReq.quantity() <= 0) {
+                throw new BadRequestException("Quantity must be >= 1");
+            }
+            // Ayni urunun satirlari toplanirken tasma negatif miktar uretip stok kontrolunu atlatmasin.
+            try {
+                quantities.merge(itemReq.productId(), itemReq.quantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new BadRequestException("Quantity too large for product " + itemReq.productId());
+            }
+        }
+        return quantities;
+    }
+
+    // Toplu isteklerde siparisler tek tek dogrulanir; @Valid tum istegi reddederdi.
+    private static List<OrderDtos.CreateOrderItem> validItems(OrderDtos.CreateOrderRequest req) {
+        if (req == null || req.userId() == null) {
+            throw new BadRequestException("userId is required");
+        }
+        if (req.items() == null || req.items().isEmpty()) {
+            throw new BadRequestException("items must not be empty");
+        }
+        for (OrderDtos.CreateOrderItem item : req.items()) {
+            if (item == null || item.productId() == null) {
+                throw new BadRequestException("productId is required");
+            }
+        }
+        return req.items();
+    }
+
+    private void reserveStock(Map<Long, Integer> quantities) {
+        if (stockLedger.isEnabled()) {
+            // Flash sale modu: stok bellekteki defterden ayrilir, DB'ye arka planda toplu yazilir.
+            // Transaction rollback olursa ayrilan adetler deftere geri doner.
+            stockLedger.reserve(quantities);
+            return;
+        }
+        // Stok dusumu kosullu UPDATE ile yapilir (stock >= qty); okuma-yazma arasinda yaris kalmaz.
+        // Id sirasiyla gidiyoruz ki satir kilitleri her sipariste ayni sirada alinsin.
+        // Bir satir basarisiz olursa exception tum transaction'i (onceki dusumler dahil) geri alir.
+        // Not: UPDATE'ler transaction'in ilk cumleleri. SQLite'ta once SELECT yapilirsa okuma kilidi yazma
+        // kilidine yukseltilemez ve busy_timeout beklemeden SQLITE_BUSY doner.
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            // Shard sayisi bellekten okunur: shard'li urun de tek (shard) UPDATE ile dusulur.
+            int knownShards = shardedStock.shards(productId);
+            if (decrement(productId, knownShards, quantity)) {
+                continue;
+            }
+            // Stok yetersiz ya da bellekteki shard sayisi eski (urun bu arada shard'landi/birlestirildi): DB'ye sorulur.
+            int shards = productRepository.findStockShardsById(productId)
+                    .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
+            if (Math.max(shards, 1) == Math.max(knownShards, 1) || !decrement(productId, shards, quantity)) {
+                throw new BadRequestException("Insufficient stock for product " + productId);
+            }
+        }
+    }
+
+    private boolean decrement(Long productId, int shards, int quantity) {
+        return shards > 1
+                ? shardedStock.decrement(productId, shards, quantity)
+                : productRepository.decrementStock(productId, quantity) == 1;
+    }
+
+    private Map<Long, User> loadUsers(List<OrderDtos.CreateOrderRequest> requests) {
+        Set<Long> ids = new HashSet<>();
+        for (OrderDtos.CreateOrderRequest req : requests) {
+            if (req != null && req.userId() != null) {
+                ids.add(req.userId());
+            }
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(ids).forEach(u -> users.put(u.getId(), u));
+        return users;
+    }
+
+    private static void requireUser(Map<Long, User> users, Long userId) {
+        if (!users.containsKey(userId)) {
+            throw new NotFoundException("User not found");
+        }
+    }
+
+    private Map<Long, Product> loadProducts(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product p : productRepository.findAllByIdInOrderById(ids)) {
+            products.put(p.getId(), p);
+        }
+        return products;
+    }
+
+    private void publishStockChanged(Collection<Product> products) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (Product p : products) {
+            productIds.add(p.getId());
+            categoryIds.add(p.getCategory().getId());
+        }
+        events.publishEvent(new CatalogEvents.StockChanged(productIds, categoryIds));
+    }
+
+    private static Order buildOrder(User user, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(OrderStatus.CREATED);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            int quantity = line.getValue();
+
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setUnitPrice(product.getPrice());
+            item.setLineTotal(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+
+            total = total.add(item.getLineTotal());
+            order.addItem(item);
+        }
+        order.setTotal(total);
+        return order;
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid status. Allowed: CREATED, PAID, CANCELLED");
+        }
+    }
+
     private OrderDtos.OrderResponse toResponse(Order o) {
         List<OrderDtos.OrderItemResponse> items = o.getItems().stream()
                 .map(oi -> new OrderDtos.OrderItemResponse(
@@ -0,0 +1,218 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.repo.ProductKey;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ProductUpdate;
+import com.minicommerceapi.minicommerce.service.stock.ShardedStockService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk price and stock update (PATCH /api/products/bulk), keyed by product id or SKU.
+ * <p>
+ * The request is split into chunks. For each chunk the products are looked up with one query per key type (outside
+ * the write transaction) and the found ones are written in a transaction of their own with set-based UPDATE
+ * statements (see {@link ProductRepository#updatePriceAndStock}); no entity is loaded or dirty-checked. Stock kept in
+ * the stock ledger or in shards is set through those instead of the {@code stock} column. Their new state is read
+ * back with one query and published as {@link CatalogEvents.ProductsUpdated} for the caches and indexes.
+ * <p>
+ * Every item gets a result: unknown ids and SKUs, invalid items and items naming a product already updated earlier
+ * in the request fail alone. A chunk that fails as a whole reports all of its written items as failed; committed
+ * chunks stay.
+ */
+@Service
+public class ProductBulkUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkUpdateService.class);
+
+    // IN listeleri bu boyutta bolunur; SQLite'in parametre sinirinin epey altinda.
+    private static final int MAX_IN_PARAMS = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final StockLedger stockLedger;
+    private final ShardedStockService shardedStock;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ProductBulkUpdateService(ProductRepository productRepository, ProductService productService,
+                                    StockLedger stockLedger, ShardedStockService shardedStock,
+                                    TransactionTemplate transactionTemplate, ApplicationEventPublisher events,
+                                    Validator validator,
+                                    @Value("${minicommerce.products.bulk-update.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("minicommerce.products.bulk-update.chunk-size must be >= 1");
+        }
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.stockLedger = stockLedger;
+        this.shardedStock = shardedStock;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductDtos.BulkUpdateResponse update(List<ProductDtos.BulkUpdateItem> items) {
+        long started = System.currentTimeMillis();
+        ProductDtos.BulkUpdateResult[] results = new ProductDtos.BulkUpdateResult[items.size()];
+        Set<Long> seen = new HashSet<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            updateChunk(items.subList(from, Math.min(from + chunkSize, items.size())), from, results, seen);
+        }
+        int updated = 0;
+        for (ProductDtos.BulkUpdateResult result : results) {
+            if (result.updated()) updated++;
+        }
+        log.info("Product bulk update: {} updated, {} failed in {} ms",
+                updated, results.length - updated, System.currentTimeMillis() - started);
+        return new ProductDtos.BulkUpdateResponse(updated, results.length - updated, List.of(results));
+    }
+
+    private record Accepted(int index, ProductKey key, ProductDtos.BulkUpdateItem item) {}
+
+    private void updateChunk(List<ProductDtos.BulkUpdateItem> items, int offset,
+                             ProductDtos.BulkUpdateResult[] results, Set<Long> seen) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<String> skus = new LinkedHashSet<>();
+        String[] errors = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            ProductDtos.BulkUpdateItem item = items.get(i);
+            errors[i] = validate(item);
+            if (errors[i] == null) {
+                if (item.id() != null) ids.add(item.id());
+                else skus.add(item.sku().trim());
+            }
+        }
+        Map<Long, ProductKey> byId = lookUp(ids, productRepository::findKeysByIdIn, ProductKey::id);
+        Map<String, ProductKey> bySku = lookUp(skus, productRepository::findKeysBySkuIn, ProductKey::sku);
+
+        List<Accepted> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ProductDtos.BulkUpdateItem item = items.get(i);
+            int index = offset + i;
+            ProductKey key = errors[i] != null ? null
+                    : item.id() != null ? byId.get(item.id()) : bySku.get(item.sku().trim());
+            if (errors[i] != null) {
+                results[index] = ProductDtos.BulkUpdateResult.failed(index, item.id(), item.sku(), errors[i]);
+            } else if (key == null) {
+                results[index] = ProductDtos.BulkUpdateResult.failed(index, item.id(), item.sku(), "Product not found");
+            } else if (!seen.add(key.id())) {
+                results[index] = ProductDtos.BulkUpdateResult.failed(index, key.id(), key.sku(),
+                        "Product already updated by an earlier item");
+            } else {
+                accepted.add(new Accepted(index, key, item));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Set<Long> written;
+        try {
+            written = transactionTemplate.execute(status -> write(accepted));
+        } catch (RuntimeException e) {
+            // Ayrinti (SQL, surucu mesaji) yalnizca loga yazilir; istemci sabit bir mesaj alir.
+            log.warn("Product bulk update chunk at {} failed", offset, e);
+            for (Accepted a : accepted) {
+                results[a.index()] = ProductDtos.BulkUpdateResult.failed(a.index(), a.key().id(), a.key().sku(),
+                        "Chunk failed");
+            }
+            return;
+        }
+        for (Accepted a : accepted) {
+            // Arama ile yazma arasinda silinen urun guncellenmemistir.
+            results[a.index()] = written.contains(a.key().id())
+                    ? ProductDtos.BulkUpdateResult.updated(a.index(), a.key().id(), a.key().sku())
+                    : ProductDtos.BulkUpdateResult.failed(a.index(), a.key().id(), a.key().sku(), "Product not found");
+        }
+    }
+
+    // Yazilan urunlerin id'lerini dondurur.
+    private Set<Long> write(List<Accepted> accepted) {
+        List<ProductUpdate> updates = new ArrayList<>(accepted.size());
+        for (Accepted a : accepted) {
+            Long id = a.key().id();
+            Integer stock = a.item().stock();
+            // Stok defterde ya da shard'larda tutuluyorsa kolon degil sahibi guncellenir; PATCH /{id} ile ayni kural.
+            if (stock != null && stockLedger.isEnabled()) {
+                stockLedger.adjustTo(id, stock);
+                stock = null;
+            } else if (stock != null && a.key().stockShards() > 1) {
+                shardedStock.setTotal(id, stock);
+                stock = null;
+            }
+            updates.add(new ProductUpdate(id, a.item().price(), stock));
+        }
+        productRepository.updatePriceAndStock(updates, Instant.now());
+
+        List<ProductDtos.ProductResponse> products = new ArrayList<>(accepted.size());
+        for (List<Long> part : partition(updates.stream().map(ProductUpdate::id).toList())) {
+            products.addAll(productService.getAll(part));
+        }
+        Set<Long> categoryIds = products.stream().map(ProductDtos.ProductResponse::categoryId).collect(Collectors.toSet());
+        events.publishEvent(new CatalogEvents.ProductsUpdated(products, categoryIds));
+        return products.stream().map(ProductDtos.ProductResponse::id).collect(Collectors.toSet());
+    }
+
+    private String validate(ProductDtos.BulkUpdateItem item) {
+        Set<ConstraintViolation<ProductDtos.BulkUpdateItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        boolean hasSku = item.sku() != null && !item.sku().isBlank();
+        if ((item.id() == null) == !hasSku) {
+            return "Exactly one of id and sku is required";
+        }
+        if (item.price() == null && item.stock() == null) {
+            return "Nothing to update: price or stock is required";
+        }
+        return null;
+    }
+
+    private static <K> Map<K, ProductKey> lookUp(Collection<K> keys, Function<List<K>, List<ProductKey>> query,
+                                                 Function<ProductKey, K> keyOf) {
+        Map<K, ProductKey> found = new HashMap<>();
+        for (List<K> part : partition(keys)) {
+            for (ProductKey key : query.apply(part)) {
+                found.put(keyOf.apply(key), key);
+            }
+        }
+        return found;
+    }
+
+    private static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_IN_PARAMS) {
+            parts.add(all.subList(from, Math.min(from + MAX_IN_PARAMS, all.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,161 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.util.EntityTag;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of {@link ProductService#getTagged} and {@link ProductService#listTagged}. Bodies are
+ * cached with their validators, so a conditional GET that hits the cache reads nothing from the database.
+ * <p>
+ * Single products are bounded by count, listing pages by weight (number of products they hold);
+ * both use Caffeine's frequency-aware (W-TinyLFU) eviction. Entries are invalidated from {@link CatalogEvents}
+ * when the write happens and again after its transaction completes. Every invalidation bumps a generation counter
+ * first; a load that was still running when the counter moved (it may have read the rows before the commit) is
+ * returned to its caller but not kept. Invalidating present entries alone would not catch it: Caffeine only waits
+ * for an in-flight load on {@code invalidate(key)} of that key, not on {@code asMap()} bulk removal.
+ * Statistics are published as {@code cache.*} metrics ({@code cache=products} / {@code cache=product-lists}).
+ */
+@Component
+public class ProductCache {
+
+    private final boolean enabled;
+    private final Cache<Long, EntityTag.Tagged<ProductDtos.ProductResponse>> products;
+    private final Cache<ProductDtos.ProductPageRequest, EntityTag.Tagged<ProductDtos.ProductPage>> lists;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(@Value("${minicommerce.cache.products.enabled:true}") boolean enabled,
+                        @Value("${minicommerce.cache.products.max-size:10000}") long maxSize,
+                        @Value("${minicommerce.cache.products.list-max-weight:100000}") long listMaxWeight,
+                        @Value("${minicommerce.cache.products.ttl-seconds:600}") long ttlSeconds,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumWeight(listMaxWeight)
+                .<ProductDtos.ProductPageRequest, EntityTag.Tagged<ProductDtos.ProductPage>>weigher(
+                        (request, page) -> page.body().items().size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, products, "products");
+            CaffeineCacheMetrics.monitor(registry, lists, "product-lists");
+        });
+    }
+
+    public EntityTag.Tagged<ProductDtos.ProductResponse> get(Long id,
+                                                             Supplier<EntityTag.Tagged<ProductDtos.ProductResponse>> loader) {
+        return enabled ? load(products, id, loader) : loader.get();
+    }
+
+    public EntityTag.Tagged<ProductDtos.ProductPage> list(ProductDtos.ProductPageRequest request,
+                                                         Supplier<EntityTag.Tagged<ProductDtos.ProductPage>> loader) {
+        return enabled ? load(lists, request, loader) : loader.get();
+    }
+
+    // Yukleme surerken nesil degistiyse eski satirlari okumus olabilir: cagirana doner ama onbellekte kalmaz.
+    private <K, V> V load(Cache<K, V> cache, K key, Supplier<V> loader) {
+        long seen = generation.get();
+        boolean[] loaded = new boolean[1];
+        V value = cache.get(key, k -> {
+            loaded[0] = true;
+            return loader.get();
+        });
+        if (loaded[0] && generation.get() != seen) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry; for writes that bypass the services (bulk SQL, fixtures).
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        products.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    @EventListener
+    public void onProductChanged(CatalogEvents.ProductChanged event) {
+        evictNowAndAfterCompletion(() -> {
+            products.invalidate(event.productId());
+            invalidateLists(event.categoryIds());
+        });
+    }
+
+    @EventListener
+    public void onProductsCreated(CatalogEvents.ProductsCreated event) {
+        // Yeni urunler tek tek onbellekte olamaz; sadece listeler etkilenir.
+        evictNowAndAfterCompletion(() -> invalidateLists(event.categoryIds()));
+    }
+
+    @EventListener
+    public void onProductsUpdated(CatalogEvents.ProductsUpdated event) {
+        List<Long> ids = event.products().stream().map(ProductDtos.ProductResponse::id).toList();
+        evictNowAndAfterCompletion(() -> {
+            products.invalidateAll(ids);
+            invalidateLists(event.categoryIds());
+        });
+    }
+
+    @EventListener
+    public void onStockChanged(CatalogEvents.StockChanged event) {
+        evictNowAndAfterCompletion(() -> {
+            products.invalidateAll(event.productIds());
+            invalidateLists(event.categoryIds());
+        });
+    }
+
+    @EventListener
+    public void onCategoryChanged(CatalogEvents.CategoryChanged event) {
+        // Urun yanitlari kategori adini tasir; o kategorideki tum urunler dusurulur.
+        evictNowAndAfterCompletion(() -> {
+            products.asMap().values().removeIf(p -> event.categoryId().equals(p.body().categoryId()));
+            invalidateLists(List.of(event.categoryId()));
+        });
+    }
+
+    // Kategori filtresiz sayfalar her degisiklikten etkilenir.
+    private void invalidateLists(Collection<Long> categoryIds) {
+        lists.asMap().keySet().removeIf(r -> r.categoryId() == null || categoryIds.contains(r.categoryId()));
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
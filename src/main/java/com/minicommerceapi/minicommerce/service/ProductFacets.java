@@ -0,0 +1,335 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory facet counts for the catalog sidebar (GET /api/products/facets): products and in-stock products per
+ * category, and products per price bucket, overall or within one category.
+ * <p>
+ * The counts follow committed writes: product create/patch/delete ({@link CatalogEvents.ProductChanged}), imports
+ * ({@link CatalogEvents.ProductsCreated}), bulk price/stock updates ({@link CatalogEvents.ProductsUpdated}), orders
+ * ({@link CatalogEvents.StockChanged}; the new available stock of those products is read back in one query) and
+ * category renames. Reading them is O(categories + buckets).
+ * <p>
+ * The aggregate is built on startup and reconciled with the tables periodically, which also corrects writes that
+ * publish no event (bulk deletes, direct SQL). The scan runs without the lock; changes applied meanwhile are
+ * recorded and replayed onto the new aggregate before it replaces the current one. They are upserts of a
+ * product's full state, so replaying one the scan has already seen is harmless.
+ */
+@Component
+public class ProductFacets {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacets.class);
+
+    private record Entry(long categoryId, int bucket, boolean inStock) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final StockLedger stockLedger;
+    private final long[] boundaries;
+    private final List<BigDecimal> boundaryPrices;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Aggregate current;
+    // Yeniden kurulum surerken uygulanan degisiklikler; null ise kurulum yok.
+    private List<Consumer<Aggregate>> pending;
+
+    public ProductFacets(JdbcTemplate jdbcTemplate, ProductService productService, CategoryRepository categoryRepository,
+                         StockLedger stockLedger,
+                         @Value("${minicommerce.facets.price-buckets:10,25,50,100,250,500}") BigDecimal[] priceBuckets) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productService = productService;
+        this.categoryRepository = categoryRepository;
+        this.stockLedger = stockLedger;
+        BigDecimal[] sorted = priceBuckets.clone();
+        Arrays.sort(sorted);
+        this.boundaries = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i].signum() <= 0 || (i > 0 && sorted[i].compareTo(sorted[i - 1]) == 0)) {
+                throw new IllegalArgumentException("minicommerce.facets.price-buckets must be distinct positive prices");
+            }
+            boundaries[i] = cents(sorted[i]);
+        }
+        this.boundaryPrices = List.of(sorted);
+        this.current = new Aggregate(boundaries.length + 1);
+    }
+
+    /**
+     * Facet counts; with a {@code categoryId} the totals and price buckets cover that category only.
+     * Categories without products are left out of the category list.
+     */
+    public ProductDtos.FacetsResponse facets(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            Counts scope = categoryId == null ? current.total : current.categories.get(categoryId);
+            if (scope == null) {
+                scope = new Counts(null, boundaries.length + 1);
+            }
+            List<ProductDtos.CategoryFacet> categories = new ArrayList<>(current.categories.size());
+            current.categories.forEach((id, c) ->
+                    categories.add(new ProductDtos.CategoryFacet(id, c.name, c.products, c.inStock)));
+            categories.sort(Comparator.comparing(ProductDtos.CategoryFacet::name, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(ProductDtos.CategoryFacet::id));
+            List<ProductDtos.PriceBucketFacet> buckets = new ArrayList<>(scope.buckets.length);
+            for (int b = 0; b < scope.buckets.length; b++) {
+                buckets.add(new ProductDtos.PriceBucketFacet(
+                        b == 0 ? BigDecimal.ZERO : boundaryPrices.get(b - 1),
+                        b < boundaryPrices.size() ? boundaryPrices.get(b) : null,
+                        scope.buckets[b]));
+            }
+            return new ProductDtos.FacetsResponse(scope.products, scope.inStock, categories, buckets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the aggregate from the tables and swaps it in.
+     *
+     * @return how many products the event-maintained counts had wrong (missing, extra or different)
+     */
+    @Scheduled(fixedDelayString = "${minicommerce.facets.reconcile-interval-ms:300000}",
+            initialDelayString = "${minicommerce.facets.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return 0; // baska bir kurulum suruyor
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Aggregate fresh;
+        try {
+            fresh = scan();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int drift;
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            drift = current.differences(fresh);
+            current = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (drift > 0) {
+            log.warn("Product facets reconciled: {} products corrected", drift);
+        }
+        log.debug("Product facets built: {} products in {} categories ({} ms)",
+                fresh.total.products, fresh.categories.size(), System.currentTimeMillis() - started);
+        return drift;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(CatalogEvents.ProductChanged event) {
+        ProductDtos.ProductResponse product = event.product();
+        if (product == null) {
+            Long id = event.productId();
+            apply(a -> a.remove(id));
+        } else {
+            apply(a -> put(a, product));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(CatalogEvents.ProductsCreated event) {
+        List<ProductDtos.ProductResponse> products = event.products();
+        apply(a -> products.forEach(p -> put(a, p)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsUpdated(CatalogEvents.ProductsUpdated event) {
+        List<ProductDtos.ProductResponse> products = event.products();
+        apply(a -> products.forEach(p -> put(a, p)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(CatalogEvents.StockChanged event) {
+        // Olay yeni stogu tasimaz; o urunlerin guncel hali tek sorguyla okunur.
+        List<ProductDtos.ProductResponse> products = productService.getAll(event.productIds());
+        apply(a -> products.forEach(p -> put(a, p)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CatalogEvents.CategoryChanged event) {
+        categoryRepository.findById(event.categoryId()).ifPresent(c -> {
+            Long id = c.getId();
+            String name = c.getName();
+            apply(a -> a.rename(id, name));
+        });
+    }
+
+    private void apply(Consumer<Aggregate> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Aggregate a, ProductDtos.ProductResponse p) {
+        a.put(p.id(), p.categoryId(), p.categoryName(), bucket(p.price()), p.stock() > 0);
+    }
+
+    private Aggregate scan() {
+        // Parcali stoklu urunlerin toplami tek GROUP BY ile; ProductService.availableStock ile ayni kurallar.
+        Map<Long, Integer> shardTotals = new HashMap<>();
+        jdbcTemplate.query("select product_id, sum(stock) from product_stock_shards group by product_id",
+                rs -> { shardTotals.put(rs.getLong(1), rs.getInt(2)); });
+        Aggregate a = new Aggregate(boundaries.length + 1);
+        jdbcTemplate.query("select p.id, p.category_id, c.name, p.price, p.stock, p.stock_shards "
+                        + "from products p join categories c on c.id = p.category_id",
+                rs -> {
+                    long id = rs.getLong(1);
+                    int stock = rs.getInt(5);
+                    if (stockLedger.isEnabled()) {
+                        stock = stockLedger.currentStock(id, stock);
+                    } else if (rs.getInt(6) > 1) {
+                        stock = shardTotals.getOrDefault(id, 0);
+                    }
+                    a.put(id, rs.getLong(2), rs.getString(3), bucket(rs.getBigDecimal(4)), stock > 0);
+                });
+        return a;
+    }
+
+    // Fiyat araliklari [0, b0), [b0, b1), ..., [bn, sonsuz); sinir fiyat ust araliga duser.
+    int bucket(BigDecimal price) {
+        long cents = cents(price);
+        int lo = 0;
+        int hi = boundaries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (boundaries[mid] <= cents) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long cents(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+
+    private static final class Counts {
+        String name;
+        long products;
+        long inStock;
+        final long[] buckets;
+
+        Counts(String name, int buckets) {
+            this.name = name;
+            this.buckets = new long[buckets];
+        }
+
+        void add(Entry e, int delta) {
+            products += delta;
+            if (e.inStock()) inStock += delta;
+            buckets[e.bucket()] += delta;
+        }
+    }
+
+    /**
+     * Per-product entries and the counts derived from them. Not thread-safe: guarded by the facets' lock.
+     */
+    private static final class Aggregate {
+        final Map<Long, Entry> products = new HashMap<>();
+        final Map<Long, Counts> categories = new HashMap<>();
+        final Counts total;
+        final int buckets;
+
+        Aggregate(int buckets) {
+            this.buckets = buckets;
+            this.total = new Counts(null, buckets);
+        }
+
+        void put(long productId, long categoryId, String categoryName, int bucket, boolean inStock) {
+            Entry entry = new Entry(categoryId, bucket, inStock);
+            Entry old = products.put(productId, entry);
+            if (old != null) {
+                subtract(old);
+            }
+            Counts c = categories.computeIfAbsent(categoryId, id -> new Counts(categoryName, buckets));
+            if (categoryName != null) {
+                c.name = categoryName;
+            }
+            c.add(entry, 1);
+            total.add(entry, 1);
+        }
+
+        void remove(long productId) {
+            Entry old = products.remove(productId);
+            if (old != null) {
+                subtract(old);
+            }
+        }
+
+        void rename(long categoryId, String name) {
+            Counts c = categories.get(categoryId);
+            if (c != null) {
+                c.name = name;
+            }
+        }
+
+        int differences(Aggregate other) {
+            int diff = 0;
+            for (Map.Entry<Long, Entry> e : other.products.entrySet()) {
+                if (!e.getValue().equals(products.get(e.getKey()))) diff++;
+            }
+            for (Long id : products.keySet()) {
+                if (!other.products.containsKey(id)) diff++;
+            }
+            return diff;
+        }
+
+        private void subtract(Entry old) {
+            total.add(old, -1);
+            Counts c = categories.get(old.categoryId());
+            c.add(old, -1);
+            if (c.products == 0) {
+                categories.remove(old.categoryId());
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the rows of a product import one line at a time; nothing beyond the current line is buffered.
+ * <p>
+ * CSV bodies start with a header naming the columns {@code name, sku, price, stock, categoryId} in any order (other
+ * columns are ignored). Fields may be quoted, with {@code ""} for a quote inside; a row cannot span lines. NDJSON
+ * lines are {@link ProductDtos.CreateProductRequest} objects. Blank lines are skipped. Every row is validated like
+ * {@code POST /api/products}; a row that cannot be parsed or is invalid comes back with its error.
+ */
+final class ProductImportReader implements Closeable {
+
+    static final List<String> CSV_COLUMNS = List.of("name", "sku", "price", "stock", "categoryId");
+
+    /**
+     * One row; {@code line} is its 1-based line in the body, {@code sku} the trimmed SKU if it could be read.
+     */
+    record Row(long line, ProductDtos.CreateProductRequest request, String sku, String error) {
+        boolean valid() {
+            return error == null;
+        }
+    }
+
+    private final ProductImportService.Format format;
+    private final BufferedReader reader;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    // CSV_COLUMNS sirasindaki her kolonun satirdaki konumu
+    private int[] columns;
+    private long line;
+
+    ProductImportReader(ProductImportService.Format format, InputStream in, JsonMapper jsonMapper, Validator validator)
+            throws IOException {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        if (format == ProductImportService.Format.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * The next row, or null at the end of the body.
+     */
+    Row next() throws IOException {
+        String text = nextLine();
+        if (text == null) {
+            return null;
+        }
+        return format == ProductImportService.Format.CSV ? parseCsv(text) : parseJson(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (line == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+        } while (text.isBlank());
+        return text;
+    }
+
+    private void readHeader() throws IOException {
+        String text = nextLine();
+        List<String> names = text == null ? List.of() : split(text);
+        columns = new int[CSV_COLUMNS.size()];
+        for (int c = 0; c < CSV_COLUMNS.size(); c++) {
+            columns[c] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(CSV_COLUMNS.get(c))) {
+                    columns[c] = i;
+                    break;
+                }
+            }
+            if (columns[c] < 0) {
+                throw new BadRequestException("CSV header must name the columns: " + String.join(", ", CSV_COLUMNS));
+            }
+        }
+    }
+
+    private Row parseCsv(String text) {
+        List<String> fields;
+        try {
+            fields = split(text);
+        } catch (IllegalArgumentException e) {
+            return new Row(line, null, null, e.getMessage());
+        }
+        String sku = field(fields, 1);
+        String trimmedSku = sku == null ? null : sku.trim();
+        String stock = field(fields, 3);
+        if (stock == null) {
+            return new Row(line, null, trimmedSku, "stock: must not be null");
+        }
+        BigDecimal price;
+        int stockValue;
+        Long categoryId;
+        try {
+            price = field(fields, 2) == null ? null : new BigDecimal(field(fields, 2).trim());
+        } catch (NumberFormatException e) {
+            return new Row(line, null, trimmedSku, "price: not a number");
+        }
+        try {
+            stockValue = Integer.parseInt(stock.trim());
+        } catch (NumberFormatException e) {
+            return new Row(line, null, trimmedSku, "stock: not a whole number");
+        }
+        try {
+            categoryId = field(fields, 4) == null ? null : Long.valueOf(field(fields, 4).trim());
+        } catch (NumberFormatException e) {
+            return new Row(line, null, trimmedSku, "categoryId: not a whole number");
+        }
+        return validate(new ProductDtos.CreateProductRequest(field(fields, 0), sku, price, stockValue, categoryId));
+    }
+
+    private Row parseJson(String text) {
+        ProductDtos.CreateProductRequest request;
+        try {
+            request = jsonMapper.readValue(text, ProductDtos.CreateProductRequest.class);
+        } catch (JacksonException e) {
+            return new Row(line, null, null, "Invalid JSON");
+        }
+        if (request == null) {
+            return new Row(line, null, null, "Invalid JSON");
+        }
+        return validate(request);
+    }
+
+    private Row validate(ProductDtos.CreateProductRequest request) {
+        String sku = request.sku() == null ? null : request.sku().trim();
+        Set<ConstraintViolation<ProductDtos.CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new Row(line, null, sku, error);
+        }
+        return new Row(line, request, sku, null);
+    }
+
+    // Bos ya da eksik alan null'dir; dogrulama (@NotBlank, @NotNull) hatasini verir.
+    private String field(List<String> fields, int column) {
+        int i = columns[column];
+        if (i >= fields.size() || fields.get(i).isBlank()) {
+            return null;
+        }
+        return fields.get(i);
+    }
+
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,231 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product import from a streamed CSV or NDJSON body (format: {@link ProductImportReader}).
+ * <p>
+ * Rows are read and validated one by one and collected into chunks. For each chunk the categories not seen before
+ * are loaded with one query and the SKUs with one more, asked only for those {@link UniquenessGuard} cannot rule
+ * out. These reads run outside the write transaction; the accepted products are then inserted with one JDBC batch
+ * in a transaction of their own, so SQLite's write lock is held only for the inserts. Committed chunks stay when a
+ * later one fails.
+ * <p>
+ * The response is NDJSON written while the body is still being read: an {@link ProductDtos.ImportError} for every
+ * rejected row as soon as its chunk is done, then one {@link ProductDtos.ImportSummary}.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    // IN listeleri bu boyutta bolunur; SQLite'in parametre sinirinin epey altinda.
+    private static final int MAX_IN_PARAMS = 500;
+
+    public enum Format { CSV, NDJSON }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UniquenessGuard uniqueness;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ProductImportService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                UniquenessGuard uniqueness, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher events, JsonMapper jsonMapper, Validator validator,
+                                @Value("${minicommerce.products.import.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("minicommerce.products.import.chunk-size must be >= 1");
+        }
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.uniqueness = uniqueness;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every row of {@code in} and writes the per-row errors and the summary to {@code out}.
+     * A CSV body without a usable header is rejected before anything is written.
+     */
+    public ProductDtos.ImportSummary importProducts(Format format, InputStream in, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        Run run = new Run(out);
+        try (ProductImportReader reader = new ProductImportReader(format, in, jsonMapper, validator)) {
+            List<ProductImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            for (ProductImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    run.importChunk(chunk);
+                    chunk.clear();
+                }
+            }
+            run.importChunk(chunk);
+        }
+        ProductDtos.ImportSummary summary = new ProductDtos.ImportSummary(run.created, run.failed);
+        run.write(summary);
+        out.flush();
+        log.info("Product import: {} created, {} failed in {} ms", run.created, run.failed, System.currentTimeMillis() - started);
+        return summary;
+    }
+
+    /**
+     * State of one import: counters and the categories resolved so far.
+     */
+    private final class Run {
+        private final OutputStream out;
+        private final Map<Long, Category> categories = new HashMap<>();
+        private final Set<Long> missingCategories = new HashSet<>();
+        private long created;
+        private long failed;
+
+        Run(OutputStream out) {
+            this.out = out;
+        }
+
+        void importChunk(List<ProductImportReader.Row> rows) throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            resolveCategories(rows);
+            Set<String> skus = new LinkedHashSet<>();
+            for (ProductImportReader.Row row : rows) {
+                if (row.valid()) skus.add(row.sku());
+            }
+            Set<String> taken = uniqueness.existing(UniquenessGuard.Key.SKU, skus,
+                    values -> {
+                        List<String> found = new ArrayList<>();
+                        for (List<String> part : partition(values)) {
+                            found.addAll(productRepository.findExistingSkus(part));
+                        }
+                        return found;
+                    });
+
+            Set<String> seen = new HashSet<>();
+            List<ProductImportReader.Row> accepted = new ArrayList<>();
+            List<Product> products = new ArrayList<>();
+            for (ProductImportReader.Row row : rows) {
+                if (!row.valid()) {
+                    fail(row, row.error());
+                } else if (!categories.containsKey(row.request().categoryId())) {
+                    fail(row, "Category not found");
+                } else if (taken.contains(row.sku()) || !seen.add(row.sku())) {
+                    fail(row, "SKU already exists");
+                } else {
+                    accepted.add(row);
+                    products.add(toProduct(row));
+                }
+            }
+
+            if (!products.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(products));
+                    created += products.size();
+                } catch (DataAccessException e) {
+                    // Kontrolden sonra baska bir istek ayni SKU'yu eklediyse ya da kategori silindiyse parca toptan reddedilir.
+                    // Ayrinti (kisit, surucu mesaji) yalnizca loga yazilir; yanit akisina sabit mesaj gider.
+                    log.warn("Product import chunk at line {} failed", rows.get(0).line(), e);
+                    for (ProductImportReader.Row row : accepted) {
+                        fail(row, "Chunk failed");
+                    }
+                }
+            }
+            out.flush();
+        }
+
+        private void insert(List<Product> products) {
+            productRepository.insertAll(products);
+            List<ProductDtos.ProductResponse> responses = new ArrayList<>(products.size());
+            Set<Long> categoryIds = new HashSet<>();
+            for (Product p : products) {
+                uniqueness.add(UniquenessGuard.Key.SKU, p.getSku());
+                Category c = p.getCategory();
+                responses.add(new ProductDtos.ProductResponse(p.getId(), p.getName(), p.getSku(), p.getPrice(),
+                        p.getStock(), c.getId(), c.getName(), p.getStockShards()));
+                categoryIds.add(c.getId());
+            }
+            events.publishEvent(new CatalogEvents.ProductsCreated(responses, categoryIds));
+        }
+
+        // Her kategori import boyunca bir kez sorulur.
+        private void resolveCategories(List<ProductImportReader.Row> rows) {
+            Set<Long> unknown = new HashSet<>();
+            for (ProductImportReader.Row row : rows) {
+                Long id = row.valid() ? row.request().categoryId() : null;
+                if (id != null && !categories.containsKey(id) && !missingCategories.contains(id)) {
+                    unknown.add(id);
+                }
+            }
+            if (unknown.isEmpty()) {
+                return;
+            }
+            for (List<Long> ids : partition(unknown)) {
+                categoryRepository.findAllById(ids).forEach(c -> categories.put(c.getId(), c));
+            }
+            unknown.removeAll(categories.keySet());
+            missingCategories.addAll(unknown);
+        }
+
+        private Product toProduct(ProductImportReader.Row row) {
+            ProductDtos.CreateProductRequest req = row.request();
+            Product p = new Product();
+            p.setName(req.name().trim());
+            p.setSku(row.sku());
+            p.setPrice(req.price());
+            p.setStock(req.stock());
+            p.setCategory(categories.get(req.categoryId()));
+            return p;
+        }
+
+        private void fail(ProductImportReader.Row row, String error) throws IOException {
+            failed++;
+            write(new ProductDtos.ImportError(row.line(), row.sku(), error));
+        }
+
+        void write(Object line) throws IOException {
+            out.write(jsonMapper.writeValueAsBytes(line));
+            out.write('\n');
+        }
+    }
+
+    private static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_IN_PARAMS) {
+            parts.add(all.subList(from, Math.min(from + MAX_IN_PARAMS, all.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,204 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.ProductRating;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.ProductRatingRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-product rating aggregates ({@link ProductRating}: review count, rating sum, reviews per star), so that a
+ * product's rating is one primary-key read instead of a GROUP BY over its reviews.
+ * <p>
+ * {@code ReviewService} applies every review write to the aggregate in the same transaction through
+ * {@link #added} (or {@link #addedAll} for write-behind batches), {@link #changed} and {@link #removed}; each is
+ * one upsert that adds the delta in place, followed by a {@link CatalogEvents.RatingChanged} event.
+ * {@link #rebuild()} recomputes all aggregates from the reviews table, for writes that bypass the service; it runs
+ * on startup when the table is empty but reviews exist, and on {@code minicommerce.ratings.rebuild-cron}.
+ */
+@Service
+public class ProductRatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRatingService.class);
+
+    private static final String INSERT =
+            "insert into product_ratings (product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductRatingRepository ratingRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+
+    public ProductRatingService(ProductRatingRepository ratingRepository, ProductRepository productRepository,
+                                JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher events) {
+        this.ratingRepository = ratingRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+    }
+
+    // Asagidaki uc metot cagiranin (ReviewService) transaction'inda calisir.
+
+    public void added(Long productId, int rating) {
+        ratingRepository.add(productId, rating, 1);
+        events.publishEvent(new CatalogEvents.RatingChanged(productId));
+    }
+
+    /**
+     * Batch form of {@link #added}: one upsert per (product, rating) pair and one event per product.
+     */
+    public void addedAll(Collection<ReviewRating> added) {
+        Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+        for (ReviewRating r : added) {
+            counts.computeIfAbsent(r.productId(), id -> new TreeMap<>()).merge(r.rating(), 1, Integer::sum);
+        }
+        counts.forEach((productId, byRating) -> {
+            byRating.forEach((rating, delta) -> ratingRepository.add(productId, rating, delta));
+            events.publishEvent(new CatalogEvents.RatingChanged(productId));
+        });
+    }
+
+    public void changed(Long productId, int from, int to) {
+        if (from != to) {
+            ratingRepository.add(productId, from, -1);
+            ratingRepository.add(productId, to, 1);
+            events.publishEvent(new CatalogEvents.RatingChanged(productId));
+        }
+    }
+
+    public void removed(Long productId, int rating) {
+        ratingRepository.add(productId, rating, -1);
+        events.publishEvent(new CatalogEvents.RatingChanged(productId));
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewDtos.RatingResponse get(Long productId) {
+        return ratingRepository.findById(productId)
+                .map(ProductRatingService::toResponse)
+                .orElseGet(() -> {
+                    if (!productRepository.existsById(productId)) {
+                        throw new NotFoundException("Product not found");
+                    }
+                    return new ReviewDtos.RatingResponse(productId, 0, null, List.of(0L, 0L, 0L, 0L, 0L));
+                });
+    }
+
+    /**
+     * Recomputes every aggregate in one transaction: the table is emptied (which also takes SQLite's write lock, so
+     * no review write interleaves) and refilled while the per-(product, rating) counts are streamed from the
+     * reviews table in product order, one product at a time, with batched inserts.
+     *
+     * @return the number of products with reviews
+     */
+    @Scheduled(cron = "${minicommerce.ratings.rebuild-cron:-}")
+    public long rebuild() {
+        long started = System.currentTimeMillis();
+        Long products = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("delete from product_ratings");
+            Rebuild rebuild = new Rebuild();
+            jdbcTemplate.query("select product_id, rating, count(*) from reviews group by product_id, rating order by product_id",
+                    rs -> { rebuild.add(rs.getLong(1), rs.getInt(2), rs.getLong(3)); });
+            rebuild.finish();
+            return rebuild.products;
+        });
+        log.info("Product ratings rebuilt: {} products ({} ms)", products, System.currentTimeMillis() - started);
+        return products;
+    }
+
+    // Liderlik tablolari bu ozetleri okur; onlardan once calisir.
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "select not exists (select 1 from product_ratings) and exists (select 1 from reviews)", Boolean.class);
+        if (Boolean.TRUE.equals(missing)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Collects the rows of the current product and writes finished products in batches.
+     */
+    private final class Rebuild {
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private long productId = -1;
+        private final long[] stars = new long[5];
+        private long products;
+
+        void add(long productId, int rating, long count) {
+            if (productId != this.productId) {
+                flushProduct();
+                this.productId = productId;
+            }
+            if (rating >= 1 && rating <= 5) {
+                stars[rating - 1] += count;
+            }
+        }
+
+        void finish() {
+            flushProduct();
+            writeBatch();
+        }
+
+        private void flushProduct() {
+            if (productId < 0) {
+                return;
+            }
+            long count = 0;
+            long sum = 0;
+            for (int i = 0; i < 5; i++) {
+                count += stars[i];
+                sum += stars[i] * (i + 1);
+            }
+            batch.add(new Object[]{productId, count, sum, stars[0], stars[1], stars[2], stars[3], stars[4]});
+            products++;
+            Arrays.fill(stars, 0);
+            if (batch.size() == BATCH_SIZE) {
+                writeBatch();
+            }
+        }
+
+        private void writeBatch() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static ReviewDtos.RatingResponse toResponse(ProductRating rating) {
+        long count = rating.getReviewCount();
+        BigDecimal average = count == 0 ? null
+                : BigDecimal.valueOf(rating.getRatingSum()).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        return new ReviewDtos.RatingResponse(rating.getProductId(), count, average,
+                Arrays.stream(rating.getHistogram()).boxed().toList());
+    }
+}
@@ -1,33 +1,75 @@
 package com.minicommerceapi.minicommerce.service;
 
+import com.minicommerceapi.minicommerce.config.RetryOnConflict;
 import com.minicommerceapi.minicommerce.domain.Category;
 import com.minicommerceapi.minicommerce.domain.Product;
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductKey;
+import com.minicommerceapi.minicommerce.repo.ProductRatingRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRow;
+import com.minicommerceapi.minicommerce.repo.ProductSpecifications;
+import com.minicommerceapi.minicommerce.service.price.ProductPriceIndex;
+import com.minicommerceapi.minicommerce.service.stock.ShardedStockService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import com.minicommerceapi.minicommerce.util.EntityTag;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final String DEFAULT_SORT = "id";
+    // products.price: precision 12, scale 2
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999.99");
+    private static final Set<String> SORT_FIELDS = new LinkedHashSet<>(List.of("id", "price", "name", "createdAt"));
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final StockLedger stockLedger;
+    private final ShardedStockService shardedStock;
+    private final ApplicationEventPublisher events;
+    private final UniquenessGuard uniqueness;
+    private final ProductPriceIndex priceIndex;
+    private final ProductRatingRepository ratingRepository;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                          StockLedger stockLedger, ShardedStockService shardedStock, ApplicationEventPublisher events,
+                          UniquenessGuard uniqueness, ProductPriceIndex priceIndex, ProductRatingRepository ratingRepository) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.stockLedger = stockLedger;
+        this.shardedStock = shardedStock;
+        this.events = events;
+        this.uniqueness = uniqueness;
+        this.priceIndex = priceIndex;
+        this.ratingRepository = ratingRepository;
     }
 
     @Transactional
     public ProductDtos.ProductResponse create(ProductDtos.CreateProductRequest req) {
-
-        // TODO: Stok guncelleme senaryosunda yarista durumlar olabilir; ileride optimistic locking dusunulebilir.
-
-        if (productRepository.existsBySku(req.sku().trim())) {
+        String sku = req.sku().trim();
+        if (uniqueness.exists(UniquenessGuard.Key.SKU, sku, () -> productRepository.existsBySku(sku))) {
             throw new ConflictException("SKU already exists");
         }
         Category cat = categoryRepository.findById(req.categoryId())
@@ -35,63 +77,217 @@ public class ProductService {
 
         Product p = new Product();
         p.setName(req.name().trim());
-        p.setSku(req.sku().trim());
+        p.setSku(sku);
         p.setPrice(req.price());
-
-        // TODO: Ileride buraya stok kontrolu icin concurrency (Lock veya Optimistic Lock) mekanizmasi eklememiz gerekebilir.
-        // Simdilik senkronize olmayan basit kontrol yeterli.
         p.setStock(req.stock());
         p.setCategory(cat);
         p = productRepository.save(p);
-        return toResponse(p);
+        uniqueness.add(UniquenessGuard.Key.SKU, sku);
+        ProductDtos.ProductResponse created = toResponse(p);
+        events.publishEvent(new CatalogEvents.ProductChanged(p.getId(), Set.of(cat.getId()), created));
+        return created;
     }
 
+    /**
+     * Keyset pagination over {@code (sort field, id)}, both in the requested direction. Every page is one SELECT
+     * (product columns joined with the category name, as {@link ProductRow} projections) no matter how deep the
+     * cursor is. A cursor only continues the sort it was issued for.
+     * <p>
+     * With a price band and the price or id sort, the page's ids come from {@link ProductPriceIndex} and the SELECT
+     * reads only those rows; other sorts (or an index still being built) filter on the price column in SQL.
+     */
     @Transactional(readOnly = true)
-    public List<ProductDtos.ProductResponse> list(Long categoryId) {
-        List<Product> products = (categoryId == null)
-                ? productRepository.findAll()
-                : productRepository.findByCategoryId(categoryId);
-        return products.stream().map(this::toResponse).toList();
+    public ProductDtos.ProductPage list(ProductDtos.ProductPageRequest req) {
+        return listTagged(req).body();
     }
 
+    /**
+     * {@link #list} with the page's ETag, hashed from the rows the page query returned: their and their categories'
+     * versions and available stock, and the id of the extra row that decides the next cursor. No Last-Modified: a
+     * page also changes when a row leaves it.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag.Tagged<ProductDtos.ProductPage> listTagged(ProductDtos.ProductPageRequest req) {
+        PageQuery q = pageQuery(req);
+        // Bir fazla satir istenir: gelirse bir sonraki sayfa vardir. Kategori adi ayni sorguda join ile gelir.
+        List<ProductRow> rows = productRepository.findRows(q.spec(), q.order(), q.limit() + 1);
+        boolean hasMore = rows.size() > q.limit();
+        List<ProductRow> page = hasMore ? rows.subList(0, q.limit()) : rows;
+
+        EntityTag tag = EntityTag.of("products").withoutLastModified();
+        List<ProductDtos.ProductResponse> items = new ArrayList<>(page.size());
+        for (ProductRow row : page) {
+            ProductDtos.ProductResponse item = toResponse(row);
+            addVersion(tag, row, item);
+            items.add(item);
+        }
+        String next = null;
+        if (hasMore) {
+            ProductRow last = page.get(page.size() - 1);
+            next = KeysetCursor.encode(q.sort(), directionName(q.ascending()), last.id(), sortValue(last, q.sort()));
+            tag.add(rows.get(q.limit()).id());
+        }
+        return new EntityTag.Tagged<>(new ProductDtos.ProductPage(items, next), tag);
+    }
+
+    private static EntityTag addVersion(EntityTag tag, ProductRow row, ProductDtos.ProductResponse response) {
+        // Kategori surumu: yanit kategori adini tasir. Stok: shard/ledger degisiklikleri surumu artirmaz.
+        return tag.add(row.id()).add(row.version()).add(row.categoryVersion()).add(response.stock());
+    }
+
+    private record PageQuery(Specification<Product> spec, Sort order, int limit, String sort, boolean ascending) {}
+
+    private PageQuery pageQuery(ProductDtos.ProductPageRequest req) {
+        if (req.limit() < 1 || req.limit() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String sort = req.sort() == null ? DEFAULT_SORT : req.sort();
+        if (!SORT_FIELDS.contains(sort)) {
+            throw new BadRequestException("sort must be one of: " + String.join(", ", SORT_FIELDS));
+        }
+        boolean ascending = parseDirection(req.direction());
+        String[] cursor = req.cursor() == null ? null : cursorKey(req.cursor(), sort, ascending);
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort order = "id".equals(sort) ? Sort.by(direction, "id") : Sort.by(direction, sort, "id");
+        boolean priceBand = req.minPrice() != null || req.maxPrice() != null;
+        if (priceBand) {
+            validatePriceBand(req.minPrice(), req.maxPrice());
+        }
+
+        // Fiyat bandi + fiyat ya da id siralamasi: sayfanin id'lerini fiyat indeksi secer, SQL sadece onlari okur.
+        if (priceBand && priceIndex.isReady() && ("price".equals(sort) || "id".equals(sort))) {
+            long min = req.minPrice() == null ? 0 : req.minPrice().movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+            long max = req.maxPrice() == null ? Long.MAX_VALUE : req.maxPrice().movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+            Long afterId = cursor == null ? null : KeysetCursor.decodeLong(cursor[2]);
+            long[] ids = "price".equals(sort)
+                    ? priceIndex.byPrice(req.categoryId(), min, max, ascending,
+                            cursor == null ? null : ProductPriceIndex.cents(parsePrice(cursor[3])), afterId, req.limit() + 1)
+                    : priceIndex.byId(req.categoryId(), min, max, ascending, afterId, req.limit() + 1);
+            return new PageQuery(ProductSpecifications.idIn(ids), order, req.limit(), sort, ascending);
+        }
+
+        List<Specification<Product>> specs = new ArrayList<>();
+        if (req.categoryId() != null) specs.add(ProductSpecifications.inCategory(req.categoryId()));
+        if (priceBand) specs.add(ProductSpecifications.priceBetween(req.minPrice(), req.maxPrice()));
+        if (cursor != null) specs.add(afterCursor(cursor, sort, ascending));
+        return new PageQuery(Specification.allOf(specs), order, req.limit(), sort, ascending);
+    }
+
+    private static void validatePriceBand(BigDecimal min, BigDecimal max) {
+        for (BigDecimal bound : new BigDecimal[]{min, max}) {
+            if (bound != null && (bound.signum() < 0 || bound.compareTo(MAX_PRICE) > 0)) {
+                throw new BadRequestException("minPrice and maxPrice must be between 0 and " + MAX_PRICE.toPlainString());
+            }
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    /**
+     * Reads only the response columns (see {@link ProductRow}); no entity is loaded.
+     */
     @Transactional(readOnly = true)
     public ProductDtos.ProductResponse get(Long id) {
-        Product p = productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
-        return toResponse(p);
+        return getTagged(id).body();
+    }
+
+    /**
+     * {@link #get} with its validators, from the same row. Last-Modified is left out when the stock lives in shards
+     * or the ledger, since orders change it there without touching the product row.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag.Tagged<ProductDtos.ProductResponse> getTagged(Long id) {
+        ProductRow row = productRepository.findRowById(id).orElseThrow(() -> new NotFoundException("Product not found"));
+        ProductDtos.ProductResponse response = toResponse(row);
+        EntityTag tag = addVersion(EntityTag.of("product"), row, response);
+        if (stockLedger.isEnabled() || row.stockShards() > 1) {
+            tag.withoutLastModified();
+        } else {
+            tag.modifiedAt(row.updatedAt()).modifiedAt(row.categoryUpdatedAt());
+        }
+        return new EntityTag.Tagged<>(response, tag);
     }
 
+    /**
+     * Current state of the given products in one query; ids that do not exist are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDtos.ProductResponse> getAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findRowsByIdIn(ids).stream().map(this::toResponse).toList();
+    }
+
+    @RetryOnConflict("product.patch")
     @Transactional
     public ProductDtos.ProductResponse patch(Long id, ProductDtos.PatchProductRequest req) {
         Product p = productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
+        Category previousCategory = p.getCategory();
 
         if (req.name() != null) p.setName(req.name().trim());
 
         if (req.sku() != null) {
             String sku = req.sku().trim();
-            if (!p.getSku().equals(sku) && productRepository.existsBySku(sku)) {
-                throw new ConflictException("SKU already exists");
+            if (!p.getSku().equals(sku)) {
+                if (uniqueness.exists(UniquenessGuard.Key.SKU, sku, () -> productRepository.existsBySku(sku))) {
+                    throw new ConflictException("SKU already exists");
+                }
+                uniqueness.add(UniquenessGuard.Key.SKU, sku);
             }
             p.setSku(sku);
         }
 
         if (req.price() != null) p.setPrice(req.price());
 
-        // Not: Stok guncellemeleri gercek hayatta kritik. Burada sadece ornek proje oldugu icin basit set yapiyoruz.
-        if (req.stock() != null) p.setStock(req.stock());
+        // Stok shard sayisi once uygulanir ki ayni istekteki stok degeri yeni duzene gore dagitilsin.
+        if (req.stockShards() != null && req.stockShards() != p.getStockShards()) {
+            if (stockLedger.isEnabled()) {
+                throw new BadRequestException("Sharded stock is not available while the stock ledger is enabled");
+            }
+            shardedStock.reshard(p, req.stockShards());
+        }
+
+        // Not: Product @Version tasir; ayni anda bir siparis stok dusurduyse flush'ta cakisma olur ve
+        // @RetryOnConflict metodu yeni bir transaction'da guncel veriyle tekrar calistirir.
+        // Stok defteri aciksa stok sahibi defterdir: degisiklik delta olarak yazilir, DB'ye flush ile iner.
+        if (req.stock() != null) {
+            if (stockLedger.isEnabled()) {
+                stockLedger.adjustTo(id, req.stock());
+            } else if (p.isStockSharded()) {
+                shardedStock.setTotal(id, req.stock());
+            } else {
+                p.setStock(req.stock());
+            }
+        }
         if (req.categoryId() != null) {
             Category cat = categoryRepository.findById(req.categoryId())
                     .orElseThrow(() -> new NotFoundException("Category not found"));
             p.setCategory(cat);
         }
-        return toResponse(p);
+        // Kategori degistiyse hem eski hem yeni kategorinin listeleri etkilenir.
+        Set<Long> categoryIds = new HashSet<>(List.of(previousCategory.getId(), p.getCategory().getId()));
+        ProductDtos.ProductResponse patched = toResponse(p);
+        events.publishEvent(new CatalogEvents.ProductChanged(id, categoryIds, patched));
+        return patched;
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new NotFoundException("Product not found");
+        ProductKey key = productRepository.findKeyById(id)
+                .orElseThrow(() -> new NotFoundException("Product not found"));
+        if (key.stockShards() > 1) {
+            shardedStock.deleteShards(id);
         }
         productRepository.deleteById(id);
+        // Puan ozeti urunle ayni transaction'da silinir; aksi halde yetim satir kalir.
+        ratingRepository.deleteByProductId(id);
+        if (stockLedger.isEnabled()) {
+            stockLedger.forget(id);
+        }
+        events.publishEvent(new CatalogEvents.ProductChanged(id, Set.of(key.categoryId()), null));
     }
 
     public ProductDtos.ProductResponse toResponse(Product p) {
@@ -101,9 +297,82 @@ public class ProductService {
                 p.getName(),
                 p.getSku(),
                 p.getPrice(),
-                p.getStock(),
+                availableStock(p.getId(), p.getStock(), p.getStockShards()),
                 c.getId(),
-                c.getName()
+                c.getName(),
+                p.getStockShards()
+        );
+    }
+
+    private ProductDtos.ProductResponse toResponse(ProductRow r) {
+        return new ProductDtos.ProductResponse(
+                r.id(),
+                r.name(),
+                r.sku(),
+                r.price(),
+                availableStock(r.id(), r.stock(), r.stockShards()),
+                r.categoryId(),
+                r.categoryName(),
+                r.stockShards()
         );
     }
+
+    // sort | yon | id | siralama degeri (serbest metin olabilecegi icin en sonda)
+    private static String[] cursorKey(String cursor, String sort, boolean ascending) {
+        String[] key = KeysetCursor.decode(cursor, 4);
+        if (!key[0].equals(sort) || !key[1].equals(directionName(ascending))) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+        return key;
+    }
+
+    private static Specification<Product> afterCursor(String[] key, String sort, boolean ascending) {
+        long id = KeysetCursor.decodeLong(key[2]);
+        return switch (sort) {
+            case "price" -> ProductSpecifications.after("price", parsePrice(key[3]), id, ascending);
+            case "name" -> ProductSpecifications.after("name", key[3], id, ascending);
+            case "createdAt" -> ProductSpecifications.after("createdAt", Instant.ofEpochMilli(KeysetCursor.decodeLong(key[3])), id, ascending);
+            default -> ProductSpecifications.afterId(id, ascending);
+        };
+    }
+
+    private static Object sortValue(ProductRow r, String sort) {
+        return switch (sort) {
+            case "price" -> r.price().toPlainString();
+            case "name" -> r.name();
+            // created_at SQLite'ta epoch milisaniye olarak tutulur; cursor da ayni hassasiyette.
+            case "createdAt" -> r.createdAt().toEpochMilli();
+            default -> r.id();
+        };
+    }
+
+    private static boolean parseDirection(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        throw new BadRequestException("direction must be asc or desc");
+    }
+
+    private static String directionName(boolean ascending) {
+        return ascending ? "asc" : "desc";
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private int availableStock(Long id, int stock, int stockShards) {
+        if (stockLedger.isEnabled()) {
+            return stockLedger.currentStock(id, stock);
+        }
+        // Shard'li urunlerde products.stock 0 tutulur; gercek deger shard toplamidir.
+        return stockShards > 1 ? shardedStock.total(id) : stock;
+    }
 }
@@ -4,25 +4,51 @@ import com.minicommerceapi.minicommerce.domain.Product;
 import com.minicommerceapi.minicommerce.domain.Review;
 import com.minicommerceapi.minicommerce.domain.User;
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRating;
 import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRow;
+import com.minicommerceapi.minicommerce.repo.ReviewSpecifications;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class ReviewService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final String DEFAULT_SORT = "createdAt";
+    private static final List<String> SORT_FIELDS = List.of("createdAt", "rating");
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ProductRatingService ratings;
+    private final ReviewWriteBehind writeBehind;
 
-    public ReviewService(ReviewRepository reviewRepository, ProductRepository productRepository, UserRepository userRepository) {
+    public ReviewService(ReviewRepository reviewRepository, ProductRepository productRepository, UserRepository userRepository,
+                         ProductRatingService ratings, ReviewWriteBehind writeBehind) {
         this.reviewRepository = reviewRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
+        this.ratings = ratings;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * True when new reviews go through {@link #submit} (write-behind) instead of {@link #create}.
+     */
+    public boolean writesBehind() {
+        return writeBehind.isEnabled();
     }
 
     @Transactional
@@ -36,16 +62,80 @@ public class ReviewService {
         r.setRating(req.rating());
         r.setComment(req.comment());
         r = reviewRepository.save(r);
+        ratings.added(product.getId(), r.getRating());
 
         return toResponse(r);
     }
 
+    /**
+     * Write-behind create: validates the review now and queues it for the batch writer (see {@link ReviewWriteBehind}).
+     * Only the existence of the user and product is checked, without loading them.
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDtos.ReviewResponse> list(Long productId) {
-        if (productId == null) {
-            return reviewRepository.findAll().stream().map(this::toResponse).toList();
+    public ReviewDtos.ReviewAccepted submit(ReviewDtos.CreateReviewRequest req) {
+        if (!userRepository.existsById(req.userId())) {
+            throw new NotFoundException("User not found");
+        }
+        if (!productRepository.existsById(req.productId())) {
+            throw new NotFoundException("Product not found");
+        }
+        User user = new User();
+        user.setId(req.userId());
+        Product product = new Product();
+        product.setId(req.productId());
+
+        Review r = new Review();
+        r.setUser(user);
+        r.setProduct(product);
+        r.setRating(req.rating());
+        r.setComment(req.comment());
+        String provisionalId = writeBehind.enqueue(r);
+
+        return new ReviewDtos.ReviewAccepted(provisionalId, req.userId(), req.productId(), req.rating(), req.comment());
+    }
+
+    public ReviewDtos.PendingReview pending(String provisionalId) {
+        ReviewWriteBehind.Outcome outcome = writeBehind.outcome(provisionalId);
+        if (outcome == null) {
+            throw new NotFoundException("Pending review not found");
         }
-        return reviewRepository.findByProductId(productId).stream().map(this::toResponse).toList();
+        return new ReviewDtos.PendingReview(provisionalId, outcome.status().name(), outcome.id(), outcome.error());
+    }
+
+    /**
+     * Keyset pagination over {@code (sort field, id)}. One SELECT per page reading only the reviews table (see
+     * {@link ReviewRow}); with a product filter it is a range scan on that product's {@code (product_id, field, id)}
+     * index, however deep the cursor is. A cursor only continues the sort it was issued for.
+     */
+    @Transactional(readOnly = true)
+    public ReviewDtos.ReviewPage list(ReviewDtos.ReviewPageRequest req) {
+        if (req.limit() < 1 || req.limit() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String sort = req.sort() == null ? DEFAULT_SORT : req.sort();
+        if (!SORT_FIELDS.contains(sort)) {
+            throw new BadRequestException("sort must be one of: " + String.join(", ", SORT_FIELDS));
+        }
+        boolean ascending = parseDirection(req.direction());
+
+        List<Specification<Review>> specs = new ArrayList<>();
+        if (req.productId() != null) specs.add(ReviewSpecifications.ofProduct(req.productId()));
+        if (req.cursor() != null) specs.add(afterCursor(req.cursor(), sort, ascending));
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        // Bir fazla satir istenir: gelirse bir sonraki sayfa vardir.
+        List<ReviewRow> rows = reviewRepository.findRows(Specification.allOf(specs), Sort.by(direction, sort, "id"), req.limit() + 1);
+        boolean hasMore = rows.size() > req.limit();
+        List<ReviewRow> page = hasMore ? rows.subList(0, req.limit()) : rows;
+
+        String next = null;
+        if (hasMore) {
+            ReviewRow last = page.get(page.size() - 1);
+            // created_at SQLite'ta epoch milisaniye olarak tutulur; cursor da ayni hassasiyette.
+            Object value = "rating".equals(sort) ? last.rating() : last.createdAt().toEpochMilli();
+            next = KeysetCursor.encode(sort, directionName(ascending), last.id(), value);
+        }
+        return new ReviewDtos.ReviewPage(page.stream().map(this::toResponse).toList(), next);
     }
 
     @Transactional(readOnly = true)
@@ -59,6 +149,7 @@ public class ReviewService {
 public ReviewDtos.ReviewResponse patch(Long id, ReviewDtos.PatchReviewRequest req) {
     Review r = reviewRepository.findById(id).orElseThrow(() -> new NotFoundException("Review not found"));
     if (req.rating() != null) {
+        ratings.changed(r.getProduct().getId(), r.getRating(), req.rating());
         r.setRating(req.rating());
     }
     if (req.comment() != null) {
@@ -69,13 +160,44 @@ public ReviewDtos.ReviewResponse patch(Long id, ReviewDtos.PatchReviewRequest re
 
     @Transactional
     public void delete(Long id) {
-        if (!reviewRepository.existsById(id)) {
-            throw new NotFoundException("Review not found");
-        }
+        ReviewRating rating = reviewRepository.findRatingById(id)
+                .orElseThrow(() -> new NotFoundException("Review not found"));
         reviewRepository.deleteById(id);
+        ratings.removed(rating.productId(), rating.rating());
     }
 
     private ReviewDtos.ReviewResponse toResponse(Review r) {
         return new ReviewDtos.ReviewResponse(r.getId(), r.getUser().getId(), r.getProduct().getId(), r.getRating(), r.getComment());
     }
+
+    private ReviewDtos.ReviewResponse toResponse(ReviewRow r) {
+        return new ReviewDtos.ReviewResponse(r.id(), r.userId(), r.productId(), r.rating(), r.comment());
+    }
+
+    // sort | yon | id | siralama degeri
+    private static Specification<Review> afterCursor(String cursor, String sort, boolean ascending) {
+        String[] key = KeysetCursor.decode(cursor, 4);
+        if (!key[0].equals(sort) || !key[1].equals(directionName(ascending))) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+        long id = KeysetCursor.decodeLong(key[2]);
+        long value = KeysetCursor.decodeLong(key[3]);
+        return "rating".equals(sort)
+                ? ReviewSpecifications.after("rating", (int) value, id, ascending)
+                : ReviewSpecifications.after("createdAt", Instant.ofEpochMilli(value), id, ascending);
+    }
+
+    private static boolean parseDirection(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        throw new BadRequestException("direction must be asc or desc");
+    }
+
+    private static String directionName(boolean ascending) {
+        return ascending ? "asc" : "desc";
+    }
 }
@@ -0,0 +1,330 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Review;
+import com.minicommerceapi.minicommerce.exception.ServiceUnavailableException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRating;
+import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind ingestion of new reviews (opt-in: {@code minicommerce.reviews.write-behind.enabled}).
+ * <p>
+ * {@code ReviewService} validates a review synchronously and {@link #enqueue}s it on a bounded queue under a
+ * provisional id; a single writer thread drains the queue in batches (up to {@code batch-size} reviews, waiting at
+ * most {@code max-wait-ms} for a batch to fill) and writes each batch with multi-row INSERTs and the rating
+ * aggregate deltas in one transaction, so SQLite's write lock is taken once per batch instead of once per review.
+ * Reviews whose product or user was deleted after validation are marked {@link Status#FAILED} ("Product not
+ * found", "User not found"); SQLite does not enforce the foreign keys, so this is checked in the write transaction.
+ * If a batch fails otherwise, its reviews are retried one by one and only the failing ones are marked failed, with
+ * a fixed message (the cause is logged).
+ * <p>
+ * A full queue is backpressure: {@link #enqueue} waits up to {@code offer-timeout-ms} and then rejects the review
+ * with {@link ServiceUnavailableException} (503, Retry-After). On shutdown the writer drains the queue before the
+ * context closes. The outcome of the most recent reviews is kept for {@link #outcome} lookups.
+ * Queue depth is the gauge {@code minicommerce.reviews.write_behind.queue}, batch latency the timer
+ * {@code minicommerce.reviews.write_behind.flush}, and reviews are counted as
+ * {@code minicommerce.reviews.write_behind.reviews} ({@code result=written|failed|rejected}).
+ */
+@Component
+public class ReviewWriteBehind implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewWriteBehind.class);
+
+    static final String QUEUE_METRIC = "minicommerce.reviews.write_behind.queue";
+    static final String FLUSH_METRIC = "minicommerce.reviews.write_behind.flush";
+    static final String REVIEWS_METRIC = "minicommerce.reviews.write_behind.reviews";
+
+    public enum Status { QUEUED, WRITTEN, FAILED }
+
+    /**
+     * Where a submitted review stands; {@code id} is set once written, {@code error} once failed.
+     */
+    public record Outcome(Status status, Long id, String error) {}
+
+    private record Pending(String provisionalId, Review review) {}
+
+    static final String WRITE_FAILED = "Review could not be written";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final ReviewRepository reviewRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ProductRatingService ratings;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final BlockingQueue<Pending> queue;
+    private final Map<String, Outcome> outcomes;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ReviewWriteBehind(@Value("${minicommerce.reviews.write-behind.enabled:false}") boolean enabled,
+                             @Value("${minicommerce.reviews.write-behind.capacity:10000}") int capacity,
+                             @Value("${minicommerce.reviews.write-behind.batch-size:500}") int batchSize,
+                             @Value("${minicommerce.reviews.write-behind.max-wait-ms:50}") long maxWaitMs,
+                             @Value("${minicommerce.reviews.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+                             @Value("${minicommerce.reviews.write-behind.retained-outcomes:100000}") int retainedOutcomes,
+                             @Value("${minicommerce.reviews.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMs,
+                             ReviewRepository reviewRepository,
+                             ProductRepository productRepository,
+                             UserRepository userRepository,
+                             ProductRatingService ratings,
+                             PlatformTransactionManager transactionManager,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.reviewRepository = reviewRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.ratings = ratings;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        // Kuyruktaki ve yazilmakta olan yorumlar her zaman sigar; eskiler ekleme sirasiyla dusurulur.
+        int maxOutcomes = Math.max(1, capacity) + this.batchSize + Math.max(0, retainedOutcomes);
+        this.outcomes = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Outcome> eldest) {
+                return size() > maxOutcomes;
+            }
+        };
+        meterRegistry.ifAvailable(registry -> Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size)
+                .strongReference(true)
+                .register(registry));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts the writer once the schema exists, before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "review-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues an already validated review (user and product set, by id only) and returns its provisional id.
+     *
+     * @throws ServiceUnavailableException if the queue stays full for {@code offer-timeout-ms} or the writer is
+     *                                     shutting down
+     */
+    public String enqueue(Review review) {
+        if (!running) {
+            throw new ServiceUnavailableException("Review writer is not running", 1);
+        }
+        String provisionalId = UUID.randomUUID().toString();
+        record(provisionalId, new Outcome(Status.QUEUED, null, null));
+        boolean accepted;
+        try {
+            accepted = queue.offer(new Pending(provisionalId, review), offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            synchronized (outcomes) {
+                outcomes.remove(provisionalId);
+            }
+            count("rejected", 1);
+            throw new ServiceUnavailableException("Review queue is full, retry later", 1);
+        }
+        return provisionalId;
+    }
+
+    /**
+     * Outcome of a submitted review, or null if the provisional id is unknown (or too old to be retained).
+     */
+    public Outcome outcome(String provisionalId) {
+        synchronized (outcomes) {
+            return outcomes.get(provisionalId);
+        }
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.warn("Review writer stopped with {} reviews still queued", queue.size());
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            // Kapanista yeni yorum kabul edilmez ama kuyrukta kalanlar yazilir.
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Review writer interrupted with {} reviews queued", queue.size() + batch.size());
+        } catch (RuntimeException e) {
+            log.error("Review writer stopped unexpectedly", e);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Adds queued reviews to the batch until it is full or {@code max-wait-ms} passed since its first review.
+     */
+    private void fill(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            finish(batch, persist(batch));
+        } catch (RuntimeException e) {
+            // Tek bir hatali yorum tum partiyi dusurmesin: tek tek yeniden denenir.
+            log.warn("Review batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    finish(List.of(pending), persist(List.of(pending)));
+                } catch (RuntimeException single) {
+                    // Ayrinti (SQL, surucu mesaji) yalnizca loga yazilir; herkese acik sonucta sabit mesaj durur.
+                    log.warn("Review {} could not be written", pending.provisionalId(), single);
+                    record(pending.provisionalId(), new Outcome(Status.FAILED, null, WRITE_FAILED));
+                    count("failed", 1);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.ifAvailable(registry -> registry.timer(FLUSH_METRIC).record(elapsed, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Writes the batch in one transaction and returns the reviews left out because their product or user no longer
+     * exists, with the reason.
+     */
+    private Map<Pending, String> persist(List<Pending> batch) {
+        List<Review> reviews = batch.stream().map(Pending::review).toList();
+        return transactionTemplate.execute(status -> {
+            // Once INSERT: transaction yazma kilidiyle baslar (bkz. OrderService.reserveStock), varlik kontrolu
+            // kilit altinda yapilir. Bu arada silinmis urun/kullaniciya ait satirlar ayni transaction'da geri silinir.
+            reviewRepository.insertAll(reviews);
+            Set<Long> products = new HashSet<>(productRepository.findExistingIds(
+                    reviews.stream().map(r -> r.getProduct().getId()).collect(Collectors.toSet())));
+            Set<Long> users = new HashSet<>(userRepository.findExistingIds(
+                    reviews.stream().map(r -> r.getUser().getId()).collect(Collectors.toSet())));
+            Map<Pending, String> missing = new HashMap<>();
+            List<ReviewRating> added = new ArrayList<>(reviews.size());
+            for (Pending pending : batch) {
+                Review r = pending.review();
+                if (!products.contains(r.getProduct().getId())) {
+                    missing.put(pending, "Product not found");
+                } else if (!users.contains(r.getUser().getId())) {
+                    missing.put(pending, "User not found");
+                } else {
+                    added.add(new ReviewRating(r.getProduct().getId(), r.getRating()));
+                }
+            }
+            if (!missing.isEmpty()) {
+                reviewRepository.deleteAllByIdInBatch(missing.keySet().stream().map(p -> p.review().getId()).toList());
+            }
+            ratings.addedAll(added);
+            return missing;
+        });
+    }
+
+    private void finish(List<Pending> batch, Map<Pending, String> missing) {
+        for (Pending pending : batch) {
+            String reason = missing.get(pending);
+            if (reason == null) {
+                written(pending);
+            } else {
+                record(pending.provisionalId(), new Outcome(Status.FAILED, null, reason));
+            }
+        }
+        count("written", batch.size() - missing.size());
+        if (!missing.isEmpty()) {
+            count("failed", missing.size());
+        }
+    }
+
+    private void written(Pending pending) {
+        record(pending.provisionalId(), new Outcome(Status.WRITTEN, pending.review().getId(), null));
+    }
+
+    private void record(String provisionalId, Outcome outcome) {
+        synchronized (outcomes) {
+            outcomes.put(provisionalId, outcome);
+        }
+    }
+
+    private void count(String result, int n) {
+        meterRegistry.ifAvailable(registry -> registry.counter(REVIEWS_METRIC, "result", result).increment(n));
+    }
+}
@@ -0,0 +1,219 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Fast path for "is this key already taken?" checks (product SKUs, user emails, category slugs).
+ * <p>
+ * Every key in use is kept in a Bloom filter. When the filter says a key is definitely absent, which is the
+ * answer for nearly every new key, the repository query is skipped; otherwise it decides. The filters are built
+ * from the tables on startup and the services add each key they write. Keys freed by deletes or renames stay in
+ * the filter and only cost the query they would have cost anyway; the next {@link #rebuild()} drops them.
+ * <p>
+ * A filter that fills up is not rebuilt: a new one with twice the capacity and half the false positive probability
+ * is chained after it (the first one gets half the configured probability), so the combined probability stays
+ * below the configured one. The unique constraints remain the final authority; this only saves the query in front
+ * of them.
+ * Checks are counted as {@code minicommerce.uniqueness.checks} ({@code key}, {@code result=absent|queried}).
+ */
+@Component
+public class UniquenessGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(UniquenessGuard.class);
+
+    static final String CHECKS_METRIC = "minicommerce.uniqueness.checks";
+
+    public enum Key {
+        SKU("sku", "select sku from products"),
+        EMAIL("email", "select email from users"),
+        CATEGORY_SLUG("category-slug", "select slug from categories");
+
+        private final String tag;
+        private final String scan;
+
+        Key(String tag, String scan) {
+            this.tag = tag;
+            this.scan = scan;
+        }
+    }
+
+    private final boolean enabled;
+    private final long expectedKeys;
+    private final double falsePositiveProbability;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Key, KeySet> keySets = new EnumMap<>(Key.class);
+
+    public UniquenessGuard(@Value("${minicommerce.uniqueness.bloom.enabled:true}") boolean enabled,
+                           @Value("${minicommerce.uniqueness.bloom.expected-keys:100000}") long expectedKeys,
+                           @Value("${minicommerce.uniqueness.bloom.false-positive-probability:0.01}") double falsePositiveProbability,
+                           JdbcTemplate jdbcTemplate,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        for (Key key : Key.values()) {
+            keySets.put(key, new KeySet());
+        }
+    }
+
+    /**
+     * Whether {@code value} is taken: {@code false} without a query when the filter rules it out, otherwise
+     * whatever {@code repositoryCheck} says.
+     */
+    public boolean exists(Key key, String value, BooleanSupplier repositoryCheck) {
+        if (enabled && !keySets.get(key).mightContain(value)) {
+            count(key, "absent");
+            return false;
+        }
+        count(key, "queried");
+        return repositoryCheck.getAsBoolean();
+    }
+
+    /**
+     * Batch form of {@link #exists}: those of {@code values} that are taken. Only the values the filter cannot rule
+     * out are passed to {@code repositoryCheck}, in one call; it is not called at all if the filter rules out every
+     * value.
+     */
+    public Set<String> existing(Key key, Collection<String> values, Function<Collection<String>, Collection<String>> repositoryCheck) {
+        List<String> maybe = new ArrayList<>();
+        for (String value : values) {
+            if (enabled && !keySets.get(key).mightContain(value)) {
+                count(key, "absent");
+            } else {
+                count(key, "queried");
+                maybe.add(value);
+            }
+        }
+        return maybe.isEmpty() ? Set.of() : new HashSet<>(repositoryCheck.apply(maybe));
+    }
+
+    /**
+     * Records a key that is now in use. Called before commit: a rolled back write only leaves a false positive.
+     */
+    public void add(Key key, String value) {
+        if (enabled) {
+            keySets.get(key).add(value);
+        }
+    }
+
+    /**
+     * Rebuilds every filter from its table. Until the first build has finished every check queries. Keys written
+     * during the scan go to both the old and the new filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        for (Key key : Key.values()) {
+            long started = System.currentTimeMillis();
+            KeySet keySet = keySets.get(key);
+            int loaded = keySet.rebuild(key.scan);
+            log.info("Uniqueness filter for {} built from {} keys ({} filters, {} ms)",
+                    key.tag, loaded, keySet.filterCount(), System.currentTimeMillis() - started);
+        }
+    }
+
+    int filterCount(Key key) {
+        return keySets.get(key).filterCount();
+    }
+
+    private void count(Key key, String result) {
+        meterRegistry.ifAvailable(registry -> registry.counter(CHECKS_METRIC, "key", key.tag, "result", result).increment());
+    }
+
+    /**
+     * Chain of filters for one kind of key; a key is in the set if any filter might contain it.
+     */
+    private final class KeySet {
+        private volatile List<BloomFilter> filters = new CopyOnWriteArrayList<>();
+        private volatile List<BloomFilter> building;
+        private volatile boolean ready;
+
+        boolean mightContain(String value) {
+            if (!ready) {
+                return true;
+            }
+            for (BloomFilter filter : filters) {
+                if (filter.mightContain(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(String value) {
+            // Once yeniden kurulan zincir okunur: takas araya girerse anahtar yine yeni zincire yazilmis olur.
+            List<BloomFilter> next = building;
+            if (next != null) {
+                put(next, value);
+            }
+            put(filters, value);
+        }
+
+        synchronized int rebuild(String scan) {
+            List<BloomFilter> next = new CopyOnWriteArrayList<>();
+            next.add(new BloomFilter(expectedKeys, falsePositiveProbability / 2));
+            building = next;
+            int[] loaded = {0};
+            jdbcTemplate.query(scan, rs -> {
+                put(next, rs.getString(1));
+                loaded[0]++;
+            });
+            filters = next;
+            building = null;
+            ready = true;
+            return loaded[0];
+        }
+
+        int filterCount() {
+            return filters.size();
+        }
+
+        private void put(List<BloomFilter> chain, String value) {
+            if (chain.isEmpty()) {
+                return;
+            }
+            BloomFilter last = chain.get(chain.size() - 1);
+            last.put(value);
+            if (last.isSaturated()) {
+                grow(chain, last);
+            }
+        }
+
+        // Dolan filtre buyutulmez; 2 kat kapasiteli, yarim hata olasilikli yeni bir filtre zincire eklenir.
+        private void grow(List<BloomFilter> chain, BloomFilter full) {
+            synchronized (chain) {
+                if (chain.get(chain.size() - 1) != full) {
+                    return;
+                }
+                long capacity = expectedKeys << Math.min(chain.size(), 20);
+                double probability = falsePositiveProbability / (2L << chain.size());
+                chain.add(new BloomFilter(capacity, Math.max(probability, 1e-9)));
+            }
+        }
+    }
+}
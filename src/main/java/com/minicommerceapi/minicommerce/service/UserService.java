@@ -4,7 +4,9 @@ import com.minicommerceapi.minicommerce.domain.User;
 import com.minicommerceapi.minicommerce.dto.UserDtos;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.TableVersion;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.EntityTag;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,21 +16,24 @@ import java.util.Locale;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UniquenessGuard uniqueness;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UniquenessGuard uniqueness) {
         this.userRepository = userRepository;
+        this.uniqueness = uniqueness;
     }
 
     @Transactional
     public UserDtos.UserResponse create(UserDtos.CreateUserRequest req) {
         String normalizedEmail = normalizeEmail(req.email());
-        if (userRepository.existsByEmail(normalizedEmail)) {
+        if (emailExists(normalizedEmail)) {
             throw new ConflictException("Email already exists");
         }
         User u = new User();
         u.setName(req.name().trim());
         u.setEmail(normalizedEmail);
         u = userRepository.save(u);
+        uniqueness.add(UniquenessGuard.Key.EMAIL, normalizedEmail);
         return toResponse(u);
     }
 
@@ -37,6 +42,26 @@ public class UserService {
         return userRepository.findAll().stream().map(this::toResponse).toList();
     }
 
+    /**
+     * ETag of the user list from a table fingerprint; no Last-Modified, a deleted row leaves no newer timestamp.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag listTag() {
+        TableVersion t = userRepository.tableVersion();
+        return EntityTag.of("users").add(t.count()).add(t.maxId()).add(t.versionSum()).add(t.lastModified())
+                .withoutLastModified();
+    }
+
+    /**
+     * Validators of one user read without loading it; null if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public EntityTag tag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(v -> EntityTag.of("user").add(id).add(v.version()).modifiedAt(v.updatedAt()))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public UserDtos.UserResponse get(Long id) {
         User u = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
@@ -47,8 +72,11 @@ public class UserService {
     public UserDtos.UserResponse update(Long id, UserDtos.UpdateUserRequest req) {
         User u = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
         String normalizedEmail = normalizeEmail(req.email());
-        if (!u.getEmail().equals(normalizedEmail) && userRepository.existsByEmail(normalizedEmail)) {
-            throw new ConflictException("Email already exists");
+        if (!u.getEmail().equals(normalizedEmail)) {
+            if (emailExists(normalizedEmail)) {
+                throw new ConflictException("Email already exists");
+            }
+            uniqueness.add(UniquenessGuard.Key.EMAIL, normalizedEmail);
         }
         u.setName(req.name().trim());
         u.setEmail(normalizedEmail);
@@ -67,6 +95,10 @@ public class UserService {
         return new UserDtos.UserResponse(u.getId(), u.getName(), u.getEmail());
     }
 
+    private boolean emailExists(String normalizedEmail) {
+        return uniqueness.exists(UniquenessGuard.Key.EMAIL, normalizedEmail, () -> userRepository.existsByEmail(normalizedEmail));
+    }
+
     private String normalizeEmail(String email) {
         return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
     }
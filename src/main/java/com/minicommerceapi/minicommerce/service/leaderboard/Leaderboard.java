@@ -0,0 +1,81 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Products ranked by a score, overall and within each category: one balanced search tree ({@link TreeSet}) per
+ * category and one over all products, ordered by score (highest first) and then by id. Changing a product's score is
+ * a removal and an insertion, O(log n); the top k are the first k nodes, O(log n + k). Products with a score of zero
+ * or less are not ranked. Not thread-safe: {@link ProductLeaderboards} guards it with its lock.
+ */
+final class Leaderboard {
+
+    record Ranked(long productId, long categoryId, double score) {}
+
+    private static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparingLong(Ranked::productId);
+
+    private final Map<Long, Ranked> ranked = new HashMap<>();
+    private final Map<Long, TreeSet<Ranked>> categories = new HashMap<>();
+    private final TreeSet<Ranked> all = new TreeSet<>(ORDER);
+
+    void update(long productId, long categoryId, double score) {
+        Ranked old = ranked.get(productId);
+        if (old != null && old.categoryId() == categoryId && old.score() == score) {
+            return;
+        }
+        remove(productId);
+        if (score > 0) {
+            Ranked entry = new Ranked(productId, categoryId, score);
+            ranked.put(productId, entry);
+            all.add(entry);
+            categories.computeIfAbsent(categoryId, c -> new TreeSet<>(ORDER)).add(entry);
+        }
+    }
+
+    void remove(long productId) {
+        Ranked old = ranked.remove(productId);
+        if (old == null) {
+            return;
+        }
+        all.remove(old);
+        TreeSet<Ranked> tree = categories.get(old.categoryId());
+        if (tree != null) {
+            tree.remove(old);
+            if (tree.isEmpty()) {
+                categories.remove(old.categoryId());
+            }
+        }
+    }
+
+    /**
+     * The highest ranked {@code k} products, optionally within one category.
+     */
+    List<Ranked> top(Long categoryId, int k) {
+        TreeSet<Ranked> tree = categoryId == null ? all : categories.get(categoryId);
+        if (tree == null) {
+            return List.of();
+        }
+        List<Ranked> top = new ArrayList<>(Math.min(k, tree.size()));
+        for (Iterator<Ranked> it = tree.iterator(); it.hasNext() && top.size() < k; ) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    int size() {
+        return ranked.size();
+    }
+
+    void clear() {
+        ranked.clear();
+        categories.clear();
+        all.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the sales state, so that a restart does not have to rescan a week of order items.
+ * Layout: magic, format version, id of the last order counted, product count, then per product its id, category,
+ * last sale day and the {@link ProductStats#WINDOW_DAYS} daily unit counters. Rating aggregates are not stored:
+ * they may change after the snapshot is written and are re-read from product_ratings on restore.
+ */
+final class LeaderboardSnapshot {
+
+    private static final int MAGIC = 0x4C424453; // "LBDS"
+    private static final int VERSION = 2;
+
+    record State(long lastOrderId, Map<Long, ProductStats> products) {}
+
+    private LeaderboardSnapshot() {
+    }
+
+    /**
+     * Writes to a temporary file next to {@code file} and moves it into place, so a crash mid-write never leaves a
+     * truncated snapshot behind.
+     */
+    static void write(Path file, long lastOrderId, Map<Long, ProductStats> products) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lastOrderId);
+            out.writeInt(products.size());
+            for (Map.Entry<Long, ProductStats> e : products.entrySet()) {
+                ProductStats s = e.getValue();
+                out.writeLong(e.getKey());
+                out.writeLong(s.categoryId);
+                out.writeLong(s.lastSaleDay);
+                for (long units : s.units) {
+                    out.writeLong(units);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     *
+     * @throws IOException if the file is missing, truncated or of another format
+     */
+    static State read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a leaderboard snapshot: " + file);
+            }
+            long lastOrderId = in.readLong();
+            int count = in.readInt();
+            Map<Long, ProductStats> products = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                ProductStats s = new ProductStats(in.readLong());
+                s.lastSaleDay = in.readLong();
+                for (int d = 0; d < s.units.length; d++) {
+                    s.units[d] = in.readLong();
+                }
+                products.put(id, s);
+            }
+            return new State(lastOrderId, products);
+        }
+    }
+}
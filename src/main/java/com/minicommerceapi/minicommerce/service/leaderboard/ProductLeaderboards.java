@@ -0,0 +1,409 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory leaderboards (GET /api/products/top-rated, GET /api/products/best-sellers), overall and per category.
+ * <ul>
+ *   <li>top rated: Bayesian average rating, {@code (priorMean * priorWeight + ratingSum) / (priorWeight + reviews)},
+ *   so products with few reviews are pulled towards {@code minicommerce.leaderboards.prior-mean};</li>
+ *   <li>best sellers: units ordered over the last {@link ProductStats#WINDOW_DAYS} days (today included), from a
+ *   per-product ring of daily counters; when the day changes every sales score is recomputed once.</li>
+ * </ul>
+ * Both are kept in {@link Leaderboard}s, so reading the top k is O(log n + k) and a write re-ranks one product.
+ * They follow committed writes through {@link CatalogEvents.RatingChanged} (the product's aggregate is re-read, so
+ * the update is idempotent), {@link CatalogEvents.ProductsOrdered}, {@link CatalogEvents.ProductChanged} and
+ * {@link CatalogEvents.ProductsCreated}.
+ * <p>
+ * On shutdown the sales state is written to {@code minicommerce.leaderboards.snapshot-file}. On startup a snapshot
+ * is loaded, deleted (a crash must not reuse it later), caught up with the orders placed after it and given the
+ * current rating aggregates from product_ratings; without one the state is rebuilt from the products,
+ * product_ratings and the last week of order items.
+ */
+@Component
+public class ProductLeaderboards {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLeaderboards.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private record Hit(long productId, BigDecimal score, long reviews, long unitsSold) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductService productService;
+    private final Clock clock;
+    private final double priorMean;
+    private final double priorWeight;
+    private final Path snapshotFile;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductStats> products = new HashMap<>();
+    private final Leaderboard topRated = new Leaderboard();
+    private final Leaderboard bestSellers = new Leaderboard();
+    // Satis puanlarinin hesaplandigi gun (epoch gunu)
+    private volatile long salesDay;
+    // Bu id'ye kadarki siparisler tarama ile sayildi; olaylari atlanir.
+    private long scannedThrough;
+    // Sayilan en buyuk siparis id'si; anlik goruntuden sonra buradan devam edilir.
+    private long lastOrderId;
+
+    @Autowired
+    public ProductLeaderboards(JdbcTemplate jdbcTemplate, ProductService productService,
+                               @Value("${minicommerce.leaderboards.prior-mean:3.0}") double priorMean,
+                               @Value("${minicommerce.leaderboards.prior-weight:10}") double priorWeight,
+                               @Value("${minicommerce.leaderboards.snapshot-file:}") String snapshotFile) {
+        this(jdbcTemplate, productService, Clock.systemUTC(), priorMean, priorWeight, snapshotFile);
+    }
+
+    ProductLeaderboards(JdbcTemplate jdbcTemplate, ProductService productService, Clock clock,
+                        double priorMean, double priorWeight, String snapshotFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productService = productService;
+        this.clock = clock;
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.salesDay = today();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                LeaderboardSnapshot.State state = LeaderboardSnapshot.read(snapshotFile);
+                Files.delete(snapshotFile);
+                if (restore(state)) {
+                    return;
+                }
+                log.warn("Leaderboard snapshot {} is ahead of the orders table, rebuilding", snapshotFile);
+            } catch (IOException e) {
+                log.warn("Leaderboard snapshot {} unusable, rebuilding: {}", snapshotFile, e.getMessage());
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the leaderboards from the database. The write lock is held for the whole scan: writes committed
+     * meanwhile wait for it and are applied on top; orders up to the highest id seen by the scan are not counted
+     * twice.
+     */
+    @Scheduled(cron = "${minicommerce.leaderboards.rebuild-cron:-}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            long maxOrderId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+            jdbcTemplate.query("select id, category_id from products",
+                    rs -> { products.put(rs.getLong(1), new ProductStats(rs.getLong(2))); });
+            readRatings();
+            scanOrders(0, maxOrderId);
+            scannedThrough = maxOrderId;
+            lastOrderId = maxOrderId;
+            rankAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product leaderboards built: {} products, {} rated, {} sold this week ({} ms)",
+                products.size(), topRated.size(), bestSellers.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Writes the snapshot; called on shutdown, after the web server has stopped taking requests.
+     */
+    @PreDestroy
+    public void save() {
+        if (snapshotFile == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            LeaderboardSnapshot.write(snapshotFile, lastOrderId, products);
+            log.info("Leaderboard snapshot written: {} products to {}", products.size(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not write leaderboard snapshot {}: {}", snapshotFile, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(CatalogEvents.RatingChanged event) {
+        lock.writeLock().lock();
+        try {
+            ProductStats s = products.get(event.productId());
+            if (s == null) {
+                return;
+            }
+            // Ozet tablodan mutlak deger okunur: ayni olay iki kez islense de sonuc ayni.
+            List<long[]> row = jdbcTemplate.query(
+                    "select review_count, rating_sum from product_ratings where product_id = ?",
+                    (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, event.productId());
+            s.reviewCount = row.isEmpty() ? 0 : row.get(0)[0];
+            s.ratingSum = row.isEmpty() ? 0 : row.get(0)[1];
+            rankRating(event.productId(), s);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsOrdered(CatalogEvents.ProductsOrdered event) {
+        lock.writeLock().lock();
+        try {
+            if (event.orderId() != null) {
+                if (event.orderId() <= scannedThrough) {
+                    return;
+                }
+                lastOrderId = Math.max(lastOrderId, event.orderId());
+            }
+            long today = rollOver();
+            event.units().forEach((productId, quantity) -> {
+                ProductStats s = products.get(productId);
+                if (s != null) {
+                    s.sell(today, quantity);
+                    rankSales(productId, s, today);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(CatalogEvents.ProductChanged event) {
+        ProductDtos.ProductResponse product = event.product();
+        lock.writeLock().lock();
+        try {
+            if (product == null) {
+                products.remove(event.productId());
+                topRated.remove(event.productId());
+                bestSellers.remove(event.productId());
+                return;
+            }
+            ProductStats s = products.get(product.id());
+            if (s == null) {
+                products.put(product.id(), new ProductStats(product.categoryId()));
+            } else if (s.categoryId != product.categoryId()) {
+                s.categoryId = product.categoryId();
+                rankRating(product.id(), s);
+                rankSales(product.id(), s, salesDay);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(CatalogEvents.ProductsCreated event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDtos.ProductResponse product : event.products()) {
+                products.putIfAbsent(product.id(), new ProductStats(product.categoryId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Highest Bayesian-rated products, optionally within one category; {@code score} is the Bayesian average.
+     */
+    public List<ProductDtos.LeaderboardEntry> topRated(Long categoryId, int limit) {
+        checkLimit(limit);
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = hits(topRated.top(categoryId, limit), r -> BigDecimal.valueOf(r.score()).setScale(2, RoundingMode.HALF_UP));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hydrate(hits);
+    }
+
+    /**
+     * Products with the most units ordered over the last {@link ProductStats#WINDOW_DAYS} days, optionally within
+     * one category; {@code score} is that unit count.
+     */
+    public List<ProductDtos.LeaderboardEntry> bestSellers(Long categoryId, int limit) {
+        checkLimit(limit);
+        if (today() != salesDay) {
+            lock.writeLock().lock();
+            try {
+                rollOver();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = hits(bestSellers.top(categoryId, limit), r -> BigDecimal.valueOf((long) r.score()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hydrate(hits);
+    }
+
+    // Cagiran kilidi tutar.
+    private List<Hit> hits(List<Leaderboard.Ranked> top, Function<Leaderboard.Ranked, BigDecimal> score) {
+        List<Hit> hits = new ArrayList<>(top.size());
+        for (Leaderboard.Ranked r : top) {
+            ProductStats s = products.get(r.productId());
+            hits.add(new Hit(r.productId(), score.apply(r), s.reviewCount, s.unitsSold(salesDay)));
+        }
+        return hits;
+    }
+
+    private List<ProductDtos.LeaderboardEntry> hydrate(List<Hit> hits) {
+        Map<Long, ProductDtos.ProductResponse> byId = productService.getAll(hits.stream().map(Hit::productId).toList())
+                .stream().collect(Collectors.toMap(ProductDtos.ProductResponse::id, Function.identity()));
+        List<ProductDtos.LeaderboardEntry> entries = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ProductDtos.ProductResponse product = byId.get(hit.productId());
+            // Bu arada silinen urun atlanir.
+            if (product != null) {
+                entries.add(new ProductDtos.LeaderboardEntry(entries.size() + 1, product, hit.score(), hit.reviews(), hit.unitsSold()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Installs a snapshot, counts the orders placed after it and reads the rating aggregates, which may have changed
+     * after the snapshot was written (e.g. reviews drained on shutdown). Returns false, changing nothing, when the
+     * snapshot knows of orders the database does not (the database was replaced or restored).
+     */
+    private boolean restore(LeaderboardSnapshot.State state) {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            long maxOrderId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from orders", Long.class);
+            if (state.lastOrderId() > maxOrderId) {
+                return false;
+            }
+            products.clear();
+            products.putAll(state.products());
+            readRatings();
+            scanOrders(state.lastOrderId(), maxOrderId);
+            scannedThrough = maxOrderId;
+            lastOrderId = maxOrderId;
+            rankAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product leaderboards restored from {}: {} products, caught up from order {} ({} ms)",
+                snapshotFile, products.size(), state.lastOrderId(), System.currentTimeMillis() - started);
+        return true;
+    }
+
+    // Cagiran yazma kilidini tutar.
+    private void readRatings() {
+        jdbcTemplate.query("select product_id, review_count, rating_sum from product_ratings", rs -> {
+            ProductStats s = products.get(rs.getLong(1));
+            if (s != null) {
+                s.reviewCount = rs.getLong(2);
+                s.ratingSum = rs.getLong(3);
+            }
+        });
+    }
+
+    /**
+     * Counts the items of orders with {@code afterId < id <= throughId} placed within the sales window.
+     */
+    private void scanOrders(long afterId, long throughId) {
+        long today = today();
+        Instant windowStart = Instant.ofEpochSecond((today - ProductStats.WINDOW_DAYS + 1) * SECONDS_PER_DAY);
+        jdbcTemplate.query("select oi.product_id, oi.quantity, o.created_at from order_items oi "
+                        + "join orders o on o.id = oi.order_id where o.id > ? and o.id <= ? and o.created_at >= ?",
+                rs -> {
+                    ProductStats s = products.get(rs.getLong(1));
+                    if (s != null) {
+                        s.sell(Math.floorDiv(rs.getTimestamp(3).toInstant().getEpochSecond(), SECONDS_PER_DAY), rs.getInt(2));
+                    }
+                },
+                afterId, throughId, Timestamp.from(windowStart));
+    }
+
+    // Cagiran yazma kilidini tutar.
+    private void rankAll() {
+        long today = today();
+        topRated.clear();
+        bestSellers.clear();
+        products.forEach((id, s) -> {
+            rankRating(id, s);
+            rankSales(id, s, today);
+        });
+        salesDay = today;
+    }
+
+    /**
+     * Recomputes every sales score when the day has changed since they were computed: the oldest day leaves the
+     * window. Returns today. The caller holds the write lock.
+     */
+    private long rollOver() {
+        long today = today();
+        if (today != salesDay) {
+            products.forEach((id, s) -> {
+                if (s.lastSaleDay >= 0) {
+                    rankSales(id, s, today);
+                }
+            });
+            salesDay = today;
+        }
+        return today;
+    }
+
+    private void rankRating(long productId, ProductStats s) {
+        topRated.update(productId, s.categoryId, s.bayesianRating(priorMean, priorWeight));
+    }
+
+    private void rankSales(long productId, ProductStats s, long today) {
+        bestSellers.update(productId, s.categoryId, s.unitsSold(today));
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
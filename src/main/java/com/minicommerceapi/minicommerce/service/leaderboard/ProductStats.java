@@ -0,0 +1,64 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+/**
+ * What the leaderboards know about one product: its category, its rating aggregate and the units ordered on each
+ * of the last {@link #WINDOW_DAYS} days, in a ring indexed by epoch day. Not thread-safe.
+ */
+final class ProductStats {
+
+    static final int WINDOW_DAYS = 7;
+
+    long categoryId;
+    long reviewCount;
+    long ratingSum;
+    // En son satis gununun epoch gunu; -1: hic satis yok
+    long lastSaleDay = -1;
+    final long[] units = new long[WINDOW_DAYS];
+
+    ProductStats(long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * Records {@code quantity} units ordered on {@code day}. Days older than the window are ignored.
+     */
+    void sell(long day, long quantity) {
+        if (day > lastSaleDay) {
+            // Aradaki (ve halkada eski gunlere ait) slotlar sifirlanir.
+            long from = Math.max(lastSaleDay + 1, day - WINDOW_DAYS + 1);
+            for (long d = from; d <= day; d++) {
+                units[slot(d)] = 0;
+            }
+            lastSaleDay = day;
+        } else if (day <= lastSaleDay - WINDOW_DAYS) {
+            return;
+        }
+        units[slot(day)] += quantity;
+    }
+
+    /**
+     * Units ordered within the {@link #WINDOW_DAYS} days ending with {@code today}.
+     */
+    long unitsSold(long today) {
+        if (lastSaleDay < 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (long d = Math.max(today, lastSaleDay) - WINDOW_DAYS + 1; d <= Math.min(today, lastSaleDay); d++) {
+            sum += units[slot(d)];
+        }
+        return sum;
+    }
+
+    /**
+     * Bayesian average: the mean rating pulled towards {@code priorMean} as if {@code priorWeight} reviews of that
+     * rating had been added, so that a single five-star review does not outrank hundreds of good ones.
+     */
+    double bayesianRating(double priorMean, double priorWeight) {
+        return reviewCount == 0 ? 0 : (priorMean * priorWeight + ratingSum) / (priorWeight + reviewCount);
+    }
+
+    private static int slot(long day) {
+        return (int) Math.floorMod(day, (long) WINDOW_DAYS);
+    }
+}
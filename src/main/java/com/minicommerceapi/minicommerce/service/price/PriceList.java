@@ -0,0 +1,88 @@
+package com.minicommerceapi.minicommerce.service.price;
+
+import java.util.Arrays;
+
+/**
+ * Products sorted by {@code (price, id)}, stored as two parallel primitive arrays: prices as unscaled cents and
+ * product ids. A range of prices is found with two binary searches; inserting or removing shifts the tail of both
+ * arrays. Not thread-safe: {@link ProductPriceIndex} guards it with its lock.
+ */
+final class PriceList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] cents = EMPTY;
+    private long[] ids = EMPTY;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long priceCents, long id) {
+        int pos = position(priceCents, id);
+        if (pos < size && cents[pos] == priceCents && ids[pos] == id) {
+            return;
+        }
+        if (size == cents.length) {
+            int capacity = Math.max(8, size + (size >> 1));
+            cents = Arrays.copyOf(cents, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(cents, pos, cents, pos + 1, size - pos);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        cents[pos] = priceCents;
+        ids[pos] = id;
+        size++;
+    }
+
+    boolean remove(long priceCents, long id) {
+        int pos = position(priceCents, id);
+        if (pos == size || cents[pos] != priceCents || ids[pos] != id) {
+            return false;
+        }
+        System.arraycopy(cents, pos + 1, cents, pos, size - pos - 1);
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * First position whose {@code (price, id)} is not less than the given pair; {@link #size()} if there is none.
+     */
+    int position(long priceCents, long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cents[mid] < priceCents || (cents[mid] == priceCents && ids[mid] < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    long centsAt(int pos) {
+        return cents[pos];
+    }
+
+    long idAt(int pos) {
+        return ids[pos];
+    }
+
+    /**
+     * Drops the spare capacity left by appends.
+     */
+    void trim() {
+        if (size < cents.length) {
+            cents = Arrays.copyOf(cents, size);
+            ids = Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.minicommerceapi.minicommerce.service.price;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory price index for price-range listing (GET /api/products?minPrice=&maxPrice=): one {@link PriceList} per
+ * category and one over all products, each sorted by {@code (price in cents, id)}. A range query is two binary
+ * searches and a walk over the matching slice; only the ids it returns are then read from the database. Products
+ * are also kept by id, so an id-sorted page of a wide band is a walk in id order that stops at the page size.
+ * <p>
+ * The index is built on startup and follows committed product writes through {@link CatalogEvents.ProductChanged},
+ * {@link CatalogEvents.ProductsCreated} and {@link CatalogEvents.ProductsUpdated}. Until it is built, {@link #isReady()} is false and callers filter in SQL.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPriceIndex.class);
+
+    private record Entry(long categoryId, long cents) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private PriceList all = new PriceList();
+    private final Map<Long, PriceList> categories = new HashMap<>();
+    private final TreeMap<Long, Entry> products = new TreeMap<>();
+    private volatile boolean ready;
+
+    public ProductPriceIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuilds the index from the products table. Rows are read in {@code (price, id)} order so every insert is an
+     * append. The write lock is held for the whole scan: writes committed meanwhile wait for it and are applied on
+     * top, so none of them is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            all = new PriceList();
+            products.clear();
+            categories.clear();
+            jdbcTemplate.query("select id, category_id, price from products order by price, id",
+                    rs -> { put(rs.getLong(1), rs.getLong(2), cents(rs.getBigDecimal(3))); });
+            all.trim();
+            categories.values().forEach(PriceList::trim);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product price index built: {} products in {} categories ({} ms)",
+                products.size(), categories.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(CatalogEvents.ProductChanged event) {
+        ProductDtos.ProductResponse product = event.product();
+        lock.writeLock().lock();
+        try {
+            if (product == null) {
+                remove(event.productId());
+            } else {
+                put(product.id(), product.categoryId(), cents(product.price()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(CatalogEvents.ProductsCreated event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDtos.ProductResponse product : event.products()) {
+                put(product.id(), product.categoryId(), cents(product.price()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsUpdated(CatalogEvents.ProductsUpdated event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDtos.ProductResponse product : event.products()) {
+                put(product.id(), product.categoryId(), cents(product.price()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of products priced within {@code [minCents, maxCents]} (optionally in one category) in {@code (price, id)}
+     * order, starting strictly after the {@code (afterCents, afterId)} keyset position when one is given.
+     */
+    public long[] byPrice(Long categoryId, long minCents, long maxCents, boolean ascending,
+                          Long afterCents, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            PriceList list = list(categoryId);
+            if (list == null) {
+                return new long[0];
+            }
+            int from = list.position(minCents, Long.MIN_VALUE);
+            int to = maxCents == Long.MAX_VALUE ? list.size() : list.position(maxCents + 1, Long.MIN_VALUE);
+            if (afterId != null) {
+                // Imlec satirinin kendisi haric: artan yonde (fiyat, id+1)'den, azalan yonde (fiyat, id)'den oncesi.
+                if (ascending) {
+                    from = Math.max(from, list.position(afterCents, afterId + 1));
+                } else {
+                    to = Math.min(to, list.position(afterCents, afterId));
+                }
+            }
+            int count = Math.max(0, Math.min(limit, to - from));
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = list.idAt(ascending ? from + i : to - 1 - i);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of products priced within {@code [minCents, maxCents]} (optionally in one category) in id order, starting
+     * strictly after {@code afterId} when one is given. A narrow band is collected from the price list and sorted by
+     * id; a wide one is read by walking all products in id order, which stops as soon as {@code limit} ids match
+     * instead of sorting the whole band.
+     */
+    public long[] byId(Long categoryId, long minCents, long maxCents, boolean ascending, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            PriceList list = list(categoryId);
+            if (list == null) {
+                return new long[0];
+            }
+            int from = list.position(minCents, Long.MIN_VALUE);
+            int to = maxCents == Long.MAX_VALUE ? list.size() : list.position(maxCents + 1, Long.MIN_VALUE);
+            int matching = Math.max(0, to - from);
+            // Siralama m log m; id sirasinda yurume her eslesme icin ortalama N/m urun gezer.
+            double sortCost = matching * (Math.log(matching + 1) / Math.log(2));
+            double walkCost = (double) limit * products.size() / Math.max(1, matching);
+            return sortCost <= walkCost
+                    ? sortById(list, from, to, ascending, afterId, limit)
+                    : walkById(categoryId, minCents, maxCents, ascending, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] sortById(PriceList list, int from, int to, boolean ascending, Long afterId, int limit) {
+        long[] matching = new long[Math.max(0, to - from)];
+        for (int i = 0; i < matching.length; i++) {
+            matching[i] = list.idAt(from + i);
+        }
+        Arrays.sort(matching);
+        int start = 0;
+        int end = matching.length;
+        if (afterId != null) {
+            int pos = Arrays.binarySearch(matching, afterId);
+            int insertion = pos >= 0 ? pos : -pos - 1;
+            if (ascending) {
+                start = pos >= 0 ? pos + 1 : insertion;
+            } else {
+                end = insertion;
+            }
+        }
+        int count = Math.max(0, Math.min(limit, end - start));
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = matching[ascending ? start + i : end - 1 - i];
+        }
+        return ids;
+    }
+
+    private long[] walkById(Long categoryId, long minCents, long maxCents, boolean ascending, Long afterId, int limit) {
+        NavigableMap<Long, Entry> range = products;
+        if (afterId != null) {
+            range = ascending ? products.tailMap(afterId, false) : products.headMap(afterId, false);
+        }
+        long[] ids = new long[limit];
+        int count = 0;
+        for (Map.Entry<Long, Entry> e : (ascending ? range : range.descendingMap()).entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.cents() >= minCents && entry.cents() <= maxCents
+                    && (categoryId == null || entry.categoryId() == categoryId)) {
+                ids[count++] = e.getKey();
+                if (count == limit) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Unscaled cents of a price; prices have at most two decimals.
+     */
+    public static long cents(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+
+    private PriceList list(Long categoryId) {
+        return categoryId == null ? all : categories.get(categoryId);
+    }
+
+    // Cagiran yazma kilidini tutar.
+    private void put(long id, long categoryId, long cents) {
+        Entry old = products.put(id, new Entry(categoryId, cents));
+        if (old != null) {
+            removeFromLists(id, old);
+        }
+        categories.computeIfAbsent(categoryId, c -> new PriceList()).add(cents, id);
+        all.add(cents, id);
+    }
+
+    private void remove(long id) {
+        Entry old = products.remove(id);
+        if (old != null) {
+            removeFromLists(id, old);
+        }
+    }
+
+    private void removeFromLists(long id, Entry old) {
+        all.remove(old.cents(), id);
+        PriceList list = categories.get(old.categoryId());
+        if (list != null) {
+            list.remove(old.cents(), id);
+            if (list.isEmpty()) {
+                categories.remove(old.categoryId());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.minicommerceapi.minicommerce.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of product ids stored as variable-byte encoded gaps. Ids are assigned in insertion order, so the
+ * products sharing a term are mostly close together and a gap usually takes one or two bytes instead of eight.
+ * <p>
+ * Appending an id larger than the current maximum (a new product) is amortised O(1); inserting below it or
+ * removing re-encodes the list. Not thread-safe: {@link ProductSearchIndex} guards it with its lock.
+ */
+final class PostingList {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] data = EMPTY;
+    private int length;
+    private int size;
+    private long last;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Encoded size in bytes.
+     */
+    int sizeInBytes() {
+        return length;
+    }
+
+    boolean add(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("id must be positive: " + id);
+        }
+        if (id > last) {
+            writeGap(id - last);
+            last = id;
+            size++;
+            return true;
+        }
+        long[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insertAt = -pos - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        encode(grown);
+        return true;
+    }
+
+    boolean remove(long id) {
+        if (id > last) {
+            return false;
+        }
+        long[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return false;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, pos);
+        System.arraycopy(ids, pos + 1, shrunk, pos, ids.length - pos - 1);
+        encode(shrunk);
+        return true;
+    }
+
+    long[] toArray() {
+        long[] ids = new long[size];
+        long current = 0;
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            current += gap;
+            ids[i] = current;
+        }
+        return ids;
+    }
+
+    private void encode(long[] sortedIds) {
+        data = EMPTY;
+        length = 0;
+        size = 0;
+        last = 0;
+        for (long id : sortedIds) {
+            writeGap(id - last);
+            last = id;
+            size++;
+        }
+        trim();
+    }
+
+    /**
+     * Drops the spare capacity left by appends.
+     */
+    void trim() {
+        if (length < data.length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+
+    // 7 bit'lik gruplar, dusuk grup once; devam eden her baytin en yuksek biti 1.
+    private void writeGap(long gap) {
+        ensureCapacity(length + 10);
+        while ((gap & ~0x7FL) != 0) {
+            data[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > data.length) {
+            data = Arrays.copyOf(data, Math.max(needed, data.length + (data.length >> 1) + 8));
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.minicommerceapi.minicommerce.service.search;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.util.SlugUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names and SKUs.
+ * <p>
+ * Text is folded like slugs ({@link SlugUtil#fold}) and split into alphanumeric terms. A sorted term dictionary
+ * maps each term to a compressed {@link PostingList} of product ids; the terms of every product are kept as well
+ * so that updates can remove the old ones and candidates can be scored without another lookup.
+ * <p>
+ * Every query term must match (AND). A term matches exactly, as a prefix (the last term, for autocomplete) or
+ * within a small edit distance (typo-tolerant mode; the first letter must be right). The posting lists of the
+ * rarest query term give the candidates; they are then scored against all query terms and the best are returned.
+ * <p>
+ * The index is built on startup and follows committed product writes through {@link CatalogEvents.ProductChanged}.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    static final double EXACT = 1.0;
+    static final double PREFIX = 0.8;
+    static final double[] FUZZY = {1.0, 0.6, 0.4};
+    static final double NAME_WEIGHT = 1.0;
+    static final double SKU_WEIGHT = 1.5;
+    // Tek harflik bir onek binlerce terime acilabilir; ilk N terimle sinirlanir.
+    static final int MAX_PREFIX_TERMS = 512;
+    // Yazim toleransi icin ayni sekilde: sorguya sozluk sirasinda en yakin N terim denenir.
+    static final int MAX_FUZZY_TERMS = 2048;
+
+    public record Hit(long productId, double score) {}
+
+    public record Stats(int products, int terms, long postings, long postingBytes) {}
+
+    private record IndexedProduct(String[] nameTerms, String[] skuTerms) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+    public ProductSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Rebuilds the index from the products table. The write lock is held for the whole scan: writes committed
+     * meanwhile wait for it and are applied on top, so none of them is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            products.clear();
+            jdbcTemplate.query("select id, name, sku from products",
+                    rs -> { put(rs.getLong("id"), rs.getString("name"), rs.getString("sku")); });
+            terms.values().forEach(PostingList::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Stats stats = stats();
+        log.info("Product search index built: {} products, {} terms, {} postings in {} bytes ({} ms)",
+                stats.products(), stats.terms(), stats.postings(), stats.postingBytes(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(CatalogEvents.ProductChanged event) {
+        ProductDtos.ProductResponse product = event.product();
+        lock.writeLock().lock();
+        try {
+            if (product == null) {
+                remove(event.productId());
+            } else {
+                put(product.id(), product.name(), product.sku());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(CatalogEvents.ProductsCreated event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDtos.ProductResponse product : event.products()) {
+                put(product.id(), product.name(), product.sku());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best matching products, highest score first (ties: shorter name, then lower id).
+     *
+     * @param prefix the last query term also matches terms it is a prefix of
+     * @param fuzzy  query terms of 4+ letters also match terms one edit away, 8+ letters two edits (same first letter)
+     */
+    public List<Hit> search(String query, boolean prefix, boolean fuzzy, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<String, Double>> expansions = new ArrayList<>();
+            int driver = 0;
+            long driverPostings = Long.MAX_VALUE;
+            for (int i = 0; i < queryTerms.size(); i++) {
+                Map<String, Double> matches = expand(queryTerms.get(i), prefix && i == queryTerms.size() - 1, fuzzy);
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+                long postings = matches.keySet().stream().mapToLong(t -> terms.get(t).size()).sum();
+                if (postings < driverPostings) {
+                    driver = i;
+                    driverPostings = postings;
+                }
+                expansions.add(matches);
+            }
+
+            // En az urune sahip sorgu terimi adaylari verir; adaylar diger terimlere urunun kendi terimleriyle bakilir.
+            Comparator<ScoredProduct> worstFirst = Comparator.comparingDouble(ScoredProduct::score)
+                    .thenComparing(ScoredProduct::nameLength, Comparator.reverseOrder())
+                    .thenComparing(ScoredProduct::productId, Comparator.reverseOrder());
+            PriorityQueue<ScoredProduct> top = new PriorityQueue<>(worstFirst);
+            for (long id : candidates(expansions.get(driver).keySet())) {
+                IndexedProduct product = products.get(id);
+                double score = score(product, expansions);
+                if (score <= 0) {
+                    continue;
+                }
+                top.add(new ScoredProduct(id, score, product.nameTerms().length));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ScoredProduct p = top.poll();
+                hits.add(new Hit(p.productId(), p.score()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            long bytes = 0;
+            for (PostingList list : terms.values()) {
+                postings += list.size();
+                bytes += list.sizeInBytes();
+            }
+            return new Stats(products.size(), terms.size(), postings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folded alphanumeric terms of the text, each once, in order of appearance.
+     */
+    static List<String> tokenize(String text) {
+        LinkedHashSet<String> tokens = new LinkedHashSet<>();
+        for (String token : SlugUtil.fold(text).split("[^a-z0-9]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Cagiran yazma kilidini tutar.
+    private void put(long id, String name, String sku) {
+        remove(id);
+        IndexedProduct product = new IndexedProduct(intern(tokenize(name)), intern(tokenize(sku)));
+        products.put(id, product);
+        addPostings(id, product.nameTerms());
+        addPostings(id, product.skuTerms());
+    }
+
+    // Cagiran yazma kilidini tutar.
+    private void remove(long id) {
+        IndexedProduct old = products.remove(id);
+        if (old == null) {
+            return;
+        }
+        removePostings(id, old.nameTerms());
+        removePostings(id, old.skuTerms());
+    }
+
+    private void addPostings(long id, String[] productTerms) {
+        for (String term : productTerms) {
+            terms.computeIfAbsent(term, t -> new PostingList()).add(id);
+        }
+    }
+
+    private void removePostings(long id, String[] productTerms) {
+        for (String term : productTerms) {
+            PostingList list = terms.get(term);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    // Sozlukteki ayni String ornegi kullanilir; her urun kendi kopyasini tutmaz.
+    private String[] intern(List<String> tokens) {
+        String[] interned = new String[tokens.size()];
+        for (int i = 0; i < interned.length; i++) {
+            String existing = terms.ceilingKey(tokens.get(i));
+            interned[i] = tokens.get(i).equals(existing) ? existing : tokens.get(i);
+        }
+        return interned;
+    }
+
+    /**
+     * Dictionary terms a query term matches, with their match weight.
+     * <p>
+     * Fuzzy matching only considers terms with the same first letter, so a typo in the first letter is never
+     * corrected. Of those, at most {@link #MAX_FUZZY_TERMS} are visited, the closest to the query term in dictionary
+     * order (alternately after and before it); in a larger first-letter band, a term within the edit distance but
+     * far from the query in dictionary order (typically a typo in the second or third letter) can be missed.
+     */
+    private Map<String, Double> expand(String queryTerm, boolean prefix, boolean fuzzy) {
+        Map<String, Double> matches = new HashMap<>();
+        if (terms.containsKey(queryTerm)) {
+            matches.put(queryTerm, EXACT);
+        }
+        if (prefix) {
+            int added = 0;
+            for (String term : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                if (added++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                matches.merge(term, PREFIX, Math::max);
+            }
+        }
+        int maxEdits = maxEdits(queryTerm);
+        if (fuzzy && maxEdits > 0) {
+            String first = queryTerm.substring(0, 1);
+            NavigableMap<String, PostingList> band = terms.subMap(first, true, first + Character.MAX_VALUE, false);
+            Iterator<String> after = band.tailMap(queryTerm, true).keySet().iterator();
+            Iterator<String> before = band.headMap(queryTerm, false).descendingKeySet().iterator();
+            for (int visited = 0; visited < MAX_FUZZY_TERMS && (after.hasNext() || before.hasNext()); visited++) {
+                String term = after.hasNext() && (visited % 2 == 0 || !before.hasNext()) ? after.next() : before.next();
+                if (Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                    continue;
+                }
+                int edits = editDistance(queryTerm, term, maxEdits);
+                if (edits > 0 && edits <= maxEdits) {
+                    matches.merge(term, FUZZY[edits], Math::max);
+                }
+            }
+        }
+        return matches;
+    }
+
+    static int maxEdits(String term) {
+        return term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * Optimal string alignment distance (insert, delete, substitute, swap adjacent letters); returns
+     * {@code max + 1} as soon as the distance is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, previous2[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private long[] candidates(Set<String> driverTerms) {
+        if (driverTerms.size() == 1) {
+            return terms.get(driverTerms.iterator().next()).toArray();
+        }
+        long total = 0;
+        for (String term : driverTerms) {
+            total += terms.get(term).size();
+        }
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (String term : driverTerms) {
+            long[] ids = terms.get(term).toArray();
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    /**
+     * Sum over query terms of the best weighted match among the product's terms; 0 if some query term has none.
+     */
+    private static double score(IndexedProduct product, List<Map<String, Double>> expansions) {
+        double total = 0;
+        for (Map<String, Double> matches : expansions) {
+            double best = Math.max(
+                    bestMatch(product.nameTerms(), matches) * NAME_WEIGHT,
+                    bestMatch(product.skuTerms(), matches) * SKU_WEIGHT);
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static double bestMatch(String[] productTerms, Map<String, Double> matches) {
+        double best = 0;
+        for (String term : productTerms) {
+            Double weight = matches.get(term);
+            if (weight != null && weight > best) {
+                best = weight;
+            }
+        }
+        return best;
+    }
+
+    private record ScoredProduct(long productId, double score, int nameLength) {}
+}
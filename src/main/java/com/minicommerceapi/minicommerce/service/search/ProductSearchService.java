@@ -0,0 +1,58 @@
+package com.minicommerceapi.minicommerce.service.search;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product search: ranked ids come from {@link ProductSearchIndex}, the products themselves from one SELECT.
+ */
+@Service
+public class ProductSearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final ProductSearchIndex index;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    public ProductSearchService(ProductSearchIndex index, ProductRepository productRepository, ProductService productService) {
+        this.index = index;
+        this.productRepository = productRepository;
+        this.productService = productService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductDtos.ProductResponse> search(String query, boolean prefix, boolean fuzzy, int limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("q must be 1-" + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<ProductSearchIndex.Hit> hits = index.search(query, prefix, fuzzy, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findAllWithCategoryByIdIn(hits.stream().map(ProductSearchIndex.Hit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // Siralama indeksten gelir; indekste olup tabloda olmayan (toplu silinmis) urunler atlanir.
+        return hits.stream()
+                .map(hit -> products.get(hit.productId()))
+                .filter(Objects::nonNull)
+                .map(productService::toResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.minicommerceapi.minicommerce.service.stock;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.ProductStockShard;
+import com.minicommerceapi.minicommerce.repo.ProductStockShardRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock for hot SKUs: a product's stock is split across N sub-counter rows so concurrent orders
+ * update different rows instead of all queuing on the single {@code products} row.
+ * All methods expect to run inside the caller's transaction.
+ * <p>
+ * The shard count of every sharded product is also kept in memory ({@link #shards}), loaded on startup and updated
+ * when a product is sharded, unsharded or deleted, so that orders can go straight to the right rows. It is a hint:
+ * callers fall back to {@code products.stock_shards} when a write based on it fails.
+ */
+@Service
+public class ShardedStockService implements SmartInitializingSingleton {
+
+    private final ProductStockShardRepository shardRepository;
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public ShardedStockService(ProductStockShardRepository shardRepository) {
+        this.shardRepository = shardRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Object[] row : shardRepository.countShardsPerProduct()) {
+            shardCounts.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+    }
+
+    /**
+     * Last known shard count of a product; 1 for unsharded (or unknown) products.
+     */
+    public int shards(Long productId) {
+        return shardCounts.getOrDefault(productId, 1);
+    }
+
+    /**
+     * Decrements {@code quantity} from the product's shards. A random shard is tried first and the others
+     * in turn; if no single shard can cover the quantity it is taken from several shards.
+     *
+     * @return false if the shards together do not have {@code quantity} left
+     */
+    public boolean decrement(Long productId, int shards, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.decrement(productId, (start + i) % shards, quantity) == 1) {
+                return true;
+            }
+        }
+
+        // Hicbir shard tek basina yetmiyor: kalan stok parcali. Toplam yetiyorsa shard shard topla.
+        int remaining = quantity;
+        List<ProductStockShard> current = shardRepository.findByProductIdOrderByShardNo(productId);
+        if (current.stream().mapToLong(ProductStockShard::getStock).sum() < quantity) {
+            return false;
+        }
+        for (ProductStockShard shard : current) {
+            int take = Math.min(shard.getStock(), remaining);
+            if (take == 0) {
+                continue;
+            }
+            if (shardRepository.decrement(productId, shard.getShardNo(), take) == 0) {
+                // Arada baska bir siparis ayni shard'i dusurdu; cagiran rollback yapar, kismi dusum kalmaz.
+                return false;
+            }
+            remaining -= take;
+            if (remaining == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the product's stock from the {@code products} row into {@code shards} sub-counters.
+     */
+    public void enable(Product product, int shards) {
+        List<ProductStockShard> rows = new ArrayList<>();
+        int[] split = split(product.getStock(), shards);
+        for (int i = 0; i < shards; i++) {
+            ProductStockShard shard = new ProductStockShard();
+            shard.setProduct(product);
+            shard.setShardNo(i);
+            shard.setStock(split[i]);
+            rows.add(shard);
+        }
+        shardRepository.saveAll(rows);
+        product.setStock(0);
+        product.setStockShards(shards);
+        Long id = product.getId();
+        afterCommit(() -> shardCounts.put(id, shards));
+    }
+
+    /**
+     * Folds the shards back into the {@code products} row.
+     */
+    public void disable(Product product) {
+        if (!product.isStockSharded()) {
+            return;
+        }
+        int total = (int) shardRepository.sumStock(product.getId());
+        shardRepository.deleteByProductId(product.getId());
+        product.setStock(total);
+        product.setStockShards(1);
+        Long id = product.getId();
+        afterCommit(() -> shardCounts.remove(id));
+    }
+
+    /**
+     * Changes the shard count, keeping the total.
+     */
+    public void reshard(Product product, int shards) {
+        disable(product);
+        if (shards > 1) {
+            enable(product, shards);
+        }
+    }
+
+    /**
+     * Sets the total stock of a sharded product, spread evenly over its shards.
+     */
+    public void setTotal(Long productId, int total) {
+        List<ProductStockShard> rows = shardRepository.findByProductIdOrderByShardNo(productId);
+        int[] split = split(total, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setStock(split[i]);
+        }
+    }
+
+    public int total(Long productId) {
+        return (int) shardRepository.sumStock(productId);
+    }
+
+    public void deleteShards(Long productId) {
+        shardRepository.deleteByProductId(productId);
+        afterCommit(() -> shardCounts.remove(productId));
+    }
+
+    // Harita yalnizca commit edilmis duzeni yansitir; geri alinan bir reshard onu degistirmez.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static int[] split(int total, int shards) {
+        int[] split = new int[shards];
+        for (int i = 0; i < shards; i++) {
+            split[i] = total / shards + (i < total % shards ? 1 : 0);
+        }
+        return split;
+    }
+}
@@ -0,0 +1,209 @@
+package com.minicommerceapi.minicommerce.service.stock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of stock deltas that have been applied in memory but not yet written to
+ * {@code products.stock}. Records are fixed-size ({@code seq, productId, delta, crc}) and written
+ * into numbered segment files; a flush rolls to a new segment and, once the deltas are committed to
+ * the database, deletes the segments it covered. After a crash the surviving segments are replayed.
+ * A torn record at the end of the last segment (partial write or bad checksum) is ignored.
+ */
+class StockJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final String SUFFIX = ".journal";
+
+    private final Path dir;
+    private final boolean fsync;
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private Segment current;
+    private long lastSeq;
+
+    StockJournal(Path dir, boolean fsync) {
+        this.dir = dir;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(dir);
+            for (Path file : segmentFiles()) {
+                long max = maxSeq(file);
+                closedSegments.add(new Segment(file, segmentNumber(file), max, null));
+                lastSeq = Math.max(lastSeq, max);
+            }
+            openNewSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock journal in " + dir, e);
+        }
+    }
+
+    /**
+     * Appends one record per (productId, delta) pair in a single write and returns the last sequence number.
+     */
+    synchronized long append(long[] productIds, int[] deltas, int count) {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * count);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            long seq = ++lastSeq;
+            int start = buf.position();
+            buf.putLong(seq).putLong(productIds[i]).putInt(deltas[i]);
+            crc.reset();
+            crc.update(buf.array(), start, RECORD_SIZE - Integer.BYTES);
+            buf.putInt((int) crc.getValue());
+        }
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) {
+                current.channel.write(buf);
+            }
+            if (fsync) {
+                current.channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Stock journal write failed", e);
+        }
+        current = current.withMaxSeq(lastSeq);
+        return lastSeq;
+    }
+
+    synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Closes the active segment and starts a new one. Returns the highest sequence number in the closed segments,
+     * i.e. the cut a flush covers.
+     */
+    synchronized long roll() {
+        try {
+            current.channel.force(false);
+            current.channel.close();
+            closedSegments.add(current.closed());
+            openNewSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Stock journal roll failed", e);
+        }
+        return lastSeq;
+    }
+
+    /**
+     * Deletes closed segments whose records are all covered by the database checkpoint.
+     */
+    synchronized void deleteUpTo(long checkpointSeq) {
+        closedSegments.removeIf(segment -> {
+            if (segment.maxSeq > checkpointSeq) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(segment.file);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Replays every record with a sequence number above {@code afterSeq}, oldest first.
+     */
+    synchronized void replay(long afterSeq, RecordVisitor visitor) {
+        List<Segment> segments = new ArrayList<>(closedSegments);
+        segments.add(current);
+        segments.sort((a, b) -> Long.compare(a.number, b.number));
+        for (Segment segment : segments) {
+            readRecords(segment.file, (seq, productId, delta) -> {
+                if (seq > afterSeq) {
+                    visitor.accept(seq, productId, delta);
+                }
+            });
+        }
+    }
+
+    /**
+     * Sequence numbers continue after the database checkpoint even if no segment survived.
+     */
+    synchronized void advanceTo(long seq) {
+        lastSeq = Math.max(lastSeq, seq);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            current.channel.close();
+        } catch (IOException ignored) {
+            // kapanista yapacak bir sey yok
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void accept(long seq, long productId, int delta);
+    }
+
+    private void openNewSegment() throws IOException {
+        long number = closedSegments.stream().mapToLong(s -> s.number).max().orElse(0) + 1;
+        Path file = dir.resolve(String.format("stock-%012d%s", number, SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        current = new Segment(file, number, 0, channel);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("stock-".length(), name.length() - SUFFIX.length()));
+    }
+
+    private static long maxSeq(Path file) {
+        long[] max = {0};
+        readRecords(file, (seq, productId, delta) -> max[0] = Math.max(max[0], seq));
+        return max[0];
+    }
+
+    private static void readRecords(Path file, RecordVisitor visitor) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stock journal " + file, e);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        while (buf.remaining() >= RECORD_SIZE) {
+            int start = buf.position();
+            long seq = buf.getLong();
+            long productId = buf.getLong();
+            int delta = buf.getInt();
+            int stored = buf.getInt();
+            crc.reset();
+            crc.update(bytes, start, RECORD_SIZE - Integer.BYTES);
+            if ((int) crc.getValue() != stored) {
+                return; // yarim kalmis yazim: geri kalanini yok say
+            }
+            visitor.accept(seq, productId, delta);
+        }
+    }
+
+    private record Segment(Path file, long number, long maxSeq, FileChannel channel) {
+        Segment withMaxSeq(long seq) {
+            return new Segment(file, number, seq, channel);
+        }
+
+        Segment closed() {
+            return new Segment(file, number, maxSeq, null);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.minicommerceapi.minicommerce.service.stock;
+
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.util.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock reservation ledger for flash-sale traffic (opt-in: {@code minicommerce.stock.ledger.enabled}).
+ *
+ * <p>Stock lives in primitive {@code long -> int} maps split into lock stripes by product id, so orders for
+ * different products never contend and orders never take SQLite's write lock just to decrement stock.
+ * Every change is appended to a {@link StockJournal} before it is acknowledged. A scheduled flusher drains the
+ * net per-product deltas and applies them to {@code products.stock} in one batched transaction together with a
+ * checkpoint row; journal segments covered by the checkpoint are then deleted. On startup the remaining journal
+ * is replayed into the database and the ledger is rebuilt from {@code products}.
+ *
+ * <p>A reservation made inside a transaction is released automatically if that transaction rolls back.
+ * If the process dies between a reservation and the order's commit, the reserved units stay deducted:
+ * the ledger may undersell after a crash but never oversells.
+ */
+@Component
+public class StockLedger implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private final boolean enabled;
+    private final Stripe[] stripes;
+    private final Path journalDir;
+    private final boolean fsync;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile StockJournal journal;
+    private long checkpointSeq;
+
+    public StockLedger(@Value("${minicommerce.stock.ledger.enabled:false}") boolean enabled,
+                       @Value("${minicommerce.stock.ledger.stripes:64}") int stripes,
+                       @Value("${minicommerce.stock.ledger.journal-dir:./stock-ledger}") String journalDir,
+                       @Value("${minicommerce.stock.ledger.fsync:false}") boolean fsync,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.journalDir = Path.of(journalDir);
+        this.fsync = fsync;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recovery runs after all singletons exist (so Hibernate has created/updated the schema)
+     * and before the web server starts accepting orders.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute("create table if not exists stock_ledger_checkpoint (id integer primary key, last_seq bigint not null)");
+        jdbcTemplate.update("insert or ignore into stock_ledger_checkpoint (id, last_seq) values (1, 0)");
+        checkpointSeq = jdbcTemplate.queryForObject("select last_seq from stock_ledger_checkpoint where id = 1", Long.class);
+
+        journal = new StockJournal(journalDir, fsync);
+        replayJournal();
+        rebuildFromDatabase();
+    }
+
+    /**
+     * Reserves all quantities atomically (all lines or none). Stripes are locked in index order so
+     * concurrent multi-product orders cannot deadlock.
+     *
+     * @throws NotFoundException   if a product does not exist
+     * @throws BadRequestException if any product has insufficient stock
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> decrements = new TreeMap<>(quantities);
+        apply(decrements, true);
+        compensateOnRollback(negate(decrements));
+    }
+
+    /**
+     * Returns previously reserved quantities to the ledger (e.g. an order was rolled back).
+     */
+    public void release(Map<Long, Integer> quantities) {
+        apply(negate(new TreeMap<>(quantities)), false);
+    }
+
+    /**
+     * Sets the available stock of a product (admin PATCH). Recorded as a delta so that the database
+     * converges through the normal flush path.
+     */
+    public void adjustTo(long productId, int newStock) {
+        Stripe stripe = stripeFor(productId);
+        int delta;
+        stripe.lock.lock();
+        try {
+            int current = currentOrLoad(stripe, productId);
+            delta = current - newStock;
+            if (delta == 0) {
+                return;
+            }
+            record(stripe, productId, delta);
+        } finally {
+            stripe.lock.unlock();
+        }
+        compensateOnRollback(Map.of(productId, -delta));
+    }
+
+    /**
+     * Current available stock, or {@code fallback} if the ledger has not loaded this product yet.
+     */
+    public int currentStock(long productId, int fallback) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.lock();
+        try {
+            return stripe.stock.get(productId, fallback);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a deleted product once the deleting transaction commits. Any unflushed delta for it is discarded with
+     * it; if the delete rolls back, the product keeps its entry and deltas.
+     */
+    public void forget(long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            drop(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                drop(productId);
+            }
+        });
+    }
+
+    private void drop(long productId) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.lock();
+        try {
+            stripe.stock.remove(productId);
+            stripe.pending.remove(productId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Write-behind: applies the net deltas collected since the last flush to {@code products.stock}.
+     */
+    @Scheduled(fixedDelayString = "${minicommerce.stock.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled || journal == null) {
+            return;
+        }
+        synchronized (this) {
+            long cut;
+            List<long[]> drained = new ArrayList<>();
+            lockAll();
+            try {
+                if (journal.lastSeq() <= checkpointSeq) {
+                    return; // son flush'tan beri degisiklik yok; bos segment acmaya gerek yok
+                }
+                cut = journal.roll();
+                for (Stripe stripe : stripes) {
+                    stripe.pending.forEach((id, delta) -> {
+                        if (delta != 0) {
+                            drained.add(new long[]{id, delta});
+                        }
+                    });
+                    stripe.pending.clear();
+                }
+            } finally {
+                unlockAll();
+            }
+            try {
+                writeToDatabase(drained, cut);
+                checkpointSeq = cut;
+                journal.deleteUpTo(cut);
+            } catch (RuntimeException e) {
+                // DB yazilamadiysa (or. SQLITE_BUSY) deltalar bir sonraki flush'a kalir; journal segmentleri silinmez.
+                log.warn("Stock ledger flush failed, will retry: {}", e.getMessage());
+                for (long[] entry : drained) {
+                    Stripe stripe = stripeFor(entry[0]);
+                    stripe.lock.lock();
+                    try {
+                        stripe.pending.addTo(entry[0], (int) entry[1]);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled || journal == null) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    private void apply(Map<Long, Integer> deltas, boolean checkStock) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Stripe> locked = lockStripesFor(deltas);
+        try {
+            if (checkStock) {
+                for (Map.Entry<Long, Integer> e : deltas.entrySet()) {
+                    int available = currentOrLoad(stripeFor(e.getKey()), e.getKey());
+                    if (available < e.getValue()) {
+                        throw new BadRequestException("Insufficient stock for product " + e.getKey());
+                    }
+                }
+            }
+            long[] ids = new long[deltas.size()];
+            int[] values = new int[deltas.size()];
+            int i = 0;
+            for (Map.Entry<Long, Integer> e : deltas.entrySet()) {
+                Stripe stripe = stripeFor(e.getKey());
+                currentOrLoad(stripe, e.getKey());
+                stripe.stock.addTo(e.getKey(), -e.getValue());
+                stripe.pending.addTo(e.getKey(), e.getValue());
+                ids[i] = e.getKey();
+                values[i] = e.getValue();
+                i++;
+            }
+            journal.append(ids, values, ids.length);
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).lock.unlock();
+            }
+        }
+    }
+
+    private void record(Stripe stripe, long productId, int delta) {
+        stripe.stock.addTo(productId, -delta);
+        stripe.pending.addTo(productId, delta);
+        journal.append(new long[]{productId}, new int[]{delta}, 1);
+    }
+
+    private int currentOrLoad(Stripe stripe, long productId) {
+        int current = stripe.stock.get(productId, Integer.MIN_VALUE);
+        if (current != Integer.MIN_VALUE) {
+            return current;
+        }
+        // Baslangictan sonra eklenen urun: stok dogrudan DB'den okunur (bu urun icin bekleyen delta yok).
+        List<Integer> rows = jdbcTemplate.queryForList("select stock from products where id = ?", Integer.class, productId);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Product not found: " + productId);
+        }
+        stripe.stock.put(productId, rows.get(0));
+        return rows.get(0);
+    }
+
+    private void compensateOnRollback(Map<Long, Integer> compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    apply(new TreeMap<>(compensation), false);
+                }
+            }
+        });
+    }
+
+    private void writeToDatabase(List<long[]> drained, long cut) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Checkpoint once: ilk yazma islemi, SQLite yazma kilidini busy_timeout ile bekleyerek alir.
+            jdbcTemplate.update("update stock_ledger_checkpoint set last_seq = ? where id = 1", cut);
+            if (drained.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(
+                    "update products set stock = stock - ?, version = version + 1, updated_at = ? where id = ?",
+                    drained, drained.size(),
+                    (ps, entry) -> {
+                        ps.setInt(1, (int) entry[1]);
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, entry[0]);
+                    });
+        });
+    }
+
+    private void replayJournal() {
+        Map<Long, Integer> net = new TreeMap<>();
+        long[] maxSeq = {checkpointSeq};
+        journal.replay(checkpointSeq, (seq, productId, delta) -> {
+            net.merge(productId, delta, Integer::sum);
+            maxSeq[0] = Math.max(maxSeq[0], seq);
+        });
+        journal.advanceTo(checkpointSeq);
+        if (maxSeq[0] > checkpointSeq) {
+            List<long[]> drained = new ArrayList<>();
+            net.forEach((id, delta) -> {
+                if (delta != 0) {
+                    drained.add(new long[]{id, delta});
+                }
+            });
+            long cut = journal.roll();
+            writeToDatabase(drained, cut);
+            log.info("Stock ledger recovered {} product deltas from journal (seq {} .. {})", drained.size(), checkpointSeq + 1, maxSeq[0]);
+            checkpointSeq = cut;
+        }
+        journal.deleteUpTo(checkpointSeq);
+    }
+
+    private void rebuildFromDatabase() {
+        lockAll();
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.stock.clear();
+                stripe.pending.clear();
+            }
+            jdbcTemplate.query("select id, stock from products", rs -> {
+                long id = rs.getLong(1);
+                stripeFor(id).stock.put(id, rs.getInt(2));
+            });
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private List<Stripe> lockStripesFor(Map<Long, Integer> deltas) {
+        boolean[] needed = new boolean[stripes.length];
+        for (Long id : deltas.keySet()) {
+            needed[stripeIndex(id)] = true;
+        }
+        List<Stripe> locked = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            if (needed[i]) {
+                stripes[i].lock.lock();
+                locked.add(stripes[i]);
+            }
+        }
+        return locked;
+    }
+
+    private void lockAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(long productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    private int stripeIndex(long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (stripes.length - 1);
+    }
+
+    private static Map<Long, Integer> negate(Map<Long, Integer> quantities) {
+        Map<Long, Integer> negated = new TreeMap<>();
+        quantities.forEach((id, q) -> negated.put(id, -q));
+        return negated;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        /** Available stock as seen by orders. */
+        final LongIntHashMap stock = new LongIntHashMap();
+        /** Net decrement not yet written to products.stock. */
+        final LongIntHashMap pending = new LongIntHashMap();
+    }
+}
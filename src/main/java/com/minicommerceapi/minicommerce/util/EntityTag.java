@@ -0,0 +1,115 @@
+package com.minicommerceapi.minicommerce.util;
+
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Validators of a conditional GET, computed from what a response is built from (ids, versions, stock) instead of
+ * from its serialized body: a strong ETag (SHA-256 of the added values, truncated) and optionally a last-modified
+ * time. Responses whose content can change without a newer timestamp (stock kept in shards or the ledger, lists
+ * losing rows) leave the last-modified time out and are validated by ETag only.
+ */
+public final class EntityTag {
+
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * A response body with the validators computed from the same read, so both can be cached together and a
+     * conditional GET answered from the cache. The hash is finished here; the tag is not changed afterwards.
+     */
+    public record Tagged<T>(T body, EntityTag tag) {
+        public Tagged {
+            tag.value();
+        }
+    }
+
+    private final MessageDigest digest;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+    private Instant lastModified;
+    private boolean lastModifiedKnown = true;
+    private String value;
+
+    private EntityTag(String kind) {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        add(kind);
+    }
+
+    /**
+     * {@code kind} keeps equal values of different resources (a product and a category page) apart.
+     */
+    public static EntityTag of(String kind) {
+        return new EntityTag(kind);
+    }
+
+    public EntityTag add(long value) {
+        digest.update(buffer.clear().putLong(value).array());
+        return this;
+    }
+
+    public EntityTag add(Long value) {
+        return add(value == null ? Long.MIN_VALUE : value);
+    }
+
+    public EntityTag add(Instant value) {
+        return add(value == null ? Long.MIN_VALUE : value.toEpochMilli());
+    }
+
+    public EntityTag add(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        return this;
+    }
+
+    /**
+     * Keeps the latest of the given times as the last-modified validator.
+     */
+    public EntityTag modifiedAt(Instant value) {
+        if (value != null && (lastModified == null || value.isAfter(lastModified))) {
+            lastModified = value;
+        }
+        return this;
+    }
+
+    /**
+     * No last-modified validator: the content can change without a newer timestamp.
+     */
+    public EntityTag withoutLastModified() {
+        lastModifiedKnown = false;
+        return this;
+    }
+
+    /**
+     * Sets the ETag (and Last-Modified) response headers and checks {@code If-None-Match} / {@code If-Modified-Since}.
+     * Returns true when the client's copy is current; the response is then a 304 and the handler returns null.
+     * A null {@code tag} (the resource does not exist) never matches.
+     */
+    public static boolean notModified(EntityTag tag, WebRequest request) {
+        if (tag == null) {
+            return false;
+        }
+        long lastModified = tag.lastModifiedKnown && tag.lastModified != null ? tag.lastModified.toEpochMilli() : -1;
+        return request.checkNotModified(tag.value(), lastModified);
+    }
+
+    /**
+     * The quoted strong ETag. The first call finishes the hash; values added afterwards are ignored.
+     */
+    public String value() {
+        if (value == null) {
+            byte[] hash = Arrays.copyOf(digest.digest(), HASH_BYTES);
+            value = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + '"';
+        }
+        return value;
+    }
+}
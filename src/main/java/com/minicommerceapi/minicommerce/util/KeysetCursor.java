@@ -0,0 +1,62 @@
+package com.minicommerceapi.minicommerce.util;
+
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key values of the last row of a page,
+ * joined and base64url-encoded. Clients only echo it back; they should not parse it.
+ */
+public final class KeysetCursor {
+
+    /** Response header carrying the cursor of the next page; absent on the last page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+        // utility class
+    }
+
+    public static String encode(Object... values) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        joiner.add(VERSION);
+        for (Object value : values) {
+            joiner.add(String.valueOf(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the encoded values. The last value may itself contain the separator (free text such as a name).
+     *
+     * @throws BadRequestException if the cursor was not produced by {@link #encode} with {@code expectedValues} values
+     */
+    public static String[] decode(String cursor, int expectedValues) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, expectedValues + 1);
+        if (parts.length != expectedValues + 1 || !VERSION.equals(parts[0])) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        String[] values = new String[expectedValues];
+        System.arraycopy(parts, 1, values, 0, expectedValues);
+        return values;
+    }
+
+    public static long decodeLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
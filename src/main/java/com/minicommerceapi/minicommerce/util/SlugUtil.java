@@ -16,11 +16,20 @@ public final class SlugUtil {
     public static String slugify(String input) {
         if (input == null) return "";
 
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}+", "");
-
-        String lower = normalized.toLowerCase(Locale.ROOT).trim();
+        String lower = fold(input).trim();
         String dashed = lower.replaceAll("[^a-z0-9]+", "-");
         return dashed.replaceAll("(^-+)|(-+$)", "");
     }
+
+    /**
+     * Unicode folding shared by slugs and product search: accents are stripped (NFD, combining marks removed)
+     * and the text is lower-cased with the root locale, so "Café" and "cafe" compare equal.
+     */
+    public static String fold(String input) {
+        if (input == null) return "";
+
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+        return normalized.toLowerCase(Locale.ROOT);
+    }
 }
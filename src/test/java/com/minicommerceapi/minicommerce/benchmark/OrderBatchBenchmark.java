@@ -0,0 +1,131 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderBatchService;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares creating orders one by one (one transaction each) with POST /api/orders/batch's
+ * chunked path (one transaction per chunk, JDBC-batched inserts).
+ *
+ * Run with: ./gradlew benchmark --tests '*OrderBatchBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderBatchBenchmark {
+
+    private static final int ORDERS = 1000;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final List<OrderDtos.CreateOrderRequest> requests = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        User user = new User();
+        user.setName("Bench Bulk");
+        user.setEmail("bench-bulk@example.com");
+        Long userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Bench Bulk");
+        category.setSlug("bench-bulk");
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Product p = new Product();
+            p.setName("Bulk Product " + i);
+            p.setSku("BENCH-BULK-" + i);
+            p.setPrice(new BigDecimal("4.99"));
+            p.setStock(1_000_000);
+            p.setCategory(category);
+            products.add(p);
+        }
+        List<Long> productIds = productRepository.saveAll(products).stream().map(Product::getId).toList();
+
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderDtos.CreateOrderItem> items = new ArrayList<>();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                items.add(new OrderDtos.CreateOrderItem(productIds.get((i + j * 7) % productIds.size()), 1));
+            }
+            requests.add(new OrderDtos.CreateOrderRequest(userId, items));
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchCreationAmortisesTransactionAndInsertCost() {
+        // isinma
+        requests.subList(0, 50).forEach(orderService::create);
+        orderBatchService.create(requests.subList(0, 50));
+
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        requests.forEach(orderService::create);
+        double singleMs = (System.nanoTime() - start) / 1_000_000.0;
+        long singleStatements = statements();
+
+        SqlStatementCounter.reset();
+        start = System.nanoTime();
+        OrderDtos.BatchOrderResponse response = orderBatchService.create(requests);
+        double batchMs = (System.nanoTime() - start) / 1_000_000.0;
+        long batchStatements = statements();
+        assertEquals(ORDERS, response.created());
+
+        System.out.printf("%n%-22s %12s %12s %14s%n", "path", "total ms", "orders/s", "statements/ord");
+        System.out.printf("%-22s %12.0f %12.0f %14.1f%n", "create (1 tx/order)", singleMs, ORDERS / singleMs * 1000, (double) singleStatements / ORDERS);
+        System.out.printf("%-22s %12.0f %12.0f %14.1f%n", "batch (chunk=100)", batchMs, ORDERS / batchMs * 1000, (double) batchStatements / ORDERS);
+
+        assertTrue(batchMs * 3 < singleMs, "batch path should be several times faster than one transaction per order");
+    }
+
+    private static long statements() {
+        return SqlStatementCounter.selects() + SqlStatementCounter.inserts() + SqlStatementCounter.updates();
+    }
+}
@@ -0,0 +1,131 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures SQL statements and latency of OrderService.create as the number of order lines grows.
+ * Product lookups must stay at a single SELECT regardless of how many lines an order has.
+ *
+ * Run with: ./gradlew benchmark --tests '*OrderCreateBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderCreateBenchmark {
+
+    private static final int[] ITEM_COUNTS = {1, 5, 10, 25, 50, 100};
+    private static final int WARMUP_ORDERS = 20;
+    private static final int MEASURED_ORDERS = 50;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        User user = new User();
+        user.setName("Bench User");
+        user.setEmail("bench-orders@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Bench Orders");
+        category.setSlug("bench-orders");
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Product p = new Product();
+            p.setName("Bench Product " + i);
+            p.setSku("BENCH-ORD-" + i);
+            p.setPrice(new BigDecimal("9.99"));
+            p.setStock(1_000_000);
+            p.setCategory(category);
+            products.add(p);
+        }
+        productRepository.saveAll(products).forEach(p -> productIds.add(p.getId()));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void productSelectsStayConstantAsOrderGrows() {
+        System.out.printf("%n%-8s %12s %12s %12s %12s%n", "items", "selects/ord", "writes/ord", "avg ms", "p95 ms");
+        for (int itemCount : ITEM_COUNTS) {
+            OrderDtos.CreateOrderRequest req = request(itemCount);
+            for (int i = 0; i < WARMUP_ORDERS; i++) {
+                orderService.create(req);
+            }
+
+            SqlStatementCounter.reset();
+            long[] nanos = new long[MEASURED_ORDERS];
+            for (int i = 0; i < MEASURED_ORDERS; i++) {
+                long start = System.nanoTime();
+                orderService.create(req);
+                nanos[i] = System.nanoTime() - start;
+            }
+            double selects = (double) SqlStatementCounter.selects() / MEASURED_ORDERS;
+            double writes = (double) (SqlStatementCounter.inserts() + SqlStatementCounter.updates()) / MEASURED_ORDERS;
+            java.util.Arrays.sort(nanos);
+            double avgMs = java.util.Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+            double p95Ms = nanos[(int) (MEASURED_ORDERS * 0.95) - 1] / 1_000_000.0;
+            System.out.printf("%-8d %12.1f %12.1f %12.2f %12.2f%n", itemCount, selects, writes, avgMs, p95Ms);
+
+            // One SELECT for the user and one for all referenced products.
+            assertEquals(2.0, selects, "product lookups must not grow with the number of order lines");
+        }
+    }
+
+    private OrderDtos.CreateOrderRequest request(int itemCount) {
+        List<OrderDtos.CreateOrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderDtos.CreateOrderItem(productIds.get(i), 1));
+        }
+        return new OrderDtos.CreateOrderRequest(userId, items);
+    }
+}
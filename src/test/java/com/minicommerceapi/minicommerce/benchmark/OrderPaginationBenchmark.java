@@ -0,0 +1,157 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Page latency at increasing depth over 100k orders.
+ * The SQL columns compare the raw keyset query with OFFSET on the same ordering (keyset stays flat,
+ * OFFSET grows with depth); the service column is the full GET /api/orders path with keyset.
+ *
+ * Run with: ./gradlew benchmark --tests '*OrderPaginationBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderPaginationBenchmark {
+
+    private static final int ORDERS = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int[] PAGES = {1, 10, 100, 1000, 1999};
+    private static final int RUNS = 20;
+    private static final OrderDtos.OrderFilter NO_FILTER = new OrderDtos.OrderFilter(null, null, null, null, null);
+    private static final String COLUMNS = "select id, created_at, status, total, user_id from orders ";
+    private static final String ORDER_BY = " order by created_at desc, id desc limit " + (PAGE_SIZE + 1);
+    private static final String KEYSET = "created_at <= ? and (created_at < ? or id < ?)";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        User user = new User();
+        user.setName("Bench User");
+        user.setEmail("bench-pages@example.com");
+        userId = userRepository.save(user).getId();
+
+        // JPA ile 100k satir yazmak dakikalar surer; dogrudan JDBC batch.
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            String status = i % 3 == 0 ? "PAID" : "CREATED";
+            rows.add(new Object[]{now - (ORDERS - i) * 10L, status, (i % 500) + 1, userId});
+        }
+        jdbcTemplate.batchUpdate("insert into orders (created_at, status, total, user_id, version) values (?, ?, ?, ?, 0)", rows);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        jdbcTemplate.update("delete from orders");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deepPagesCostTheSameAsPageOne() {
+        printPlans();
+
+        System.out.printf("%n%-8s %14s %14s %14s %10s%n", "page", "keyset sql ms", "offset sql ms", "service ms", "selects");
+        for (int page : PAGES) {
+            Map<String, Object> last = page == 1 ? null : lastRowBefore(page);
+            String cursor = last == null ? null : KeysetCursor.encode(last.get("created_at"), last.get("id"));
+
+            double keysetSql = averageMs(() -> {
+                if (last == null) {
+                    jdbcTemplate.queryForList(COLUMNS + ORDER_BY);
+                } else {
+                    jdbcTemplate.queryForList(COLUMNS + "where " + KEYSET + ORDER_BY,
+                            last.get("created_at"), last.get("created_at"), last.get("id"));
+                }
+            });
+            double offsetSql = averageMs(() -> jdbcTemplate.queryForList(COLUMNS + ORDER_BY + " offset ?", (page - 1) * PAGE_SIZE));
+
+            SqlStatementCounter.reset();
+            orderService.list(NO_FILTER, cursor, PAGE_SIZE);
+            long selects = SqlStatementCounter.selects();
+            double service = averageMs(() -> orderService.list(NO_FILTER, cursor, PAGE_SIZE));
+
+            System.out.printf("%-8d %14.3f %14.3f %14.3f %10d%n", page, keysetSql, offsetSql, service, selects);
+            assertEquals(2, selects, "a keyset page is always the page query plus one items query");
+        }
+    }
+
+    private double averageMs(Runnable run) {
+        run.run(); // warmup
+        long total = 0;
+        for (int r = 0; r < RUNS; r++) {
+            long start = System.nanoTime();
+            run.run();
+            total += System.nanoTime() - start;
+        }
+        return total / (RUNS * 1_000_000.0);
+    }
+
+    /**
+     * Last row of the previous page, i.e. what the cursor of the given (1-based) page encodes.
+     */
+    private Map<String, Object> lastRowBefore(int page) {
+        return jdbcTemplate.queryForMap(
+                "select created_at, id from orders order by created_at desc, id desc limit 1 offset ?", (page - 1) * PAGE_SIZE - 1);
+    }
+
+    private void printPlans() {
+        String[] queries = {
+                COLUMNS + "where " + KEYSET + ORDER_BY,
+                COLUMNS + "where user_id = ? and " + KEYSET + ORDER_BY,
+                COLUMNS + "where status = ? and " + KEYSET + ORDER_BY,
+                COLUMNS + "where created_at >= ? and created_at < ?" + ORDER_BY,
+                COLUMNS + "where total >= ?" + ORDER_BY,
+        };
+        System.out.println();
+        for (String sql : queries) {
+            Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            Arrays.fill(args, 1);
+            List<String> plan = jdbcTemplate.query("explain query plan " + sql, (rs, i) -> rs.getString("detail"), args);
+            System.out.println(sql + "\n    -> " + String.join("; ", plan));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductBulkUpdateService;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.service.UniquenessGuard;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reprices a 100k-product catalog (new price and stock for every SKU) through PATCH /api/products/bulk's service
+ * and compares the rate with patching products one by one through {@link ProductService#patch}.
+ *
+ * Run with: ./gradlew benchmark --tests '*ProductBulkUpdateBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductBulkUpdateBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int SINGLE_ROWS = 2_000;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private UniquenessGuard uniqueness;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        Category category = new Category();
+        category.setName("Bench Repricing");
+        category.setSlug("bench-repricing");
+        Category saved = categoryRepository.save(category);
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Product p = new Product();
+            p.setName("Repriced item " + i);
+            p.setSku("SKU-REPRICE-" + i);
+            p.setPrice(new BigDecimal("9.99"));
+            p.setStock(25);
+            p.setCategory(saved);
+            products.add(p);
+        }
+        transactionTemplate.executeWithoutResult(status -> productRepository.insertAll(products));
+        products.forEach(p -> ids.add(p.getId()));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from product_stock_shards");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        uniqueness.rebuild();
+    }
+
+    @Test
+    void bulkUpdateRepricesTheCatalog() {
+        System.out.printf("%n%-26s %10s %12s %14s%n", "path", "rows", "total ms", "rows/min");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            productService.patch(ids.get(i), new ProductDtos.PatchProductRequest(null, null, new BigDecimal("10.49"), 30, null, null));
+        }
+        print("ProductService.patch", SINGLE_ROWS, start);
+
+        List<ProductDtos.BulkUpdateItem> bySku = new ArrayList<>(ROWS);
+        List<ProductDtos.BulkUpdateItem> byId = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            bySku.add(new ProductDtos.BulkUpdateItem(null, "SKU-REPRICE-" + i, new BigDecimal("11.99"), 20));
+            byId.add(new ProductDtos.BulkUpdateItem(ids.get(i), null, new BigDecimal("12.49"), null));
+        }
+
+        start = System.nanoTime();
+        ProductDtos.BulkUpdateResponse skuRun = productBulkUpdateService.update(bySku);
+        print("bulk (by SKU, price+stock)", ROWS, start);
+
+        start = System.nanoTime();
+        ProductDtos.BulkUpdateResponse idRun = productBulkUpdateService.update(byId);
+        print("bulk (by id, price)", ROWS, start);
+
+        assertEquals(ROWS, skuRun.updated());
+        assertEquals(ROWS, idRun.updated());
+    }
+
+    private static void print(String path, int rows, long startNanos) {
+        double ms = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-26s %10d %12.0f %14.0f%n", path, rows, ms, rows / ms * 60_000);
+    }
+}
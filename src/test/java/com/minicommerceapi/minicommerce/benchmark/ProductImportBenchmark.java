@@ -0,0 +1,130 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductImportService;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.service.UniquenessGuard;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads a 100k-row supplier catalog through POST /api/products/import's service (CSV and NDJSON) and compares the
+ * rate with creating products one by one through {@link ProductService#create}.
+ *
+ * Run with: ./gradlew benchmark --tests '*ProductImportBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImportBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int SINGLE_ROWS = 2_000;
+
+    @Autowired
+    private ProductImportService productImportService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private UniquenessGuard uniqueness;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long categoryId;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        Category category = new Category();
+        category.setName("Bench Import");
+        category.setSlug("bench-import");
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from product_stock_shards");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        uniqueness.rebuild();
+    }
+
+    @Test
+    void importLoadsAHundredThousandProductsWithinAMinute() throws IOException {
+        StringBuilder csv = new StringBuilder("name,sku,price,stock,categoryId\n");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("\"Supplier item ").append(i).append(", boxed\",SKU-CSV-").append(i).append(",9.99,25,").append(categoryId).append('\n');
+            ndjson.append("{\"name\":\"Supplier item ").append(i).append("\",\"sku\":\"SKU-NDJSON-").append(i)
+                    .append("\",\"price\":9.99,\"stock\":25,\"categoryId\":").append(categoryId).append("}\n");
+        }
+
+        System.out.printf("%n%-26s %10s %12s %14s%n", "path", "rows", "total ms", "rows/min");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            productService.create(new ProductDtos.CreateProductRequest("Single " + i, "SKU-SINGLE-" + i, new BigDecimal("9.99"), 25, categoryId));
+        }
+        print("ProductService.create", SINGLE_ROWS, start);
+
+        start = System.nanoTime();
+        ProductDtos.ImportSummary csvSummary = run(ProductImportService.Format.CSV, csv);
+        double csvMs = print("import (CSV)", ROWS, start);
+
+        start = System.nanoTime();
+        ProductDtos.ImportSummary ndjsonSummary = run(ProductImportService.Format.NDJSON, ndjson);
+        print("import (NDJSON)", ROWS, start);
+
+        assertEquals(ROWS, csvSummary.created());
+        assertEquals(ROWS, ndjsonSummary.created());
+        assertTrue(csvMs < 60_000, "target is 100k products per minute");
+
+        // Ayni katalog ikinci kez: her satir SKU cakismasi olarak raporlanir, hicbiri eklenmez
+        start = System.nanoTime();
+        ProductDtos.ImportSummary again = run(ProductImportService.Format.CSV, csv);
+        print("re-import (all conflicts)", ROWS, start);
+        assertEquals(ROWS, again.failed());
+    }
+
+    private ProductDtos.ImportSummary run(ProductImportService.Format format, StringBuilder body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return productImportService.importProducts(format,
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+    }
+
+    private static double print(String path, int rows, long startNanos) {
+        double ms = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-26s %10d %12.0f %14.0f%n", path, rows, ms, rows / ms * 60_000);
+        return ms;
+    }
+}
@@ -0,0 +1,200 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Sorted product pages at increasing depth over a 500k product catalog in 10 categories (50k products each).
+ * For every sort the SQL columns compare the raw keyset query with OFFSET inside one category (keyset stays
+ * flat, OFFSET grows with depth); the service column is the full GET /api/products path walking cursors.
+ *
+ * Run with: ./gradlew benchmark --tests '*ProductPaginationBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductPaginationBenchmark {
+
+    private static final int PRODUCTS = 500_000;
+    private static final int CATEGORIES = 10;
+    private static final int PAGE_SIZE = 50;
+    private static final int[] PAGES = {1, 10, 100, 999};
+    private static final int RUNS = 20;
+    private static final String[] SORTS = {"id", "price", "name", "createdAt"};
+    private static final String[] COLUMNS_OF = {"id", "price", "name", "created_at"};
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long categoryId;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        List<Object[]> categories = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            categories.add(new Object[]{System.currentTimeMillis(), "Bench Category " + c, "bench-category-" + c});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (created_at, name, slug) values (?, ?, ?)", categories);
+        List<Long> categoryIds = jdbcTemplate.queryForList("select id from categories order by id", Long.class);
+        categoryId = categoryIds.get(0);
+
+        // JPA ile yuz binlerce satir yazmak cok uzun surer; dogrudan JDBC batch, tek transaction'da.
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> insertProducts(categoryIds));
+        jdbcTemplate.execute("analyze");
+        System.out.printf("%nseeded %d products in %d ms%n", PRODUCTS, System.currentTimeMillis() - started);
+    }
+
+    private void insertProducts(List<Long> categoryIds) {
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < PRODUCTS; i++) {
+            BigDecimal price = BigDecimal.valueOf((i * 7919L) % 100_000, 2).add(BigDecimal.ONE);
+            rows.add(new Object[]{now - (PRODUCTS - i), "Product " + Integer.toString(i * 31 % PRODUCTS, 36), "SKU-BENCH-" + i,
+                    price.toPlainString(), 100, categoryIds.get(i % CATEGORIES)});
+            if (rows.size() == 10_000) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into products (created_at, name, sku, price, stock, stock_shards, version, category_id) "
+                + "values (?, ?, ?, ?, ?, 1, 0, ?)", rows);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from product_stock_shards");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deepSortedPagesCostTheSameAsPageOne() {
+        printPlans();
+
+        System.out.printf("%n%-10s %-6s %14s %14s %14s %10s%n", "sort", "page", "keyset sql ms", "offset sql ms", "service ms", "selects");
+        for (int s = 0; s < SORTS.length; s++) {
+            String column = COLUMNS_OF[s];
+            String orderBy = " order by " + ("id".equals(column) ? "id" : column + ", id") + " limit " + (PAGE_SIZE + 1);
+            String keyset = "id".equals(column) ? "id > ?" : column + " >= ? and (" + column + " > ? or id > ?)";
+
+            List<String> cursors = cursorsFor(SORTS[s]);
+            for (int page : PAGES) {
+                String cursor = cursors.get(page - 1);
+                Object[] last = page == 1 ? null : lastRowBefore(column, orderBy, page);
+
+                double keysetSql = averageMs(() -> {
+                    if (last == null) {
+                        jdbcTemplate.queryForList("select * from products where category_id = ?" + orderBy, categoryId);
+                    } else if ("id".equals(column)) {
+                        jdbcTemplate.queryForList("select * from products where category_id = ? and " + keyset + orderBy, categoryId, last[1]);
+                    } else {
+                        jdbcTemplate.queryForList("select * from products where category_id = ? and " + keyset + orderBy,
+                                categoryId, last[0], last[0], last[1]);
+                    }
+                });
+                double offsetSql = averageMs(() -> jdbcTemplate.queryForList(
+                        "select * from products where category_id = ?" + orderBy + " offset ?", categoryId, (page - 1) * PAGE_SIZE));
+
+                ProductDtos.ProductPageRequest request = new ProductDtos.ProductPageRequest(categoryId, SORTS[s], "asc", cursor, PAGE_SIZE);
+                SqlStatementCounter.reset();
+                productService.list(request);
+                long selects = SqlStatementCounter.selects();
+                double service = averageMs(() -> productService.list(request));
+
+                System.out.printf("%-10s %-6d %14.3f %14.3f %14.3f %10d%n", SORTS[s], page, keysetSql, offsetSql, service, selects);
+                assertEquals(1, selects, "a keyset page is a single query");
+            }
+        }
+    }
+
+    /**
+     * Cursors of the first {@code max(PAGES)} pages of one category, collected by walking the service.
+     */
+    private List<String> cursorsFor(String sort) {
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+        int deepest = Arrays.stream(PAGES).max().orElseThrow();
+        for (int page = 1; page <= deepest; page++) {
+            cursors.add(cursor);
+            cursor = productService.list(new ProductDtos.ProductPageRequest(categoryId, sort, "asc", cursor, PAGE_SIZE)).nextCursor();
+            assertFalse(cursor == null && page < deepest, "category has fewer pages than the benchmark walks");
+        }
+        return cursors;
+    }
+
+    private Object[] lastRowBefore(String column, String orderBy, int page) {
+        String sql = "select " + column + " as v, id from products where category_id = ?"
+                + orderBy.replaceFirst(" limit \\d+", "") + " limit 1 offset ?";
+        return jdbcTemplate.queryForObject(sql, (rs, i) -> new Object[]{rs.getObject("v"), rs.getLong("id")},
+                categoryId, (page - 1) * PAGE_SIZE - 1);
+    }
+
+    private double averageMs(Runnable run) {
+        run.run(); // warmup
+        long total = 0;
+        for (int r = 0; r < RUNS; r++) {
+            long start = System.nanoTime();
+            run.run();
+            total += System.nanoTime() - start;
+        }
+        return total / (RUNS * 1_000_000.0);
+    }
+
+    private void printPlans() {
+        System.out.println();
+        for (String column : COLUMNS_OF) {
+            String orderBy = " order by " + ("id".equals(column) ? "id" : column + ", id") + " limit 51";
+            String keyset = "id".equals(column) ? "id > ?" : column + " >= ? and (" + column + " > ? or id > ?)";
+            for (String sql : new String[]{
+                    "select * from products where category_id = ? and " + keyset + orderBy,
+                    "select * from products where " + keyset + orderBy}) {
+                Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+                Arrays.fill(args, 1);
+                List<String> plan = jdbcTemplate.query("explain query plan " + sql, (rs, i) -> rs.getString("detail"), args);
+                System.out.println(sql + "\n    -> " + String.join("; ", plan));
+            }
+        }
+    }
+}
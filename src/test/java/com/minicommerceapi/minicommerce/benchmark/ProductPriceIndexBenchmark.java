@@ -0,0 +1,88 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.service.price.ProductPriceIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Id-sorted price-band pages on a 2M product index: sorting the whole band by id (the former approach, reproduced
+ * here from a {@code byPrice} slice) versus {@link ProductPriceIndex#byId}, which walks products in id order for
+ * wide bands and stops at the page size. No database; only the index is measured.
+ *
+ * Run with: ./gradlew benchmark --tests '*ProductPriceIndexBenchmark'
+ */
+@Tag("benchmark")
+class ProductPriceIndexBenchmark {
+
+    private static final int PRODUCTS = 2_000_000;
+    private static final int CATEGORIES = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final int RUNS = 50;
+
+    @Test
+    void idSortedPagesOfWideAndNarrowBands() {
+        ProductPriceIndex index = new ProductPriceIndex(null);
+        long seeded = System.currentTimeMillis();
+        seed(index);
+        System.out.printf("%nindexed %d products in %d ms%n", index.size(), System.currentTimeMillis() - seeded);
+
+        System.out.printf("%n%-28s %10s %16s %16s%n", "band (cents)", "matching", "sort band ms/op", "byId ms/op");
+        long[][] bands = {{0, Long.MAX_VALUE}, {1_000, 90_000}, {50_000, 50_500}, {50_000, 50_010}};
+        for (long[] band : bands) {
+            int matching = index.byPrice(null, band[0], band[1], true, null, null, Integer.MAX_VALUE).length;
+            long[] expected = sortBand(index, band);
+            assertArrayEquals(expected, index.byId(null, band[0], band[1], true, null, PAGE_SIZE));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                sortBand(index, band);
+            }
+            double sortMs = (System.nanoTime() - start) / 1e6 / RUNS;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                index.byId(null, band[0], band[1], true, null, PAGE_SIZE);
+            }
+            double byIdMs = (System.nanoTime() - start) / 1e6 / RUNS;
+            System.out.printf("%-28s %10d %16.3f %16.3f%n",
+                    band[0] + ".." + (band[1] == Long.MAX_VALUE ? "max" : band[1]), matching, sortMs, byIdMs);
+        }
+    }
+
+    private static long[] sortBand(ProductPriceIndex index, long[] band) {
+        long[] ids = index.byPrice(null, band[0], band[1], true, null, null, Integer.MAX_VALUE);
+        Arrays.sort(ids);
+        return Arrays.copyOf(ids, Math.min(PAGE_SIZE, ids.length));
+    }
+
+    // Urunler (fiyat, id) sirasinda verilir: fiyat listelerine her ekleme sondan yapilir, rebuild() gibi.
+    private static void seed(ProductPriceIndex index) {
+        Random random = new Random(42);
+        long[] keys = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            long cents = 100 + random.nextInt(99_900);
+            keys[i] = cents << 22 | (i + 1);
+        }
+        Arrays.sort(keys);
+        List<ProductDtos.ProductResponse> batch = new ArrayList<>(10_000);
+        for (long key : keys) {
+            long id = key & ((1L << 22) - 1);
+            BigDecimal price = BigDecimal.valueOf(key >>> 22, 2);
+            batch.add(new ProductDtos.ProductResponse(id, "P" + id, "S" + id, price, 1, id % CATEGORIES, "C", 1));
+            if (batch.size() == 10_000) {
+                index.onProductsCreated(new CatalogEvents.ProductsCreated(batch, Set.of()));
+                batch = new ArrayList<>(10_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A 10k-row product list read two ways inside a read-only transaction: the previous path (entities with their
+ * category, mapped to responses) and the {@link ProductRow} constructor projection used by GET /api/products.
+ * Reports latency and bytes allocated by the reading thread.
+ *
+ * Run with: ./gradlew benchmark --tests '*ProductProjectionBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductProjectionBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int CATEGORIES = 10;
+    private static final int RUNS = 20;
+    private static final Sort ORDER = Sort.by("id");
+    private static final Specification<Product> ALL = Specification.allOf(List.of());
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Object[]> categories = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            categories.add(new Object[]{System.currentTimeMillis(), "Bench Projection " + c, "bench-projection-" + c});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (created_at, name, slug) values (?, ?, ?)", categories);
+        List<Long> categoryIds = jdbcTemplate.queryForList("select id from categories order by id", Long.class);
+
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[]{now, "Product " + i, "SKU-PROJ-" + i, "19.99", 100, categoryIds.get(i % CATEGORIES)});
+        }
+        jdbcTemplate.batchUpdate("insert into products (created_at, name, sku, price, stock, stock_shards, version, category_id) "
+                + "values (?, ?, ?, ?, ?, 1, 0, ?)", rows);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from product_stock_shards");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntities() {
+        Supplier<List<ProductDtos.ProductResponse>> entities = () -> readOnly.execute(status ->
+                productRepository.findBy(ALL,
+                                q -> q.project("category").sortBy(ORDER).limit(PRODUCTS).all())
+                        .stream().map(productService::toResponse).toList());
+        Supplier<List<ProductDtos.ProductResponse>> projection = () -> readOnly.execute(status ->
+                productRepository.findRows(ALL, ORDER, PRODUCTS)
+                        .stream().map(r -> new ProductDtos.ProductResponse(r.id(), r.name(), r.sku(), r.price(), r.stock(),
+                                r.categoryId(), r.categoryName(), r.stockShards()))
+                        .toList());
+
+        assertEquals(entities.get(), projection.get());
+
+        System.out.printf("%n%-24s %12s %16s%n", "path (" + PRODUCTS + " rows)", "avg ms", "avg MB allocated");
+        double[] entity = measure(entities);
+        double[] projected = measure(projection);
+        System.out.printf("%-24s %12.2f %16.2f%n", "entities + toResponse", entity[0], entity[1]);
+        System.out.printf("%-24s %12.2f %16.2f%n", "ProductRow projection", projected[0], projected[1]);
+
+        assertTrue(projected[1] < entity[1], "projection should allocate less than loading entities");
+    }
+
+    // {ortalama ms, ortalama MB}: okuyan thread'in ayirdigi bayt sayisi HotSpot'un thread sayacindan okunur.
+    private static double[] measure(Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < 3; i++) {
+            read.get(); // isinma
+        }
+        long nanos = 0;
+        long bytes = 0;
+        for (int r = 0; r < RUNS; r++) {
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            read.get();
+            nanos += System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(thread) - allocated;
+        }
+        return new double[]{nanos / (RUNS * 1_000_000.0), bytes / (RUNS * 1024.0 * 1024.0)};
+    }
+}
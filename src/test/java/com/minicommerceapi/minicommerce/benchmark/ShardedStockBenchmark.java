@@ -0,0 +1,159 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the single-row stock path with sharded stock for one hot SKU under concurrent orders.
+ *
+ * Run with: ./gradlew benchmark --tests '*ShardedStockBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardedStockBenchmark {
+
+    private static final int INITIAL_STOCK = 1_000_000;
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 100;
+    private static final int[] SHARD_COUNTS = {1, 4, 16};
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        User user = new User();
+        user.setName("Bench User");
+        user.setEmail("bench-shards@example.com");
+        userId = userRepository.save(user).getId();
+
+        category = new Category();
+        category.setName("Bench Shards");
+        category.setSlug("bench-shards");
+        category = categoryRepository.save(category);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        shardRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void hotSkuThroughput_singleRowVsSharded() throws Exception {
+        System.out.printf("%n%-8s %12s %12s %12s %12s%n", "shards", "orders/s", "avg ms", "p95 ms", "conflicts");
+        for (int shards : SHARD_COUNTS) {
+            Long productId = hotProduct(shards);
+            AtomicInteger conflicts = new AtomicInteger();
+            AtomicInteger placed = new AtomicInteger();
+            long[] nanos = new long[THREADS * ORDERS_PER_THREAD];
+            AtomicInteger slot = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            long began;
+            long elapsed;
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(userId,
+                                List.of(new OrderDtos.CreateOrderItem(productId, 1)));
+                        for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                            long s = System.nanoTime();
+                            try {
+                                orderService.create(req);
+                                placed.incrementAndGet();
+                            } catch (ConflictException e) {
+                                conflicts.incrementAndGet();
+                            }
+                            nanos[slot.getAndIncrement()] = System.nanoTime() - s;
+                        }
+                        return null;
+                    }));
+                }
+                began = System.nanoTime();
+                start.countDown();
+                for (Future<?> f : futures) {
+                    f.get(5, TimeUnit.MINUTES);
+                }
+                elapsed = System.nanoTime() - began;
+            } finally {
+                pool.shutdownNow();
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            }
+
+            Arrays.sort(nanos);
+            double throughput = placed.get() / (elapsed / 1_000_000_000.0);
+            double avgMs = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+            double p95Ms = nanos[(int) (nanos.length * 0.95) - 1] / 1_000_000.0;
+            System.out.printf("%-8d %12.1f %12.2f %12.2f %12d%n", shards, throughput, avgMs, p95Ms, conflicts.get());
+
+            assertEquals(INITIAL_STOCK - placed.get(), productService.get(productId).stock(),
+                    "summed stock must reflect every placed order");
+        }
+    }
+
+    private Long hotProduct(int shards) {
+        Product p = new Product();
+        p.setName("Hot " + shards);
+        p.setSku("BENCH-HOT-" + shards);
+        p.setPrice(new BigDecimal("1.00"));
+        p.setStock(INITIAL_STOCK);
+        p.setCategory(category);
+        Long id = productRepository.save(p).getId();
+        if (shards > 1) {
+            productService.patch(id, new ProductDtos.PatchProductRequest(null, null, null, null, null, shards));
+        }
+        return id;
+    }
+}
@@ -0,0 +1,217 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.config.SqlitePragmaConfig;
+import com.minicommerceapi.minicommerce.config.SqliteProfile;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the SQLite PRAGMA profiles on a mixed read/write workload: reader threads do point lookups and category
+ * aggregates while writer threads commit small stock-update + insert transactions, all through a Hikari pool
+ * configured exactly like the application's (SqlitePragmaConfig.apply). Each profile gets its own database file.
+ * With the rollback journal (legacy) readers and the writer block each other; the WAL profiles let them overlap,
+ * and synchronous=NORMAL/OFF take the fsync off the commit path.
+ *
+ * Run with: ./gradlew benchmark --tests '*SqliteProfileBenchmark'
+ */
+@Tag("benchmark")
+class SqliteProfileBenchmark {
+
+    private static final int ITEMS = 20_000;
+    private static final int CATEGORIES = 50;
+    private static final int READERS = 4;
+    private static final int WRITERS = 2;
+    private static final long WARMUP_MS = 500;
+    private static final long MEASURE_MS = 3_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void profilesOnMixedReadWriteLoad() throws Exception {
+        System.out.printf("%n%-10s %-8s %12s %12s %12s %12s %8s%n",
+                "profile", "journal", "reads/s", "writes/s", "write p50ms", "write p99ms", "errors");
+        for (SqliteProfile profile : SqliteProfile.values()) {
+            Result r = run(profile);
+            System.out.printf("%-10s %-8s %12.0f %12.0f %12.2f %12.2f %8d%n", profile.name().toLowerCase(),
+                    r.journalMode, r.reads / (MEASURE_MS / 1000.0), r.writes / (MEASURE_MS / 1000.0),
+                    r.writeP50Ms, r.writeP99Ms, r.errors);
+
+            if (!"DELETE".equals(profile.pragmas().journalMode())) {
+                assertEquals("wal", r.journalMode, profile + " must run in WAL mode");
+                // WAL'da okuyucular yaziciyi beklemez; yazicilar da busy_timeout icinde kilidi alir.
+                assertEquals(0, r.errors, profile + " must not fail with SQLITE_BUSY");
+            }
+        }
+    }
+
+    private Result run(SqliteProfile profile) throws Exception {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:sqlite:" + dir.resolve(profile.name().toLowerCase() + ".db"));
+            dataSource.setDriverClassName("org.sqlite.JDBC");
+            dataSource.setMaximumPoolSize(READERS + WRITERS);
+            SqlitePragmaConfig.apply(dataSource, profile.pragmas());
+            seed(dataSource);
+
+            Result result = new Result();
+            result.journalMode = journalMode(dataSource);
+            AtomicLong reads = new AtomicLong();
+            AtomicLong writes = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            List<Long> writeNanos = Collections.synchronizedList(new ArrayList<>());
+
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+            long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MS);
+            ExecutorService pool = Executors.newFixedThreadPool(READERS + WRITERS);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                workers.add(pool.submit(() -> read(dataSource, measureFrom, end, reads, errors)));
+            }
+            for (int i = 0; i < WRITERS; i++) {
+                workers.add(pool.submit(() -> write(dataSource, measureFrom, end, writes, errors, writeNanos)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            pool.shutdown();
+
+            result.reads = reads.get();
+            result.writes = writes.get();
+            result.errors = errors.get();
+            List<Long> sorted = new ArrayList<>(writeNanos);
+            Collections.sort(sorted);
+            result.writeP50Ms = percentile(sorted, 0.50);
+            result.writeP99Ms = percentile(sorted, 0.99);
+            return result;
+        }
+    }
+
+    private static void read(HikariDataSource dataSource, long measureFrom, long end, AtomicLong reads, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement byId = c.prepareStatement("select name, price, stock from items where id = ?");
+             PreparedStatement byCategory = c.prepareStatement("select count(*), sum(stock) from items where category = ?")) {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                try {
+                    // %80 tekil okuma, %20 kategori toplami
+                    PreparedStatement query = random.nextInt(5) == 0 ? byCategory : byId;
+                    query.setInt(1, query == byId ? random.nextInt(1, ITEMS + 1) : random.nextInt(CATEGORIES));
+                    try (ResultSet rs = query.executeQuery()) {
+                        rs.next();
+                    }
+                    if (now >= measureFrom) {
+                        reads.incrementAndGet();
+                    }
+                } catch (SQLException e) {
+                    errors.incrementAndGet();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(HikariDataSource dataSource, long measureFrom, long end, AtomicLong writes, AtomicLong errors,
+                              List<Long> writeNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement update = c.prepareStatement("update items set stock = stock - 1 where id = ?");
+             PreparedStatement insert = c.prepareStatement("insert into stock_events (item_id, delta, created_at) values (?, -1, ?)")) {
+            c.setAutoCommit(false);
+            long started;
+            while ((started = System.nanoTime()) < end) {
+                int id = random.nextInt(1, ITEMS + 1);
+                try {
+                    // UPDATE once gelir: transaction dogrudan yazma kilidiyle baslar (bkz. OrderService.reserveStock).
+                    update.setInt(1, id);
+                    update.executeUpdate();
+                    insert.setInt(1, id);
+                    insert.setLong(2, System.currentTimeMillis());
+                    insert.executeUpdate();
+                    c.commit();
+                    if (started >= measureFrom) {
+                        writes.incrementAndGet();
+                        writeNanos.add(System.nanoTime() - started);
+                    }
+                } catch (SQLException e) {
+                    errors.incrementAndGet();
+                    c.rollback();
+                }
+            }
+            c.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void seed(HikariDataSource dataSource) throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.execute("create table items (id integer primary key, category integer not null, name text not null, "
+                    + "price real not null, stock integer not null)");
+            s.execute("create index idx_items_category on items (category)");
+            s.execute("create table stock_events (id integer primary key autoincrement, item_id integer not null, "
+                    + "delta integer not null, created_at integer not null)");
+            c.setAutoCommit(false);
+            try (PreparedStatement insert = c.prepareStatement("insert into items (id, category, name, price, stock) values (?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= ITEMS; i++) {
+                    insert.setInt(1, i);
+                    insert.setInt(2, i % CATEGORIES);
+                    insert.setString(3, "Item " + i);
+                    insert.setDouble(4, 1 + i % 100);
+                    insert.setInt(5, 1_000_000);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static String journalMode(HikariDataSource dataSource) throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery("pragma journal_mode")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static double percentile(List<Long> sortedNanos, double p) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = Math.min(sortedNanos.size() - 1, (int) Math.ceil(sortedNanos.size() * p) - 1);
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static final class Result {
+        String journalMode;
+        long reads;
+        long writes;
+        long errors;
+        double writeP50Ms;
+        double writeP99Ms;
+    }
+}
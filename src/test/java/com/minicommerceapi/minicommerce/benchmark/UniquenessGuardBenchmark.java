@@ -0,0 +1,158 @@
+package com.minicommerceapi.minicommerce.benchmark;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.service.UniquenessGuard;
+import com.minicommerceapi.minicommerce.service.UserService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uniqueness checks for new keys against a 200k product / 200k user table: the repository query alone versus the
+ * Bloom filter fast path, then bulk creates through the services with the number of SELECTs each one issues.
+ *
+ * Run with: ./gradlew benchmark --tests '*UniquenessGuardBenchmark'
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UniquenessGuardBenchmark {
+
+    private static final int EXISTING = 200_000;
+    private static final int CHECKS = 20_000;
+    private static final int CREATES = 5_000;
+
+    @Autowired
+    private UniquenessGuard uniqueness;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private Long categoryId;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("insert into categories (created_at, name, slug) values (?, 'Bench Unique', 'bench-unique')",
+                System.currentTimeMillis());
+        categoryId = jdbcTemplate.queryForObject("select id from categories where slug = 'bench-unique'", Long.class);
+
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            List<Object[]> products = new ArrayList<>();
+            List<Object[]> users = new ArrayList<>();
+            for (int i = 0; i < EXISTING; i++) {
+                products.add(new Object[]{now, "Existing " + i, "SKU-EXISTING-" + i, "9.99", 1, categoryId});
+                users.add(new Object[]{now, "User " + i, "existing" + i + "@example.com"});
+            }
+            jdbcTemplate.batchUpdate("insert into products (created_at, name, sku, price, stock, stock_shards, version, category_id) "
+                    + "values (?, ?, ?, ?, ?, 1, 0, ?)", products);
+            jdbcTemplate.batchUpdate("insert into users (created_at, name, email) values (?, ?, ?)", users);
+        });
+        uniqueness.rebuild();
+        System.out.printf("%nseeded %d products and %d users, filters built in %d ms%n",
+                EXISTING, EXISTING, System.currentTimeMillis() - started);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from order_items");
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from product_stock_shards");
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        uniqueness.rebuild();
+    }
+
+    @Test
+    void newKeysSkipTheQuery() {
+        System.out.printf("%n%-34s %12s %10s%n", "check (" + CHECKS + " new SKUs)", "total ms", "selects");
+
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < CHECKS; i++) {
+            if (productRepository.existsBySku("SKU-NEW-" + i)) found++;
+        }
+        long querySelects = SqlStatementCounter.selects();
+        System.out.printf("%-34s %12.1f %10d%n", "existsBySku", (System.nanoTime() - start) / 1e6, querySelects);
+
+        SqlStatementCounter.reset();
+        start = System.nanoTime();
+        for (int i = 0; i < CHECKS; i++) {
+            String sku = "SKU-NEW-" + i;
+            if (uniqueness.exists(UniquenessGuard.Key.SKU, sku, () -> productRepository.existsBySku(sku))) found++;
+        }
+        long guardedSelects = SqlStatementCounter.selects();
+        System.out.printf("%-34s %12.1f %10d%n", "bloom filter + existsBySku", (System.nanoTime() - start) / 1e6, guardedSelects);
+
+        assertFalse(found > 0);
+        // %1 hata olasiligi: sorgularin en fazla birkaci kalmali
+        assertTrue(guardedSelects < CHECKS / 50, "false positives: " + guardedSelects);
+    }
+
+    @Test
+    void bulkCreatesIssueOnlyTheirOwnReads() {
+        System.out.printf("%n%-34s %12s %14s%n", "bulk create (" + CREATES + ")", "total ms", "selects/create");
+
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < CREATES; i++) {
+            productService.create(new ProductDtos.CreateProductRequest("Imported " + i, "SKU-IMPORT-" + i, new BigDecimal("3.50"), 5, categoryId));
+        }
+        double productSelects = SqlStatementCounter.selects() / (double) CREATES;
+        System.out.printf("%-34s %12.1f %14.2f%n", "ProductService.create", (System.nanoTime() - start) / 1e6, productSelects);
+
+        SqlStatementCounter.reset();
+        start = System.nanoTime();
+        for (int i = 0; i < CREATES; i++) {
+            userService.create(new UserDtos.CreateUserRequest("Imported " + i, "imported" + i + "@example.com"));
+        }
+        double userSelects = SqlStatementCounter.selects() / (double) CREATES;
+        System.out.printf("%-34s %12.1f %14.2f%n", "UserService.create", (System.nanoTime() - start) / 1e6, userSelects);
+
+        // Urun: sadece kategori okunur (onceden + existsBySku); kullanici: hic okuma yok (onceden existsByEmail)
+        assertTrue(productSelects < 1.05, "product selects per create: " + productSelects);
+        assertTrue(userSelects < 0.05, "user selects per create: " + userSelects);
+    }
+}
@@ -0,0 +1,95 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryInterceptorTest {
+
+    private MeterRegistry registry;
+    private FlakyService proxy;
+    private FlakyService target;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+
+        RetryPolicy policy = RetryPolicy.builder()
+                .includes(ConcurrencyFailureException.class)
+                .maxRetries(3)
+                .delay(Duration.ofMillis(1))
+                .jitter(Duration.ofMillis(1))
+                .build();
+        target = new FlakyService();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, RetryOnConflict.class, true),
+                new ConflictRetryInterceptor(policy, beanFactory.getBeanProvider(MeterRegistry.class))));
+        proxy = (FlakyService) factory.getProxy();
+    }
+
+    @Test
+    void retriesConflictsUntilSuccess() {
+        target.failures = 2;
+        target.failure = () -> new ObjectOptimisticLockingFailureException("Product", 1L);
+
+        assertEquals("ok", proxy.update());
+        assertEquals(3, target.calls);
+        assertEquals(2.0, registry.counter("minicommerce.conflict.retries", "operation", "test.update").count());
+        assertEquals(0.0, registry.counter("minicommerce.conflict.exhausted", "operation", "test.update").count());
+    }
+
+    @Test
+    void exhaustedRetriesBecomeConflict() {
+        target.failures = Integer.MAX_VALUE;
+        target.failure = () -> new CannotAcquireLockException("database is locked");
+
+        assertThrows(ConflictException.class, () -> proxy.update());
+        assertEquals(4, target.calls);
+        assertEquals(3.0, registry.counter("minicommerce.conflict.retries", "operation", "test.update").count());
+        assertEquals(1.0, registry.counter("minicommerce.conflict.exhausted", "operation", "test.update").count());
+    }
+
+    @Test
+    void nonConflictExceptionsAreNotRetried() {
+        target.failures = Integer.MAX_VALUE;
+        target.failure = () -> new NotFoundException("Product not found");
+
+        assertThrows(NotFoundException.class, () -> proxy.update());
+        assertEquals(1, target.calls);
+        assertEquals(0.0, registry.counter("minicommerce.conflict.exhausted", "operation", "test.update").count());
+    }
+
+    static class FlakyService {
+        int calls;
+        int failures;
+        java.util.function.Supplier<RuntimeException> failure;
+
+        @RetryOnConflict("test.update")
+        public String update() {
+            calls++;
+            if (calls <= failures) {
+                throw failure.get();
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.minicommerceapi.minicommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlitePragmaConfigTest {
+
+    @Test
+    void defaultProfile_isBalancedWal_onEverySqliteConnection() {
+        HikariDataSource dataSource = dataSource("jdbc:sqlite:./test.db");
+
+        process(new MockEnvironment(), dataSource);
+
+        assertEquals("WAL", dataSource.getDataSourceProperties().getProperty("journal_mode"));
+        assertEquals("NORMAL", dataSource.getDataSourceProperties().getProperty("synchronous"));
+        assertEquals("-64000", dataSource.getDataSourceProperties().getProperty("cache_size"));
+        assertEquals("268435456", dataSource.getDataSourceProperties().getProperty("mmap_size"));
+        assertEquals("MEMORY", dataSource.getDataSourceProperties().getProperty("temp_store"));
+        assertEquals("5000", dataSource.getDataSourceProperties().getProperty("busy_timeout"));
+        assertEquals("pragma wal_autocheckpoint = 1000", dataSource.getConnectionInitSql());
+    }
+
+    @Test
+    void singlePragmas_overrideTheSelectedProfile() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("minicommerce.sqlite.profile", "Fast")
+                .withProperty("minicommerce.sqlite.pragma.synchronous", "NORMAL")
+                .withProperty("minicommerce.sqlite.pragma.wal-autocheckpoint", "500");
+
+        SqlitePragmas pragmas = SqlitePragmaConfig.resolve(SqliteProfile.of("Fast"), environment);
+
+        assertEquals(new SqlitePragmas("WAL", "NORMAL", -256_000, 1L << 30, "MEMORY", 10_000, 500), pragmas);
+    }
+
+    @Test
+    void explicitDriverProperties_andInitSql_win() {
+        HikariDataSource dataSource = dataSource("jdbc:sqlite:./test.db");
+        dataSource.addDataSourceProperty("synchronous", "FULL");
+        dataSource.setConnectionInitSql("pragma foreign_keys = on");
+
+        process(new MockEnvironment(), dataSource);
+
+        assertEquals("FULL", dataSource.getDataSourceProperties().getProperty("synchronous"));
+        assertEquals("WAL", dataSource.getDataSourceProperties().getProperty("journal_mode"));
+        assertEquals("pragma foreign_keys = on", dataSource.getConnectionInitSql());
+    }
+
+    @Test
+    void otherDatabases_areLeftAlone() {
+        HikariDataSource dataSource = dataSource("jdbc:h2:mem:test");
+
+        process(new MockEnvironment(), dataSource);
+
+        assertTrue(dataSource.getDataSourceProperties().isEmpty());
+        assertNull(dataSource.getConnectionInitSql());
+    }
+
+    @Test
+    void unknownProfile_isRejected() {
+        MockEnvironment environment = new MockEnvironment().withProperty("minicommerce.sqlite.profile", "turbo");
+        HikariDataSource dataSource = dataSource("jdbc:sqlite:./test.db");
+
+        assertThrows(IllegalArgumentException.class, () -> process(environment, dataSource));
+    }
+
+    private static void process(MockEnvironment environment, HikariDataSource dataSource) {
+        BeanPostProcessor postProcessor = SqlitePragmaConfig.sqlitePragmaPostProcessor(environment);
+        postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+    }
+
+    private static HikariDataSource dataSource(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        return dataSource;
+    }
+}
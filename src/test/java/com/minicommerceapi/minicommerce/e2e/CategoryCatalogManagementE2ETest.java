@@ -245,7 +245,8 @@ class CategoryCatalogManagementE2ETest {
                 null,
                 null,
                 null,
-                clothing.id() // Move smartphone from electronics to clothing (for test purposes)
+                clothing.id(), // Move smartphone from electronics to clothing (for test purposes)
+                null
         );
         mockMvc.perform(patch("/api/products/" + smartphone.id())
                         .contentType(MediaType.APPLICATION_JSON)
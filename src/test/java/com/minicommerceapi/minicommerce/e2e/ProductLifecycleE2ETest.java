@@ -144,7 +144,8 @@ class ProductLifecycleE2ETest {
                 null, // sku unchanged
                 new BigDecimal("199.99"), // discounted price
                 20, // reduced stock
-                null // category unchanged
+                null, // category unchanged
+                null
         );
 
         mockMvc.perform(patch("/api/products/" + product.id())
@@ -254,7 +255,7 @@ class ProductLifecycleE2ETest {
                 null,
                 null,
                 5, // reduce stock to 5
-                null
+                null, null
         );
 
         mockMvc.perform(patch("/api/products/" + product1.id())
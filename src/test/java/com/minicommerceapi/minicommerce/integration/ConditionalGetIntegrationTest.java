@@ -0,0 +1,195 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.config.UpdatedAtBackfill;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UpdatedAtBackfill updatedAtBackfill;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Category category;
+    private long productId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+
+        category = new Category();
+        category.setName("Etag Tools");
+        category.setSlug("etag-tools");
+        category = categoryRepository.save(category);
+        productId = createProduct("Hammer", "SKU-ETAG-1");
+    }
+
+    @Test
+    void productGet_returns304ForMatchingValidators_withOneRead() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertFalse(etag.startsWith("W/"), "strong ETag");
+
+        SqlStatementCounter.reset();
+        MvcResult notModified = mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertEquals("", notModified.getResponse().getContentAsString());
+        assertEquals(1, SqlStatementCounter.selects(), "the validators come from the one row read");
+
+        mockMvc.perform(get("/api/products/" + productId)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void productEtag_changesWithPatchStockAndCategoryRename() throws Exception {
+        String etag = etag("/api/products/" + productId);
+
+        mockMvc.perform(patch("/api/products/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\":12.00}"))
+                .andExpect(status().isOk());
+        String patched = assertChanged("/api/products/" + productId, etag);
+
+        assertEquals(1, productRepository.decrementStock(productId, 1));
+        String sold = assertChanged("/api/products/" + productId, patched);
+
+        // Yanit kategori adini tasir
+        mockMvc.perform(put("/api/categories/" + category.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Etag Hardware\"}"))
+                .andExpect(status().isOk());
+        assertChanged("/api/products/" + productId, sold);
+    }
+
+    @Test
+    void productList_etagFollowsThePage() throws Exception {
+        String url = "/api/products?categoryId=" + category.getId() + "&limit=1";
+        String etag = etag(url);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        // limit=1 sayfasi bir fazla satir okur: ikinci urun sonraki sayfa imlecini degistirir
+        createProduct("Saw", "SKU-ETAG-2");
+        assertChanged(url, etag);
+    }
+
+    @Test
+    void categoryAndUserLists_useTableFingerprints() throws Exception {
+        String categories = etag("/api/categories");
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, categories))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Etag Garden\"}"))
+                .andExpect(status().isCreated());
+        assertChanged("/api/categories", categories);
+
+        String users = etag("/api/users");
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDtos.CreateUserRequest("Etag User", "etag@example.com"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readValue(body, UserDtos.UserResponse.class).id();
+        String withUser = assertChanged("/api/users", users);
+
+        String user = etag("/api/users/" + userId);
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, user))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(delete("/api/users/" + userId)).andExpect(status().isNoContent());
+        assertChanged("/api/users", withUser);
+        mockMvc.perform(get("/api/users/" + userId).header(HttpHeaders.IF_NONE_MATCH, user))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rowsFromBeforeUpdatedAt_areBackfilledWithCreatedAt() throws Exception {
+        categoryRepository.flush();
+        // Sutun eklenmeden once yazilmis satir: ddl-auto varsayilan 0'i koyar
+        jdbcTemplate.update("update categories set updated_at = 0 where id = ?", category.getId());
+
+        updatedAtBackfill.afterSingletonsInstantiated();
+
+        long lastModified = mockMvc.perform(get("/api/categories/" + category.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getDateHeader(HttpHeaders.LAST_MODIFIED);
+        assertEquals(category.getCreatedAt().getEpochSecond(), lastModified / 1000);
+    }
+
+    private long createProduct(String name, String sku) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal("9.90"), 5, category.getId()))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductDtos.ProductResponse.class).id();
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    // Eski ETag artik eslesmez: tam yanit ve yeni bir ETag doner.
+    private String assertChanged(String url, String previous) throws Exception {
+        String current = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, previous))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(previous, current);
+        return current;
+    }
+}
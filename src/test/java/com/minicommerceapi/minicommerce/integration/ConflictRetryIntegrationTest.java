@@ -0,0 +1,170 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent writers on the same Product / Order rows. Version conflicts must be retried
+ * (or surfaced as 409) and must never lose an update.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ConflictRetryIntegrationTest {
+
+    private static final int INITIAL_STOCK = 1_000;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        User user = new User();
+        user.setName("Retry User");
+        user.setEmail("retry@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Retry");
+        category.setSlug("retry");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Contended");
+        product.setSku("SKU-RETRY");
+        product.setPrice(new BigDecimal("5.00"));
+        product.setStock(INITIAL_STOCK);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void productPatchesRacingWithOrders_doNotOverwriteStock() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger patched = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 15; i++) {
+                        try {
+                            orderService.create(new OrderDtos.CreateOrderRequest(userId, List.of(new OrderDtos.CreateOrderItem(productId, 1))));
+                            sold.incrementAndGet();
+                        } catch (ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+                int writer = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 15; i++) {
+                        try {
+                            productService.patch(productId, new ProductDtos.PatchProductRequest("Contended " + writer + "-" + i, null, null, null, null, null));
+                            patched.incrementAndGet();
+                        } catch (ConflictException e) {
+                            // Retry butcesi bitti: istemci 409 alir, ama hicbir guncelleme kaybolmamali.
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        Product after = productRepository.findById(productId).orElseThrow();
+        assertEquals(INITIAL_STOCK - sold.get(), after.getStock(), "a stale patch must never write back an old stock value");
+        assertEquals(sold.get() + patched.get(), after.getVersion(), "every decrement and patch bumps the version exactly once");
+        assertTrue(sold.get() > 0 && patched.get() > 0, "sold=" + sold + " patched=" + patched + " conflicts=" + conflicts);
+    }
+
+    @Test
+    void concurrentStatusChanges_exactlyOneWins() throws Exception {
+        Long orderId = orderService.create(new OrderDtos.CreateOrderRequest(userId, List.of(new OrderDtos.CreateOrderItem(productId, 1)))).id();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<String> outcomes;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<String> paid = pool.submit(() -> patch(start, orderId, "PAID"));
+            Future<String> cancelled = pool.submit(() -> patch(start, orderId, "CANCELLED"));
+            start.countDown();
+            outcomes = List.of(paid.get(1, TimeUnit.MINUTES), cancelled.get(1, TimeUnit.MINUTES));
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        assertEquals(1, outcomes.stream().filter("ok"::equals).count(), "outcomes: " + outcomes);
+        assertEquals(1, outcomes.stream().filter("conflict"::equals).count(), "outcomes: " + outcomes);
+    }
+
+    private String patch(CountDownLatch start, Long orderId, String status) throws InterruptedException {
+        start.await();
+        try {
+            orderService.patchStatus(orderId, new OrderDtos.PatchOrderRequest(status));
+            return "ok";
+        } catch (ConflictException e) {
+            return "conflict";
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.IdempotencyKey;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.IdempotencyService;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: every request commits on its own, as retries from a gateway would.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Retrying Client");
+        user.setEmail("idempotent@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Idempotent");
+        category.setSlug("idempotent");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Once Only");
+        product.setSku("SKU-IDEMPOTENT");
+        product.setPrice(new BigDecimal("7.00"));
+        product.setStock(10);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void retryWithSameKey_returnsOriginalOrder_withoutWriting() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(createOrder(key, 2))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn();
+        long orderId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+
+        SqlStatementCounter.reset();
+        MvcResult replay = mockMvc.perform(createOrder(key, 2))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(header().string("Location", "/api/orders/" + orderId))
+                .andReturn();
+        assertEquals(first.getResponse().getContentAsString(), replay.getResponse().getContentAsString());
+        // onbellekten cevaplandi: ne yazma ne okuma
+        assertEquals(0, SqlStatementCounter.selects() + SqlStatementCounter.inserts() + SqlStatementCounter.updates());
+
+        assertEquals(1, orderRepository.count());
+        assertEquals(8, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequest_isRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createOrder(key, 1)).andExpect(status().isCreated());
+        mockMvc.perform(createOrder(key, 3)).andExpect(status().isConflict());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void invalidKey_isRejected() throws Exception {
+        mockMvc.perform(createOrder("x".repeat(129), 1)).andExpect(status().isBadRequest());
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void replayAfterRestart_isServedFromStoreWithReadsOnly() {
+        String key = UUID.randomUUID().toString();
+        OrderDtos.OrderResponse original = idempotencyService.createOrder(key, request(2)).order();
+
+        // Bos onbellekli yeni bir ornek yeniden baslatmayi taklit eder
+        IdempotencyService restarted = new IdempotencyService(orderService, idempotencyKeyRepository, 24, 100);
+        SqlStatementCounter.reset();
+        IdempotencyService.Outcome replay = restarted.createOrder(key, request(2));
+
+        assertTrue(replay.replayed());
+        assertEquals(original, replay.order());
+        assertEquals(0, SqlStatementCounter.inserts() + SqlStatementCounter.updates());
+        assertThrows(ConflictException.class, () -> restarted.createOrder(key, request(1)));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void expiredKey_createsNewOrder_andReplacesRecord() {
+        String key = UUID.randomUUID().toString();
+        OrderDtos.OrderResponse first = idempotencyService.createOrder(key, request(1)).order();
+        IdempotencyKey stored = idempotencyKeyRepository.findByIdempotencyKey(key).orElseThrow();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        idempotencyKeyRepository.save(stored);
+
+        IdempotencyService restarted = new IdempotencyService(orderService, idempotencyKeyRepository, 24, 100);
+        IdempotencyService.Outcome second = restarted.createOrder(key, request(1));
+
+        assertFalse(second.replayed());
+        assertNotEquals(first.id(), second.order().id());
+        assertEquals(second.order().id(), idempotencyKeyRepository.findByIdempotencyKey(key).orElseThrow().getOrderId());
+        assertEquals(1, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void failedRequest_isNotRemembered() {
+        String key = UUID.randomUUID().toString();
+        assertThrows(BadRequestException.class, () -> idempotencyService.createOrder(key, request(50)));
+        assertTrue(idempotencyKeyRepository.findByIdempotencyKey(key).isEmpty());
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setStock(60);
+        productRepository.save(product);
+        assertFalse(idempotencyService.createOrder(key, request(50)).replayed());
+    }
+
+    @Test
+    void concurrentDuplicates_shareOneExecution() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<IdempotencyService.Outcome>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.createOrder(key, request(1));
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            int created = 0;
+            for (Future<IdempotencyService.Outcome> f : futures) {
+                IdempotencyService.Outcome outcome = f.get(30, TimeUnit.SECONDS);
+                ids.add(outcome.order().id());
+                created += outcome.replayed() ? 0 : 1;
+            }
+            assertEquals(1, ids.size());
+            assertEquals(1, created);
+            assertEquals(1, orderRepository.count());
+            assertEquals(9, productRepository.findById(productId).orElseThrow().getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void liveKey_isNotOverwritten_andTheSecondOrderIsRolledBack() {
+        String key = UUID.randomUUID().toString();
+        OrderDtos.OrderResponse first = idempotencyService.createOrder(key, request(1)).order();
+        String requestHash = idempotencyKeyRepository.findByIdempotencyKey(key).orElseThrow().getRequestHash();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> orderService.create(request(1), key, requestHash, Instant.now().plusSeconds(60)));
+
+        assertEquals(1, orderRepository.count());
+        assertEquals(9, productRepository.findById(productId).orElseThrow().getStock());
+        assertEquals(first.id(), idempotencyKeyRepository.findByIdempotencyKey(key).orElseThrow().getOrderId());
+    }
+
+    @Test
+    void requestThatMissedTheStoredKey_replaysTheWinner() {
+        String key = UUID.randomUUID().toString();
+        OrderDtos.OrderResponse first = idempotencyService.createOrder(key, request(1)).order();
+
+        // Baska bir ornekteki istek: ilk okumada kazananin kaydi henuz gorunmuyordu
+        IdempotencyKeyRepository lagging = mock(IdempotencyKeyRepository.class, delegatesTo(idempotencyKeyRepository));
+        doReturn(Optional.empty())
+                .doAnswer(invocation -> idempotencyKeyRepository.findByIdempotencyKey(invocation.getArgument(0)))
+                .when(lagging).findByIdempotencyKey(key);
+        IdempotencyService other = new IdempotencyService(orderService, lagging, 24, 100);
+
+        IdempotencyService.Outcome outcome = other.createOrder(key, request(1));
+
+        assertTrue(outcome.replayed());
+        assertEquals(first.id(), outcome.order().id());
+        assertEquals(1, orderRepository.count());
+        assertEquals(9, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    private OrderDtos.CreateOrderRequest request(int quantity) {
+        return new OrderDtos.CreateOrderRequest(userId, List.of(new OrderDtos.CreateOrderItem(productId, quantity)));
+    }
+
+    private RequestBuilder createOrder(String key, int quantity) throws Exception {
+        return post("/api/orders")
+                .header(IdempotencyService.KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request(quantity)));
+    }
+}
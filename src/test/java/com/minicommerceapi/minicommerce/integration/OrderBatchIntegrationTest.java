@@ -0,0 +1,188 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@TestPropertySource(properties = "minicommerce.orders.batch.chunk-size=2")
+@Transactional
+class OrderBatchIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private User user;
+    private Product pen;
+    private Product book;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+
+        user = new User();
+        user.setName("Buyer");
+        user.setEmail("bulk-buyer@example.com");
+        user = userRepository.save(user);
+
+        Category category = new Category();
+        category.setName("Bulk");
+        category.setSlug("bulk");
+        category = categoryRepository.save(category);
+
+        pen = newProduct(category, "SKU-BULK-PEN", "2.50", 10);
+        book = newProduct(category, "SKU-BULK-BOOK", "12.00", 3);
+    }
+
+    @Test
+    void batch_createsEveryOrder_acrossChunks() throws Exception {
+        // chunk-size=2: 3 parca
+        JsonNode body = postBatch(List.of(
+                order(user.getId(), item(pen.getId(), 1), item(book.getId(), 2)),
+                order(user.getId(), item(pen.getId(), 1)),
+                order(user.getId(), item(pen.getId(), 1)),
+                order(user.getId(), item(pen.getId(), 1)),
+                order(user.getId(), item(pen.getId(), 1), item(book.getId(), 1))
+        ));
+
+        assertEquals(5, body.get("created").asInt());
+        assertEquals(0, body.get("failed").asInt());
+        JsonNode first = body.get("results").get(0);
+        assertEquals(0, first.get("index").asInt());
+        assertEquals(0, new BigDecimal("26.50").compareTo(first.get("order").get("total").decimalValue()));
+        assertEquals(2, first.get("order").get("items").size());
+
+        entityManager.clear();
+        assertEquals(5, productRepository.findById(pen.getId()).orElseThrow().getStock());
+        assertEquals(0, productRepository.findById(book.getId()).orElseThrow().getStock());
+        assertEquals(5, orderRepository.count());
+
+        // Toplu eklenen siparisler normal okuma yolundan da gorunur
+        long id = first.get("order").get("id").asLong();
+        mockMvc.perform(get("/api/orders/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId", is(user.getId().intValue())))
+                .andExpect(jsonPath("$.status", is("CREATED")))
+                .andExpect(jsonPath("$.items", hasSize(2)));
+    }
+
+    @Test
+    void batch_failedOrders_areReportedIndividually_andRolledBackAlone() throws Exception {
+        JsonNode body = postBatch(List.of(
+                order(user.getId(), item(pen.getId(), 2)),
+                // pen dusumu yapilir, book yetmez: bu siparisin pen dusumu de geri alinmali
+                order(user.getId(), item(pen.getId(), 4), item(book.getId(), 99)),
+                order(999_999L, item(pen.getId(), 1)),
+                order(user.getId(), item(999_999L, 1)),
+                order(user.getId()),
+                order(user.getId(), item(book.getId(), 3))
+        ));
+
+        assertEquals(2, body.get("created").asInt());
+        assertEquals(4, body.get("failed").asInt());
+        JsonNode results = body.get("results");
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).get("created").asBoolean());
+        assertEquals("Insufficient stock for product " + book.getId(), results.get(1).get("error").asText());
+        assertEquals("User not found", results.get(2).get("error").asText());
+        assertEquals("Product not found: 999999", results.get(3).get("error").asText());
+        assertEquals("items must not be empty", results.get(4).get("error").asText());
+        assertTrue(results.get(5).get("created").asBoolean());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, results.get(i).get("index").asInt());
+        }
+
+        entityManager.clear();
+        assertEquals(8, productRepository.findById(pen.getId()).orElseThrow().getStock());
+        assertEquals(0, productRepository.findById(book.getId()).orElseThrow().getStock());
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    void batch_rejectsEmptyOrOversizedRequests() throws Exception {
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orders\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        List<OrderDtos.CreateOrderRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            tooMany.add(order(user.getId(), item(pen.getId(), 1)));
+        }
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.BatchCreateOrderRequest(tooMany))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode postBatch(List<OrderDtos.CreateOrderRequest> orders) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.BatchCreateOrderRequest(orders))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static OrderDtos.CreateOrderRequest order(Long userId, OrderDtos.CreateOrderItem... items) {
+        return new OrderDtos.CreateOrderRequest(userId, List.of(items));
+    }
+
+    private static OrderDtos.CreateOrderItem item(Long productId, int quantity) {
+        return new OrderDtos.CreateOrderItem(productId, quantity);
+    }
+
+    private Product newProduct(Category category, String sku, String price, int stock) {
+        Product p = new Product();
+        p.setName(sku);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal(price));
+        p.setStock(stock);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+}
@@ -0,0 +1,238 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class OrderExportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+
+        user = new User();
+        user.setName("Exporter");
+        user.setEmail("exporter@example.com");
+        user = userRepository.save(user);
+
+        Category category = new Category();
+        category.setName("Exports");
+        category.setSlug("exports");
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < 3; i++) {
+            Product p = new Product();
+            p.setName("Export Product " + i);
+            p.setSku("SKU-EXPORT-" + i);
+            p.setPrice(new BigDecimal("4.00"));
+            p.setStock(100);
+            p.setCategory(category);
+            products.add(productRepository.save(p));
+        }
+    }
+
+    @Test
+    void export_writesOneJsonLinePerOrder_withItems_oldestFirst() throws Exception {
+        List<Long> ids = seedOrders(3, 2);
+
+        MvcResult result = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+
+        List<JsonNode> lines = parse(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(ids, lines.stream().map(n -> n.get("id").asLong()).toList());
+        lines.forEach(n -> {
+            assertEquals(2, n.get("items").size());
+            assertEquals(user.getId().longValue(), n.get("userId").asLong());
+        });
+    }
+
+    @Test
+    void export_gzipsWhenAccepted() throws Exception {
+        seedOrders(4, 1);
+
+        MvcResult result = mockMvc.perform(get("/api/orders/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            in.transferTo(plain);
+        }
+        assertEquals(4, parse(plain.toString(StandardCharsets.UTF_8)).size());
+    }
+
+    @Test
+    void export_honoursQualityValues_andIgnoresTheDefaultLocale() throws Exception {
+        seedOrders(1, 1);
+
+        for (String refused : new String[]{"gzip;q=0", "deflate, gzip; q=0.0", "*;q=0", "br, identity"}) {
+            mockMvc.perform(get("/api/orders/export").header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            for (String accepted : new String[]{"GZIP", "identity;q=0.5, gzip;q=0.8", "*", "x-gzip"}) {
+                mockMvc.perform(get("/api/orders/export").header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void export_filtersByCreatedAtRange() throws Exception {
+        seedOrders(2, 1);
+        entityManager.flush();
+        Thread.sleep(5);
+        Instant boundary = Instant.now();
+        Thread.sleep(5);
+        List<Long> later = seedOrders(3, 1);
+
+        MvcResult result = mockMvc.perform(get("/api/orders/export").param("createdFrom", boundary.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(later, parse(result.getResponse().getContentAsString()).stream().map(n -> n.get("id").asLong()).toList());
+
+        result = mockMvc.perform(get("/api/orders/export").param("createdTo", boundary.toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(2, parse(result.getResponse().getContentAsString()).size());
+
+        mockMvc.perform(get("/api/orders/export").param("createdFrom", boundary.toString()).param("createdTo", boundary.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_invalidRange_isABadRequestWithAJsonError_evenWhenGzipped() throws Exception {
+        Instant from = Instant.parse("2026-03-02T00:00:00Z");
+        for (String encoding : new String[]{"identity", "gzip"}) {
+            mockMvc.perform(get("/api/orders/export")
+                            .param("createdFrom", from.toString())
+                            .param("createdTo", from.minusSeconds(60).toString())
+                            .header(HttpHeaders.ACCEPT_ENCODING, encoding))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.status").value(400))
+                    .andExpect(jsonPath("$.message").value("createdFrom must be before createdTo"));
+        }
+    }
+
+    @Test
+    void export_readsInChunks_withOneItemQueryPerChunk() throws Exception {
+        seedOrders(501, 1);
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(501, orderService.export(null, null, out));
+
+        // cursor + 2 parca icin kalem sorgusu
+        assertEquals(3, SqlStatementCounter.selects());
+        assertEquals(501, parse(out.toString(StandardCharsets.UTF_8)).size());
+        // yazilan parcalar persistence context'te tutulmaz
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private List<JsonNode> parse(String body) throws Exception {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                nodes.add(objectMapper.readTree(line));
+            }
+        }
+        return nodes;
+    }
+
+    private List<Long> seedOrders(int count, int itemsPerOrder) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < itemsPerOrder; j++) {
+                Product product = products.get((i + j) % products.size());
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setUnitPrice(product.getPrice());
+                item.setLineTotal(product.getPrice());
+                order.addItem(item);
+                total = total.add(product.getPrice());
+            }
+            order.setTotal(total);
+            ids.add(orderRepository.save(order).getId());
+        }
+        orderRepository.flush();
+        return ids;
+    }
+}
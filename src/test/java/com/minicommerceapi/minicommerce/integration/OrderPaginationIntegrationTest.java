@@ -0,0 +1,155 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Order;
+import com.minicommerceapi.minicommerce.domain.OrderStatus;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class OrderPaginationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private User alice;
+    private User bob;
+    private final List<Long> allIds = new ArrayList<>();
+    private Instant boundary;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+
+        alice = newUser("Alice", "alice-pages@example.com");
+        bob = newUser("Bob", "bob-pages@example.com");
+
+        // ilk 6 siparis sinirdan once, son 4 siparis sonra
+        for (int i = 0; i < 6; i++) {
+            allIds.add(newOrder(i % 2 == 0 ? alice : bob, i % 3 == 0 ? OrderStatus.PAID : OrderStatus.CREATED, 10 * (i + 1)));
+        }
+        Thread.sleep(5);
+        boundary = Instant.now();
+        Thread.sleep(5);
+        for (int i = 6; i < 10; i++) {
+            allIds.add(newOrder(i % 2 == 0 ? alice : bob, i % 3 == 0 ? OrderStatus.PAID : OrderStatus.CREATED, 10 * (i + 1)));
+        }
+        orderRepository.flush();
+        allIds.sort(Comparator.reverseOrder());
+    }
+
+    @Test
+    void walkingCursors_returnsEveryOrderOnce_newestFirst() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/orders").param("limit", "3")
+                            .param("cursor", cursor == null ? null : cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(3))))
+                    .andReturn();
+            for (JsonNode node : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(node.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(allIds, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void filters_canBeCombined() throws Exception {
+        mockMvc.perform(get("/api/orders").param("userId", alice.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[*].userId", everyItem(is(alice.getId().intValue()))));
+
+        mockMvc.perform(get("/api/orders").param("status", "paid"))
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[*].status", everyItem(is("PAID"))));
+
+        mockMvc.perform(get("/api/orders").param("minTotal", "80"))
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        mockMvc.perform(get("/api/orders").param("createdFrom", boundary.toString()))
+                .andExpect(jsonPath("$", hasSize(4)));
+
+        mockMvc.perform(get("/api/orders").param("createdTo", boundary.toString()).param("userId", bob.getId().toString()))
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void lastPage_hasNoCursorHeader() throws Exception {
+        mockMvc.perform(get("/api/orders").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(10)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void invalidParameters_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders").param("createdFrom", "yesterday"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders").param("status", "SHIPPED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Long newOrder(User user, OrderStatus status, int total) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(status);
+        order.setTotal(BigDecimal.valueOf(total));
+        return orderRepository.save(order).getId();
+    }
+}
@@ -0,0 +1,133 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.*;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Order reads must cost a constant number of SELECTs no matter how many orders/items are returned.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class OrderReadQueryCountIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private static final OrderDtos.OrderFilter NO_FILTER = new OrderDtos.OrderFilter(null, null, null, null, null);
+
+    private User user;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+
+        user = new User();
+        user.setName("Reader");
+        user.setEmail("reader@example.com");
+        user = userRepository.save(user);
+
+        Category category = new Category();
+        category.setName("Reads");
+        category.setSlug("reads");
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < 4; i++) {
+            Product p = new Product();
+            p.setName("Read Product " + i);
+            p.setSku("SKU-READ-" + i);
+            p.setPrice(new BigDecimal("5.00"));
+            p.setStock(100);
+            p.setCategory(category);
+            products.add(productRepository.save(p));
+        }
+    }
+
+    @Test
+    void list_usesTwoSelects_regardlessOfPageSizeOrDepth() {
+        seedOrders(2);
+        // sayfa satirlari + kalemleri
+        assertEquals(2, selectsFor(() -> assertEquals(2, orderService.list(NO_FILTER, null, 50).items().size())));
+
+        seedOrders(10);
+        assertEquals(2, selectsFor(() -> assertEquals(12, orderService.list(NO_FILTER, null, 50).items().size())));
+
+        String cursor = orderService.list(NO_FILTER, null, 5).nextCursor();
+        assertEquals(2, selectsFor(() -> assertEquals(5, orderService.list(NO_FILTER, cursor, 5).items().size())));
+    }
+
+    @Test
+    void list_returnsEveryItemOnce() {
+        seedOrders(3);
+        entityManager.flush();
+        entityManager.clear();
+        List<OrderDtos.OrderResponse> orders = orderService.list(NO_FILTER, null, 50).items();
+        // fetch join kalemleri cogaltmamali
+        orders.forEach(o -> assertEquals(3, o.items().size()));
+    }
+
+    @Test
+    void get_usesOneSelect() {
+        Long id = seedOrders(1).get(0);
+        assertEquals(1, selectsFor(() -> assertEquals(3, orderService.get(id).items().size())));
+    }
+
+    private long selectsFor(Runnable read) {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        read.run();
+        return SqlStatementCounter.selects();
+    }
+
+    private List<Long> seedOrders(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < 3; j++) {
+                Product product = products.get((i + j) % products.size());
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setUnitPrice(product.getPrice());
+                item.setLineTotal(product.getPrice());
+                order.addItem(item);
+                total = total.add(product.getPrice());
+            }
+            order.setTotal(total);
+            ids.add(orderRepository.save(order).getId());
+        }
+        return ids;
+    }
+}
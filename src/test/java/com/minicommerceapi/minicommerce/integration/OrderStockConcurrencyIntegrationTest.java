@@ -0,0 +1,135 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for the conditional stock decrement: many threads order the same SKU at once.
+ * Not @Transactional on purpose; every order commits on its own like in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class OrderStockConcurrencyIntegrationTest {
+
+    private static final int INITIAL_STOCK = 40;
+    private static final int THREADS = 12;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        User user = new User();
+        user.setName("Stress User");
+        user.setEmail("stress@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Stress");
+        category.setSlug("stress");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Hot SKU");
+        product.setSku("SKU-HOT");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(INITIAL_STOCK);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentOrdersOnOneSku_neverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        // 1 veya 2 adet; iki satir ayni urunu gosterdiginde birlestirme de devreye girer
+                        int quantity = (i % 2) + 1;
+                        List<OrderDtos.CreateOrderItem> items = quantity == 1
+                                ? List.of(new OrderDtos.CreateOrderItem(productId, 1))
+                                : List.of(new OrderDtos.CreateOrderItem(productId, 1), new OrderDtos.CreateOrderItem(productId, 1));
+                        try {
+                            orderService.create(new OrderDtos.CreateOrderRequest(userId, items));
+                            sold.addAndGet(quantity);
+                            placed.incrementAndGet();
+                        } catch (BadRequestException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        int remaining = productRepository.findById(productId).orElseThrow().getStock();
+        assertTrue(remaining >= 0, "stock went negative: " + remaining);
+        assertEquals(INITIAL_STOCK - sold.get(), remaining, "every committed order must be reflected in stock exactly once");
+        assertEquals(placed.get(), orderRepository.count(), "rejected orders must not leave rows behind");
+        assertTrue(rejected.get() > 0, "demand exceeds stock, so some orders must be rejected");
+        assertTrue(unexpected.isEmpty(), "unexpected failures: " + unexpected);
+    }
+}
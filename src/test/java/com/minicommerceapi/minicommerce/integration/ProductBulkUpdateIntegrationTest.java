@@ -0,0 +1,184 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductFacets;
+import com.minicommerceapi.minicommerce.service.price.ProductPriceIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the facets and the price index follow committed writes only.
+ */
+@SpringBootTest(properties = "minicommerce.products.bulk-update.chunk-size=2")
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductBulkUpdateIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductFacets productFacets;
+    @Autowired
+    private ProductPriceIndex priceIndex;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Category category = new Category();
+        category.setName("Bulk Tools");
+        category.setSlug("bulk-tools");
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        shardRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; bellekteki yapilar tablolardan yeniden kurulur.
+        productFacets.reconcile();
+        priceIndex.rebuild();
+    }
+
+    @Test
+    void bulkUpdate_appliesByIdAndSku_andReportsEveryItem() throws Exception {
+        long saw = create("Saw", "BLK-SAW", "19.90", 5);
+        long drill = create("Drill", "BLK-DRILL", "89.00", 2);
+        long nail = create("Nail", "BLK-NAIL", "0.50", 100);
+        String sawEtag = mockMvc.perform(get("/api/products/" + saw))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        items.add(Map.of("id", saw, "price", 24.50));
+        items.add(Map.of("sku", "BLK-DRILL", "stock", 0));
+        items.add(Map.of("sku", "BLK-MISSING", "price", 1.00));
+        items.add(Map.of("id", nail, "sku", "BLK-NAIL", "stock", 1));
+        items.add(Map.of("sku", "BLK-NAIL", "price", 0.75, "stock", 80));
+        items.add(Map.of("id", saw, "stock", 1));
+        items.add(Map.of("id", drill, "price", -3));
+
+        mockMvc.perform(patch("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("items", items))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(3)))
+                .andExpect(jsonPath("$.failed", is(4)))
+                .andExpect(jsonPath("$.results[*].index", contains(0, 1, 2, 3, 4, 5, 6)))
+                .andExpect(jsonPath("$.results[*].updated", contains(true, true, false, false, true, false, false)))
+                .andExpect(jsonPath("$.results[1].id", is((int) drill)))
+                .andExpect(jsonPath("$.results[2].sku", is("BLK-MISSING")))
+                .andExpect(jsonPath("$.results[2].error", is("Product not found")))
+                .andExpect(jsonPath("$.results[3].error", containsString("Exactly one")))
+                .andExpect(jsonPath("$.results[5].error", containsString("already updated")))
+                .andExpect(jsonPath("$.results[6].error", containsString("price")));
+
+        mockMvc.perform(get("/api/products/" + saw).header(HttpHeaders.IF_NONE_MATCH, sawEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", is(24.5)))
+                .andExpect(jsonPath("$.stock", is(5)));
+        mockMvc.perform(get("/api/products/" + drill))
+                .andExpect(jsonPath("$.price", is(89.0)))
+                .andExpect(jsonPath("$.stock", is(0)));
+        mockMvc.perform(get("/api/products/" + nail))
+                .andExpect(jsonPath("$.price", is(0.75)))
+                .andExpect(jsonPath("$.stock", is(80)));
+    }
+
+    @Test
+    void bulkUpdate_feedsFacetsAndPriceIndex() throws Exception {
+        long saw = create("Saw", "BLK-SAW", "19.90", 5);
+        create("Drill", "BLK-DRILL", "89.00", 2);
+
+        bulk(List.of(Map.of("id", saw, "price", 120.00, "stock", 0)));
+
+        mockMvc.perform(get("/api/products/facets"))
+                .andExpect(jsonPath("$.inStock", is(1)))
+                .andExpect(jsonPath("$.priceBuckets[1].count", is(0)))
+                .andExpect(jsonPath("$.priceBuckets[4].count", is(1)));
+        mockMvc.perform(get("/api/products").param("minPrice", "100").param("sort", "price"))
+                .andExpect(jsonPath("$[*].id", contains((int) saw)));
+        assertEquals(0, productFacets.reconcile());
+    }
+
+    @Test
+    void bulkUpdate_setsShardedStockThroughTheShards() throws Exception {
+        long saw = create("Saw", "BLK-SAW", "19.90", 8);
+        mockMvc.perform(patch("/api/products/" + saw)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockShards\":4}"))
+                .andExpect(status().isOk());
+
+        bulk(List.of(Map.of("sku", "BLK-SAW", "stock", 21)));
+
+        mockMvc.perform(get("/api/products/" + saw))
+                .andExpect(jsonPath("$.stock", is(21)))
+                .andExpect(jsonPath("$.stockShards", is(4)));
+    }
+
+    @Test
+    void emptyRequest_isRejected() throws Exception {
+        mockMvc.perform(patch("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void bulk(List<Map<String, Object>> items) throws Exception {
+        mockMvc.perform(patch("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("items", items))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed", is(0)));
+    }
+
+    private long create(String name, String sku, String price, int stock) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal(price), stock, categoryId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductDtos.ProductResponse.class).id();
+    }
+}
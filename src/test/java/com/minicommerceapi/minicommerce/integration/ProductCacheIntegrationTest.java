@@ -0,0 +1,200 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductCache;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: cache invalidation is tied to commits, so every request commits on its own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@TestPropertySource(properties = "minicommerce.cache.products.enabled=true")
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long userId;
+    private Long categoryId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Cached Buyer");
+        user.setEmail("cached@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Cached");
+        category.setSlug("cached");
+        categoryId = categoryRepository.save(category).getId();
+
+        Product product = new Product();
+        product.setName("Hot Item");
+        product.setSku("SKU-CACHED");
+        product.setPrice(new BigDecimal("3.00"));
+        product.setStock(10);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; id'ler yeniden kullanildigi icin onbellek de bosaltilir.
+        productCache.invalidateAll();
+    }
+
+    @Test
+    void repeatedReads_areServedWithoutQueries() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products").param("categoryId", categoryId.toString())).andExpect(status().isOk());
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Hot Item")));
+        mockMvc.perform(get("/api/products").param("categoryId", categoryId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        assertEquals(0, SqlStatementCounter.selects());
+
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void conditionalGets_areAnsweredFromTheCache() throws Exception {
+        String productEtag = mockMvc.perform(get("/api/products/" + productId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String listEtag = mockMvc.perform(get("/api/products").param("categoryId", categoryId.toString()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, productEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products").param("categoryId", categoryId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, SqlStatementCounter.selects());
+
+        // Degisiklik onbellegi bosaltir; yeni dogrulayicilar tek bir okumayla gelir
+        mockMvc.perform(patch("/api/products/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Hotter Item\"}"))
+                .andExpect(status().isOk());
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, productEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(productEtag)));
+        assertEquals(1, SqlStatementCounter.selects());
+    }
+
+    @Test
+    void patch_isVisibleOnNextRead() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.name", is("Hot Item")));
+        mockMvc.perform(get("/api/products")).andExpect(jsonPath("$[0].name", is("Hot Item")));
+
+        mockMvc.perform(patch("/api/products/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Hotter Item\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.name", is("Hotter Item")));
+        mockMvc.perform(get("/api/products")).andExpect(jsonPath("$[0].name", is("Hotter Item")));
+    }
+
+    @Test
+    void orderCreation_invalidatesStock() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.stock", is(10)));
+
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(userId,
+                List.of(new OrderDtos.CreateOrderItem(productId, 3)));
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.stock", is(7)));
+    }
+
+    @Test
+    void categoryRename_isVisibleOnCachedProducts() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.categoryName", is("Cached")));
+
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryDtos.UpdateCategoryRequest("Renamed"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(jsonPath("$.categoryName", is("Renamed")));
+    }
+
+    @Test
+    void delete_isVisibleOnNextRead() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products")).andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(delete("/api/products/" + productId)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products")).andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductFacets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the facets follow committed writes only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductFacetsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductFacets productFacets;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long kitchenId;
+    private Long gardenId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        kitchenId = category("Kitchen", "kitchen");
+        gardenId = category("Garden", "garden");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; facet'ler tablolardan yeniden kurulur.
+        productFacets.reconcile();
+    }
+
+    @Test
+    void facets_followCreatePatchDeleteAndOrders() throws Exception {
+        long kettle = create("Kettle", "FCT-KETTLE", "35.00", 1, kitchenId);
+        create("Spoon", "FCT-SPOON", "2.50", 0, kitchenId);
+        long hose = create("Hose", "FCT-HOSE", "120.00", 4, gardenId);
+
+        mockMvc.perform(get("/api/products/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.inStock", is(2)))
+                .andExpect(jsonPath("$.categories[*].name", contains("Garden", "Kitchen")))
+                .andExpect(jsonPath("$.categories[1].count", is(2)))
+                .andExpect(jsonPath("$.categories[1].inStock", is(1)))
+                .andExpect(jsonPath("$.priceBuckets[0].count", is(1)))
+                .andExpect(jsonPath("$.priceBuckets[2].count", is(1)))
+                .andExpect(jsonPath("$.priceBuckets[4].count", is(1)))
+                .andExpect(jsonPath("$.priceBuckets[6].to", nullValue()));
+
+        // Son stok siparisle tukenir: Kitchen'da stokta urun kalmaz
+        order(kettle, 1);
+        mockMvc.perform(get("/api/products/facets").param("categoryId", kitchenId.toString()))
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.inStock", is(0)))
+                .andExpect(jsonPath("$.categories", hasSize(2)));
+
+        mockMvc.perform(patch("/api/products/" + hose)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\":9.00,\"categoryId\":" + kitchenId + "}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/products/" + kettle)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/facets"))
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.categories[*].name", contains("Kitchen")))
+                .andExpect(jsonPath("$.priceBuckets[0].count", is(2)));
+        assertEquals(0, productFacets.reconcile());
+    }
+
+    @Test
+    void reconcile_correctsWritesWithoutEvents() throws Exception {
+        create("Rake", "FCT-RAKE", "15.00", 2, gardenId);
+        jdbcTemplate.update("update products set stock = 0, price = 600 where sku = 'FCT-RAKE'");
+
+        mockMvc.perform(get("/api/products/facets").param("categoryId", gardenId.toString()))
+                .andExpect(jsonPath("$.inStock", is(1)));
+        assertEquals(1, productFacets.reconcile());
+        mockMvc.perform(get("/api/products/facets").param("categoryId", gardenId.toString()))
+                .andExpect(jsonPath("$.inStock", is(0)))
+                .andExpect(jsonPath("$.priceBuckets[6].count", is(1)));
+    }
+
+    private Long category(String name, String slug) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(slug);
+        return categoryRepository.save(category).getId();
+    }
+
+    private long create(String name, String sku, String price, int stock, Long categoryId) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal(price), stock, categoryId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductDtos.ProductResponse.class).id();
+    }
+
+    private void order(long productId, int quantity) throws Exception {
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserDtos.CreateUserRequest("Facet Buyer", "facets@example.com"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UserDtos.UserResponse user = objectMapper.readValue(body, UserDtos.UserResponse.class);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.CreateOrderRequest(user.id(),
+                                List.of(new OrderDtos.CreateOrderItem(productId, quantity))))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,152 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@TestPropertySource(properties = "minicommerce.products.import.chunk-size=2")
+@Transactional
+class ProductImportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+
+        category = new Category();
+        category.setName("Imports");
+        category.setSlug("imports");
+        category = categoryRepository.save(category);
+
+        // Servis uzerinden: SKU benzersizlik filtresine de girer
+        productService.create(new ProductDtos.CreateProductRequest("Existing", "SKU-IMP-EXISTING", new BigDecimal("1.00"), 1, category.getId()));
+    }
+
+    @Test
+    void csvImport_createsValidRows_andStreamsErrorsPerRow() throws Exception {
+        long c = category.getId();
+        // chunk-size=2: SKU-IMP-1 ikinci kez sonraki bir parcada gelir
+        List<JsonNode> lines = importBody("text/csv", """
+                name,sku,price,stock,categoryId
+                Pen,SKU-IMP-1,2.50,10,%d
+                Book,SKU-IMP-2,12.00,3,%d
+                Again,SKU-IMP-1,1.00,1,%d
+                Old,SKU-IMP-EXISTING,1.00,1,%d
+                Lost,SKU-IMP-3,1.00,1,999999
+                Free,SKU-IMP-4,0,1,%d
+                """.formatted(c, c, c, c, c));
+
+        assertEquals(5, lines.size());
+        assertError(lines.get(0), 4, "SKU-IMP-1", "SKU already exists");
+        assertError(lines.get(1), 5, "SKU-IMP-EXISTING", "SKU already exists");
+        assertError(lines.get(2), 6, "SKU-IMP-3", "Category not found");
+        assertEquals(7, lines.get(3).get("line").asLong());
+        assertTrue(lines.get(3).get("error").asText().startsWith("price: "));
+        assertEquals(2, lines.get(4).get("created").asLong());
+        assertEquals(4, lines.get(4).get("failed").asLong());
+
+        Product pen = productRepository.findAll().stream()
+                .filter(p -> p.getSku().equals("SKU-IMP-1"))
+                .findFirst().orElseThrow();
+        mockMvc.perform(get("/api/products/" + pen.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Pen")))
+                .andExpect(jsonPath("$.stock", is(10)))
+                .andExpect(jsonPath("$.categoryName", is("Imports")));
+        assertEquals(3, productRepository.count());
+    }
+
+    @Test
+    void ndjsonImport_createsProducts() throws Exception {
+        long c = category.getId();
+        List<JsonNode> lines = importBody("application/x-ndjson", """
+                {"name":"Lamp","sku":"SKU-IMP-L1","price":19.90,"stock":4,"categoryId":%d}
+                {"name":"Lamp","sku":
+                {"name":"Lamp 2","sku":"SKU-IMP-L2","price":21.00,"stock":0,"categoryId":%d}
+                """.formatted(c, c));
+
+        assertEquals(2, lines.size());
+        assertError(lines.get(0), 2, null, "Invalid JSON");
+        assertEquals(2, lines.get(1).get("created").asLong());
+        assertTrue(productRepository.existsBySku("SKU-IMP-L2"));
+    }
+
+    @Test
+    void csvWithoutHeader_isRejected() throws Exception {
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content("Pen,SKU-IMP-1,2.50,10,1\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> importBody(String contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/products/import")
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static void assertError(JsonNode line, long lineNumber, String sku, String error) {
+        assertEquals(lineNumber, line.get("line").asLong());
+        if (sku == null) {
+            assertTrue(line.get("sku").isNull());
+        } else {
+            assertEquals(sku, line.get("sku").asText());
+        }
+        assertEquals(error, line.get("error").asText());
+    }
+}
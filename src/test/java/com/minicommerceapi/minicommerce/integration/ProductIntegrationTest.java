@@ -226,7 +226,7 @@ class ProductIntegrationTest {
                 null,
                 new BigDecimal("35.00"),
                 null,
-                null
+                null, null
         );
 
         mockMvc.perform(patch("/api/products/" + product.id())
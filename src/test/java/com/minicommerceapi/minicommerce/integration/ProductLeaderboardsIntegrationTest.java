@@ -0,0 +1,195 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductRatingService;
+import com.minicommerceapi.minicommerce.service.leaderboard.ProductLeaderboards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the leaderboards follow committed writes only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductLeaderboardsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductLeaderboards leaderboards;
+    @Autowired
+    private ProductRatingService productRatingService;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long toolsId;
+    private Long booksId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Leaderboard User");
+        user.setEmail("leaderboard@example.com");
+        userId = userRepository.save(user).getId();
+        toolsId = category("Board Tools", "board-tools");
+        booksId = category("Board Books", "board-books");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; ozetler ve tablolar veritabanindan yeniden kurulur.
+        productRatingService.rebuild();
+        leaderboards.rebuild();
+    }
+
+    @Test
+    void topRated_followsReviews() throws Exception {
+        long saw = create("Saw", "BRD-SAW", toolsId);
+        long drill = create("Drill", "BRD-DRILL", toolsId);
+        long novel = create("Novel", "BRD-NOVEL", booksId);
+        review(saw, 5);
+        for (int i = 0; i < 5; i++) {
+            review(drill, 5);
+        }
+        long worst = review(novel, 1);
+
+        mockMvc.perform(get("/api/products/top-rated"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].product.id", contains((int) drill, (int) saw, (int) novel)))
+                .andExpect(jsonPath("$[*].rank", contains(1, 2, 3)))
+                .andExpect(jsonPath("$[0].reviews", is(5)))
+                // (3*10 + 25) / 15
+                .andExpect(jsonPath("$[0].score", is(3.67)));
+
+        mockMvc.perform(patch("/api/reviews/" + worst)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\":5}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/top-rated").param("categoryId", booksId.toString()))
+                .andExpect(jsonPath("$[*].product.id", contains((int) novel)))
+                .andExpect(jsonPath("$[0].score", is(3.18)));
+        mockMvc.perform(get("/api/products/top-rated").param("limit", "1"))
+                .andExpect(jsonPath("$[*].product.id", contains((int) drill)));
+    }
+
+    @Test
+    void bestSellers_followOrders_andMatchARebuild() throws Exception {
+        long saw = create("Saw", "BRD-SAW", toolsId);
+        long drill = create("Drill", "BRD-DRILL", toolsId);
+        long novel = create("Novel", "BRD-NOVEL", booksId);
+        order(List.of(new OrderDtos.CreateOrderItem(saw, 2), new OrderDtos.CreateOrderItem(novel, 1)));
+        order(List.of(new OrderDtos.CreateOrderItem(drill, 3), new OrderDtos.CreateOrderItem(saw, 2)));
+
+        expectBestSellers(saw, drill, novel);
+        mockMvc.perform(get("/api/products/best-sellers").param("categoryId", toolsId.toString()))
+                .andExpect(jsonPath("$[*].product.id", contains((int) saw, (int) drill)));
+
+        leaderboards.rebuild();
+        expectBestSellers(saw, drill, novel);
+    }
+
+    @Test
+    void deletedProduct_leavesTheBoards() throws Exception {
+        long saw = create("Saw", "BRD-SAW", toolsId);
+        review(saw, 4);
+        order(List.of(new OrderDtos.CreateOrderItem(saw, 1)));
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+
+        mockMvc.perform(delete("/api/products/" + saw)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/top-rated")).andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products/best-sellers")).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void limitOutOfRange_isBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/best-sellers").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void expectBestSellers(long first, long second, long third) throws Exception {
+        mockMvc.perform(get("/api/products/best-sellers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].product.id", contains((int) first, (int) second, (int) third)))
+                .andExpect(jsonPath("$[*].unitsSold", contains(4, 3, 1)))
+                .andExpect(jsonPath("$[0].score", is(4)));
+    }
+
+    private Long category(String name, String slug) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(slug);
+        return categoryRepository.save(category).getId();
+    }
+
+    private long create(String name, String sku, Long categoryId) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal("10.00"), 50, categoryId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductDtos.ProductResponse.class).id();
+    }
+
+    private long review(long productId, int rating) throws Exception {
+        String body = mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReviewDtos.CreateReviewRequest(userId, productId, rating, null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ReviewDtos.ReviewResponse.class).id();
+    }
+
+    private void order(List<OrderDtos.CreateOrderItem> items) throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new OrderDtos.CreateOrderRequest(userId, items))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,187 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ProductPaginationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Category books;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+
+        books = newCategory("Paged Books", "paged-books");
+        Category games = newCategory("Paged Games", "paged-games");
+
+        // Ayni fiyat ve ayni isim tekrarlanir: sayfa sinirinda esitlik id ile cozulmeli
+        String[] names = {"Delta", "alpha", "Bravo|Pipe", "Charlie", "Bravo|Pipe", "Echo", "Alpha", "Delta", "Foxtrot", "Golf", "Hotel"};
+        String[] prices = {"5.00", "12.50", "5.00", "7.25", "12.50", "5.00", "99.99", "7.25", "0.50", "12.50", "5"};
+        for (int i = 0; i < names.length; i++) {
+            products.add(newProduct(i % 3 == 0 ? games : books, names[i], "SKU-PAGED-" + i, prices[i]));
+            Thread.sleep(2);
+        }
+        productRepository.flush();
+    }
+
+    @Test
+    void walkingCursors_returnsEveryProductOnce_forEverySortAndDirection() throws Exception {
+        List<Comparator<Product>> orders = List.of(
+                Comparator.comparing(Product::getId),
+                Comparator.comparing(Product::getPrice).thenComparing(Product::getId),
+                Comparator.comparing(Product::getName).thenComparing(Product::getId),
+                Comparator.comparing((Product p) -> p.getCreatedAt().toEpochMilli()).thenComparing(Product::getId));
+        List<String> sorts = List.of("id", "price", "name", "createdAt");
+
+        for (int s = 0; s < sorts.size(); s++) {
+            List<Long> ascending = products.stream().sorted(orders.get(s)).map(Product::getId).toList();
+            assertEquals(ascending, walk(null, sorts.get(s), "asc", 3), sorts.get(s) + " asc");
+            List<Long> descending = new ArrayList<>(ascending);
+            Collections.reverse(descending);
+            assertEquals(descending, walk(null, sorts.get(s), "desc", 4), sorts.get(s) + " desc");
+        }
+    }
+
+    @Test
+    void categoryFilter_pagesWithinCategory() throws Exception {
+        List<Long> expected = products.stream()
+                .filter(p -> p.getCategory().getId().equals(books.getId()))
+                .sorted(Comparator.comparing(Product::getPrice).reversed().thenComparing(Product::getId, Comparator.reverseOrder()))
+                .map(Product::getId)
+                .toList();
+        assertEquals(7, expected.size());
+        assertEquals(expected, walk(books.getId(), "price", "desc", 2));
+    }
+
+    @Test
+    void everyPage_isOneSelect() {
+        SqlStatementCounter.reset();
+        ProductDtos.ProductPage first = productService.list(new ProductDtos.ProductPageRequest(null, "name", "asc", null, 4));
+        assertEquals(1, SqlStatementCounter.selects());
+
+        SqlStatementCounter.reset();
+        ProductDtos.ProductPage second = productService.list(new ProductDtos.ProductPageRequest(null, "name", "asc", first.nextCursor(), 4));
+        assertEquals(1, SqlStatementCounter.selects());
+        assertEquals(4, second.items().size());
+        // kategori adi ayni sorguda gelir
+        second.items().forEach(p -> assertNotNull(p.categoryName()));
+    }
+
+    @Test
+    void lastPage_hasNoCursorHeader() throws Exception {
+        mockMvc.perform(get("/api/products").param("limit", "11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(11)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void invalidParameters_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("sort", "stock"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("direction", "up"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("limit", "201"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+
+        // Fiyat siralamasinin cursor'i isim siralamasinda kullanilamaz
+        String priceCursor = mockMvc.perform(get("/api/products").param("sort", "price").param("limit", "2"))
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/api/products").param("sort", "name").param("cursor", priceCursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("sort", "price").param("direction", "desc").param("cursor", priceCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> walk(Long categoryId, String sort, String direction, int limit) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/products")
+                            .param("categoryId", categoryId == null ? null : categoryId.toString())
+                            .param("sort", sort)
+                            .param("direction", direction)
+                            .param("limit", String.valueOf(limit))
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(limit))))
+                    .andReturn();
+            for (JsonNode node : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(node.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private Category newCategory(String name, String slug) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(slug);
+        return categoryRepository.save(category);
+    }
+
+    private Product newProduct(Category category, String name, String sku, String price) {
+        Product p = new Product();
+        p.setName(name);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal(price));
+        p.setStock(1);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+}
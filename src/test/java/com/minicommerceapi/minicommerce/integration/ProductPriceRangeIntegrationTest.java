@@ -0,0 +1,161 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.service.price.ProductPriceIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the price index follows committed writes only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductPriceRangeIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductPriceIndex priceIndex;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long toolsId;
+    private Long gardenId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        toolsId = category("Range Tools", "range-tools");
+        gardenId = category("Range Garden", "range-garden");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; indeks tablodan yeniden kurulur.
+        priceIndex.rebuild();
+    }
+
+    @Test
+    void priceBand_pagesByPriceAndIdInBothDirections() throws Exception {
+        long nail = create("Nail", "RNG-NAIL", "0.50", toolsId);
+        long saw = create("Saw", "RNG-SAW", "19.90", toolsId);
+        long drill = create("Drill", "RNG-DRILL", "89.00", toolsId);
+        long hammer = create("Hammer", "RNG-HAMMER", "19.90", toolsId);
+        create("Rake", "RNG-RAKE", "25.00", gardenId);
+        create("Ladder", "RNG-LADDER", "250.00", toolsId);
+
+        String band = "&categoryId=" + toolsId + "&minPrice=10&maxPrice=100";
+        assertEquals(List.of(saw, hammer, drill), pages("sort=price&direction=asc" + band));
+        assertEquals(List.of(drill, hammer, saw), pages("sort=price&direction=desc" + band));
+        assertEquals(List.of(saw, drill, hammer), pages("sort=id&direction=asc" + band));
+        assertEquals(List.of(hammer, drill, saw), pages("sort=id&direction=desc" + band));
+        assertEquals(List.of(nail, saw, hammer), pages("sort=price&categoryId=" + toolsId + "&maxPrice=19.90"));
+    }
+
+    @Test
+    void priceBand_followsPatchAndDelete() throws Exception {
+        long saw = create("Saw", "RNG-SAW", "19.90", toolsId);
+        long rake = create("Rake", "RNG-RAKE", "25.00", gardenId);
+        String band = "sort=price&minPrice=20&maxPrice=30";
+        assertEquals(List.of(rake), pages(band));
+
+        mockMvc.perform(patch("/api/products/" + saw)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\":29.00}"))
+                .andExpect(status().isOk());
+        assertEquals(List.of(rake, saw), pages(band));
+
+        mockMvc.perform(delete("/api/products/" + rake)).andExpect(status().isNoContent());
+        assertEquals(List.of(saw), pages(band));
+    }
+
+    @Test
+    void priceBand_withOtherSortsFiltersInSql() throws Exception {
+        long saw = create("Saw", "RNG-SAW", "19.90", toolsId);
+        long axe = create("Axe", "RNG-AXE", "35.00", toolsId);
+        long chisel = create("Chisel", "RNG-CHISEL", "12.00", toolsId);
+        create("Ladder", "RNG-LADDER", "250.00", toolsId);
+
+        assertEquals(List.of(axe, chisel, saw), pages("sort=name&minPrice=12&maxPrice=35"));
+        assertEquals(List.of(axe), pages("sort=createdAt&direction=desc&minPrice=20&maxPrice=100"));
+    }
+
+    @Test
+    void invalidPriceBand_isRejected() throws Exception {
+        mockMvc.perform(get("/api/products").param("minPrice", "50").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("minPrice", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Tum sayfalari limit=2 ile imlecle dolasir.
+    private List<Long> pages(String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String body = mockMvc.perform(get("/api/products?limit=2&" + query).param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Long category(String name, String slug) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(slug);
+        return categoryRepository.save(category).getId();
+    }
+
+    private long create(String name, String sku, String price, Long categoryId) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal(price), 3, categoryId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductDtos.ProductResponse.class).id();
+    }
+}
@@ -0,0 +1,176 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductRatingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the rebuild runs in a transaction of its own and must see the committed reviews.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductRatingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductRatingService productRatingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long productId;
+    private Long otherProductId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Rating User");
+        user.setEmail("rating@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Rated");
+        category.setSlug("rated");
+        category = categoryRepository.save(category);
+        productId = product(category, "SKU-RATED-1");
+        otherProductId = product(category, "SKU-RATED-2");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        // Toplu silme ozetleri guncellemez; tablodan yeniden hesaplanir.
+        productRatingService.rebuild();
+    }
+
+    @Test
+    void rating_followsCreatePatchAndDelete() throws Exception {
+        mockMvc.perform(get("/api/products/" + productId + "/rating"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(0)))
+                .andExpect(jsonPath("$.average", nullValue()))
+                .andExpect(jsonPath("$.histogram", contains(0, 0, 0, 0, 0)));
+
+        long five = review(productId, 5);
+        review(productId, 4);
+        long two = review(productId, 2);
+        review(otherProductId, 1);
+
+        mockMvc.perform(get("/api/products/" + productId + "/rating"))
+                .andExpect(jsonPath("$.count", is(3)))
+                .andExpect(jsonPath("$.average", is(3.67)))
+                .andExpect(jsonPath("$.histogram", contains(0, 1, 0, 1, 1)));
+
+        mockMvc.perform(patch("/api/reviews/" + two)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\":3}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/reviews/" + five)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/" + productId + "/rating"))
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.average", is(3.5)))
+                .andExpect(jsonPath("$.histogram", contains(0, 0, 1, 1, 0)));
+        mockMvc.perform(get("/api/products/" + otherProductId + "/rating"))
+                .andExpect(jsonPath("$.count", is(1)))
+                .andExpect(jsonPath("$.histogram", contains(1, 0, 0, 0, 0)));
+    }
+
+    @Test
+    void rebuild_recomputesFromReviews() throws Exception {
+        review(productId, 5);
+        review(productId, 3);
+        review(otherProductId, 4);
+        jdbcTemplate.update("update reviews set rating = 1 where product_id = ?", productId);
+        jdbcTemplate.update("update product_ratings set review_count = 99 where product_id = ?", otherProductId);
+
+        assertEquals(2, productRatingService.rebuild());
+
+        mockMvc.perform(get("/api/products/" + productId + "/rating"))
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.average", is(1.0)))
+                .andExpect(jsonPath("$.histogram", contains(2, 0, 0, 0, 0)));
+        mockMvc.perform(get("/api/products/" + otherProductId + "/rating"))
+                .andExpect(jsonPath("$.count", is(1)));
+    }
+
+    @Test
+    void deletingTheProduct_dropsItsRating() throws Exception {
+        review(otherProductId, 4);
+
+        mockMvc.perform(delete("/api/products/" + otherProductId)).andExpect(status().isNoContent());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from product_ratings where product_id = ?", Integer.class, otherProductId));
+    }
+
+    @Test
+    void rating_ofUnknownProduct_isNotFound() throws Exception {
+        mockMvc.perform(get("/api/products/999999/rating"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long product(Category category, String sku) {
+        Product product = new Product();
+        product.setName("Rated " + sku);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setCategory(category);
+        return productRepository.save(product).getId();
+    }
+
+    private long review(Long productId, int rating) throws Exception {
+        String body = mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReviewDtos.CreateReviewRequest(userId, productId, rating, null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ReviewDtos.ReviewResponse.class).id();
+    }
+}
@@ -0,0 +1,141 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.search.ProductSearchIndex;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not @Transactional: the index follows committed writes only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class ProductSearchIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        Category category = new Category();
+        category.setName("Searchable");
+        category.setSlug("searchable");
+        categoryId = categoryRepository.save(category).getId();
+
+        create("Çay Bardağı Seti", "TEA-GLASS-6");
+        create("Espresso Cup", "CUP-ESP-1");
+        create("Espresso Machine Deluxe", "ESP-MACHINE");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        // Toplu silme olay yayinlamaz; indeks tablodan yeniden kurulur.
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_ranksMatches_andLoadsProductsInOneSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/search").param("q", "espresso"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].sku", is("CUP-ESP-1")))
+                .andExpect(jsonPath("$[0].categoryName", is("Searchable")))
+                .andExpect(jsonPath("$[1].sku", is("ESP-MACHINE")));
+        assertEquals(1, SqlStatementCounter.selects());
+
+        // SlugUtil ile ayni katlama: aksan ve buyuk/kucuk harf farki yok sayilir
+        mockMvc.perform(get("/api/products/search").param("q", "CAY seti"))
+                .andExpect(jsonPath("$[*].sku", contains("TEA-GLASS-6")));
+        mockMvc.perform(get("/api/products/search").param("q", "tea-glass"))
+                .andExpect(jsonPath("$[*].sku", contains("TEA-GLASS-6")));
+    }
+
+    @Test
+    void search_prefixAndFuzzyModes() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("q", "espresso mach").param("prefix", "true"))
+                .andExpect(jsonPath("$[*].sku", contains("ESP-MACHINE")));
+        mockMvc.perform(get("/api/products/search").param("q", "espreso"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products/search").param("q", "espreso").param("fuzzy", "true").param("limit", "1"))
+                .andExpect(jsonPath("$[*].sku", contains("CUP-ESP-1")));
+    }
+
+    @Test
+    void search_followsPatchAndDelete() throws Exception {
+        long machineId = productRepository.findAll().stream()
+                .filter(p -> p.getSku().equals("ESP-MACHINE")).findFirst().orElseThrow().getId();
+
+        mockMvc.perform(patch("/api/products/" + machineId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Moka Pot\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/search").param("q", "deluxe"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products/search").param("q", "moka"))
+                .andExpect(jsonPath("$[*].id", contains((int) machineId)));
+
+        mockMvc.perform(delete("/api/products/" + machineId)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/products/search").param("q", "moka"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertEquals(2, searchIndex.stats().products());
+    }
+
+    @Test
+    void search_rejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/products/search")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/search").param("q", "  ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/search").param("q", "cup").param("limit", "101")).andExpect(status().isBadRequest());
+    }
+
+    private void create(String name, String sku) throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductDtos.CreateProductRequest(name, sku, new BigDecimal("9.90"), 5, categoryId))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,202 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.Review;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ReviewService;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ReviewPaginationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Product product;
+    private final List<Review> reviews = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        reviewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+
+        User user = new User();
+        user.setName("Paged Reviewer");
+        user.setEmail("paged-reviewer@example.com");
+        user = userRepository.save(user);
+        Category category = new Category();
+        category.setName("Paged Reviews");
+        category.setSlug("paged-reviews");
+        category = categoryRepository.save(category);
+        product = newProduct(category, "SKU-PAGED-REVIEW-1");
+        Product other = newProduct(category, "SKU-PAGED-REVIEW-2");
+
+        // Ayni puan tekrarlanir: sayfa sinirinda esitlik id ile cozulmeli
+        int[] ratings = {5, 3, 5, 1, 4, 5, 3, 2, 5, 4, 1};
+        for (int rating : ratings) {
+            reviews.add(newReview(user, product, rating));
+            newReview(user, other, rating);
+            Thread.sleep(2);
+        }
+        reviewRepository.flush();
+    }
+
+    @Test
+    void walkingCursors_returnsEveryReviewOfTheProductOnce_forEverySortAndDirection() throws Exception {
+        Map<String, Comparator<Review>> orders = Map.of(
+                "createdAt", Comparator.comparing((Review r) -> r.getCreatedAt().toEpochMilli()).thenComparing(Review::getId),
+                "rating", Comparator.comparing(Review::getRating).thenComparing(Review::getId));
+
+        for (Map.Entry<String, Comparator<Review>> order : orders.entrySet()) {
+            List<Long> ascending = reviews.stream().sorted(order.getValue()).map(Review::getId).toList();
+            assertEquals(ascending, walk(order.getKey(), "asc", 3), order.getKey() + " asc");
+            List<Long> descending = new ArrayList<>(ascending);
+            Collections.reverse(descending);
+            assertEquals(descending, walk(order.getKey(), "desc", 4), order.getKey() + " desc");
+        }
+    }
+
+    @Test
+    void defaultSort_isNewestFirst() throws Exception {
+        mockMvc.perform(get("/api/reviews").param("productId", product.getId().toString()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(reviews.get(10).getId().intValue(), reviews.get(9).getId().intValue())))
+                .andExpect(jsonPath("$[0].productId", is(product.getId().intValue())))
+                .andExpect(header().exists(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void everyPage_isOneSelect_withoutLoadingUsersOrProducts() {
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        ReviewDtos.ReviewPage first = reviewService.list(new ReviewDtos.ReviewPageRequest(product.getId(), "rating", "desc", null, 4));
+        assertEquals(1, SqlStatementCounter.selects());
+
+        SqlStatementCounter.reset();
+        ReviewDtos.ReviewPage second = reviewService.list(new ReviewDtos.ReviewPageRequest(product.getId(), "rating", "desc", first.nextCursor(), 4));
+        assertEquals(1, SqlStatementCounter.selects());
+        assertEquals(4, second.items().size());
+        second.items().forEach(r -> assertNotNull(r.userId()));
+    }
+
+    @Test
+    void productPages_areRangeScansOnTheCompositeIndexes() {
+        assertTrue(plan("select id from reviews where product_id = ? and rating <= ? and (rating < ? or id < ?) "
+                + "order by rating desc, id desc limit 5").contains("idx_reviews_product_rating_id"));
+        assertTrue(plan("select id from reviews where product_id = ? and created_at <= ? and (created_at < ? or id < ?) "
+                + "order by created_at desc, id desc limit 5").contains("idx_reviews_product_created_id"));
+    }
+
+    @Test
+    void invalidParameters_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reviews").param("sort", "comment"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reviews").param("limit", "201"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reviews").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+
+        String ratingCursor = mockMvc.perform(get("/api/reviews").param("sort", "rating").param("limit", "2"))
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/api/reviews").param("sort", "createdAt").param("cursor", ratingCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForList("explain query plan " + sql, product.getId(), 5, 5, Long.MAX_VALUE).toString();
+    }
+
+    private List<Long> walk(String sort, String direction, int limit) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get("/api/reviews")
+                            .param("productId", product.getId().toString())
+                            .param("sort", sort)
+                            .param("direction", direction)
+                            .param("limit", String.valueOf(limit))
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(limit))))
+                    .andReturn();
+            for (JsonNode node : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(node.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private Product newProduct(Category category, String sku) {
+        Product p = new Product();
+        p.setName("Reviewed " + sku);
+        p.setSku(sku);
+        p.setPrice(new BigDecimal("10.00"));
+        p.setStock(1);
+        p.setCategory(category);
+        return productRepository.save(p);
+    }
+
+    private Review newReview(User user, Product product, int rating) {
+        Review r = new Review();
+        r.setUser(user);
+        r.setProduct(product);
+        r.setRating(rating);
+        return reviewRepository.save(r);
+    }
+}
@@ -0,0 +1,166 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.ProductRatingService;
+import com.minicommerceapi.minicommerce.service.leaderboard.ProductLeaderboards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Write-behind mode: POST /api/reviews answers 202 and the writer thread commits the review later.
+ * Not @Transactional; the writer commits in its own transactions.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@TestPropertySource(properties = {
+        "minicommerce.reviews.write-behind.enabled=true",
+        "minicommerce.reviews.write-behind.batch-size=50",
+        "minicommerce.reviews.write-behind.max-wait-ms=20"
+})
+class ReviewWriteBehindIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private ProductRatingService productRatingService;
+    @Autowired
+    private ProductLeaderboards leaderboards;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Queued Reviewer");
+        user.setEmail("queued-reviewer@example.com");
+        userId = userRepository.save(user).getId();
+        Category category = new Category();
+        category.setName("Queued Reviews");
+        category.setSlug("queued-reviews");
+        category = categoryRepository.save(category);
+        Product product = new Product();
+        product.setName("Queued Product");
+        product.setSku("SKU-QUEUED-REVIEW");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(1);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        productRatingService.rebuild();
+        leaderboards.rebuild();
+    }
+
+    @Test
+    void acceptedReviews_areWrittenInBatches_andCountedInTheRating() throws Exception {
+        List<String> provisionalIds = new ArrayList<>();
+        int[] ratings = {5, 4, 4, 3, 5, 1, 2, 5, 4, 3};
+        for (int rating : ratings) {
+            MvcResult result = mockMvc.perform(post("/api/reviews")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReviewDtos.CreateReviewRequest(userId, productId, rating, "r" + rating))))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", startsWith("/api/reviews/pending/")))
+                    .andExpect(jsonPath("$.provisionalId", notNullValue()))
+                    .andExpect(jsonPath("$.rating", is(rating)))
+                    .andReturn();
+            provisionalIds.add(objectMapper.readTree(result.getResponse().getContentAsString()).get("provisionalId").asText());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (String provisionalId : provisionalIds) {
+            JsonNode written = awaitWritten(provisionalId);
+            ids.add(written.get("id").asLong());
+        }
+        assertEquals(ratings.length, ids.stream().distinct().count());
+        mockMvc.perform(get("/api/reviews/" + ids.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rating", is(5)))
+                .andExpect(jsonPath("$.comment", is("r5")));
+
+        mockMvc.perform(get("/api/products/" + productId + "/rating"))
+                .andExpect(jsonPath("$.count", is(ratings.length)))
+                .andExpect(jsonPath("$.histogram", contains(1, 1, 2, 3, 3)));
+    }
+
+    @Test
+    void unknownProduct_isRejectedSynchronously() throws Exception {
+        mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReviewDtos.CreateReviewRequest(userId, productId + 1000, 5, null))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReviewDtos.CreateReviewRequest(userId, productId, 6, null))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reviews/pending/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitWritten(String provisionalId) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/reviews/pending/" + provisionalId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode pending = objectMapper.readTree(body);
+            if (!"QUEUED".equals(pending.get("status").asText()) || System.currentTimeMillis() > deadline) {
+                assertEquals("WRITTEN", pending.get("status").asText());
+                return pending;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.repo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class ShardedStockIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        User user = new User();
+        user.setName("Shard User");
+        user.setEmail("shard@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Shards");
+        category.setSlug("shards");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Hot SKU");
+        product.setSku("SKU-SHARD");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(10);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+    }
+
+    @Test
+    void shardedProduct_reportsSummedStock_andOrdersSpanShards() throws Exception {
+        patch(new ProductDtos.PatchProductRequest(null, null, null, null, null, 4))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(10))
+                .andExpect(jsonPath("$.stockShards").value(4));
+
+        // 10 -> 3,3,2,2: 9 adet hicbir shard'a tek basina sigmaz
+        order(9).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(1));
+
+        order(2).andExpect(status().isBadRequest());
+        order(1).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.stock").value(0));
+    }
+
+    @Test
+    void stockPatchAndDisable_keepTotal() throws Exception {
+        patch(new ProductDtos.PatchProductRequest(null, null, null, null, null, 8)).andExpect(status().isOk());
+        patch(new ProductDtos.PatchProductRequest(null, null, null, 20, null, null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(20));
+        order(5).andExpect(status().isCreated());
+
+        patch(new ProductDtos.PatchProductRequest(null, null, null, null, null, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(15))
+                .andExpect(jsonPath("$.stockShards").value(1));
+        assertEquals(0, shardRepository.findByProductIdOrderByShardNo(productId).size());
+        assertEquals(15, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    @Test
+    void patch_rejectsOutOfRangeShardCount() throws Exception {
+        patch(new ProductDtos.PatchProductRequest(null, null, null, null, null, 65)).andExpect(status().isBadRequest());
+    }
+
+    private ResultActions patch(ProductDtos.PatchProductRequest req) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.patch("/api/products/" + productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)));
+    }
+
+    private ResultActions order(int quantity) throws Exception {
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(userId, List.of(new OrderDtos.CreateOrderItem(productId, quantity)));
+        return mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The default (balanced) profile is in effect on every pooled connection, not only the first one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+class SqlitePragmaIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void balancedProfile_isAppliedToEachPooledConnection() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            for (Connection connection : new Connection[]{first, second}) {
+                assertEquals("wal", pragma(connection, "journal_mode"));
+                assertEquals("1", pragma(connection, "synchronous")); // NORMAL
+                assertEquals("-64000", pragma(connection, "cache_size"));
+                assertEquals("2", pragma(connection, "temp_store")); // MEMORY
+                assertEquals("5000", pragma(connection, "busy_timeout"));
+                assertEquals("1000", pragma(connection, "wal_autocheckpoint"));
+            }
+        }
+    }
+
+    private static String pragma(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery("pragma " + name)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
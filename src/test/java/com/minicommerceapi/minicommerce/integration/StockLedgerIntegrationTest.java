@@ -0,0 +1,192 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.exception.ConflictException;
+import com.minicommerceapi.minicommerce.repo.*;
+import com.minicommerceapi.minicommerce.service.OrderService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flash-sale mode: orders reserve stock from the in-memory ledger and the flusher writes it back.
+ * Not @Transactional; orders commit on their own and the ledger reacts to commit/rollback.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@TestPropertySource(properties = {
+        "minicommerce.stock.ledger.enabled=true",
+        "minicommerce.stock.ledger.journal-dir=./build/stock-ledger-test",
+        "minicommerce.stock.ledger.flush-interval-ms=50"
+})
+class StockLedgerIntegrationTest {
+
+    private static final int INITIAL_STOCK = 40;
+    private static final int THREADS = 12;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private StockLedger stockLedger;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Long userId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        User user = new User();
+        user.setName("Ledger User");
+        user.setEmail("ledger@example.com");
+        userId = userRepository.save(user).getId();
+
+        Category category = new Category();
+        category.setName("Ledger");
+        category.setSlug("ledger");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Flash SKU");
+        product.setSku("SKU-FLASH");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(INITIAL_STOCK);
+        product.setCategory(category);
+        productId = productRepository.save(product).getId();
+        // Urun servis disindan silinip eklendi; SQLite id'yi tekrar kullanabilir, defterdeki eski degeri at.
+        stockLedger.forget(productId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        stockLedger.flush();
+        reviewRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentOrders_neverOversell_andFlushReachesDatabase() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        int quantity = (i % 2) + 1;
+                        try {
+                            orderService.create(new OrderDtos.CreateOrderRequest(userId,
+                                    List.of(new OrderDtos.CreateOrderItem(productId, quantity))));
+                            sold.addAndGet(quantity);
+                            placed.incrementAndGet();
+                        } catch (BadRequestException | ConflictException e) {
+                            // ConflictException: retry'lar tukendi, siparis rollback oldu ve ayrilan stok deftere dondu
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        assertTrue(unexpected.isEmpty(), "unexpected failures: " + unexpected);
+        assertTrue(rejected.get() > 0, "demand exceeds stock, so some orders must be rejected");
+        assertEquals(INITIAL_STOCK - sold.get(), stockLedger.currentStock(productId, -1));
+        assertEquals(placed.get(), orderRepository.count());
+
+        stockLedger.flush();
+        int persisted = productRepository.findById(productId).orElseThrow().getStock();
+        assertEquals(INITIAL_STOCK - sold.get(), persisted, "flush must write exactly the committed reservations");
+    }
+
+    @Test
+    void forget_takesEffectOnlyWhenTheDeleteCommits() {
+        stockLedger.reserve(Map.of(productId, 5));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Silme geri alinirsa satilmis stok yeniden acilmamali
+        tx.executeWithoutResult(status -> {
+            stockLedger.forget(productId);
+            assertEquals(INITIAL_STOCK - 5, stockLedger.currentStock(productId, -1));
+            status.setRollbackOnly();
+        });
+        assertEquals(INITIAL_STOCK - 5, stockLedger.currentStock(productId, -1));
+
+        tx.executeWithoutResult(status -> stockLedger.forget(productId));
+        assertEquals(-1, stockLedger.currentStock(productId, -1));
+    }
+
+    @Test
+    void unflushedReservations_areRecoveredFromJournalOnRestart(@TempDir Path journalDir) {
+        StockLedger crashed = new StockLedger(true, 4, journalDir.toString(), true, jdbcTemplate, transactionManager);
+        crashed.afterSingletonsInstantiated();
+        crashed.reserve(Map.of(productId, 3));
+        crashed.reserve(Map.of(productId, 4));
+        // flush yok: surec burada coktu kabul edilir
+        assertEquals(INITIAL_STOCK, productRepository.findById(productId).orElseThrow().getStock());
+
+        StockLedger restarted = new StockLedger(true, 4, journalDir.toString(), true, jdbcTemplate, transactionManager);
+        restarted.afterSingletonsInstantiated();
+
+        assertEquals(INITIAL_STOCK - 7, productRepository.findById(productId).orElseThrow().getStock());
+        assertEquals(INITIAL_STOCK - 7, restarted.currentStock(productId, -1));
+        restarted.shutdown();
+    }
+}
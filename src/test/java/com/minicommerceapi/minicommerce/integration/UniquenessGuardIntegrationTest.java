@@ -0,0 +1,113 @@
+package com.minicommerceapi.minicommerce.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.CategoryDtos;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.dto.UserDtos;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.OrderRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.UniquenessGuard;
+import com.minicommerceapi.minicommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(IntegrationTestConfig.class)
+@Transactional
+class UniquenessGuardIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private UniquenessGuard uniqueness;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+
+        Category category = new Category();
+        category.setName("Guarded");
+        category.setSlug("guarded");
+        categoryId = categoryRepository.save(category).getId();
+    }
+
+    @Test
+    void newSku_isCreatedWithoutExistenceQuery_duplicateIsStillRejected() throws Exception {
+        SqlStatementCounter.reset();
+        postProduct("SKU-GUARD-1", status().isCreated());
+        // Kategori zaten persistence context'te; existsBySku sorgusu da atlanir
+        assertEquals(0, SqlStatementCounter.selects());
+
+        postProduct("SKU-GUARD-1", status().isConflict());
+    }
+
+    @Test
+    void duplicateEmailAndCategory_areRejected() throws Exception {
+        userRepository.deleteAll();
+        postJson("/api/users", new UserDtos.CreateUserRequest("Ada", "ada@example.com"), status().isCreated());
+        postJson("/api/users", new UserDtos.CreateUserRequest("Ada 2", "ADA@example.com"), status().isConflict());
+
+        postJson("/api/categories", new CategoryDtos.CreateCategoryRequest("Ev & Bahçe"), status().isCreated());
+        postJson("/api/categories", new CategoryDtos.CreateCategoryRequest("ev bahce"), status().isConflict());
+    }
+
+    @Test
+    void rowsWrittenBehindTheGuard_areSeenAfterRebuild() throws Exception {
+        Category hidden = new Category();
+        hidden.setName("Hidden");
+        hidden.setSlug("hidden");
+        categoryRepository.saveAndFlush(hidden);
+
+        // Servis disinda yazilan satir: rebuild'e kadar filtre bilmez, unique constraint korur
+        uniqueness.rebuild();
+        SqlStatementCounter.reset();
+        postJson("/api/categories", new CategoryDtos.CreateCategoryRequest("Hidden"), status().isConflict());
+        assertEquals(1, SqlStatementCounter.selects());
+    }
+
+    private void postProduct(String sku, ResultMatcher expected) throws Exception {
+        postJson("/api/products", new ProductDtos.CreateProductRequest("Guarded product", sku, new BigDecimal("5.00"), 1, categoryId), expected);
+    }
+
+    private void postJson(String path, Object body, ResultMatcher expected) throws Exception {
+        mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(expected);
+    }
+}
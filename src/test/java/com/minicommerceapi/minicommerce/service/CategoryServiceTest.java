@@ -12,9 +12,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,12 +27,18 @@ class CategoryServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ApplicationEventPublisher events;
+    @Mock
+    private UniquenessGuard uniqueness;
     @InjectMocks
     private CategoryService categoryService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Filtre her zaman "belki var" der: kontrol depoya duser.
+        when(uniqueness.exists(any(), anyString(), any())).thenAnswer(inv -> inv.<BooleanSupplier>getArgument(2).getAsBoolean());
     }
 
     @Test
@@ -46,6 +54,15 @@ class CategoryServiceTest {
         assertEquals(saved.getId(), resp.id());
         assertEquals(saved.getName(), resp.name());
         assertEquals(saved.getSlug(), resp.slug());
+        verify(uniqueness).add(UniquenessGuard.Key.CATEGORY_SLUG, "test-category");
+    }
+
+    @Test
+    void create_shouldThrowConflict_whenSlugTaken() {
+        // "Ev & Bahce" ile "ev bahce" ayni slug'a duser; unique constraint yerine 409 donmeli
+        when(categoryRepository.existsBySlug(SlugUtil.slugify("Ev & Bahçe"))).thenReturn(true);
+        assertThrows(ConflictException.class, () -> categoryService.create(new CategoryDtos.CreateCategoryRequest("ev bahce")));
+        verify(categoryRepository, never()).save(any());
     }
 
     @Test
@@ -90,6 +107,21 @@ class CategoryServiceTest {
         assertEquals(SlugUtil.slugify("New"), resp.slug());
     }
 
+    @Test
+    void update_shouldThrowConflict_whenSlugTakenByAnotherCategory() {
+        Category c = new Category();
+        c.setId(3L);
+        c.setName("Old");
+        c.setSlug("old");
+        when(categoryRepository.findById(3L)).thenReturn(Optional.of(c));
+        when(categoryRepository.existsBySlug("taken")).thenReturn(true);
+        assertThrows(ConflictException.class, () -> categoryService.update(3L, new CategoryDtos.UpdateCategoryRequest("Taken")));
+
+        // Sadece buyuk/kucuk harf degisirse slug ayni kalir, kontrol edilmez
+        categoryService.update(3L, new CategoryDtos.UpdateCategoryRequest("OLD"));
+        verify(categoryRepository, never()).existsBySlug("old");
+    }
+
     @Test
     void update_shouldThrowNotFound_whenNotExists() {
         when(categoryRepository.findById(100L)).thenReturn(Optional.empty());
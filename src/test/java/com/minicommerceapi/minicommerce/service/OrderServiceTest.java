@@ -2,19 +2,28 @@ package com.minicommerceapi.minicommerce.service;
 
 import com.minicommerceapi.minicommerce.domain.*;
 import com.minicommerceapi.minicommerce.dto.OrderDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
 import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
+import com.minicommerceapi.minicommerce.repo.IdempotencyKeyRepository;
 import com.minicommerceapi.minicommerce.repo.OrderRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.service.stock.ShardedStockService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.jpa.domain.Specification;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +37,16 @@ class OrderServiceTest {
     private UserRepository userRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private StockLedger stockLedger;
+    @Mock
+    private ShardedStockService shardedStock;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private ApplicationEventPublisher events;
     @InjectMocks
     private OrderService orderService;
 
@@ -41,7 +60,7 @@ class OrderServiceTest {
     void create_shouldCreateOrderSuccessfully() {
         User user = new User();
         user.setId(1L);
-        Product product = new Product();
+        Product product = newProduct();
         product.setId(2L);
         product.setName("Test Product");
         product.setStock(10);
@@ -50,7 +69,8 @@ class OrderServiceTest {
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.decrementStock(product.getId(), 2)).thenReturn(1);
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order o = invocation.getArgument(0);
             o.setId(123L);
@@ -63,7 +83,205 @@ class OrderServiceTest {
         assertEquals(BigDecimal.valueOf(200), response.total());
         assertEquals(1, response.items().size());
         assertEquals(product.getId(), response.items().get(0).productId());
-        assertEquals(8, product.getStock());
+        verify(productRepository).decrementStock(product.getId(), 2);
+        verify(events).publishEvent(new CatalogEvents.ProductsOrdered(123L, Map.of(2L, 2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createChunk_shouldRollBackFailedOrderToItsSavepoint_andBatchInsertTheRest() {
+        User user = new User();
+        user.setId(1L);
+        Product product = newProduct();
+        product.setId(2L);
+        product.setName("Pen");
+        product.setPrice(BigDecimal.valueOf(3));
+        List<OrderDtos.CreateOrderRequest> chunk = List.of(
+                new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 1))),
+                new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 5))),
+                new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 2))));
+
+        when(productRepository.decrementStock(2L, 1)).thenReturn(1);
+        when(productRepository.decrementStock(2L, 5)).thenReturn(0);
+        when(productRepository.decrementStock(2L, 2)).thenReturn(1);
+        when(productRepository.findStockShardsById(2L)).thenReturn(Optional.of(1));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
+
+        List<OrderDtos.BatchOrderResult> results = orderService.createChunk(chunk, 10);
+
+        assertEquals(List.of(10, 11, 12), results.stream().map(OrderDtos.BatchOrderResult::index).toList());
+        assertTrue(results.get(0).created());
+        assertFalse(results.get(1).created());
+        assertEquals("Insufficient stock for product 2", results.get(1).error());
+        assertEquals(BigDecimal.valueOf(6), results.get(2).order().total());
+        verify(jdbcTemplate, times(1)).execute("rollback to savepoint batch_order");
+        // kullanicilar parca basina bir kez yuklenir
+        verify(userRepository, times(1)).findAllById(any());
+        verify(orderRepository).insertAll(argThat(orders -> orders.size() == 2));
+        verify(orderRepository, never()).save(any(Order.class));
+        // yalnizca eklenen siparisler icin satis olayi
+        verify(events, times(2)).publishEvent(any(CatalogEvents.ProductsOrdered.class));
+    }
+
+    @Test
+    void createChunk_shouldCheckUserBeforeReservingFromLedger() {
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+
+        List<OrderDtos.BatchOrderResult> results = orderService.createChunk(List.of(
+                new OrderDtos.CreateOrderRequest(9L, List.of(new OrderDtos.CreateOrderItem(2L, 1)))), 0);
+
+        assertEquals("User not found", results.get(0).error());
+        verify(stockLedger, never()).reserve(any());
+        verify(orderRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void create_withIdempotencyKey_shouldRecordKeyForCreatedOrder() {
+        User user = new User();
+        user.setId(1L);
+        Product product = newProduct();
+        product.setId(2L);
+        product.setName("Test Product");
+        product.setPrice(BigDecimal.valueOf(10));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 1)));
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        when(productRepository.decrementStock(2L, 1)).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order o = invocation.getArgument(0);
+            o.setId(77L);
+            return o;
+        });
+
+        assertEquals(77L, orderService.create(req, "key-1", "hash-1", expiresAt).id());
+
+        InOrder inOrder = inOrder(idempotencyKeyRepository);
+        inOrder.verify(idempotencyKeyRepository).deleteExpiredKey(eq("key-1"), any(Instant.class));
+        inOrder.verify(idempotencyKeyRepository).saveAndFlush(argThat(k -> k.getIdempotencyKey().equals("key-1")
+                && k.getRequestHash().equals("hash-1") && k.getOrderId() == 77L && k.getExpiresAt().equals(expiresAt)));
+    }
+
+    @Test
+    void create_shouldDecrementShards_whenProductStockIsSharded() {
+        User user = new User();
+        user.setId(1L);
+        Product product = newProduct();
+        product.setId(2L);
+        product.setName("Hot");
+        product.setPrice(BigDecimal.valueOf(5));
+        product.setStockShards(4);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(new OrderDtos.CreateOrderItem(2L, 3)));
+
+        when(shardedStock.shards(2L)).thenReturn(4);
+        when(shardedStock.decrement(2L, 4, 3)).thenReturn(true);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDtos.OrderResponse response = orderService.create(req);
+        assertEquals(BigDecimal.valueOf(15), response.total());
+        verify(shardedStock).decrement(2L, 4, 3);
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+        verify(productRepository, never()).findStockShardsById(any());
+    }
+
+    @Test
+    void create_shouldFallBackToStoredShardCount_whenKnownCountIsStale() {
+        User user = new User();
+        user.setId(1L);
+        Product product = newProduct();
+        product.setId(2L);
+        product.setName("Hot");
+        product.setPrice(BigDecimal.valueOf(5));
+        product.setStockShards(4);
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(new OrderDtos.CreateOrderItem(2L, 3)));
+
+        when(shardedStock.shards(2L)).thenReturn(1);
+        when(productRepository.decrementStock(2L, 3)).thenReturn(0);
+        when(productRepository.findStockShardsById(2L)).thenReturn(Optional.of(4));
+        when(shardedStock.decrement(2L, 4, 3)).thenReturn(true);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(BigDecimal.valueOf(15), orderService.create(req).total());
+        verify(shardedStock).decrement(2L, 4, 3);
+    }
+
+    @Test
+    void create_shouldReserveFromLedger_whenLedgerEnabled() {
+        User user = new User();
+        user.setId(1L);
+        Product product = newProduct();
+        product.setId(2L);
+        product.setName("Test Product");
+        product.setPrice(BigDecimal.valueOf(100));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(
+                new OrderDtos.CreateOrderItem(2L, 1),
+                new OrderDtos.CreateOrderItem(2L, 2)));
+
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDtos.OrderResponse response = orderService.create(req);
+        assertEquals(BigDecimal.valueOf(300), response.total());
+        verify(stockLedger).reserve(Map.of(2L, 3));
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void create_shouldNotSaveOrder_whenLedgerRejectsReservation() {
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(new OrderDtos.CreateOrderItem(2L, 5)));
+        when(stockLedger.isEnabled()).thenReturn(true);
+        doThrow(new BadRequestException("Insufficient stock for product 2")).when(stockLedger).reserve(anyMap());
+
+        assertThrows(BadRequestException.class, () -> orderService.create(req));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void create_shouldMergeDuplicateProductLinesAndLoadProductsOnce() {
+        User user = new User();
+        user.setId(1L);
+        Product first = newProduct();
+        first.setId(5L);
+        first.setName("First");
+        first.setStock(10);
+        first.setPrice(BigDecimal.valueOf(10));
+        Product second = newProduct();
+        second.setId(3L);
+        second.setName("Second");
+        second.setStock(10);
+        second.setPrice(BigDecimal.valueOf(1));
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(
+                new OrderDtos.CreateOrderItem(5L, 2),
+                new OrderDtos.CreateOrderItem(3L, 1),
+                new OrderDtos.CreateOrderItem(5L, 3)));
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(second, first));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderDtos.OrderResponse response = orderService.create(req);
+
+        assertEquals(2, response.items().size());
+        assertEquals(5L, response.items().get(0).productId());
+        assertEquals(5, response.items().get(0).quantity());
+        assertEquals(3L, response.items().get(1).productId());
+        assertEquals(BigDecimal.valueOf(51), response.total());
+        // Dusumler id sirasiyla ve birlestirilmis miktarlarla yapilir.
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementStock(3L, 1);
+        inOrder.verify(productRepository).decrementStock(5L, 5);
+        verify(productRepository, times(1)).findAllByIdInOrderById(argThat(ids -> ids.size() == 2));
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -78,7 +296,7 @@ class OrderServiceTest {
         User user = new User();
         user.setId(1L);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of());
         OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(2L, 1);
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
         assertThrows(NotFoundException.class, () -> orderService.create(req));
@@ -88,11 +306,11 @@ class OrderServiceTest {
     void create_shouldThrowIfQuantityInvalid() {
         User user = new User();
         user.setId(1L);
-        Product product = new Product();
+        Product product = newProduct();
         product.setId(2L);
         product.setStock(10);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllByIdInOrderById(anyCollection())).thenReturn(List.of(product));
         // Test with negative and zero quantity, but avoid record validation error by catching exception
         assertThrows(BadRequestException.class, () -> {
             OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(product.getId(), 1); // valid for record
@@ -102,21 +320,37 @@ class OrderServiceTest {
         });
     }
 
+    @Test
+    void create_shouldRejectLinesWhoseMergedQuantityOverflows() {
+        OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(1L, List.of(
+                new OrderDtos.CreateOrderItem(2L, Integer.MAX_VALUE), new OrderDtos.CreateOrderItem(2L, 2)));
+
+        assertThrows(BadRequestException.class, () -> orderService.create(req));
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+
+        List<OrderDtos.BatchOrderResult> results = orderService.createChunk(List.of(req), 0);
+        assertEquals("Quantity too large for product 2", results.get(0).error());
+        verify(productRepository, never()).decrementStock(anyLong(), anyInt());
+    }
+
     @Test
     void create_shouldThrowIfInsufficientStock() {
         User user = new User();
         user.setId(1L);
-        Product product = new Product();
+        Product product = newProduct();
         product.setId(2L);
         product.setStock(1);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.decrementStock(product.getId(), 2)).thenReturn(0);
+        when(productRepository.findStockShardsById(product.getId())).thenReturn(Optional.of(1));
         OrderDtos.CreateOrderItem item = new OrderDtos.CreateOrderItem(product.getId(), 2);
         OrderDtos.CreateOrderRequest req = new OrderDtos.CreateOrderRequest(user.getId(), List.of(item));
         assertThrows(BadRequestException.class, () -> orderService.create(req));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void list_shouldReturnOrderResponses() {
         Order order = new Order();
         order.setId(1L);
@@ -126,7 +360,7 @@ class OrderServiceTest {
         order.setStatus(OrderStatus.CREATED);
         order.setTotal(BigDecimal.valueOf(100));
         OrderItem item = new OrderItem();
-        Product product = new Product();
+        Product product = newProduct();
         product.setId(3L);
         product.setName("P");
         item.setProduct(product);
@@ -134,10 +368,24 @@ class OrderServiceTest {
         item.setUnitPrice(BigDecimal.valueOf(100));
         item.setLineTotal(BigDecimal.valueOf(100));
         order.addItem(item);
-        when(orderRepository.findAll()).thenReturn(List.of(order));
-        List<OrderDtos.OrderResponse> responses = orderService.list();
-        assertEquals(1, responses.size());
-        assertEquals(order.getId(), responses.get(0).id());
+        when(orderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(order));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+        OrderDtos.OrderPage page = orderService.list(new OrderDtos.OrderFilter(null, null, null, null, null), null, 10);
+        assertEquals(1, page.items().size());
+        assertEquals(order.getId(), page.items().get(0).id());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_shouldRejectInvalidLimitStatusAndCursor() {
+        OrderDtos.OrderFilter none = new OrderDtos.OrderFilter(null, null, null, null, null);
+        assertThrows(BadRequestException.class, () -> orderService.list(none, null, 0));
+        assertThrows(BadRequestException.class, () -> orderService.list(none, null, OrderService.MAX_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> orderService.list(none, "not-a-cursor", 10));
+        assertThrows(BadRequestException.class,
+                () -> orderService.list(new OrderDtos.OrderFilter(null, "SHIPPED", null, null, null), null, 10));
+        verify(orderRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -149,14 +397,14 @@ class OrderServiceTest {
         order.setUser(user);
         order.setStatus(OrderStatus.CREATED);
         order.setTotal(BigDecimal.valueOf(100));
-        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
         OrderDtos.OrderResponse response = orderService.get(order.getId());
         assertEquals(order.getId(), response.id());
     }
 
     @Test
     void get_shouldThrowIfOrderNotFound() {
-        when(orderRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(anyLong())).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> orderService.get(1L));
     }
 
@@ -224,4 +472,12 @@ class OrderServiceTest {
         when(orderRepository.existsById(1L)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> orderService.delete(1L));
     }
-}
\ No newline at end of file
+
+    private static Product newProduct() {
+        Category category = new Category();
+        category.setId(1L);
+        Product product = new Product();
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,172 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.util.EntityTag;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = newCache(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loadsOnce_andRecordsHitsAndMisses() {
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+
+        assertEquals(1, loads.get());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void productChanged_evictsProduct_andAffectedLists() {
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.list(firstPage(10L), () -> tagged(page(load(1L, 10L))));
+        cache.list(firstPage(20L), () -> tagged(page(load(2L, 20L))));
+        cache.list(firstPage(null), () -> tagged(page(load(1L, 10L), load(2L, 20L))));
+        loads.set(0);
+
+        cache.onProductChanged(new CatalogEvents.ProductChanged(1L, Set.of(10L), null));
+
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.list(firstPage(10L), () -> tagged(page(load(1L, 10L))));
+        cache.list(firstPage(null), () -> tagged(page(load(1L, 10L))));
+        assertEquals(3, loads.get());
+        // baska kategorinin listesi yerinde kalir
+        cache.list(firstPage(20L), () -> tagged(page(load(2L, 20L))));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void categoryChanged_evictsProductsOfThatCategory() {
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.get(2L, () -> tagged(load(2L, 20L)));
+        loads.set(0);
+
+        cache.onCategoryChanged(new CatalogEvents.CategoryChanged(10L));
+
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        cache.get(2L, () -> tagged(load(2L, 20L)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void eviction_isRepeatedAfterTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onStockChanged(new CatalogEvents.StockChanged(Set.of(1L), Set.of(10L)));
+
+        // commit oncesinde eski satiri okuyan bir yukleme tekrar doldurur
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        cache.get(1L, () -> tagged(load(1L, 10L)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRunningDuringEviction_isNotKept() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Commit oncesi eski sayfayi okuyan liste yuklemesi; anahtar henuz onbellekte yok
+            Future<EntityTag.Tagged<ProductDtos.ProductPage>> stale = executor.submit(() ->
+                    cache.list(firstPage(null), () -> {
+                        ProductDtos.ProductPage page = page(load(1L, 10L));
+                        reading.countDown();
+                        await(evicted);
+                        return tagged(page);
+                    }));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            cache.onProductChanged(new CatalogEvents.ProductChanged(1L, Set.of(10L), null));
+            evicted.countDown();
+            assertNotNull(stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cache.list(firstPage(null), () -> tagged(page(load(1L, 10L))));
+        assertEquals(2, loads.get());
+        cache.list(firstPage(null), () -> tagged(page(load(1L, 10L))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void disabledCache_alwaysLoads() {
+        ProductCache disabled = newCache(false);
+        disabled.get(1L, () -> tagged(load(1L, 10L)));
+        disabled.get(1L, () -> tagged(load(1L, 10L)));
+        disabled.list(firstPage(null), () -> tagged(page(load(1L, 10L))));
+        disabled.list(firstPage(null), () -> tagged(page(load(1L, 10L))));
+        assertEquals(4, loads.get());
+    }
+
+    private ProductCache newCache(boolean enabled) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        return new ProductCache(enabled, 100, 1000, 600, beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    private static ProductDtos.ProductPageRequest firstPage(Long categoryId) {
+        return new ProductDtos.ProductPageRequest(categoryId, "id", "asc", null, 50);
+    }
+
+    private static ProductDtos.ProductPage page(ProductDtos.ProductResponse... items) {
+        return new ProductDtos.ProductPage(List.of(items), null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> EntityTag.Tagged<T> tagged(T body) {
+        return new EntityTag.Tagged<>(body, EntityTag.of("test"));
+    }
+
+    private ProductDtos.ProductResponse load(Long id, Long categoryId) {
+        loads.incrementAndGet();
+        return new ProductDtos.ProductResponse(id, "P" + id, "SKU-" + id, BigDecimal.ONE, 5, categoryId, "C" + categoryId, 1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Category;
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetsTest {
+
+    private ProductService productService;
+    private CategoryRepository categoryRepository;
+    private ProductFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        categoryRepository = mock(CategoryRepository.class);
+        facets = new ProductFacets(mock(JdbcTemplate.class), productService, categoryRepository, mock(StockLedger.class),
+                new BigDecimal[]{new BigDecimal("50"), new BigDecimal("10")});
+    }
+
+    @Test
+    void bucket_boundaryPriceFallsIntoTheUpperBucket() {
+        assertEquals(0, facets.bucket(new BigDecimal("9.99")));
+        assertEquals(1, facets.bucket(new BigDecimal("10.00")));
+        assertEquals(1, facets.bucket(new BigDecimal("49.99")));
+        assertEquals(2, facets.bucket(new BigDecimal("50")));
+        assertEquals(2, facets.bucket(new BigDecimal("1000")));
+    }
+
+    @Test
+    void invalidBuckets_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductFacets(null, null, null, null,
+                new BigDecimal[]{BigDecimal.TEN, new BigDecimal("10.00")}));
+        assertThrows(IllegalArgumentException.class, () -> new ProductFacets(null, null, null, null,
+                new BigDecimal[]{BigDecimal.ZERO}));
+    }
+
+    @Test
+    void productEvents_moveCountsBetweenCategoriesAndBuckets() {
+        facets.onProductChanged(changed(product(1L, "5.00", 3, 10L, "Books")));
+        facets.onProductsCreated(new CatalogEvents.ProductsCreated(
+                List.of(product(2L, "20.00", 0, 10L, "Books"), product(3L, "75.00", 1, 20L, "Audio")), Set.of(10L, 20L)));
+
+        ProductDtos.FacetsResponse all = facets.facets(null);
+        assertEquals(3, all.total());
+        assertEquals(2, all.inStock());
+        assertEquals(List.of(new ProductDtos.CategoryFacet(20L, "Audio", 1, 1), new ProductDtos.CategoryFacet(10L, "Books", 2, 1)),
+                all.categories());
+        assertEquals(List.of(
+                new ProductDtos.PriceBucketFacet(BigDecimal.ZERO, new BigDecimal("10"), 1),
+                new ProductDtos.PriceBucketFacet(new BigDecimal("10"), new BigDecimal("50"), 1),
+                new ProductDtos.PriceBucketFacet(new BigDecimal("50"), null, 1)), all.priceBuckets());
+
+        // 1 numarali urun Audio'ya tasinir ve pahalanir; Books'ta tek urun kalir
+        facets.onProductChanged(changed(product(1L, "60.00", 3, 20L, "Audio")));
+        ProductDtos.FacetsResponse books = facets.facets(10L);
+        assertEquals(1, books.total());
+        assertEquals(0, books.inStock());
+        assertEquals(List.of(0L, 1L, 0L), books.priceBuckets().stream().map(ProductDtos.PriceBucketFacet::count).toList());
+        assertEquals(List.of(0L, 0L, 2L), facets.facets(20L).priceBuckets().stream().map(ProductDtos.PriceBucketFacet::count).toList());
+
+        facets.onProductChanged(new CatalogEvents.ProductChanged(2L, Set.of(10L), null));
+        assertEquals(List.of(20L), facets.facets(null).categories().stream().map(ProductDtos.CategoryFacet::id).toList());
+        assertEquals(0, facets.facets(10L).total());
+    }
+
+    @Test
+    void stockChanged_readsTheNewStockBack() {
+        facets.onProductChanged(changed(product(1L, "5.00", 1, 10L, "Books")));
+        when(productService.getAll(Set.of(1L))).thenReturn(List.of(product(1L, "5.00", 0, 10L, "Books")));
+
+        facets.onStockChanged(new CatalogEvents.StockChanged(Set.of(1L), Set.of(10L)));
+
+        assertEquals(1, facets.facets(null).total());
+        assertEquals(0, facets.facets(null).inStock());
+    }
+
+    @Test
+    void categoryChanged_renamesTheFacet() {
+        facets.onProductChanged(changed(product(1L, "5.00", 1, 10L, "Books")));
+        Category renamed = new Category();
+        renamed.setId(10L);
+        renamed.setName("E-Books");
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(renamed));
+
+        facets.onCategoryChanged(new CatalogEvents.CategoryChanged(10L));
+
+        assertEquals("E-Books", facets.facets(null).categories().get(0).name());
+    }
+
+    private static CatalogEvents.ProductChanged changed(ProductDtos.ProductResponse p) {
+        return new CatalogEvents.ProductChanged(p.id(), Set.of(p.categoryId()), p);
+    }
+
+    private static ProductDtos.ProductResponse product(Long id, String price, int stock, Long categoryId, String categoryName) {
+        return new ProductDtos.ProductResponse(id, "Product " + id, "SKU-" + id, new BigDecimal(price), stock,
+                categoryId, categoryName, 1);
+    }
+}
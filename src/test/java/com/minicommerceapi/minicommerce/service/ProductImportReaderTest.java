@@ -0,0 +1,119 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImportReaderTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @BeforeAll
+    static void init() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void close() {
+        factory.close();
+    }
+
+    @Test
+    void csv_mapsColumnsByHeader_andHandlesQuotes() throws IOException {
+        List<ProductImportReader.Row> rows = read(ProductImportService.Format.CSV, """
+                sku,categoryId,name,stock,price,ignored
+                SKU-1,7,"Pen, blue",10,2.50,x
+                 SKU-2 ,7,"The ""Best"" Book",0,12,
+
+                SKU-3,7,Mug,5,4.00
+                """);
+
+        assertEquals(3, rows.size());
+        ProductImportReader.Row pen = rows.get(0);
+        assertTrue(pen.valid());
+        assertEquals(2, pen.line());
+        assertEquals("Pen, blue", pen.request().name());
+        assertEquals(0, new BigDecimal("2.50").compareTo(pen.request().price()));
+        assertEquals(10, pen.request().stock());
+        assertEquals(7L, pen.request().categoryId());
+        assertEquals("SKU-2", rows.get(1).sku());
+        assertEquals("The \"Best\" Book", rows.get(1).request().name());
+        // Bos satir atlanir ama satir numarasi sayilir
+        assertEquals(5, rows.get(2).line());
+    }
+
+    @Test
+    void csv_invalidRows_carryTheirError() throws IOException {
+        List<ProductImportReader.Row> rows = read(ProductImportService.Format.CSV, """
+                name,sku,price,stock,categoryId
+                Pen,SKU-1,abc,1,1
+                Pen,SKU-2,1.00,,1
+                Pen,SKU-3,0,1,1
+                ,SKU-4,1.00,1,1
+                "Pen,SKU-5,1.00,1,1
+                """);
+
+        assertEquals("price: not a number", rows.get(0).error());
+        assertEquals("stock: must not be null", rows.get(1).error());
+        assertTrue(rows.get(2).error().startsWith("price: "));
+        assertEquals("SKU-3", rows.get(2).sku());
+        assertTrue(rows.get(3).error().startsWith("name: "));
+        assertEquals("Unterminated quoted field", rows.get(4).error());
+        assertNull(rows.get(4).sku());
+    }
+
+    @Test
+    void csv_withoutRequiredColumns_isRejected() {
+        assertThrows(BadRequestException.class, () -> read(ProductImportService.Format.CSV, "name,sku,price\nPen,SKU-1,1.00\n"));
+        assertThrows(BadRequestException.class, () -> read(ProductImportService.Format.CSV, ""));
+    }
+
+    @Test
+    void ndjson_readsRequests_andReportsBadLines() throws IOException {
+        List<ProductImportReader.Row> rows = read(ProductImportService.Format.NDJSON, """
+                {"name":"Pen","sku":" SKU-1 ","price":2.5,"stock":3,"categoryId":1}
+                {"name":"Pen",
+                {"name":"Pen","sku":"SKU-2","price":2.5,"stock":-1,"categoryId":1}
+                """);
+
+        assertTrue(rows.get(0).valid());
+        assertEquals("SKU-1", rows.get(0).sku());
+        assertEquals("Invalid JSON", rows.get(1).error());
+        assertEquals(2, rows.get(1).line());
+        assertTrue(rows.get(2).error().startsWith("stock: "));
+    }
+
+    @Test
+    void split_handlesEmptyAndQuotedFields() {
+        assertEquals(List.of("a", "", "b,c", ""), ProductImportReader.split("a,,\"b,c\","));
+        assertEquals(List.of(""), ProductImportReader.split(""));
+    }
+
+    private List<ProductImportReader.Row> read(ProductImportService.Format format, String body) throws IOException {
+        List<ProductImportReader.Row> rows = new ArrayList<>();
+        try (ProductImportReader reader = new ProductImportReader(format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), jsonMapper, validator)) {
+            for (ProductImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
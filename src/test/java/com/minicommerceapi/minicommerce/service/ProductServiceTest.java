@@ -3,19 +3,36 @@ package com.minicommerceapi.minicommerce.service;
 import com.minicommerceapi.minicommerce.domain.Category;
 import com.minicommerceapi.minicommerce.domain.Product;
 import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.ConflictException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.CategoryRepository;
+import com.minicommerceapi.minicommerce.repo.ProductKey;
+import com.minicommerceapi.minicommerce.repo.ProductRatingRepository;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ProductRow;
+import com.minicommerceapi.minicommerce.service.price.ProductPriceIndex;
+import com.minicommerceapi.minicommerce.service.stock.ShardedStockService;
+import com.minicommerceapi.minicommerce.service.stock.StockLedger;
+import com.minicommerceapi.minicommerce.util.EntityTag;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +42,18 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private CategoryRepository categoryRepository;
+    @Mock
+    private StockLedger stockLedger;
+    @Mock
+    private ShardedStockService shardedStock;
+    @Mock
+    private ApplicationEventPublisher events;
+    @Mock
+    private UniquenessGuard uniqueness;
+    @Mock
+    private ProductPriceIndex priceIndex;
+    @Mock
+    private ProductRatingRepository ratingRepository;
     @InjectMocks
     private ProductService productService;
 
@@ -32,6 +61,8 @@ class ProductServiceTest {
     void setUp() {
         // Suppress try-with-resources warning for MockitoAnnotations in test lifecycle
         MockitoAnnotations.openMocks(this);
+        // Filtre her zaman "belki var" der: kontrol depoya duser.
+        when(uniqueness.exists(any(), anyString(), any())).thenAnswer(inv -> inv.<BooleanSupplier>getArgument(2).getAsBoolean());
     }
 
     @Test
@@ -59,6 +90,24 @@ class ProductServiceTest {
         assertEquals(10, resp.stock());
         assertEquals(1L, resp.categoryId());
         assertEquals("TestCat", resp.categoryName());
+        verify(uniqueness).add(UniquenessGuard.Key.SKU, "SKU123");
+    }
+
+    @Test
+    void create_shouldSkipSkuQuery_whenGuardRulesItOut() {
+        ProductDtos.CreateProductRequest req = new ProductDtos.CreateProductRequest("Test Product", " SKU123 ", new BigDecimal("100.0"), 10, 1L);
+        Category cat = new Category();
+        cat.setId(1L);
+        Product saved = new Product();
+        saved.setId(1L);
+        saved.setSku("SKU123");
+        saved.setCategory(cat);
+        when(uniqueness.exists(eq(UniquenessGuard.Key.SKU), eq("SKU123"), any())).thenReturn(false);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(cat));
+        when(productRepository.save(any(Product.class))).thenReturn(saved);
+
+        productService.create(req);
+        verify(productRepository, never()).existsBySku(anyString());
     }
 
     @Test
@@ -77,59 +126,65 @@ class ProductServiceTest {
     }
 
     @Test
-    void list_shouldReturnAllProducts_whenCategoryIdNull() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findAll()).thenReturn(List.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        List<ProductDtos.ProductResponse> result = productService.list(null);
-        assertEquals(1, result.size());
-        ProductDtos.ProductResponse resp = result.get(0);
+    @SuppressWarnings("unchecked")
+    void list_shouldReturnPage_withCursorWhenMoreRowsExist() {
+        List<ProductRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            rows.add(new ProductRow(id, "P" + id, "S" + id, new BigDecimal("1.0"), 1, 1L, "C", 1, Instant.EPOCH, 0L, Instant.EPOCH, 0L, Instant.EPOCH));
+        }
+        when(productRepository.findRows(any(Specification.class), any(Sort.class), eq(3))).thenReturn(rows);
+
+        ProductDtos.ProductPage page = productService.list(new ProductDtos.ProductPageRequest(1L, "price", "asc", null, 2));
+        assertEquals(2, page.items().size());
+        ProductDtos.ProductResponse resp = page.items().get(0);
         assertEquals(1L, resp.categoryId());
         assertEquals("C", resp.categoryName());
+        assertEquals(List.of("price", "asc", "2", "1.0"), List.of(KeysetCursor.decode(page.nextCursor(), 4)));
     }
 
     @Test
-    void list_shouldReturnProductsByCategory_whenCategoryIdGiven() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findByCategoryId(1L)).thenReturn(List.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        List<ProductDtos.ProductResponse> result = productService.list(1L);
-        assertEquals(1, result.size());
-        ProductDtos.ProductResponse resp = result.get(0);
-        assertEquals(1L, resp.categoryId());
-        assertEquals("C", resp.categoryName());
+    @SuppressWarnings("unchecked")
+    void list_shouldRejectInvalidSortDirectionLimitAndCursor() {
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(null, "stock", null, null, 10)));
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(null, "id", "sideways", null, 10)));
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(null, "id", "asc", null, 0)));
+        assertThrows(BadRequestException.class,
+                () -> productService.list(new ProductDtos.ProductPageRequest(null, "id", "asc", null, ProductService.MAX_PAGE_SIZE + 1)));
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(null, "id", "asc", "nope", 10)));
+        String nameCursor = KeysetCursor.encode("name", "asc", 5L, "Pen");
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(null, "price", "asc", nameCursor, 10)));
+        verify(productRepository, never()).findRows(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_shouldTakePriceBandIdsFromTheIndex_whenReady() {
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.byPrice(7L, 1000L, 2000L, true, null, null, 3)).thenReturn(new long[]{4L});
+        when(productRepository.findRows(any(Specification.class), any(Sort.class), eq(3))).thenReturn(List.of(
+                new ProductRow(4L, "P4", "S4", new BigDecimal("15.00"), 1, 7L, "C", 1, Instant.EPOCH, 0L, Instant.EPOCH, 0L, Instant.EPOCH)));
+
+        ProductDtos.ProductPage page = productService.list(new ProductDtos.ProductPageRequest(
+                7L, "price", "asc", null, 2, new BigDecimal("9.995"), new BigDecimal("20.00")));
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        verify(priceIndex).byPrice(7L, 1000L, 2000L, true, null, null, 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_shouldRejectInvalidPriceBand() {
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(
+                null, "id", "asc", null, 10, new BigDecimal("5"), new BigDecimal("4.99"))));
+        assertThrows(BadRequestException.class, () -> productService.list(new ProductDtos.ProductPageRequest(
+                null, "id", "asc", null, 10, new BigDecimal("-1"), null)));
+        verify(productRepository, never()).findRows(any(Specification.class), any(Sort.class), anyInt());
     }
 
     @Test
     void get_shouldReturnProduct_whenExists() {
-        Category category = new Category();
-        category.setId(1L);
-        category.setName("C");
-        Product p = mock(Product.class);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(p));
-        when(p.getCategory()).thenReturn(category);
-        when(p.getId()).thenReturn(1L);
-        when(p.getName()).thenReturn("P");
-        when(p.getSku()).thenReturn("S");
-        when(p.getPrice()).thenReturn(new BigDecimal("1.0"));
-        when(p.getStock()).thenReturn(1);
-        // No need to stub getCategory().getId() or getCategory().getName() on the mock, use real Category
+        when(productRepository.findRowById(1L)).thenReturn(Optional.of(
+                new ProductRow(1L, "P", "S", new BigDecimal("1.0"), 1, 1L, "C", 1, Instant.EPOCH, 0L, Instant.EPOCH, 0L, Instant.EPOCH)));
         ProductDtos.ProductResponse resp = productService.get(1L);
         assertEquals(1L, resp.id());
         assertEquals("P", resp.name());
@@ -138,11 +193,36 @@ class ProductServiceTest {
         assertEquals(1, resp.stock());
         assertEquals(1L, resp.categoryId());
         assertEquals("C", resp.categoryName());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void get_shouldSumShards_forShardedProduct() {
+        when(productRepository.findRowById(1L)).thenReturn(Optional.of(
+                new ProductRow(1L, "P", "S", new BigDecimal("1.0"), 0, 1L, "C", 4, Instant.EPOCH, 0L, Instant.EPOCH, 0L, Instant.EPOCH)));
+        when(shardedStock.total(1L)).thenReturn(40);
+        assertEquals(40, productService.get(1L).stock());
+    }
+
+    @Test
+    void getTagged_hashesTheRowItRead_andSumsShardsOncePerRead() {
+        when(productRepository.findRowById(1L)).thenReturn(
+                Optional.of(new ProductRow(1L, "P", "S", new BigDecimal("1.0"), 0, 1L, "C", 4, Instant.EPOCH, 3L, Instant.EPOCH, 0L, Instant.EPOCH)),
+                Optional.of(new ProductRow(1L, "P", "S", new BigDecimal("1.0"), 0, 1L, "C", 4, Instant.EPOCH, 4L, Instant.EPOCH, 0L, Instant.EPOCH)));
+        when(shardedStock.total(1L)).thenReturn(40);
+
+        EntityTag.Tagged<ProductDtos.ProductResponse> first = productService.getTagged(1L);
+        EntityTag.Tagged<ProductDtos.ProductResponse> second = productService.getTagged(1L);
+
+        assertEquals(40, first.body().stock());
+        assertNotEquals(first.tag().value(), second.tag().value());
+        verify(shardedStock, times(2)).total(1L);
+        verify(productRepository, times(2)).findRowById(1L);
     }
 
     @Test
     void get_shouldThrowNotFoundException_whenNotExists() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findRowById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> productService.get(1L));
     }
 
@@ -164,7 +244,7 @@ class ProductServiceTest {
         c2.setId(2L);
         c2.setName("C2");
         when(categoryRepository.findById(2L)).thenReturn(Optional.of(c2));
-        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest("New", "SKU2", new BigDecimal("20.0"), 10, 2L);
+        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest("New", "SKU2", new BigDecimal("20.0"), 10, 2L, null);
         ProductDtos.ProductResponse resp = productService.patch(1L, req);
         assertEquals("New", resp.name());
         assertEquals("SKU2", resp.sku());
@@ -172,12 +252,13 @@ class ProductServiceTest {
         assertEquals(10, resp.stock());
         assertEquals(2L, resp.categoryId());
         assertEquals("C2", resp.categoryName());
+        verify(events).publishEvent(new CatalogEvents.ProductChanged(1L, Set.of(1L, 2L), resp));
     }
 
     @Test
     void patch_shouldThrowNotFoundException_whenProductNotFound() {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
-        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, null, null, null, null);
+        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, null, null, null, null, null);
         assertThrows(NotFoundException.class, () -> productService.patch(1L, req));
     }
 
@@ -188,7 +269,7 @@ class ProductServiceTest {
         p.setSku("SKU1");
         when(productRepository.findById(1L)).thenReturn(Optional.of(p));
         when(productRepository.existsBySku("SKU2")).thenReturn(true);
-        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, "SKU2", null, null, null);
+        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, "SKU2", null, null, null, null);
         assertThrows(ConflictException.class, () -> productService.patch(1L, req));
     }
 
@@ -200,21 +281,67 @@ class ProductServiceTest {
         when(productRepository.findById(1L)).thenReturn(Optional.of(p));
         when(productRepository.existsBySku(anyString())).thenReturn(false);
         when(categoryRepository.findById(2L)).thenReturn(Optional.empty());
-        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, null, null, null, 2L);
+        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, null, null, null, 2L, null);
         assertThrows(NotFoundException.class, () -> productService.patch(1L, req));
     }
 
+    @Test
+    void patch_shouldReshardStock_whenStockShardsChanges() {
+        Product p = new Product();
+        p.setId(1L);
+        p.setSku("SKU1");
+        p.setStock(100);
+        Category c = new Category();
+        c.setId(1L);
+        p.setCategory(c);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(p));
+        doAnswer(invocation -> {
+            p.setStockShards(invocation.getArgument(1));
+            p.setStock(0);
+            return null;
+        }).when(shardedStock).reshard(p, 4);
+        when(shardedStock.total(1L)).thenReturn(100);
+
+        ProductDtos.ProductResponse resp = productService.patch(1L, new ProductDtos.PatchProductRequest(null, null, null, null, null, 4));
+
+        verify(shardedStock).reshard(p, 4);
+        assertEquals(4, resp.stockShards());
+        assertEquals(100, resp.stock());
+    }
+
+    @Test
+    void patch_shouldRejectSharding_whenStockLedgerEnabled() {
+        Product p = new Product();
+        p.setId(1L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(p));
+        when(stockLedger.isEnabled()).thenReturn(true);
+        ProductDtos.PatchProductRequest req = new ProductDtos.PatchProductRequest(null, null, null, null, null, 8);
+        assertThrows(BadRequestException.class, () -> productService.patch(1L, req));
+        verify(shardedStock, never()).reshard(any(), anyInt());
+    }
+
     @Test
     void delete_shouldDelete_whenProductExists() {
-        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.findKeyById(1L)).thenReturn(Optional.of(new ProductKey(1L, "SKU-1", 3L, 1)));
         doNothing().when(productRepository).deleteById(1L);
         assertDoesNotThrow(() -> productService.delete(1L));
         verify(productRepository, times(1)).deleteById(1L);
+        verify(ratingRepository).deleteByProductId(1L);
+        verify(shardedStock, never()).deleteShards(any());
+        verify(events).publishEvent(new CatalogEvents.ProductChanged(1L, Set.of(3L), null));
+    }
+
+    @Test
+    void delete_shouldDeleteShards_onlyForShardedProducts() {
+        when(productRepository.findKeyById(1L)).thenReturn(Optional.of(new ProductKey(1L, "SKU-1", 3L, 4)));
+        productService.delete(1L);
+        verify(shardedStock).deleteShards(1L);
+        verify(productRepository).deleteById(1L);
     }
 
     @Test
     void delete_shouldThrowNotFoundException_whenProductNotExists() {
-        when(productRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.findKeyById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> productService.delete(1L));
     }
 }
\ No newline at end of file
@@ -4,21 +4,27 @@ import com.minicommerceapi.minicommerce.domain.Product;
 import com.minicommerceapi.minicommerce.domain.Review;
 import com.minicommerceapi.minicommerce.domain.User;
 import com.minicommerceapi.minicommerce.dto.ReviewDtos;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
 import com.minicommerceapi.minicommerce.exception.NotFoundException;
 import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRating;
 import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRow;
 import com.minicommerceapi.minicommerce.repo.UserRepository;
+import com.minicommerceapi.minicommerce.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class ReviewServiceTest {
@@ -28,6 +34,10 @@ class ReviewServiceTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ProductRatingService ratings;
+    @Mock
+    private ReviewWriteBehind writeBehind;
     @InjectMocks
     private ReviewService reviewService;
 
@@ -54,6 +64,7 @@ class ReviewServiceTest {
         assertEquals(2L, resp.productId());
         assertEquals(5, resp.rating());
         assertEquals("Great!", resp.comment());
+        verify(ratings).added(2L, 5);
     }
 
     @Test
@@ -73,25 +84,65 @@ class ReviewServiceTest {
     }
 
     @Test
-    void list_shouldReturnAllReviews_whenProductIdNull() {
-        User user = new User(); user.setId(1L);
-        Product product = new Product(); product.setId(2L);
-        Review review = new Review(); review.setId(1L); review.setUser(user); review.setProduct(product);
-        when(reviewRepository.findAll()).thenReturn(List.of(review));
-        List<ReviewDtos.ReviewResponse> result = reviewService.list(null);
-        assertEquals(1, result.size());
-        assertEquals(1L, result.get(0).id());
+    void submit_shouldQueueReview_withoutLoadingUserOrProduct() {
+        ReviewDtos.CreateReviewRequest req = new ReviewDtos.CreateReviewRequest(1L, 2L, 4, "Nice");
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(writeBehind.enqueue(any(Review.class))).thenReturn("p-1");
+
+        ReviewDtos.ReviewAccepted accepted = reviewService.submit(req);
+
+        assertEquals(new ReviewDtos.ReviewAccepted("p-1", 1L, 2L, 4, "Nice"), accepted);
+        verify(writeBehind).enqueue(argThat(r -> r.getUser().getId() == 1L && r.getProduct().getId() == 2L && r.getRating() == 4));
+        verify(userRepository, never()).findById(any());
+        verify(reviewRepository, never()).save(any());
+        verifyNoInteractions(ratings);
     }
 
     @Test
-    void list_shouldReturnReviewsForProduct_whenProductIdGiven() {
-        User user = new User(); user.setId(1L);
-        Product product = new Product(); product.setId(2L);
-        Review review = new Review(); review.setId(1L); review.setUser(user); review.setProduct(product);
-        when(reviewRepository.findByProductId(2L)).thenReturn(List.of(review));
-        List<ReviewDtos.ReviewResponse> result = reviewService.list(2L);
-        assertEquals(1, result.size());
-        assertEquals(1L, result.get(0).id());
+    void submit_shouldThrow_andQueueNothing_whenProductNotFound() {
+        ReviewDtos.CreateReviewRequest req = new ReviewDtos.CreateReviewRequest(1L, 2L, 4, null);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> reviewService.submit(req));
+        verify(writeBehind, never()).enqueue(any());
+    }
+
+    @Test
+    void pending_shouldMapOutcome_orThrowWhenUnknown() {
+        when(writeBehind.outcome("p-1")).thenReturn(new ReviewWriteBehind.Outcome(ReviewWriteBehind.Status.WRITTEN, 7L, null));
+        assertEquals(new ReviewDtos.PendingReview("p-1", "WRITTEN", 7L, null), reviewService.pending("p-1"));
+        assertThrows(NotFoundException.class, () -> reviewService.pending("p-2"));
+    }
+
+    @Test
+    void list_shouldMapRowsWithoutLoadingEntities() {
+        when(reviewRepository.findRows(any(), any(), anyInt()))
+                .thenReturn(List.of(new ReviewRow(1L, 3L, 2L, 4, "Fine", Instant.ofEpochMilli(1000))));
+        ReviewDtos.ReviewPage page = reviewService.list(new ReviewDtos.ReviewPageRequest(2L, null, null, null, 10));
+        assertEquals(List.of(new ReviewDtos.ReviewResponse(1L, 3L, 2L, 4, "Fine")), page.items());
+        assertNull(page.nextCursor());
+        verify(reviewRepository, never()).findAll();
+    }
+
+    @Test
+    void list_shouldFetchOneExtraRow_andIssueACursorForTheSort() {
+        when(reviewRepository.findRows(any(), eq(Sort.by(Sort.Direction.DESC, "rating", "id")), eq(3)))
+                .thenReturn(List.of(new ReviewRow(9L, 1L, 2L, 5, null, Instant.ofEpochMilli(1000)),
+                        new ReviewRow(4L, 1L, 2L, 5, null, Instant.ofEpochMilli(2000)),
+                        new ReviewRow(7L, 1L, 2L, 3, null, Instant.ofEpochMilli(3000))));
+        ReviewDtos.ReviewPage page = reviewService.list(new ReviewDtos.ReviewPageRequest(2L, "rating", "desc", null, 2));
+        assertEquals(2, page.items().size());
+        assertArrayEquals(new String[]{"rating", "desc", "4", "5"}, KeysetCursor.decode(page.nextCursor(), 4));
+    }
+
+    @Test
+    void list_shouldRejectInvalidSortLimitOrForeignCursor() {
+        assertThrows(BadRequestException.class, () -> reviewService.list(new ReviewDtos.ReviewPageRequest(2L, "comment", null, null, 10)));
+        assertThrows(BadRequestException.class, () -> reviewService.list(new ReviewDtos.ReviewPageRequest(2L, null, "up", null, 10)));
+        assertThrows(BadRequestException.class, () -> reviewService.list(new ReviewDtos.ReviewPageRequest(2L, null, null, null, 0)));
+        String ratingCursor = KeysetCursor.encode("rating", "desc", 4L, 5);
+        assertThrows(BadRequestException.class, () -> reviewService.list(new ReviewDtos.ReviewPageRequest(2L, "createdAt", null, ratingCursor, 10)));
     }
 
     @Test
@@ -121,6 +172,7 @@ class ReviewServiceTest {
         assertEquals(5, review.getRating());
         assertEquals("updated", review.getComment());
         assertEquals(1L, resp.id());
+        verify(ratings).changed(2L, 3, 5);
     }
 
     @Test
@@ -132,14 +184,16 @@ class ReviewServiceTest {
 
     @Test
     void delete_shouldDelete_whenExists() {
-        when(reviewRepository.existsById(1L)).thenReturn(true);
+        when(reviewRepository.findRatingById(1L)).thenReturn(Optional.of(new ReviewRating(2L, 4)));
         reviewService.delete(1L);
         verify(reviewRepository).deleteById(1L);
+        verify(ratings).removed(2L, 4);
     }
 
     @Test
     void delete_shouldThrow_whenNotFound() {
-        when(reviewRepository.existsById(1L)).thenReturn(false);
+        when(reviewRepository.findRatingById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> reviewService.delete(1L));
+        verify(ratings, never()).removed(any(), anyInt());
     }
 }
\ No newline at end of file
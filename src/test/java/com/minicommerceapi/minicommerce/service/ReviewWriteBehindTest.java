@@ -0,0 +1,231 @@
+package com.minicommerceapi.minicommerce.service;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.Review;
+import com.minicommerceapi.minicommerce.domain.User;
+import com.minicommerceapi.minicommerce.exception.ServiceUnavailableException;
+import com.minicommerceapi.minicommerce.repo.ProductRepository;
+import com.minicommerceapi.minicommerce.repo.ReviewRating;
+import com.minicommerceapi.minicommerce.repo.ReviewRepository;
+import com.minicommerceapi.minicommerce.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReviewWriteBehindTest {
+
+    private ReviewRepository reviewRepository;
+    private ProductRepository productRepository;
+    private UserRepository userRepository;
+    private ProductRatingService ratings;
+    private SimpleMeterRegistry registry;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Set<Long> deletedProducts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private volatile boolean gated;
+    private ReviewWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = mock(ReviewRepository.class);
+        productRepository = mock(ProductRepository.class);
+        userRepository = mock(UserRepository.class);
+        ratings = mock(ProductRatingService.class);
+        registry = new SimpleMeterRegistry();
+        doAnswer(invocation -> {
+            List<Review> reviews = invocation.getArgument(0);
+            if (gated) {
+                gate.await(5, TimeUnit.SECONDS);
+            }
+            if (reviews.stream().anyMatch(r -> r.getProduct().getId() == 99L)) {
+                throw new IllegalStateException("[SQLITE_CONSTRAINT] insert into reviews ...");
+            }
+            synchronized (batchSizes) {
+                batchSizes.add(reviews.size());
+            }
+            reviews.forEach(r -> r.setId(ids.incrementAndGet()));
+            return null;
+        }).when(reviewRepository).insertAll(anyList());
+        when(productRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0)
+                .stream().filter(id -> !deletedProducts.contains(id)).toList());
+        when(userRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void reviewsQueuedTogether_areWrittenInOneBatch_withOneRatingUpdate() {
+        writeBehind = start(100, 3, 5000, 100);
+
+        List<String> queued = List.of(writeBehind.enqueue(review(1L, 5)), writeBehind.enqueue(review(1L, 4)),
+                writeBehind.enqueue(review(2L, 5)));
+
+        queued.forEach(id -> awaitStatus(id, ReviewWriteBehind.Status.WRITTEN));
+        assertEquals(List.of(3), batchSizes);
+        assertEquals(List.of(1L, 2L, 3L), queued.stream().map(id -> writeBehind.outcome(id).id()).toList());
+        verify(ratings).addedAll(List.of(new ReviewRating(1L, 5), new ReviewRating(1L, 4), new ReviewRating(2L, 5)));
+        assertEquals(3, registry.get(ReviewWriteBehind.REVIEWS_METRIC).tag("result", "written").counter().count());
+        assertEquals(1, registry.get(ReviewWriteBehind.FLUSH_METRIC).timer().count());
+    }
+
+    @Test
+    void fullQueue_rejectsAfterTheOfferTimeout() {
+        writeBehind = start(1, 10, 0, 20);
+        gated = true;
+
+        String first = writeBehind.enqueue(review(1L, 5));
+        awaitDepth(0); // yazici ilk yorumu aldi ve kapida bekliyor
+        String second = writeBehind.enqueue(review(1L, 4));
+
+        ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+                () -> writeBehind.enqueue(review(1L, 3)));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+        assertEquals(1, writeBehind.depth());
+        assertEquals(1, registry.get(ReviewWriteBehind.QUEUE_METRIC).gauge().value());
+        assertEquals(1, registry.get(ReviewWriteBehind.REVIEWS_METRIC).tag("result", "rejected").counter().count());
+
+        gate.countDown();
+        awaitStatus(first, ReviewWriteBehind.Status.WRITTEN);
+        awaitStatus(second, ReviewWriteBehind.Status.WRITTEN);
+    }
+
+    @Test
+    void failedBatch_isRetriedOneByOne_andOnlyTheBadReviewFails() {
+        writeBehind = start(100, 3, 5000, 100);
+
+        String good = writeBehind.enqueue(review(1L, 5));
+        String bad = writeBehind.enqueue(review(99L, 5));
+        String other = writeBehind.enqueue(review(2L, 2));
+
+        awaitStatus(good, ReviewWriteBehind.Status.WRITTEN);
+        awaitStatus(other, ReviewWriteBehind.Status.WRITTEN);
+        ReviewWriteBehind.Outcome failed = awaitStatus(bad, ReviewWriteBehind.Status.FAILED);
+        // Surucu mesaji disari sizmaz
+        assertEquals(ReviewWriteBehind.WRITE_FAILED, failed.error());
+        assertEquals(List.of(1, 1), batchSizes);
+        assertEquals(1, registry.get(ReviewWriteBehind.REVIEWS_METRIC).tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void reviewOfADeletedProduct_failsAlone_withoutAnOrphanRowOrRating() {
+        deletedProducts.add(7L);
+        writeBehind = start(100, 3, 5000, 100);
+
+        String good = writeBehind.enqueue(review(1L, 5));
+        String orphan = writeBehind.enqueue(review(7L, 4));
+        String other = writeBehind.enqueue(review(2L, 2));
+
+        awaitStatus(good, ReviewWriteBehind.Status.WRITTEN);
+        awaitStatus(other, ReviewWriteBehind.Status.WRITTEN);
+        assertEquals("Product not found", awaitStatus(orphan, ReviewWriteBehind.Status.FAILED).error());
+        assertEquals(List.of(3), batchSizes);
+        verify(reviewRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(ratings).addedAll(List.of(new ReviewRating(1L, 5), new ReviewRating(2L, 2)));
+        assertEquals(2, registry.get(ReviewWriteBehind.REVIEWS_METRIC).tag("result", "written").counter().count());
+        assertEquals(1, registry.get(ReviewWriteBehind.REVIEWS_METRIC).tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void shutdown_drainsTheQueue_andRejectsNewReviews() {
+        writeBehind = start(100, 10, 0, 100);
+        gated = true;
+        String first = writeBehind.enqueue(review(1L, 5));
+        awaitDepth(0);
+        List<String> rest = List.of(writeBehind.enqueue(review(1L, 4)), writeBehind.enqueue(review(2L, 3)));
+
+        gate.countDown();
+        writeBehind.shutdown();
+
+        assertEquals(ReviewWriteBehind.Status.WRITTEN, writeBehind.outcome(first).status());
+        rest.forEach(id -> assertEquals(ReviewWriteBehind.Status.WRITTEN, writeBehind.outcome(id).status()));
+        assertEquals(0, writeBehind.depth());
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.enqueue(review(1L, 5)));
+    }
+
+    @Test
+    void disabled_startsNoWriter() {
+        writeBehind = newWriteBehind(false, 100, 10, 0, 100);
+        writeBehind.afterSingletonsInstantiated();
+
+        assertFalse(writeBehind.isEnabled());
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.enqueue(review(1L, 5)));
+        assertNull(writeBehind.outcome("unknown"));
+    }
+
+    private ReviewWriteBehind start(int capacity, int batchSize, long maxWaitMs, long offerTimeoutMs) {
+        ReviewWriteBehind started = newWriteBehind(true, capacity, batchSize, maxWaitMs, offerTimeoutMs);
+        started.afterSingletonsInstantiated();
+        return started;
+    }
+
+    private ReviewWriteBehind newWriteBehind(boolean enabled, int capacity, int batchSize, long maxWaitMs, long offerTimeoutMs) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        return new ReviewWriteBehind(enabled, capacity, batchSize, maxWaitMs, offerTimeoutMs, 1000, 5000,
+                reviewRepository, productRepository, userRepository, ratings, mock(PlatformTransactionManager.class), beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    private ReviewWriteBehind.Outcome awaitStatus(String provisionalId, ReviewWriteBehind.Status status) {
+        long deadline = System.currentTimeMillis() + 5000;
+        ReviewWriteBehind.Outcome outcome = writeBehind.outcome(provisionalId);
+        while (outcome.status() != status && System.currentTimeMillis() < deadline) {
+            sleep();
+            outcome = writeBehind.outcome(provisionalId);
+        }
+        assertEquals(status, outcome.status());
+        return outcome;
+    }
+
+    private void awaitDepth(int depth) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writeBehind.depth() != depth && System.currentTimeMillis() < deadline) {
+            sleep();
+        }
+        assertEquals(depth, writeBehind.depth());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Review review(Long productId, int rating) {
+        User user = new User();
+        user.setId(1L);
+        Product product = new Product();
+        product.setId(productId);
+        Review review = new Review();
+        review.setUser(user);
+        review.setProduct(product);
+        review.setRating(rating);
+        return review;
+    }
+}
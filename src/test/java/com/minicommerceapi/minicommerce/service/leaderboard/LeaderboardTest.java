@@ -0,0 +1,57 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private final Leaderboard board = new Leaderboard();
+
+    @Test
+    void top_ordersByScoreThenId_overallAndPerCategory() {
+        board.update(1, 10, 4.5);
+        board.update(2, 10, 3.0);
+        board.update(3, 20, 4.5);
+        board.update(4, 20, 5.0);
+
+        assertEquals(List.of(4L, 1L, 3L, 2L), ids(board.top(null, 10)));
+        assertEquals(List.of(4L, 1L), ids(board.top(null, 2)));
+        assertEquals(List.of(1L, 2L), ids(board.top(10L, 10)));
+        assertEquals(List.of(), ids(board.top(99L, 10)));
+    }
+
+    @Test
+    void update_movesProductsBetweenScoresAndCategories() {
+        board.update(1, 10, 4.5);
+        board.update(2, 10, 3.0);
+
+        board.update(2, 20, 5.0);
+        board.update(1, 10, 1.0);
+
+        assertEquals(List.of(2L, 1L), ids(board.top(null, 10)));
+        assertEquals(List.of(1L), ids(board.top(10L, 10)));
+        assertEquals(List.of(2L), ids(board.top(20L, 10)));
+        assertEquals(2, board.size());
+    }
+
+    @Test
+    void zeroScore_andRemove_unrankTheProduct() {
+        board.update(1, 10, 2.0);
+        board.update(2, 10, 1.0);
+
+        board.update(1, 10, 0);
+        board.remove(2);
+        board.remove(3);
+
+        assertEquals(0, board.size());
+        assertEquals(List.of(), ids(board.top(null, 10)));
+        assertEquals(List.of(), ids(board.top(10L, 10)));
+    }
+
+    private static List<Long> ids(List<Leaderboard.Ranked> ranked) {
+        return ranked.stream().map(Leaderboard.Ranked::productId).toList();
+    }
+}
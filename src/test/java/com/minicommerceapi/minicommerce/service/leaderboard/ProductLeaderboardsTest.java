@@ -0,0 +1,218 @@
+package com.minicommerceapi.minicommerce.service.leaderboard;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import com.minicommerceapi.minicommerce.exception.BadRequestException;
+import com.minicommerceapi.minicommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductLeaderboardsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductService productService;
+    private TestClock clock;
+    private ProductLeaderboards leaderboards;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        productService = mock(ProductService.class);
+        when(productService.getAll(anyCollection())).thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0))
+                .stream().map(id -> new ProductDtos.ProductResponse(id, "P" + id, "SKU-" + id, BigDecimal.TEN, 1, 10L, "C", 1))
+                .toList());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        clock = new TestClock(Instant.parse("2026-03-02T10:00:00Z"));
+        leaderboards = leaderboards(null);
+        leaderboards.onProductsCreated(new CatalogEvents.ProductsCreated(List.of(product(1, 10), product(2, 10), product(3, 20)),
+                Set.of(10L, 20L)));
+    }
+
+    @Test
+    void topRated_pullsFewReviewsTowardsThePrior() {
+        rating(1, 1, 5);      // (3*10 + 5) / 11 = 3.18
+        rating(2, 100, 450);  // (3*10 + 450) / 110 = 4.36
+
+        List<ProductDtos.LeaderboardEntry> top = leaderboards.topRated(null, 10);
+
+        assertEquals(List.of(2L, 1L), ids(top));
+        assertEquals(new BigDecimal("4.36"), top.get(0).score());
+        assertEquals(100, top.get(0).reviews());
+        assertEquals(List.of(1, 2), top.stream().map(ProductDtos.LeaderboardEntry::rank).toList());
+        assertEquals(List.of(), ids(leaderboards.topRated(20L, 10)));
+    }
+
+    @Test
+    void ratingChanged_rereadsTheAggregate() {
+        rating(1, 2, 10);
+        rating(1, 0, 0);
+
+        assertEquals(List.of(), ids(leaderboards.topRated(null, 10)));
+    }
+
+    @Test
+    void bestSellers_countTheLastSevenDays() {
+        order(1L, Map.of(1L, 5, 2L, 3));
+        clock.advance(Duration.ofDays(3));
+        order(2L, Map.of(2L, 4, 3L, 1));
+
+        List<ProductDtos.LeaderboardEntry> top = leaderboards.bestSellers(null, 10);
+        assertEquals(List.of(2L, 1L, 3L), ids(top));
+        assertEquals(new BigDecimal("7"), top.get(0).score());
+        assertEquals(7, top.get(0).unitsSold());
+        assertEquals(List.of(2L, 1L), ids(leaderboards.bestSellers(10L, 10)));
+
+        // 7 gun sonra ilk gunun satislari pencereden cikar
+        clock.advance(Duration.ofDays(4));
+        top = leaderboards.bestSellers(null, 10);
+        assertEquals(List.of(2L, 3L), ids(top));
+        assertEquals(4, top.get(0).unitsSold());
+
+        clock.advance(Duration.ofDays(7));
+        assertEquals(List.of(), ids(leaderboards.bestSellers(null, 10)));
+    }
+
+    @Test
+    void ordersCoveredByTheRebuildScan_areNotCountedTwice() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(5L);
+        leaderboards.rebuild();
+        leaderboards.onProductsCreated(new CatalogEvents.ProductsCreated(List.of(product(1, 10)), Set.of(10L)));
+
+        order(5L, Map.of(1L, 9));
+        order(6L, Map.of(1L, 2));
+
+        assertEquals(2, leaderboards.bestSellers(null, 10).get(0).unitsSold());
+    }
+
+    @Test
+    void deletedProduct_leavesBothBoards_andMovedProductChangesCategory() {
+        rating(1, 3, 15);
+        rating(2, 3, 15);
+        order(1L, Map.of(1L, 1, 2L, 1));
+
+        leaderboards.onProductChanged(new CatalogEvents.ProductChanged(1L, Set.of(10L), null));
+        leaderboards.onProductChanged(new CatalogEvents.ProductChanged(2L, Set.of(10L, 20L), product(2, 20)));
+
+        assertEquals(List.of(2L), ids(leaderboards.topRated(null, 10)));
+        assertEquals(List.of(2L), ids(leaderboards.bestSellers(20L, 10)));
+        assertEquals(List.of(), ids(leaderboards.bestSellers(10L, 10)));
+    }
+
+    @Test
+    void limitOutOfRange_isRejected() {
+        assertThrows(BadRequestException.class, () -> leaderboards.topRated(null, 0));
+        assertThrows(BadRequestException.class, () -> leaderboards.bestSellers(null, ProductLeaderboards.MAX_LIMIT + 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshot_restoresTheSalesOnce_andRereadsTheRatings() throws Exception {
+        Path file = dir.resolve("leaderboards.snapshot");
+        ProductLeaderboards first = leaderboards(file.toString());
+        first.onProductsCreated(new CatalogEvents.ProductsCreated(List.of(product(1, 10), product(2, 10)), Set.of(10L)));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(1L))).thenReturn(List.of(new long[]{4, 18}));
+        first.onRatingChanged(new CatalogEvents.RatingChanged(1L));
+        first.onProductsOrdered(new CatalogEvents.ProductsOrdered(7L, Map.of(2L, 3)));
+        first.save();
+        assertTrue(Files.exists(file));
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(7L);
+        // Goruntu yazildiktan sonra gelen yorum: ozet tablodan okunur
+        ResultSet ratings = mock(ResultSet.class);
+        when(ratings.getLong(1)).thenReturn(1L);
+        when(ratings.getLong(2)).thenReturn(5L);
+        when(ratings.getLong(3)).thenReturn(23L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(ratings);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("select product_id, review_count"), any(RowCallbackHandler.class));
+        ProductLeaderboards restored = leaderboards(file.toString());
+        restored.load();
+
+        assertFalse(Files.exists(file));
+        assertEquals(List.of(1L), ids(restored.topRated(null, 10)));
+        assertEquals(5, restored.topRated(null, 10).get(0).reviews());
+        assertEquals(3, restored.bestSellers(null, 10).get(0).unitsSold());
+        // geri yuklenen siparis tekrar sayilmaz
+        restored.onProductsOrdered(new CatalogEvents.ProductsOrdered(7L, Map.of(2L, 3)));
+        assertEquals(3, restored.bestSellers(null, 10).get(0).unitsSold());
+    }
+
+    private ProductLeaderboards leaderboards(String snapshotFile) {
+        return new ProductLeaderboards(jdbcTemplate, productService, clock, 3.0, 10, snapshotFile);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rating(long productId, long count, long sum) {
+        List<long[]> row = count == 0 ? List.of() : List.<long[]>of(new long[]{count, sum});
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(productId))).thenReturn(row);
+        leaderboards.onRatingChanged(new CatalogEvents.RatingChanged(productId));
+    }
+
+    private void order(Long orderId, Map<Long, Integer> units) {
+        leaderboards.onProductsOrdered(new CatalogEvents.ProductsOrdered(orderId, units));
+    }
+
+    private static ProductDtos.ProductResponse product(long id, long categoryId) {
+        return new ProductDtos.ProductResponse(id, "P" + id, "SKU-" + id, BigDecimal.TEN, 1, categoryId, "C", 1);
+    }
+
+    private static List<Long> ids(List<ProductDtos.LeaderboardEntry> entries) {
+        return entries.stream().map(e -> e.product().id()).toList();
+    }
+
+    private static final class TestClock extends Clock {
+        private Instant now;
+
+        TestClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.minicommerceapi.minicommerce.service.price;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceListTest {
+
+    @Test
+    void keepsPairsSortedByPriceThenId() {
+        PriceList list = new PriceList();
+        list.add(500, 3);
+        list.add(100, 9);
+        list.add(500, 1);
+        list.add(100, 9);
+        assertEquals(3, list.size());
+        assertEquals(List.of(9L, 1L, 3L), List.of(list.idAt(0), list.idAt(1), list.idAt(2)));
+        assertEquals(500, list.centsAt(1));
+
+        assertEquals(1, list.position(500, Long.MIN_VALUE));
+        assertEquals(2, list.position(500, 2));
+        assertEquals(3, list.position(501, Long.MIN_VALUE));
+
+        assertTrue(list.remove(500, 1));
+        assertFalse(list.remove(500, 1));
+        assertFalse(list.remove(400, 3));
+        assertEquals(List.of(9L, 3L), List.of(list.idAt(0), list.idAt(1)));
+    }
+
+    @Test
+    void matchesTreeSet_underRandomOperations() {
+        Random random = new Random(7);
+        PriceList list = new PriceList();
+        TreeSet<long[]> expected = new TreeSet<>(Comparator.<long[]>comparingLong(p -> p[0]).thenComparingLong(p -> p[1]));
+        for (int i = 0; i < 5_000; i++) {
+            long[] pair = {random.nextInt(50) * 100L, 1 + random.nextInt(300)};
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(pair), list.remove(pair[0], pair[1]));
+            } else if (expected.add(pair)) {
+                list.add(pair[0], pair[1]);
+            }
+        }
+        list.trim();
+        assertEquals(expected.size(), list.size());
+        int pos = 0;
+        for (long[] pair : expected) {
+            assertEquals(pair[0], list.centsAt(pos));
+            assertEquals(pair[1], list.idAt(pos++));
+        }
+    }
+}
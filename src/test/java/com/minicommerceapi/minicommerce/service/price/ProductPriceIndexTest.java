@@ -0,0 +1,115 @@
+package com.minicommerceapi.minicommerce.service.price;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex(null);
+        put(1, 1L, "5.00");
+        put(2, 1L, "12.50");
+        put(3, 2L, "12.50");
+        put(4, 1L, "30.00");
+        put(5, 2L, "7.99");
+    }
+
+    @Test
+    void cents_areUnscaledHundredths() {
+        assertEquals(1250, ProductPriceIndex.cents(new BigDecimal("12.5")));
+        assertEquals(0, ProductPriceIndex.cents(BigDecimal.ZERO));
+    }
+
+    @Test
+    void byPrice_walksTheBandInBothDirections() {
+        assertEquals(List.of(5L, 2L, 3L), ids(index.byPrice(null, 700, 1250, true, null, null, 10)));
+        assertEquals(List.of(3L, 2L, 5L), ids(index.byPrice(null, 700, 1250, false, null, null, 10)));
+        assertEquals(List.of(2L, 4L), ids(index.byPrice(1L, 1000, Long.MAX_VALUE, true, null, null, 10)));
+        assertEquals(List.of(1L, 5L), ids(index.byPrice(null, 0, Long.MAX_VALUE, true, null, null, 2)));
+        assertEquals(List.of(), ids(index.byPrice(9L, 0, Long.MAX_VALUE, true, null, null, 10)));
+    }
+
+    @Test
+    void byPrice_continuesAfterTheCursorRow() {
+        // esit fiyatta id sirasi: (12.50, 2) sonrasi (12.50, 3)
+        assertEquals(List.of(3L, 4L), ids(index.byPrice(null, 0, Long.MAX_VALUE, true, 1250L, 2L, 10)));
+        assertEquals(List.of(2L, 5L, 1L), ids(index.byPrice(null, 0, Long.MAX_VALUE, false, 1250L, 3L, 10)));
+    }
+
+    @Test
+    void byId_sortsTheBandById() {
+        assertEquals(List.of(2L, 3L, 5L), ids(index.byId(null, 700, 1250, true, null, 10)));
+        assertEquals(List.of(5L, 3L), ids(index.byId(null, 700, 1250, false, null, 2)));
+        assertEquals(List.of(3L, 5L), ids(index.byId(null, 700, 1250, true, 2L, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.byId(null, 700, 1250, false, 4L, 10)));
+    }
+
+    @Test
+    void byId_givesTheSamePages_whetherItSortsTheBandOrWalksById() {
+        Random random = new Random(7);
+        index = new ProductPriceIndex(null);
+        long[][] products = new long[2000][];
+        for (int i = 0; i < products.length; i++) {
+            long id = i + 1;
+            long categoryId = random.nextInt(3);
+            long cents = random.nextInt(100) * 100L;
+            products[i] = new long[]{id, categoryId, cents};
+            put(id, categoryId, cents / 100 + ".00");
+        }
+        // dar bant: dilim siralanir; genis bant: id sirasinda yurunur ve sayfa dolunca durur
+        for (long[] band : new long[][]{{4200, 4300}, {0, Long.MAX_VALUE}, {1000, 9000}}) {
+            for (Long categoryId : new Long[]{null, 1L}) {
+                for (boolean ascending : new boolean[]{true, false}) {
+                    for (Long afterId : new Long[]{null, 777L}) {
+                        List<Long> expected = Arrays.stream(products)
+                                .filter(p -> p[2] >= band[0] && p[2] <= band[1])
+                                .filter(p -> categoryId == null || p[1] == categoryId)
+                                .map(p -> p[0])
+                                .filter(id -> afterId == null || (ascending ? id > afterId : id < afterId))
+                                .sorted(ascending ? Comparator.<Long>naturalOrder() : Comparator.<Long>reverseOrder())
+                                .limit(20)
+                                .toList();
+                        assertEquals(expected, ids(index.byId(categoryId, band[0], band[1], ascending, afterId, 20)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void events_moveAndRemoveProducts() {
+        put(2, 2L, "40.00");
+        index.onProductChanged(new CatalogEvents.ProductChanged(1L, Set.of(1L), null));
+        index.onProductsCreated(new CatalogEvents.ProductsCreated(List.of(response(6, 1L, "1.00")), Set.of(1L)));
+
+        assertEquals(List.of(6L, 4L), ids(index.byPrice(1L, 0, Long.MAX_VALUE, true, null, null, 10)));
+        assertEquals(List.of(5L, 3L, 2L), ids(index.byPrice(2L, 0, Long.MAX_VALUE, true, null, null, 10)));
+        assertEquals(5, index.size());
+    }
+
+    private void put(long id, Long categoryId, String price) {
+        index.onProductChanged(new CatalogEvents.ProductChanged(id, Set.of(categoryId), response(id, categoryId, price)));
+    }
+
+    private static ProductDtos.ProductResponse response(long id, Long categoryId, String price) {
+        return new ProductDtos.ProductResponse(id, "P" + id, "S" + id, new BigDecimal(price), 1, categoryId, "C", 1);
+    }
+
+    private static List<Long> ids(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.minicommerceapi.minicommerce.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListTest {
+
+    @Test
+    void appendsInsertsAndRemoves_keepingIdsSorted() {
+        PostingList list = new PostingList();
+        assertTrue(list.add(5));
+        assertTrue(list.add(300));
+        assertTrue(list.add(2));
+        assertTrue(list.add(70_000_000_000L));
+        assertFalse(list.add(300));
+        assertArrayEquals(new long[]{2, 5, 300, 70_000_000_000L}, list.toArray());
+
+        assertTrue(list.remove(5));
+        assertFalse(list.remove(6));
+        assertFalse(list.remove(80_000_000_000L));
+        assertArrayEquals(new long[]{2, 300, 70_000_000_000L}, list.toArray());
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    void matchesTreeSet_underRandomOperations() {
+        Random random = new Random(42);
+        PostingList list = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), list.remove(id));
+            } else {
+                assertEquals(expected.add(id), list.add(id));
+            }
+        }
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toArray());
+    }
+
+    @Test
+    void denseIds_takeAboutOneBytePerPosting() {
+        PostingList list = new PostingList();
+        for (long id = 1_000_000; id < 1_100_000; id += 3) {
+            list.add(id);
+        }
+        list.trim();
+        // ilk bosluk 3 bayt, sonrakiler 1'er bayt
+        assertEquals(list.size() + 2, list.sizeInBytes());
+    }
+
+    @Test
+    void rejectsNonPositiveIds() {
+        assertThrows(IllegalArgumentException.class, () -> new PostingList().add(0));
+    }
+}
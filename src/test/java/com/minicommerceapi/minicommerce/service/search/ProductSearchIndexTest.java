@@ -0,0 +1,114 @@
+package com.minicommerceapi.minicommerce.service.search;
+
+import com.minicommerceapi.minicommerce.dto.ProductDtos;
+import com.minicommerceapi.minicommerce.event.CatalogEvents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null);
+        put(1, "Crème Brûlée Torch", "KIT-TORCH-01");
+        put(2, "Kitchen Torch Lighter", "LIGHT-22");
+        put(3, "Wireless Ergonomic Keyboard", "KB-100");
+        put(4, "Wireless Mouse", "MS-200");
+        put(5, "Keyboard Cover", "KB-COVER");
+    }
+
+    @Test
+    void tokenize_foldsLikeSlugs() {
+        assertEquals(List.of("creme", "brulee", "torch"), ProductSearchIndex.tokenize("Crème  Brûlée/TORCH torch"));
+        assertEquals(List.of(), ProductSearchIndex.tokenize(" -- "));
+    }
+
+    @Test
+    void exactSearch_requiresEveryTerm_andIgnoresAccents() {
+        assertEquals(List.of(1L), ids(index.search("creme brulee", false, false, 10)));
+        assertEquals(List.of(3L), ids(index.search("wireless KEYBOARD", false, false, 10)));
+        assertEquals(List.of(), ids(index.search("wireless torch", false, false, 10)));
+    }
+
+    @Test
+    void ranking_prefersSkuMatches_thenShorterNames() {
+        // "torch" 1'de hem adda hem SKU'da, 2'de yalnizca adda
+        assertEquals(List.of(1L, 2L), ids(index.search("torch", false, false, 10)));
+        // ikisi de adda eslesir; kisa ad once
+        assertEquals(List.of(5L, 3L), ids(index.search("keyboard", false, false, 10)));
+        // esit skor ve esit uzunlukta dusuk id once
+        put(7, "Keyboard Stand", "KS-1");
+        assertEquals(List.of(5L, 7L, 3L), ids(index.search("keyboard", false, false, 10)));
+        assertEquals(List.of(1L), ids(index.search("torch", false, false, 1)));
+    }
+
+    @Test
+    void prefixMode_completesOnlyTheLastTerm() {
+        assertEquals(List.of(3L), ids(index.search("wireless k", true, false, 10)));
+        assertEquals(List.of(3L), ids(index.search("wireless keyb", true, false, 10)));
+        assertEquals(List.of(), ids(index.search("wire keyboard", true, false, 10)));
+        // tam eslesme onekten once gelir
+        put(6, "Key Ring", "KR-1");
+        assertEquals(List.of(6L, 5L, 3L), ids(index.search("key", true, false, 10)));
+    }
+
+    @Test
+    void fuzzyMode_toleratesTypos() {
+        assertEquals(List.of(), ids(index.search("keybaord", false, false, 10)));
+        assertEquals(List.of(5L, 3L), ids(index.search("keybaord", false, true, 10)));
+        assertEquals(List.of(4L), ids(index.search("wireles mous", false, true, 10)));
+        // kisa terimler icin yazim toleransi yok
+        assertEquals(List.of(), ids(index.search("kv", false, true, 10)));
+    }
+
+    @Test
+    void fuzzyMode_visitsABoundedNumberOfTermsClosestToTheQuery() {
+        put(6, "Kmyboard Stand", "ST-1");
+        assertEquals(Set.of(3L, 5L, 6L), Set.copyOf(ids(index.search("keybaord", false, true, 10))));
+
+        // "keybaord" ile "kmyboard" arasina sinirdan fazla "k" terimi girer: uzaktaki eslesme artik denenmez
+        for (int i = 0; i < ProductSearchIndex.MAX_FUZZY_TERMS; i++) {
+            put(100 + i, String.format("kf%06d", i), "F-" + i);
+        }
+        assertEquals(List.of(5L, 3L), ids(index.search("keybaord", false, true, 10)));
+    }
+
+    @Test
+    void updatesAndDeletes_areReflected() {
+        index.onProductChanged(new CatalogEvents.ProductChanged(3L, Set.of(1L), response(3, "Mechanical Keyboard", "KB-100")));
+        assertEquals(List.of(3L), ids(index.search("mechanical", false, false, 10)));
+        assertEquals(List.of(4L), ids(index.search("wireless", false, false, 10)));
+
+        index.onProductChanged(new CatalogEvents.ProductChanged(4L, Set.of(1L), null));
+        assertEquals(List.of(), ids(index.search("wireless", false, false, 10)));
+        assertEquals(List.of(), ids(index.search("mouse", false, false, 10)));
+        assertEquals(4, index.stats().products());
+    }
+
+    @Test
+    void editDistance_countsSwapsAsOneEdit() {
+        assertEquals(1, ProductSearchIndex.editDistance("keybaord", "keyboard", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("mous", "mouse", 2));
+        assertEquals(3, ProductSearchIndex.editDistance("abcdef", "uvwxyz", 2));
+    }
+
+    private void put(long id, String name, String sku) {
+        index.onProductChanged(new CatalogEvents.ProductChanged(id, Set.of(1L), response(id, name, sku)));
+    }
+
+    private static ProductDtos.ProductResponse response(long id, String name, String sku) {
+        return new ProductDtos.ProductResponse(id, name, sku, BigDecimal.ONE, 1, 1L, "C", 1);
+    }
+
+    private static List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.minicommerceapi.minicommerce.service.stock;
+
+import com.minicommerceapi.minicommerce.domain.Product;
+import com.minicommerceapi.minicommerce.domain.ProductStockShard;
+import com.minicommerceapi.minicommerce.repo.ProductStockShardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShardedStockServiceTest {
+    @Mock
+    private ProductStockShardRepository shardRepository;
+    @InjectMocks
+    private ShardedStockService shardedStock;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void decrement_shouldStopAtFirstShardThatCoversQuantity() {
+        when(shardRepository.decrement(eq(1L), anyInt(), eq(2))).thenReturn(0, 1);
+
+        assertTrue(shardedStock.decrement(1L, 4, 2));
+        verify(shardRepository, times(2)).decrement(eq(1L), anyInt(), eq(2));
+        verify(shardRepository, never()).findByProductIdOrderByShardNo(any());
+    }
+
+    @Test
+    void decrement_shouldSpanShards_whenNoSingleShardIsEnough() {
+        when(shardRepository.decrement(1L, 0, 5)).thenReturn(0);
+        when(shardRepository.decrement(1L, 1, 5)).thenReturn(0);
+        when(shardRepository.findByProductIdOrderByShardNo(1L)).thenReturn(List.of(shard(0, 3), shard(1, 3)));
+        when(shardRepository.decrement(1L, 0, 3)).thenReturn(1);
+        when(shardRepository.decrement(1L, 1, 2)).thenReturn(1);
+
+        assertTrue(shardedStock.decrement(1L, 2, 5));
+        verify(shardRepository).decrement(1L, 0, 3);
+        verify(shardRepository).decrement(1L, 1, 2);
+    }
+
+    @Test
+    void decrement_shouldFail_whenShardsTogetherAreShort() {
+        when(shardRepository.findByProductIdOrderByShardNo(1L)).thenReturn(List.of(shard(0, 1), shard(1, 2)));
+
+        assertFalse(shardedStock.decrement(1L, 2, 4));
+        verify(shardRepository, never()).decrement(1L, 0, 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enable_shouldSpreadStockEvenly() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStock(10);
+
+        shardedStock.enable(product, 4);
+
+        ArgumentCaptor<List<ProductStockShard>> captor = ArgumentCaptor.forClass(List.class);
+        verify(shardRepository).saveAll(captor.capture());
+        assertEquals(List.of(3, 3, 2, 2), captor.getValue().stream().map(ProductStockShard::getStock).toList());
+        assertEquals(0, product.getStock());
+        assertEquals(4, product.getStockShards());
+    }
+
+    @Test
+    void disable_shouldFoldShardsBackIntoProduct() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStockShards(4);
+        when(shardRepository.sumStock(1L)).thenReturn(7L);
+
+        shardedStock.disable(product);
+
+        verify(shardRepository).deleteByProductId(1L);
+        assertEquals(7, product.getStock());
+        assertFalse(product.isStockSharded());
+    }
+
+    @Test
+    void shards_isLoadedOnStartup_andFollowsShardingChanges() {
+        when(shardRepository.countShardsPerProduct()).thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+        shardedStock.afterSingletonsInstantiated();
+        assertEquals(4, shardedStock.shards(1L));
+        assertEquals(1, shardedStock.shards(2L));
+
+        Product product = new Product();
+        product.setId(2L);
+        product.setStock(9);
+        shardedStock.enable(product, 3);
+        assertEquals(3, shardedStock.shards(2L));
+
+        shardedStock.deleteShards(1L);
+        assertEquals(1, shardedStock.shards(1L));
+    }
+
+    private static ProductStockShard shard(int shardNo, int stock) {
+        ProductStockShard shard = new ProductStockShard();
+        shard.setShardNo(shardNo);
+        shard.setStock(stock);
+        return shard;
+    }
+}
@@ -0,0 +1,71 @@
+package com.minicommerceapi.minicommerce.service.stock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StockJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_shouldReturnRecordsAfterCheckpoint_acrossRestart() {
+        try (StockJournal journal = new StockJournal(dir, false)) {
+            journal.append(new long[]{1L, 2L}, new int[]{3, 4}, 2);
+            journal.roll();
+            journal.append(new long[]{1L}, new int[]{-1}, 1);
+        }
+
+        try (StockJournal reopened = new StockJournal(dir, false)) {
+            assertThat(reopened.lastSeq()).isEqualTo(3);
+            List<String> records = new ArrayList<>();
+            reopened.replay(1, (seq, productId, delta) -> records.add(seq + ":" + productId + ":" + delta));
+            assertThat(records).containsExactly("2:2:4", "3:1:-1");
+        }
+    }
+
+    @Test
+    void deleteUpTo_shouldRemoveOnlyCoveredSegments() throws IOException {
+        try (StockJournal journal = new StockJournal(dir, false)) {
+            journal.append(new long[]{1L}, new int[]{1}, 1);
+            long cut = journal.roll();
+            journal.append(new long[]{1L}, new int[]{1}, 1);
+            journal.roll();
+
+            journal.deleteUpTo(cut);
+
+            List<Long> seqs = new ArrayList<>();
+            journal.replay(0, (seq, productId, delta) -> seqs.add(seq));
+            assertThat(seqs).containsExactly(2L);
+        }
+    }
+
+    @Test
+    void replay_shouldIgnoreTornTail() throws IOException {
+        try (StockJournal journal = new StockJournal(dir, false)) {
+            journal.append(new long[]{5L}, new int[]{2}, 1);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> p.toString().endsWith(".journal")).sorted().findFirst().orElseThrow();
+        }
+        // yarim kalmis ikinci kayit
+        Files.write(segment, new byte[StockJournal.RECORD_SIZE - 3], StandardOpenOption.APPEND);
+
+        try (StockJournal reopened = new StockJournal(dir, false)) {
+            List<Long> seqs = new ArrayList<>();
+            reopened.replay(0, (seq, productId, delta) -> seqs.add(seq));
+            assertThat(seqs).containsExactly(1L);
+            assertThat(reopened.append(new long[]{5L}, new int[]{1}, 1)).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.minicommerceapi.minicommerce.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares, grouped by statement kind.
+ * Registered for the "test" profile through application-test.properties so that
+ * tests and benchmarks can assert on query counts instead of timings alone.
+ * The SQLite dialect reads generated ids with {@code select last_insert_rowid()} after every
+ * insert; those round trips are counted separately so {@link #selects()} only reflects real reads.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicLong SELECTS = new AtomicLong();
+    private static final AtomicLong INSERTS = new AtomicLong();
+    private static final AtomicLong UPDATES = new AtomicLong();
+    private static final AtomicLong DELETES = new AtomicLong();
+    private static final AtomicLong IDENTITY_FETCHES = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (head.contains("last_insert_rowid()")) {
+            IDENTITY_FETCHES.incrementAndGet();
+        } else if (head.startsWith("select") || head.startsWith("with")) {
+            SELECTS.incrementAndGet();
+        } else if (head.startsWith("insert")) {
+            INSERTS.incrementAndGet();
+        } else if (head.startsWith("update")) {
+            UPDATES.incrementAndGet();
+        } else if (head.startsWith("delete")) {
+            DELETES.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        SELECTS.set(0);
+        INSERTS.set(0);
+        UPDATES.set(0);
+        DELETES.set(0);
+        IDENTITY_FETCHES.set(0);
+    }
+
+    public static long selects() {
+        return SELECTS.get();
+    }
+
+    public static long inserts() {
+        return INSERTS.get();
+    }
+
+    public static long updates() {
+        return UPDATES.get();
+    }
+
+    public static long deletes() {
+        return DELETES.get();
+    }
+
+    public static long identityFetches() {
+        return IDENTITY_FETCHES.get();
+    }
+
+    public static long total() {
+        return selects() + inserts() + updates() + deletes() + identityFetches();
+    }
+}
@@ -0,0 +1,88 @@
+package com.minicommerceapi.minicommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BloomFilterTest {
+    @Test
+    void addedValues_areAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("SKU-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("SKU-" + i)).isTrue();
+        }
+        // Hicbir biti degistirmeyen (zaten "belki var" denen) ekleme sayilmaz
+        assertThat(filter.insertions()).isBetween(9_900L, 10_000L);
+        for (int i = 10_000; !filter.isSaturated(); i++) {
+            filter.put("SKU-" + i);
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void falsePositiveRate_staysNearConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 50_000; i < 150_000; i++) {
+            if (filter.mightContain("user" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void put_reportsWhetherTheFilterChanged() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assertThat(filter.mightContain("books")).isFalse();
+        assertThat(filter.put("books")).isTrue();
+        assertThat(filter.put("books")).isFalse();
+        assertThat(filter.insertions()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentPuts_areNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.put(thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(filter.mightContain(t + "-" + i)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void invalidSizing_isRejected() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.minicommerceapi.minicommerce.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagTest {
+
+    private static final Instant T = Instant.parse("2026-01-02T03:04:05Z");
+
+    @Test
+    void value_isAStableQuotedHashOfKindAndValues() {
+        String a = EntityTag.of("product").add(1L).add(7L).value();
+
+        assertEquals(a, EntityTag.of("product").add(1L).add(7L).value());
+        assertTrue(a.startsWith("\"") && a.endsWith("\""));
+        assertNotEquals(a, EntityTag.of("product").add(1L).add(8L).value());
+        assertNotEquals(a, EntityTag.of("category").add(1L).add(7L).value());
+        assertNotEquals(EntityTag.of("x").add("ab").add("c").value(), EntityTag.of("x").add("a").add("bc").value());
+    }
+
+    @Test
+    void notModified_matchesIfNoneMatch_andSetsHeaders() {
+        EntityTag tag = EntityTag.of("product").add(1L).modifiedAt(T);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("If-None-Match", tag.value());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(EntityTag.notModified(tag, new ServletWebRequest(request, response)));
+        assertEquals(304, response.getStatus());
+        assertEquals(tag.value(), response.getHeader("ETag"));
+        assertEquals(T.toEpochMilli(), response.getDateHeader("Last-Modified"));
+    }
+
+    @Test
+    void notModified_usesTheLatestTime_andCanOmitIt() {
+        EntityTag tag = EntityTag.of("product").modifiedAt(T).modifiedAt(T.minusSeconds(60)).modifiedAt(null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("If-Modified-Since", T.toEpochMilli());
+        assertTrue(EntityTag.notModified(tag, new ServletWebRequest(request, new MockHttpServletResponse())));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(EntityTag.notModified(EntityTag.of("product").modifiedAt(T).withoutLastModified(),
+                new ServletWebRequest(request, response)));
+        assertNull(response.getHeader("Last-Modified"));
+        assertNotNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void missingResource_neverMatches() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("If-None-Match", "*");
+        assertFalse(EntityTag.notModified(null, new ServletWebRequest(request, new MockHttpServletResponse())));
+    }
+}
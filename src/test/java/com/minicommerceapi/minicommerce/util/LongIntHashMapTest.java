@@ -0,0 +1,66 @@
+package com.minicommerceapi.minicommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LongIntHashMapTest {
+    @Test
+    void putGetAddTo_shouldBehaveLikeAMap() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(7L, 10);
+        assertThat(map.get(7L, -1)).isEqualTo(10);
+        assertThat(map.get(8L, -1)).isEqualTo(-1);
+        assertThat(map.addTo(7L, -3)).isEqualTo(7);
+        assertThat(map.addTo(9L, 5)).isEqualTo(5);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void remove_shouldKeepOtherKeysReachable() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long k = 1; k <= 200; k++) {
+            map.put(k, (int) k);
+        }
+        for (long k = 1; k <= 200; k += 2) {
+            assertThat(map.remove(k)).isTrue();
+        }
+        assertThat(map.size()).isEqualTo(100);
+        for (long k = 1; k <= 200; k++) {
+            assertThat(map.containsKey(k)).isEqualTo(k % 2 == 0);
+        }
+        assertThat(map.remove(1L)).isFalse();
+    }
+
+    @Test
+    void randomOperations_shouldMatchHashMap() {
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = 1 + random.nextInt(500);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    map.put(key, i);
+                    reference.put(key, i);
+                }
+                case 1 -> assertThat(map.addTo(key, 1)).isEqualTo(reference.merge(key, 1, Integer::sum));
+                default -> assertThat(map.remove(key)).isEqualTo(reference.remove(key) != null);
+            }
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        Map<Long, Integer> copy = new HashMap<>();
+        map.forEach(copy::put);
+        assertThat(copy).isEqualTo(reference);
+    }
+
+    @Test
+    void zeroKey_shouldBeRejected() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThatThrownBy(() -> map.put(0L, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -52,4 +52,10 @@ class SlugUtilTest {
     void slugify_shouldHandleAlreadySlugged() {
         assertThat(SlugUtil.slugify("already-slugged-string")).isEqualTo("already-slugged-string");
     }
-}
\ No newline at end of file
+
+    @Test
+    void fold_shouldStripAccentsAndLowercase_keepingOtherCharacters() {
+        assertThat(SlugUtil.fold("Crème BRÛLÉE, 2x")).isEqualTo("creme brulee, 2x");
+        assertThat(SlugUtil.fold(null)).isEqualTo("");
+    }
+}